@@ -0,0 +1,84 @@
+package com.lettr.benchmarks;
+
+import com.lettr.services.audience.contacts.ContactRowReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second, and with {@code -prof gc} bytes allocated per row
+ * ({@code gc.alloc.rate.norm}), for reading contact files with
+ * {@link ContactRowReader}. Each invocation reads a whole file of
+ * {@value #ROWS} rows, so scores are per row.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContactRowReaderBenchmark {
+
+    static final int ROWS = 100_000;
+
+    private Path csv;
+    private Path ndjson;
+
+    @Setup
+    public void writeFiles() throws IOException {
+        csv = Files.createTempFile("lettr-contacts", ".csv");
+        ndjson = Files.createTempFile("lettr-contacts", ".ndjson");
+        try (BufferedWriter out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            out.write("email,first_name,last_name,plan,company,list_ids\n");
+            for (int i = 0; i < ROWS; i++) {
+                out.write("user" + i + "@example.com,First" + i + ",Last" + i + ",pro,\"Acme, Inc.\",01h-a;01h-b\n");
+            }
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(ndjson, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < ROWS; i++) {
+                out.write("{\"email\":\"user" + i + "@example.com\",\"properties\":{\"first_name\":\"First" + i
+                        + "\",\"last_name\":\"Last" + i + "\",\"plan\":\"pro\",\"company\":\"Acme, Inc.\"},"
+                        + "\"list_ids\":[\"01h-a\",\"01h-b\"]}\n");
+            }
+        }
+    }
+
+    @TearDown
+    public void deleteFiles() throws IOException {
+        Files.deleteIfExists(csv);
+        Files.deleteIfExists(ndjson);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void csv(Blackhole blackhole) throws IOException {
+        try (ContactRowReader rows = ContactRowReader.csv(csv)) {
+            rows.forEachRemaining(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void ndjson(Blackhole blackhole) throws IOException {
+        try (ContactRowReader rows = ContactRowReader.ndjson(ndjson)) {
+            rows.forEachRemaining(blackhole::consume);
+        }
+    }
+}
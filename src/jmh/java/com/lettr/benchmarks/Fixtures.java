@@ -0,0 +1,128 @@
+package com.lettr.benchmarks;
+
+import com.lettr.services.emails.model.CreateEmailOptions;
+import com.lettr.services.emails.model.EmailOptions;
+import com.lettr.services.emails.model.ListEmailEventsParams;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Representative payloads shared by the benchmarks. */
+public final class Fixtures {
+
+    private Fixtures() {}
+
+    /** A transactional send with the fields a typical integration fills in. */
+    public static CreateEmailOptions createEmailOptions() {
+        Map<String, String> substitutions = new LinkedHashMap<>();
+        substitutions.put("first_name", "Ada");
+        substitutions.put("order_id", "ORD-2024-000123");
+        substitutions.put("total", "149.90");
+        Map<String, String> metadata = new LinkedHashMap<>();
+        metadata.put("customer_id", "cus_8f3a2b");
+        metadata.put("source", "checkout");
+        StringBuilder html = new StringBuilder("<html><body><h1>Thanks for your order, {{first_name}}!</h1>");
+        for (int i = 0; i < 20; i++) {
+            html.append("<tr><td>Item ").append(i).append("</td><td>€").append(i * 3).append(".90</td></tr>");
+        }
+        html.append("</body></html>");
+
+        return CreateEmailOptions.builder()
+                .from("orders@shop.example.com")
+                .fromName("Example Shop")
+                .to("ada@example.com")
+                .bcc("audit@shop.example.com")
+                .subject("Your order {{order_id}}")
+                .html(html.toString())
+                .text("Thanks for your order, {{first_name}}!")
+                .tag("order-confirmation")
+                .substitutionData(substitutions)
+                .metadata(metadata)
+                .options(EmailOptions.builder().clickTracking(true).openTracking(true).transactional(true).build())
+                .build();
+    }
+
+    /**
+     * A newsletter-sized send whose HTML body is about {@code htmlChars}
+     * characters of mixed Latin-1 and non-Latin-1 text.
+     */
+    public static CreateEmailOptions largeCreateEmailOptions(int htmlChars) {
+        StringBuilder html = new StringBuilder(htmlChars + 64).append("<html><body>");
+        for (int i = 0; html.length() < htmlChars; i++) {
+            html.append("<p class=\"item\">Article ").append(i).append(" – “Größe” ändert sich, 50 € off</p>\n");
+        }
+        html.append("</body></html>");
+        return CreateEmailOptions.builder()
+                .from("news@shop.example.com")
+                .to("ada@example.com")
+                .subject("This week at Example Shop")
+                .html(html.toString())
+                .build();
+    }
+
+    public static ListEmailEventsParams listEmailEventsParams() {
+        return ListEmailEventsParams.builder()
+                .events(Arrays.asList("delivery", "bounce", "open", "click"))
+                .recipients(Arrays.asList("ada@example.com", "bob+tag@example.com"))
+                .from("2024-01-01T00:00:00Z")
+                .to("2024-01-31T23:59:59Z")
+                .perPage(100)
+                .cursor("eyJpZCI6MTIzNDU2Nzg5MH0=")
+                .build();
+    }
+
+    /** A {@code GET /emails/events} response envelope with {@code count} events. */
+    public static String emailEventsPage(int count) {
+        StringBuilder json = new StringBuilder("{\"message\":\"Events retrieved\",\"data\":{\"events\":{\"data\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"event_id\":\"evt_").append(i).append("\",\"type\":\"delivery\",")
+                    .append("\"timestamp\":\"2024-01-15T10:").append(10 + i % 50).append(":00.000Z\",")
+                    .append("\"request_id\":\"req_").append(i / 10).append("\",")
+                    .append("\"message_id\":\"msg_").append(i).append("\",")
+                    .append("\"subject\":\"Your order ORD-").append(i).append("\",")
+                    .append("\"friendly_from\":\"Example Shop <orders@shop.example.com>\",")
+                    .append("\"sending_domain\":\"shop.example.com\",")
+                    .append("\"rcpt_to\":\"user").append(i).append("@example.com\",")
+                    .append("\"raw_rcpt_to\":\"user").append(i).append("@example.com\",")
+                    .append("\"recipient_domain\":\"example.com\",")
+                    .append("\"mailbox_provider\":\"Gmail\",\"mailbox_provider_region\":\"Global\",")
+                    .append("\"sending_ip\":\"192.0.2.").append(i % 255).append("\",")
+                    .append("\"click_tracking\":true,\"open_tracking\":true,\"transactional\":true,")
+                    .append("\"msg_size\":").append(12_000 + i).append(',')
+                    .append("\"injection_time\":\"2024-01-15T10:29:59.000Z\",")
+                    .append("\"rcpt_meta\":{\"customer_id\":\"cus_").append(i).append("\"},")
+                    .append("\"rcpt_tags\":[\"order-confirmation\"],")
+                    .append("\"ip_pool\":\"transactional\",\"delv_method\":\"esmtp\"}");
+        }
+        json.append("],\"total_count\":").append(count * 10)
+                .append(",\"from\":\"2024-01-01\",\"to\":\"2024-01-31\",")
+                .append("\"pagination\":{\"next_cursor\":\"eyJpZCI6MTAwMH0=\",\"per_page\":").append(count)
+                .append("}}}}");
+        return json.toString();
+    }
+
+    /** A {@code GET /audience/contacts} response envelope with {@code count} contacts. */
+    public static String audienceContactsPage(int count) {
+        StringBuilder json = new StringBuilder("{\"message\":\"Contacts retrieved\",\"data\":{\"contacts\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":\"01h-contact-").append(i).append("\",")
+                    .append("\"email\":\"user").append(i).append("@example.com\",")
+                    .append("\"status\":\"subscribed\",")
+                    .append("\"properties\":{\"first_name\":\"First").append(i)
+                    .append("\",\"last_name\":\"Last").append(i).append("\",\"plan\":\"pro\"},")
+                    .append("\"created_at\":\"2024-01-15T10:30:00+00:00\",")
+                    .append("\"lists\":[{\"id\":\"01h-everyone\",\"name\":\"Everyone\"}],")
+                    .append("\"topics\":[{\"id\":\"01h-news\",\"name\":\"Newsletter\"}]}");
+        }
+        json.append("],\"pagination\":{\"total\":").append(count * 10)
+                .append(",\"per_page\":").append(count).append(",\"current_page\":1,\"last_page\":10}}}");
+        return json.toString();
+    }
+}
@@ -0,0 +1,103 @@
+package com.lettr.benchmarks;
+
+import com.lettr.Lettr;
+import com.lettr.core.exception.LettrException;
+import com.lettr.core.net.ClientOptions;
+import com.lettr.core.net.RetryPolicy;
+import com.lettr.services.emails.model.CreateEmailOptions;
+import com.lettr.services.emails.model.CreateEmailResponse;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A whole {@code emails().send} round trip — serialization, the HTTP exchange
+ * and decoding — against an in-process server on the loopback interface, so
+ * the score is client overhead plus a local socket hop. Retries are off.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SendEmailBenchmark {
+
+    static final int ASYNC_BATCH = 64;
+
+    private static final byte[] RESPONSE =
+            "{\"message\":\"Email queued\",\"data\":{\"request_id\":\"req_1\",\"accepted\":1,\"rejected\":0}}"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private Lettr lettr;
+    private CreateEmailOptions email;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                body.transferTo(OutputStream.nullOutputStream());
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, RESPONSE.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(RESPONSE);
+            }
+        });
+        serverExecutor = Executors.newFixedThreadPool(4);
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        lettr = new Lettr("bench-key", ClientOptions.builder()
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+                .retryPolicy(RetryPolicy.none())
+                .build());
+        email = Fixtures.createEmailOptions();
+    }
+
+    @TearDown
+    public void tearDown() {
+        lettr.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public CreateEmailResponse send() throws LettrException {
+        return lettr.emails().send(email);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ASYNC_BATCH)
+    public Object sendAsync() {
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[ASYNC_BATCH];
+        for (int i = 0; i < ASYNC_BATCH; i++) {
+            sends[i] = lettr.async().emails().send(email);
+        }
+        return CompletableFuture.allOf(sends).join();
+    }
+}
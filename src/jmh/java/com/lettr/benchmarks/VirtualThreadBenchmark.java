@@ -0,0 +1,143 @@
+package com.lettr.benchmarks;
+
+import com.lettr.Lettr;
+import com.lettr.core.net.ClientOptions;
+import com.lettr.core.net.RetryPolicy;
+import com.lettr.core.util.Threads;
+import com.lettr.services.emails.model.CreateEmailOptions;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code concurrency} blocking {@code emails().send} calls at once, each on a
+ * thread of its own, against a loopback server that answers after
+ * {@value #LATENCY_MILLIS} ms, as a remote API would. The score is the time
+ * for the whole wave; divide {@code concurrency} by it for sends per second.
+ *
+ * <p>{@code PLATFORM} runs every call on a platform thread, as a Java 11
+ * service would; {@code VIRTUAL} runs them on virtual threads and builds the
+ * client with {@code virtualThreads(true)}. {@code VIRTUAL} needs Java 21:
+ * run with a Java 21 JVM, e.g. {@code ./gradlew jmh -PjmhIncludes=VirtualThread}
+ * with a Java 21 toolchain, or it fails at setup.</p>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VirtualThreadBenchmark {
+
+    static final int LATENCY_MILLIS = 50;
+
+    private static final byte[] RESPONSE =
+            "{\"message\":\"Email queued\",\"data\":{\"request_id\":\"req_1\",\"accepted\":1,\"rejected\":0}}"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    public enum ThreadMode { PLATFORM, VIRTUAL }
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public ThreadMode mode;
+
+    @Param({"1000", "5000"})
+    public int concurrency;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ScheduledExecutorService responder;
+    private Lettr lettr;
+    private CreateEmailOptions email;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // The latency is waited out on a timer rather than a server thread,
+        // so the server is never what limits concurrency.
+        responder = Executors.newScheduledThreadPool(4);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 16_384);
+        server.createContext("/", exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                body.transferTo(OutputStream.nullOutputStream());
+            }
+            responder.schedule(() -> {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    exchange.getResponseHeaders().set("Content-Type", "application/json");
+                    exchange.sendResponseHeaders(200, RESPONSE.length);
+                    out.write(RESPONSE);
+                } catch (IOException e) {
+                    exchange.close();
+                }
+            }, LATENCY_MILLIS, TimeUnit.MILLISECONDS);
+        });
+        serverExecutor = Executors.newFixedThreadPool(8);
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        lettr = new Lettr("bench-key", ClientOptions.builder()
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+                .httpVersion(java.net.http.HttpClient.Version.HTTP_1_1)
+                .retryPolicy(RetryPolicy.none())
+                .virtualThreads(mode == ThreadMode.VIRTUAL)
+                .build());
+        email = Fixtures.createEmailOptions();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        lettr.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        responder.shutdownNow();
+    }
+
+    @Benchmark
+    public int sendWave() throws InterruptedException {
+        ExecutorService callers = Threads.newExecutor("bench-caller-", mode == ThreadMode.VIRTUAL);
+        CountDownLatch done = new CountDownLatch(concurrency);
+        AtomicInteger failures = new AtomicInteger();
+        try {
+            for (int i = 0; i < concurrency; i++) {
+                callers.execute(() -> {
+                    try {
+                        lettr.emails().send(email);
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+        } finally {
+            callers.shutdown();
+        }
+        if (failures.get() > 0) {
+            throw new IllegalStateException(failures.get() + " of " + concurrency + " sends failed");
+        }
+        return concurrency;
+    }
+}
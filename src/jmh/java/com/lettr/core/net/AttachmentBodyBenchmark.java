@@ -0,0 +1,124 @@
+package com.lettr.core.net;
+
+import com.google.gson.Gson;
+import com.lettr.services.emails.model.Attachment;
+import com.lettr.services.emails.model.CreateEmailOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and draining the body of a send with one attachment of
+ * {@code megabytes}: given as a base64 string, as a file encoded while the
+ * body is published, and as a file whose encoding is already in a
+ * {@link BinaryContentCache}. Each score is one whole body; compare
+ * {@code gc.alloc.rate.norm}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx512m")
+@State(Scope.Benchmark)
+public class AttachmentBodyBenchmark {
+
+    @Param({"1", "20"})
+    public int megabytes;
+
+    private Gson gson;
+    private Path file;
+    private byte[] bytes;
+    private BinaryContentCache cache;
+
+    @Setup
+    public void setUp() throws IOException {
+        gson = new HttpClient("bench-key").getGson();
+        bytes = new byte[megabytes * 1024 * 1024];
+        new Random(1).nextBytes(bytes);
+        file = Files.createTempFile("lettr-attachment", ".bin");
+        Files.write(file, bytes);
+        cache = BinaryContentCache.of(64L * 1024 * 1024);
+        cache.get(file);
+    }
+
+    @TearDown
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long base64String() throws Exception {
+        // What a caller had to do before: encode the file, then send the string.
+        String data = Base64.getEncoder().encodeToString(Files.readAllBytes(file));
+        return drain(JsonBody.publisher(gson, send(Attachment.builder().data(data))));
+    }
+
+    @Benchmark
+    public long file() throws Exception {
+        return drain(JsonBody.publisher(gson, send(Attachment.builder().data(file))));
+    }
+
+    @Benchmark
+    public long cachedFile() throws Exception {
+        return drain(JsonBody.publisher(gson, send(Attachment.builder().data(cache.get(file)))));
+    }
+
+    private static CreateEmailOptions send(Attachment.Builder attachment) {
+        return CreateEmailOptions.builder()
+                .from("reports@shop.example.com")
+                .to("ada@example.com")
+                .subject("Monthly report")
+                .html("<p>Your report is attached.</p>")
+                .attachments(attachment.name("report.bin").type("application/octet-stream").build())
+                .build();
+    }
+
+    /** Reads the body the way java.net.http does and returns its length. */
+    static long drain(HttpRequest.BodyPublisher publisher) throws Exception {
+        CompletableFuture<Long> done = new CompletableFuture<>();
+        publisher.subscribe(new Flow.Subscriber<ByteBuffer>() {
+            private long length;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                length += item.remaining();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(length);
+            }
+        });
+        return done.get();
+    }
+}
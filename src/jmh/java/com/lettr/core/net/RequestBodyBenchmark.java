@@ -0,0 +1,63 @@
+package com.lettr.core.net;
+
+import com.google.gson.Gson;
+import com.lettr.benchmarks.Fixtures;
+import com.lettr.services.emails.model.CreateEmailOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning a large send into a request body: the {@code toJson} string
+ * encoded to one UTF-8 array, against {@link JsonBody}'s chunks. Compare
+ * {@code gc.alloc.rate.norm}; each score is one body of about
+ * {@code htmlChars} characters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+@State(Scope.Benchmark)
+public class RequestBodyBenchmark {
+
+    @Param({"100000", "10000000"})
+    public int htmlChars;
+
+    private Gson gson;
+    private CreateEmailOptions email;
+
+    @Setup
+    public void setUp() {
+        gson = new HttpClient("bench-key").getGson();
+        email = Fixtures.largeCreateEmailOptions(htmlChars);
+    }
+
+    @Benchmark
+    public byte[] toJsonString() {
+        return gson.toJson(email).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public HttpRequest.BodyPublisher chunked() {
+        return JsonBody.publisher(gson, email);
+    }
+
+    /** What {@code ClientOptions.requestCompression} adds for a body over the threshold. */
+    @Benchmark
+    public HttpRequest.BodyPublisher chunkedGzip() {
+        return JsonBody.of(gson, email).gzip().publisher();
+    }
+}
@@ -0,0 +1,63 @@
+package com.lettr.core.net;
+
+import com.google.gson.Gson;
+import com.lettr.benchmarks.Fixtures;
+import com.lettr.services.emails.model.CreateEmailOptions;
+import com.lettr.services.emails.model.ListEmailEventsParams;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-request work done before anything is written to the network:
+ * serializing a send, turning list params into a query map, and building
+ * the URL from it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestBuildingBenchmark {
+
+    private HttpClient client;
+    private Gson gson;
+    private CreateEmailOptions email;
+    private ListEmailEventsParams params;
+    private Map<String, String> queryParams;
+
+    @Setup
+    public void setUp() {
+        client = new HttpClient("bench-key");
+        gson = client.getGson();
+        email = Fixtures.createEmailOptions();
+        params = Fixtures.listEmailEventsParams();
+        queryParams = params.toQueryParams();
+    }
+
+    @Benchmark
+    public String serializeCreateEmail() {
+        return gson.toJson(email);
+    }
+
+    @Benchmark
+    public Map<String, String> toQueryParams() {
+        return params.toQueryParams();
+    }
+
+    @Benchmark
+    public String buildUrl() {
+        return client.buildUrl("/emails/events", queryParams);
+    }
+}
@@ -1,5 +1,8 @@
 package com.lettr;
 
+import com.lettr.core.net.ClientOptions;
+import com.lettr.core.net.HttpClient;
+import com.lettr.core.util.Args;
 import com.lettr.services.audience.Audience;
 import com.lettr.services.campaigns.Campaigns;
 import com.lettr.services.domains.Domains;
@@ -29,11 +32,25 @@ import javax.annotation.Nonnull;
  * );
  * }</pre>
  *
+ * <p>An instance owns one HTTP transport — connection pool, TLS sessions and
+ * worker threads — shared by every service it returns. Create it once, share it
+ * across threads, and {@link #close()} it when your application shuts down.</p>
+ *
  * @see <a href="https://lettr.com">Lettr Documentation</a>
  */
-public class Lettr {
+public class Lettr implements AutoCloseable {
+
+    private final HttpClient httpClient;
 
-    private final String apiKey;
+    private final Emails emails;
+    private final Domains domains;
+    private final Webhooks webhooks;
+    private final Templates templates;
+    private final Projects projects;
+    private final System system;
+    private final Audience audience;
+    private final Campaigns campaigns;
+    private final LettrAsync async;
 
     /**
      * Creates a new Lettr client with the given API key.
@@ -42,33 +59,71 @@ public class Lettr {
      * @throws IllegalArgumentException if {@code apiKey} is null or empty
      */
     public Lettr(@Nonnull String apiKey) {
+        this(apiKey, ClientOptions.defaults());
+    }
+
+    /**
+     * Creates a new Lettr client with the given API key and transport settings.
+     *
+     * @param apiKey  your Lettr API key (find it at https://app.lettr.com)
+     * @param options executor, timeouts and other transport settings
+     * @throws IllegalArgumentException if {@code apiKey} is null or empty, or {@code options} is null
+     */
+    public Lettr(@Nonnull String apiKey, @Nonnull ClientOptions options) {
         if (apiKey == null || apiKey.isEmpty()) {
             throw new IllegalArgumentException("API key is required. Get yours at https://app.lettr.com");
         }
-        this.apiKey = apiKey;
+        Args.requireNonNull("options", options);
+        this.httpClient = new HttpClient(apiKey, options);
+        this.emails = new Emails(httpClient);
+        this.domains = new Domains(httpClient);
+        this.webhooks = new Webhooks(httpClient);
+        this.templates = new Templates(httpClient);
+        this.projects = new Projects(httpClient);
+        this.system = new System(httpClient);
+        this.audience = new Audience(httpClient);
+        this.campaigns = new Campaigns(httpClient);
+        this.async = new LettrAsync(httpClient);
     }
 
     /** Returns the Emails service for sending and retrieving emails. */
-    @Nonnull public Emails emails() { return new Emails(apiKey); }
+    @Nonnull public Emails emails() { return emails; }
 
     /** Returns the Domains service for managing sending domains. */
-    @Nonnull public Domains domains() { return new Domains(apiKey); }
+    @Nonnull public Domains domains() { return domains; }
 
     /** Returns the Webhooks service for managing webhook configurations. */
-    @Nonnull public Webhooks webhooks() { return new Webhooks(apiKey); }
+    @Nonnull public Webhooks webhooks() { return webhooks; }
 
     /** Returns the Templates service for managing email templates. */
-    @Nonnull public Templates templates() { return new Templates(apiKey); }
+    @Nonnull public Templates templates() { return templates; }
 
     /** Returns the Projects service for listing projects. */
-    @Nonnull public Projects projects() { return new Projects(apiKey); }
+    @Nonnull public Projects projects() { return projects; }
 
     /** Returns the System service for health checks and API key validation. */
-    @Nonnull public System system() { return new System(apiKey); }
+    @Nonnull public System system() { return system; }
 
     /** Returns the Audience namespace for managing lists, contacts, topics, properties, and segments. */
-    @Nonnull public Audience audience() { return new Audience(apiKey); }
+    @Nonnull public Audience audience() { return audience; }
 
     /** Returns the Campaigns service for listing, sending, and scheduling campaigns. */
-    @Nonnull public Campaigns campaigns() { return new Campaigns(apiKey); }
+    @Nonnull public Campaigns campaigns() { return campaigns; }
+
+    /**
+     * Returns the asynchronous view of this client, whose service methods return
+     * {@link java.util.concurrent.CompletableFuture}s. It shares this instance's
+     * transport.
+     */
+    @Nonnull public LettrAsync async() { return async; }
+
+    /**
+     * Releases the transport's threads and connections. Requests already in
+     * flight finish; any later call through this instance's services throws
+     * {@link IllegalStateException}. Idempotent.
+     */
+    @Override
+    public void close() {
+        httpClient.close();
+    }
 }
@@ -0,0 +1,75 @@
+package com.lettr;
+
+import com.lettr.core.net.HttpClient;
+import com.lettr.services.audience.AudienceAsync;
+import com.lettr.services.campaigns.CampaignsAsync;
+import com.lettr.services.domains.DomainsAsync;
+import com.lettr.services.emails.EmailsAsync;
+import com.lettr.services.projects.ProjectsAsync;
+import com.lettr.services.system.SystemAsync;
+import com.lettr.services.templates.TemplatesAsync;
+import com.lettr.services.webhooks.WebhooksAsync;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Asynchronous view of a {@link Lettr} client, obtained via {@link Lettr#async()}.
+ *
+ * <p>Every service method returns a {@link java.util.concurrent.CompletableFuture}
+ * and is sent without blocking a thread on the network, so a single thread can
+ * keep many requests in flight:</p>
+ *
+ * <pre>{@code
+ * CompletableFuture<CreateEmailResponse> future = lettr.async().emails().send(options);
+ * future.thenAccept(response -> log.info("queued {}", response.getRequestId()));
+ * }</pre>
+ *
+ * <p>Shares the transport of the {@code Lettr} instance it came from; closing
+ * that instance closes this view too.</p>
+ */
+public class LettrAsync {
+
+    private final EmailsAsync emails;
+    private final DomainsAsync domains;
+    private final WebhooksAsync webhooks;
+    private final TemplatesAsync templates;
+    private final ProjectsAsync projects;
+    private final SystemAsync system;
+    private final AudienceAsync audience;
+    private final CampaignsAsync campaigns;
+
+    LettrAsync(HttpClient httpClient) {
+        this.emails = new EmailsAsync(httpClient);
+        this.domains = new DomainsAsync(httpClient);
+        this.webhooks = new WebhooksAsync(httpClient);
+        this.templates = new TemplatesAsync(httpClient);
+        this.projects = new ProjectsAsync(httpClient);
+        this.system = new SystemAsync(httpClient);
+        this.audience = new AudienceAsync(httpClient);
+        this.campaigns = new CampaignsAsync(httpClient);
+    }
+
+    /** Returns the asynchronous Emails service. */
+    @Nonnull public EmailsAsync emails() { return emails; }
+
+    /** Returns the asynchronous Domains service. */
+    @Nonnull public DomainsAsync domains() { return domains; }
+
+    /** Returns the asynchronous Webhooks service. */
+    @Nonnull public WebhooksAsync webhooks() { return webhooks; }
+
+    /** Returns the asynchronous Templates service. */
+    @Nonnull public TemplatesAsync templates() { return templates; }
+
+    /** Returns the asynchronous Projects service. */
+    @Nonnull public ProjectsAsync projects() { return projects; }
+
+    /** Returns the asynchronous System service. */
+    @Nonnull public SystemAsync system() { return system; }
+
+    /** Returns the asynchronous Audience namespace. */
+    @Nonnull public AudienceAsync audience() { return audience; }
+
+    /** Returns the asynchronous Campaigns service. */
+    @Nonnull public CampaignsAsync campaigns() { return campaigns; }
+}
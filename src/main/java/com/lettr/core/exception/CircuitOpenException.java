@@ -0,0 +1,41 @@
+package com.lettr.core.exception;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown without contacting the API because the circuit breaker for
+ * the endpoint family has tripped: recent calls to it failed or were slow too
+ * often. Nothing was sent, so the call is safe to repeat once the breaker lets
+ * calls through again.
+ */
+public class CircuitOpenException extends LettrException {
+
+    private final String endpoint;
+    private final Duration retryAfter;
+
+    public CircuitOpenException(String endpoint, Duration retryAfter) {
+        super("Circuit breaker for " + endpoint + " is open; calls fail fast for another "
+                + retryAfter.toMillis() + " ms");
+        this.endpoint = endpoint;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Returns the endpoint family whose breaker is open, as registered (e.g. "/audience").
+     *
+     * @return path prefix of the endpoint family
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Returns how long until the breaker lets trial calls through; zero if it
+     * already does but all trial slots are taken.
+     *
+     * @return time until the breaker half-opens
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
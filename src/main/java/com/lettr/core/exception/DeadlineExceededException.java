@@ -0,0 +1,18 @@
+package com.lettr.core.exception;
+
+/**
+ * Exception thrown when a call runs out of the time its
+ * {@link com.lettr.core.net.RequestOptions} allowed, across all of its
+ * attempts. The cause, if any, is the timeout of the last attempt. The request
+ * may or may not have reached the API.
+ */
+public class DeadlineExceededException extends LettrException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+    public DeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
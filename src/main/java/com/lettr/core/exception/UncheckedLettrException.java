@@ -0,0 +1,26 @@
+package com.lettr.core.exception;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Wraps a {@link LettrException} where the calling interface cannot declare it,
+ * such as {@link java.util.Iterator#next()} or a {@link java.util.stream.Stream}
+ * pipeline that fetches pages lazily.
+ *
+ * <p>The original exception — a {@link LettrApiException},
+ * {@link LettrValidationException} and so on — is available from
+ * {@link #getCause()}.</p>
+ */
+public class UncheckedLettrException extends RuntimeException {
+
+    public UncheckedLettrException(@Nonnull LettrException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    /** Returns the wrapped {@link LettrException}. */
+    @Nonnull
+    @Override
+    public synchronized LettrException getCause() {
+        return (LettrException) super.getCause();
+    }
+}
@@ -0,0 +1,389 @@
+package com.lettr.core.net;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.lettr.core.util.Args;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Binary content that is sent as a base64 JSON string, such as the data of an
+ * email attachment.
+ *
+ * <p>Content given as a {@link Path}, {@link ByteBuffer} or {@link InputStream}
+ * is never held in memory as base64: the request body is encoded while it is
+ * written to the network, a few kilobytes at a time, so sending a 20 MB file
+ * costs the same heap as sending a 20 KB one. Files are memory-mapped for the
+ * duration of the write.</p>
+ *
+ * <p>A file or buffer is read again each time the request is sent, so these
+ * requests can be retried. An {@code InputStream} can only be read once; a
+ * retry of a request carrying one fails. Content sent many times over is
+ * better taken from a {@link BinaryContentCache}, which encodes it once.</p>
+ */
+@JsonAdapter(BinaryContent.Adapter.class)
+public abstract class BinaryContent {
+
+    private static final Base64.Encoder ENCODER = Base64.getEncoder();
+
+    BinaryContent() {}
+
+    /** Content that is already base64-encoded (standard alphabet, no line breaks). */
+    @Nonnull
+    public static BinaryContent ofBase64(@Nonnull String base64) {
+        return new Encoded(Args.requireNonNull("base64", base64));
+    }
+
+    /** The contents of {@code path}, read when the request is sent. */
+    @Nonnull
+    public static BinaryContent ofFile(@Nonnull Path path) {
+        return new FileContent(Args.requireNonNull("path", path));
+    }
+
+    /**
+     * The remaining bytes of {@code buffer}, read when the request is sent.
+     * Its position is not changed; its contents must not be while a request
+     * that carries it is in flight.
+     */
+    @Nonnull
+    public static BinaryContent ofBuffer(@Nonnull ByteBuffer buffer) {
+        return new BufferContent(Args.requireNonNull("buffer", buffer).slice().asReadOnlyBuffer());
+    }
+
+    /**
+     * The rest of {@code stream}, read once when the request is sent and
+     * closed afterwards.
+     */
+    @Nonnull
+    public static BinaryContent ofStream(@Nonnull InputStream stream) {
+        return new StreamContent(Args.requireNonNull("stream", stream));
+    }
+
+    /**
+     * Returns the content base64-encoded, reading a file or buffer in full.
+     *
+     * @throws IllegalStateException for content read from an {@code InputStream},
+     *                               which is only read while the request is sent
+     * @throws UncheckedIOException  if a file cannot be read
+     */
+    @Nonnull
+    public String toBase64() {
+        try (InputStream in = open()) {
+            return ENCODER.encodeToString(in.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** The base64 text, if that is how the content was given. */
+    @Nullable
+    String encoded() {
+        return null;
+    }
+
+    /** Length of the base64 encoding in bytes, or -1 if it is not known before reading. */
+    abstract long base64Length();
+
+    /** Opens the raw, unencoded bytes. */
+    abstract InputStream open() throws IOException;
+
+    /** Opens the base64 encoding of the content as a sequence of buffers. */
+    Chunks base64Chunks() throws IOException {
+        return new StreamChunks(new Base64Stream(open()));
+    }
+
+    static long base64Length(long size) {
+        return (size + 2) / 3 * 4;
+    }
+
+    // Each subclass carries the adapter too: Gson looks the annotation up on
+    // the runtime class when a value is reached through Object or a collection.
+    @JsonAdapter(Adapter.class)
+    private static final class Encoded extends BinaryContent {
+        private final String base64;
+
+        Encoded(String base64) {
+            this.base64 = base64;
+        }
+
+        @Override
+        public String toBase64() {
+            return base64;
+        }
+
+        @Override
+        String encoded() {
+            return base64;
+        }
+
+        @Override
+        long base64Length() {
+            return base64.length();
+        }
+
+        @Override
+        InputStream open() {
+            return new BufferStream(ByteBuffer.wrap(Base64.getDecoder().decode(base64)));
+        }
+    }
+
+    @JsonAdapter(Adapter.class)
+    private static final class FileContent extends BinaryContent {
+        private final Path path;
+
+        FileContent(Path path) {
+            this.path = path;
+        }
+
+        @Override
+        long base64Length() {
+            try {
+                return base64Length(Files.size(path));
+            } catch (IOException e) {
+                // Reported when the body is read, which fails the request.
+                return -1;
+            }
+        }
+
+        @Override
+        InputStream open() throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size > Integer.MAX_VALUE) {
+                    throw new IOException(path + " is too large to send");
+                }
+                // The mapping outlives the channel and is released when collected.
+                return new BufferStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            }
+        }
+    }
+
+    @JsonAdapter(Adapter.class)
+    private static final class BufferContent extends BinaryContent {
+        private final ByteBuffer buffer;
+
+        BufferContent(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        long base64Length() {
+            return base64Length(buffer.remaining());
+        }
+
+        @Override
+        InputStream open() {
+            return new BufferStream(buffer.duplicate());
+        }
+    }
+
+    @JsonAdapter(Adapter.class)
+    private static final class StreamContent extends BinaryContent {
+        private final InputStream stream;
+        private final AtomicBoolean opened = new AtomicBoolean();
+
+        StreamContent(InputStream stream) {
+            this.stream = stream;
+        }
+
+        @Override
+        public String toBase64() {
+            throw new IllegalStateException("Content read from an InputStream is only available while it is sent");
+        }
+
+        @Override
+        long base64Length() {
+            return -1;
+        }
+
+        @Override
+        InputStream open() throws IOException {
+            if (!opened.compareAndSet(false, true)) {
+                throw new IOException("Content read from an InputStream cannot be sent twice");
+            }
+            return stream;
+        }
+    }
+
+    /**
+     * A sequence of buffers, each handed over for good: the content behind a
+     * buffer is never written to once it has been returned.
+     */
+    interface Chunks extends Closeable {
+
+        /** Returns the next buffer, or {@code null} at the end. */
+        @Nullable
+        ByteBuffer next() throws IOException;
+    }
+
+    /** Reads a stream into a fresh {@value JsonBody#CHUNK_SIZE}-byte array per chunk. */
+    private static final class StreamChunks implements Chunks {
+        private final InputStream in;
+        private boolean eof;
+
+        StreamChunks(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public ByteBuffer next() throws IOException {
+            if (eof) {
+                return null;
+            }
+            byte[] chunk = new byte[JsonBody.CHUNK_SIZE];
+            int n = in.readNBytes(chunk, 0, chunk.length);
+            eof = n < chunk.length;
+            return n == 0 ? null : ByteBuffer.wrap(chunk, 0, n);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    static final class BufferStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        BufferStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            Objects.checkFromIndexSize(off, len, b.length);
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
+    /** Base64-encodes another stream in blocks of {@value #BLOCK} input bytes. */
+    static final class Base64Stream extends InputStream {
+        static final int BLOCK = 3 * 4096;
+
+        private final InputStream raw;
+        private final byte[] in = new byte[BLOCK];
+        private final byte[] out = new byte[BLOCK / 3 * 4];
+        private int position;
+        private int limit;
+        private boolean eof;
+
+        Base64Stream(InputStream raw) {
+            this.raw = raw;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return out[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            Objects.checkFromIndexSize(off, len, b.length);
+            if (len == 0) {
+                return 0;
+            }
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            int n = Math.min(len, limit - position);
+            System.arraycopy(out, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            raw.close();
+        }
+
+        // Every block but the last must be a multiple of three bytes, or padding
+        // would end up in the middle of the encoding.
+        private boolean fill() throws IOException {
+            if (eof) {
+                return false;
+            }
+            int n = 0;
+            while (n < BLOCK) {
+                int read = raw.read(in, n, BLOCK - n);
+                if (read < 0) {
+                    eof = true;
+                    break;
+                }
+                n += read;
+            }
+            if (n == 0) {
+                return false;
+            }
+            limit = ENCODER.encode(n == BLOCK ? in : Arrays.copyOf(in, n), out);
+            position = 0;
+            return true;
+        }
+    }
+
+    /**
+     * Writes content as a JSON string, deferring the encoding to the network
+     * write when the writer belongs to a {@link JsonBody}.
+     */
+    static final class Adapter extends TypeAdapter<BinaryContent> {
+
+        @Override
+        public void write(JsonWriter out, BinaryContent value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+            } else if (value.encoded() != null) {
+                out.value(value.encoded());
+            } else if (out instanceof JsonBody.BodyWriter) {
+                ((JsonBody.BodyWriter) out).base64Value(value);
+            } else {
+                out.value(value.toBase64());
+            }
+        }
+
+        @Override
+        public BinaryContent read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            return ofBase64(in.nextString());
+        }
+    }
+}
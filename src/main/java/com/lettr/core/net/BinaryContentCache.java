@@ -0,0 +1,290 @@
+package com.lettr.core.net;
+
+import com.google.gson.annotations.JsonAdapter;
+import com.lettr.core.util.Args;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the base64 encoding of content that is sent over and over, such as
+ * the same few PDFs attached to every invoice, so that each distinct content
+ * is read and encoded once rather than once per send.
+ *
+ * <pre>{@code
+ * BinaryContentCache cache = BinaryContentCache.of(256L * 1024 * 1024);
+ *
+ * Attachment terms = Attachment.builder()
+ *         .name("terms.pdf")
+ *         .type("application/pdf")
+ *         .data(cache.get(Path.of("/srv/docs/terms.pdf")))
+ *         .build();
+ * }</pre>
+ *
+ * <p>Entries are keyed by the SHA-256 of the raw content, so two paths with
+ * the same bytes share one entry. For files the cache also remembers each
+ * path's size and modification time: a file that has not changed since it was
+ * last looked up is neither read nor hashed again. Encodings are held in
+ * direct buffers, outside the Java heap and within
+ * {@code -XX:MaxDirectMemorySize}, and the least recently used are evicted
+ * once their total exceeds {@code maxBytes}. Content larger than that on its
+ * own is not cached; it is returned as plain file or buffer content and
+ * encoded on each send.</p>
+ *
+ * <p>The returned {@link BinaryContent} stays valid after its entry is
+ * evicted, so in-flight and retried requests are unaffected. Thread-safe.</p>
+ */
+public final class BinaryContentCache {
+
+    // Paths whose last known fingerprint is remembered. Bounded separately
+    // from the entries, which several paths may share.
+    static final int MAX_PATHS = 4096;
+
+    private final long maxBytes;
+    private final LinkedHashMap<ByteBuffer, Cached> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Path, Fingerprint> paths = new LinkedHashMap<Path, Fingerprint>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, Fingerprint> eldest) {
+            return size() > MAX_PATHS;
+        }
+    };
+    private long encodedBytes;
+    private long hits;
+    private long misses;
+
+    private BinaryContentCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Creates a cache holding at most {@code maxBytes} of base64 text.
+     *
+     * @throws IllegalArgumentException if {@code maxBytes} is not positive
+     */
+    @Nonnull
+    public static BinaryContentCache of(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive");
+        }
+        return new BinaryContentCache(maxBytes);
+    }
+
+    /**
+     * Returns the contents of {@code file}, encoded from the cache. The file
+     * is read only if it is new to the cache or has changed size or
+     * modification time since it was last looked up.
+     *
+     * @throws IOException if the file cannot be read
+     */
+    @Nonnull
+    public BinaryContent get(@Nonnull Path file) throws IOException {
+        Args.requireNonNull("file", file);
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().toMillis();
+        synchronized (this) {
+            Fingerprint known = paths.get(file);
+            if (known != null && known.size == size && known.modified == modified) {
+                Cached cached = entries.get(known.digest);
+                if (cached != null) {
+                    hits++;
+                    return cached;
+                }
+            }
+        }
+        if (!fits(size)) {
+            return BinaryContent.ofFile(file);
+        }
+        ByteBuffer content;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            content = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        Cached cached = lookup(content);
+        synchronized (this) {
+            paths.put(file, new Fingerprint(size, modified, cached.digest));
+        }
+        return cached;
+    }
+
+    /**
+     * Returns the remaining bytes of {@code buffer}, encoded from the cache.
+     * The buffer is hashed on every call, which is much cheaper than encoding
+     * it; its position is not changed.
+     */
+    @Nonnull
+    public BinaryContent get(@Nonnull ByteBuffer buffer) {
+        ByteBuffer content = Args.requireNonNull("buffer", buffer).slice();
+        if (!fits(content.remaining())) {
+            return BinaryContent.ofBuffer(content);
+        }
+        return lookup(content);
+    }
+
+    /** Number of lookups answered without encoding. */
+    public synchronized long hitCount() {
+        return hits;
+    }
+
+    /** Number of lookups that had to encode their content. */
+    public synchronized long missCount() {
+        return misses;
+    }
+
+    /** Total size of the encodings currently held, in bytes. */
+    public synchronized long encodedBytes() {
+        return encodedBytes;
+    }
+
+    /** Number of distinct contents currently held. */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /** Drops every entry. Content already handed out stays usable. */
+    public synchronized void clear() {
+        entries.clear();
+        paths.clear();
+        encodedBytes = 0;
+    }
+
+    private boolean fits(long size) {
+        long length = BinaryContent.base64Length(size);
+        return length <= maxBytes && length <= Integer.MAX_VALUE;
+    }
+
+    private Cached lookup(ByteBuffer content) {
+        ByteBuffer digest = sha256(content.duplicate());
+        synchronized (this) {
+            Cached cached = entries.get(digest);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+        // Encoded outside the lock; if two threads race on new content, the
+        // first to finish is kept and the other's encoding is dropped.
+        Cached encoded = new Cached(digest, encode(content.duplicate()));
+        synchronized (this) {
+            Cached cached = entries.putIfAbsent(digest, encoded);
+            if (cached != null) {
+                return cached;
+            }
+            encodedBytes += encoded.base64Length();
+            evict();
+            return encoded;
+        }
+    }
+
+    private void evict() {
+        Iterator<Cached> eldest = entries.values().iterator();
+        while (encodedBytes > maxBytes && eldest.hasNext()) {
+            encodedBytes -= eldest.next().base64Length();
+            eldest.remove();
+        }
+    }
+
+    private static ByteBuffer sha256(ByteBuffer content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(content);
+            return ByteBuffer.wrap(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ByteBuffer encode(ByteBuffer content) {
+        ByteBuffer encoded = ByteBuffer.allocateDirect((int) BinaryContent.base64Length(content.remaining()));
+        byte[] block = new byte[BinaryContent.Base64Stream.BLOCK / 3 * 4];
+        try (InputStream in = new BinaryContent.Base64Stream(new BinaryContent.BufferStream(content))) {
+            for (int n; (n = in.read(block)) > 0; ) {
+                encoded.put(block, 0, n);
+            }
+        } catch (IOException e) {
+            // Both streams are over buffers in memory.
+            throw new IllegalStateException(e);
+        }
+        encoded.flip();
+        return encoded.asReadOnlyBuffer();
+    }
+
+    private static final class Fingerprint {
+        final long size;
+        final long modified;
+        final ByteBuffer digest;
+
+        Fingerprint(long size, long modified, ByteBuffer digest) {
+            this.size = size;
+            this.modified = modified;
+            this.digest = digest;
+        }
+    }
+
+    /** Content whose encoding is already in a buffer. */
+    @JsonAdapter(BinaryContent.Adapter.class)
+    private static final class Cached extends BinaryContent {
+        final ByteBuffer digest;
+        private final ByteBuffer encoded;
+
+        Cached(ByteBuffer digest, ByteBuffer encoded) {
+            this.digest = digest;
+            this.encoded = encoded;
+        }
+
+        @Override
+        public String toBase64() {
+            ByteBuffer text = encoded.duplicate();
+            byte[] bytes = new byte[text.remaining()];
+            text.get(bytes);
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        long base64Length() {
+            return encoded.remaining();
+        }
+
+        @Override
+        InputStream open() {
+            return new BufferStream(Base64.getDecoder().decode(encoded.duplicate()));
+        }
+
+        // Read-only slices of the encoding itself: nothing is copied per send.
+        @Override
+        Chunks base64Chunks() {
+            ByteBuffer text = encoded.duplicate();
+            return new Chunks() {
+                @Override
+                public ByteBuffer next() {
+                    if (!text.hasRemaining()) {
+                        return null;
+                    }
+                    ByteBuffer chunk = text.slice();
+                    chunk.limit(Math.min(JsonBody.CHUNK_SIZE, chunk.remaining()));
+                    text.position(text.position() + chunk.remaining());
+                    return chunk;
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+        }
+    }
+}
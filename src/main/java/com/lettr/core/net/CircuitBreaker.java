@@ -0,0 +1,367 @@
+package com.lettr.core.net;
+
+import com.lettr.core.exception.CircuitOpenException;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Stops calling an endpoint family that keeps failing or answering slowly,
+ * so that callers fail fast instead of each waiting out the request timeout.
+ *
+ * <p>Register a breaker per path prefix with
+ * {@link ClientOptions.Builder#circuitBreaker(String, CircuitBreaker)}. Each
+ * prefix is an endpoint family with a circuit of its own, so ids in the path
+ * never split a family. One breaker registered under several prefixes keeps a
+ * circuit for each:</p>
+ *
+ * <pre>{@code
+ * CircuitBreaker breaker = CircuitBreaker.builder().build();
+ * Lettr lettr = new Lettr("your-api-key", ClientOptions.builder()
+ *     .circuitBreaker("/audience", breaker)
+ *     .circuitBreaker("/emails", breaker)
+ *     .build());
+ * }</pre>
+ *
+ * <p>A circuit starts {@link State#CLOSED}. It remembers the outcome of the
+ * last {@code windowSize} calls: a call fails if it ends in a network error,
+ * a timeout or a {@code 5xx}, and is slow if it takes
+ * {@code slowCallDuration} or longer. Once at least {@code minimumCalls} have
+ * been seen, a failure rate of {@code failureRateThreshold} or a slow-call
+ * rate of {@code slowCallRateThreshold} opens the circuit. While
+ * {@link State#OPEN}, calls throw {@link CircuitOpenException} without being
+ * sent. After {@code openDuration} the circuit is {@link State#HALF_OPEN}: up
+ * to {@code halfOpenCalls} trial calls go through, and the circuit closes when
+ * all of them succeed in good time and opens again as soon as one does not.
+ * Other calls still fail fast meanwhile.</p>
+ *
+ * <p>Every attempt of a retried request is a call of its own. Client errors
+ * ({@code 4xx}) and {@code 429}s count as successes: the endpoint answered.
+ * Instances are thread-safe.</p>
+ */
+public final class CircuitBreaker {
+
+    /** State of the circuit of one endpoint family. */
+    public enum State {
+        /** Calls go through and their outcomes are recorded. */
+        CLOSED,
+        /** Calls fail fast with {@link CircuitOpenException}. */
+        OPEN,
+        /** A few trial calls go through to find out whether the endpoint has recovered. */
+        HALF_OPEN
+    }
+
+    // Outcome bits, one byte per call in a circuit's window.
+    private static final int FAILED = 1;
+    private static final int SLOW = 2;
+
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier clock;
+
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+    private final AtomicLong rejectedCalls = new AtomicLong();
+
+    private CircuitBreaker(Builder builder, LongSupplier clock) {
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.slowCallRateThreshold = builder.slowCallRateThreshold;
+        this.slowCallNanos = builder.slowCallDuration.toNanos();
+        this.windowSize = builder.windowSize;
+        this.minimumCalls = builder.minimumCalls;
+        this.openNanos = builder.openDuration.toNanos();
+        this.halfOpenCalls = builder.halfOpenCalls;
+        this.clock = clock;
+    }
+
+    @Nonnull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Returns the state of the circuit for {@code endpoint}, a registered path prefix such as {@code "/audience"}. */
+    @Nonnull
+    public State getState(@Nonnull String endpoint) {
+        Circuit circuit = circuits.get(endpoint);
+        return circuit != null ? circuit.state() : State.CLOSED;
+    }
+
+    /** Returns the state of every circuit that has seen a call, by endpoint family. */
+    @Nonnull
+    public Map<String, State> getStates() {
+        Map<String, State> states = new LinkedHashMap<>();
+        circuits.forEach((endpoint, circuit) -> states.put(endpoint, circuit.state()));
+        return Collections.unmodifiableMap(states);
+    }
+
+    /** Returns the number of calls refused with {@link CircuitOpenException}. */
+    public long getRejectedCalls() {
+        return rejectedCalls.get();
+    }
+
+    /**
+     * Lets a call to {@code endpoint} through, or refuses it.
+     *
+     * @throws CircuitOpenException if the circuit is open, or half-open with every trial slot taken
+     */
+    @Nonnull
+    Call acquire(String endpoint) throws CircuitOpenException {
+        return circuits.computeIfAbsent(endpoint, Circuit::new).acquire();
+    }
+
+    /** Test hook: a breaker running on the given nanosecond clock. */
+    static CircuitBreaker withClock(Builder builder, LongSupplier clock) {
+        return new CircuitBreaker(builder.validated(), clock);
+    }
+
+    private final class Circuit {
+        private final String endpoint;
+        // Guarded by this.
+        private State state = State.CLOSED;
+        // Bumped on every transition, so that calls let through under an
+        // earlier state do not count towards the current one.
+        private long generation;
+        private final byte[] outcomes = new byte[windowSize];
+        private int recorded;
+        private int next;
+        private int failures;
+        private int slowCalls;
+        private long openedAt;
+        private int trialsStarted;
+        private int trialsSucceeded;
+
+        Circuit(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        synchronized State state() {
+            if (state == State.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+                return State.HALF_OPEN;
+            }
+            return state;
+        }
+
+        synchronized Call acquire() throws CircuitOpenException {
+            long now = clock.getAsLong();
+            if (state == State.OPEN) {
+                long remaining = openedAt + openNanos - now;
+                if (remaining > 0) {
+                    rejectedCalls.incrementAndGet();
+                    throw new CircuitOpenException(endpoint, Duration.ofNanos(remaining));
+                }
+                transition(State.HALF_OPEN, now);
+            }
+            if (state == State.HALF_OPEN) {
+                if (trialsStarted >= halfOpenCalls) {
+                    rejectedCalls.incrementAndGet();
+                    throw new CircuitOpenException(endpoint, Duration.ZERO);
+                }
+                trialsStarted++;
+            }
+            return new Call(this, generation, now);
+        }
+
+        synchronized void onOutcome(long callGeneration, boolean failed, boolean slow) {
+            if (callGeneration != generation) {
+                return;
+            }
+            long now = clock.getAsLong();
+            if (state == State.HALF_OPEN) {
+                if (failed || slow) {
+                    transition(State.OPEN, now);
+                } else if (++trialsSucceeded >= halfOpenCalls) {
+                    transition(State.CLOSED, now);
+                }
+                return;
+            }
+            if (recorded == windowSize) {
+                byte evicted = outcomes[next];
+                failures -= evicted & FAILED;
+                slowCalls -= (evicted & SLOW) >> 1;
+            } else {
+                recorded++;
+            }
+            outcomes[next] = (byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0));
+            next = (next + 1) % windowSize;
+            failures += failed ? 1 : 0;
+            slowCalls += slow ? 1 : 0;
+            if (recorded >= minimumCalls
+                    && (failures >= failureRateThreshold * recorded || slowCalls >= slowCallRateThreshold * recorded)) {
+                transition(State.OPEN, now);
+            }
+        }
+
+        synchronized void onAbandoned(long callGeneration) {
+            if (callGeneration == generation && state == State.HALF_OPEN) {
+                trialsStarted--;
+            }
+        }
+
+        private void transition(State to, long now) {
+            state = to;
+            generation++;
+            openedAt = now;
+            trialsStarted = 0;
+            trialsSucceeded = 0;
+            if (to == State.CLOSED) {
+                recorded = 0;
+                next = 0;
+                failures = 0;
+                slowCalls = 0;
+            }
+        }
+    }
+
+    /**
+     * One call let through a circuit. The first of {@link #onResponse(int)},
+     * {@link #onError(Throwable)} and {@link #release()} reports it; later
+     * calls do nothing.
+     */
+    final class Call {
+        private final Circuit circuit;
+        private final long generation;
+        private final long start;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Call(Circuit circuit, long generation, long start) {
+            this.circuit = circuit;
+            this.generation = generation;
+            this.start = start;
+        }
+
+        /** Reports a response with {@code statusCode}; {@code 5xx} counts as a failure. */
+        void onResponse(int statusCode) {
+            finish(statusCode >= 500);
+        }
+
+        /** Reports that the exchange failed; network errors and timeouts count as failures. */
+        void onError(Throwable error) {
+            if (error instanceof IOException) {
+                finish(true);
+            } else {
+                release();
+            }
+        }
+
+        /** Gives up the call without an outcome, e.g. when it was cancelled before being sent. */
+        void release() {
+            if (done.compareAndSet(false, true)) {
+                circuit.onAbandoned(generation);
+            }
+        }
+
+        private void finish(boolean failed) {
+            if (done.compareAndSet(false, true)) {
+                boolean slow = clock.getAsLong() - start >= slowCallNanos;
+                circuit.onOutcome(generation, failed, slow);
+            }
+        }
+    }
+
+    public static class Builder {
+        private double failureRateThreshold = 0.5;
+        private double slowCallRateThreshold = 0.5;
+        private Duration slowCallDuration = Duration.ofSeconds(5);
+        private int windowSize = 50;
+        private int minimumCalls = 10;
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int halfOpenCalls = 3;
+
+        private Builder() {}
+
+        /** <b>(optional)</b> Share of failed calls that opens the circuit (default 0.5). */
+        @Nonnull
+        public Builder failureRateThreshold(double failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+            return this;
+        }
+
+        /** <b>(optional)</b> Share of slow calls that opens the circuit (default 0.5). */
+        @Nonnull
+        public Builder slowCallRateThreshold(double slowCallRateThreshold) {
+            this.slowCallRateThreshold = slowCallRateThreshold;
+            return this;
+        }
+
+        /** <b>(optional)</b> Duration from which a call counts as slow (default 5 seconds). */
+        @Nonnull
+        public Builder slowCallDuration(@Nonnull Duration slowCallDuration) {
+            this.slowCallDuration = slowCallDuration;
+            return this;
+        }
+
+        /** <b>(optional)</b> Number of recent calls the rates are computed over (default 50). */
+        @Nonnull
+        public Builder windowSize(int windowSize) {
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        /** <b>(optional)</b> Calls to see before the circuit may open (default 10). */
+        @Nonnull
+        public Builder minimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+            return this;
+        }
+
+        /** <b>(optional)</b> How long an open circuit fails calls fast before trying again (default 30 seconds). */
+        @Nonnull
+        public Builder openDuration(@Nonnull Duration openDuration) {
+            this.openDuration = openDuration;
+            return this;
+        }
+
+        /** <b>(optional)</b> Trial calls let through while half-open (default 3). */
+        @Nonnull
+        public Builder halfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = halfOpenCalls;
+            return this;
+        }
+
+        /**
+         * Builds the {@link CircuitBreaker} instance.
+         *
+         * @throws IllegalArgumentException if a threshold is not in (0, 1], a duration is
+         *                                  missing or not positive, a count is below 1, or
+         *                                  {@code minimumCalls} exceeds {@code windowSize}
+         */
+        @Nonnull
+        public CircuitBreaker build() {
+            return new CircuitBreaker(validated(), System::nanoTime);
+        }
+
+        Builder validated() {
+            if (!(failureRateThreshold > 0 && failureRateThreshold <= 1)) {
+                throw new IllegalArgumentException("failureRateThreshold must be greater than 0 and at most 1");
+            }
+            if (!(slowCallRateThreshold > 0 && slowCallRateThreshold <= 1)) {
+                throw new IllegalArgumentException("slowCallRateThreshold must be greater than 0 and at most 1");
+            }
+            if (slowCallDuration == null || slowCallDuration.isNegative() || slowCallDuration.isZero()) {
+                throw new IllegalArgumentException("slowCallDuration must be positive");
+            }
+            if (openDuration == null || openDuration.isNegative() || openDuration.isZero()) {
+                throw new IllegalArgumentException("openDuration must be positive");
+            }
+            if (windowSize < 1 || minimumCalls < 1 || halfOpenCalls < 1) {
+                throw new IllegalArgumentException("windowSize, minimumCalls and halfOpenCalls must be at least 1");
+            }
+            if (minimumCalls > windowSize) {
+                throw new IllegalArgumentException("minimumCalls must not exceed windowSize");
+            }
+            return this;
+        }
+    }
+}
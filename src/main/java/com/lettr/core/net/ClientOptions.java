@@ -0,0 +1,433 @@
+package com.lettr.core.net;
+
+import com.lettr.core.util.Threads;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Transport settings shared by every service of a {@link com.lettr.Lettr} instance.
+ *
+ * <p>All fields are optional. With {@link #defaults()}, requests go through the
+ * JDK client with 30-second connect and request timeouts, network errors
+ * and retryable statuses are retried as in {@link RetryPolicy#defaults()},
+ * and responses are asked for gzipped. No rate limiter, concurrency limiter,
+ * hedging or circuit breaker is installed, and request bodies are sent
+ * uncompressed.</p>
+ *
+ * <pre>{@code
+ * ExecutorService pool = Executors.newFixedThreadPool(16);
+ * Lettr lettr = new Lettr("your-api-key", ClientOptions.builder()
+ *     .executor(pool)
+ *     .connectTimeout(Duration.ofSeconds(5))
+ *     .build());
+ * }</pre>
+ *
+ * <p>The JDK client keeps one connection pool per client, so sharing a single
+ * {@code Lettr} instance is what lets connections and TLS sessions be reused.
+ * Its size and keep-alive are governed by the JDK's
+ * {@code jdk.httpclient.connectionPoolSize} and {@code jdk.httpclient.keepalive.timeout}
+ * system properties; for full control over pooling, pass your own client with
+ * {@link Builder#httpClient(java.net.http.HttpClient)}.</p>
+ */
+public class ClientOptions {
+
+    static final String DEFAULT_BASE_URL = "https://app.lettr.com/api";
+    static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final Duration connectTimeout;
+    private final Duration requestTimeout;
+    private final Executor executor;
+    private final boolean virtualThreads;
+    private final java.net.http.HttpClient.Version httpVersion;
+    private final java.net.http.HttpClient httpClient;
+    private final Transport transport;
+    private final RetryPolicy retryPolicy;
+    private final Map<String, RateLimiter> rateLimiters;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final Map<String, Priority> priorities;
+    private final Map<String, HedgingPolicy> hedgingPolicies;
+    private final Map<String, CircuitBreaker> circuitBreakers;
+    private final Integer requestCompressionMinBytes;
+    private final boolean responseCompression;
+    private final boolean emailIdempotencyKeys;
+    private final IdempotencyStore idempotencyStore;
+
+    private ClientOptions(Builder builder) {
+        this.baseUrl = builder.baseUrl;
+        this.connectTimeout = builder.connectTimeout;
+        this.requestTimeout = builder.requestTimeout;
+        this.executor = builder.executor;
+        this.virtualThreads = builder.virtualThreads;
+        this.httpVersion = builder.httpVersion;
+        this.httpClient = builder.httpClient;
+        this.transport = builder.transport;
+        this.retryPolicy = builder.retryPolicy != null ? builder.retryPolicy : RetryPolicy.defaults();
+        this.rateLimiters = Collections.unmodifiableMap(new LinkedHashMap<>(builder.rateLimiters));
+        this.concurrencyLimiter = builder.concurrencyLimiter;
+        this.priorities = Collections.unmodifiableMap(new LinkedHashMap<>(builder.priorities));
+        this.hedgingPolicies = Collections.unmodifiableMap(new LinkedHashMap<>(builder.hedgingPolicies));
+        this.circuitBreakers = Collections.unmodifiableMap(new LinkedHashMap<>(builder.circuitBreakers));
+        this.requestCompressionMinBytes = builder.requestCompressionMinBytes;
+        this.responseCompression = builder.responseCompression;
+        this.emailIdempotencyKeys = builder.emailIdempotencyKeys;
+        this.idempotencyStore = builder.idempotencyStore;
+    }
+
+    /** Returns options with every setting at its default. */
+    @Nonnull
+    public static ClientOptions defaults() {
+        return builder().build();
+    }
+
+    @Nonnull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Nonnull public String getBaseUrl() { return baseUrl; }
+    @Nonnull public Duration getConnectTimeout() { return connectTimeout; }
+    @Nonnull public Duration getRequestTimeout() { return requestTimeout; }
+    @Nullable public Executor getExecutor() { return executor; }
+    public boolean isVirtualThreads() { return virtualThreads; }
+    @Nullable public java.net.http.HttpClient.Version getHttpVersion() { return httpVersion; }
+    @Nullable public java.net.http.HttpClient getHttpClient() { return httpClient; }
+    @Nullable public Transport getTransport() { return transport; }
+    @Nonnull public RetryPolicy getRetryPolicy() { return retryPolicy; }
+    /** Rate limiters by path prefix, e.g. {@code "/emails"} or {@code "/audience"}. */
+    @Nonnull public Map<String, RateLimiter> getRateLimiters() { return rateLimiters; }
+    @Nullable public ConcurrencyLimiter getConcurrencyLimiter() { return concurrencyLimiter; }
+    /** Priority overrides by path prefix; requests matching none are classified as {@link Priority} describes. */
+    @Nonnull public Map<String, Priority> getPriorities() { return priorities; }
+    /** Hedging policies by path prefix. */
+    @Nonnull public Map<String, HedgingPolicy> getHedgingPolicies() { return hedgingPolicies; }
+    /** Circuit breakers by path prefix; each prefix is an endpoint family with a circuit of its own. */
+    @Nonnull public Map<String, CircuitBreaker> getCircuitBreakers() { return circuitBreakers; }
+    /** Size from which JSON request bodies are gzipped, or {@code null} if they never are. */
+    @Nullable public Integer getRequestCompressionMinBytes() { return requestCompressionMinBytes; }
+    public boolean isResponseCompression() { return responseCompression; }
+    public boolean isEmailIdempotencyKeys() { return emailIdempotencyKeys; }
+    @Nullable public IdempotencyStore getIdempotencyStore() { return idempotencyStore; }
+
+    public static class Builder {
+        private String baseUrl = DEFAULT_BASE_URL;
+        private Duration connectTimeout = DEFAULT_TIMEOUT;
+        private Duration requestTimeout = DEFAULT_TIMEOUT;
+        private Executor executor;
+        private boolean virtualThreads;
+        private java.net.http.HttpClient.Version httpVersion;
+        private java.net.http.HttpClient httpClient;
+        private Transport transport;
+        private RetryPolicy retryPolicy;
+        private final Map<String, RateLimiter> rateLimiters = new LinkedHashMap<>();
+        private ConcurrencyLimiter concurrencyLimiter;
+        private final Map<String, Priority> priorities = new LinkedHashMap<>();
+        private final Map<String, HedgingPolicy> hedgingPolicies = new LinkedHashMap<>();
+        private final Map<String, CircuitBreaker> circuitBreakers = new LinkedHashMap<>();
+        private Integer requestCompressionMinBytes;
+        private boolean responseCompression = true;
+        private boolean emailIdempotencyKeys;
+        private IdempotencyStore idempotencyStore;
+
+        private Builder() {}
+
+        /**
+         * <b>(optional)</b> Overrides the API base URL (default
+         * {@code https://app.lettr.com/api}). Mainly useful for pointing the SDK
+         * at a local stub server in tests.
+         */
+        @Nonnull
+        public Builder baseUrl(@Nonnull String baseUrl) {
+            this.baseUrl = baseUrl;
+            return this;
+        }
+
+        /** <b>(optional)</b> Timeout for establishing a connection (default 30 seconds). */
+        @Nonnull
+        public Builder connectTimeout(@Nonnull Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Timeout for each request, headers to last byte
+         * (default 30 seconds). {@link RequestOptions} override it per call.
+         */
+        @Nonnull
+        public Builder requestTimeout(@Nonnull Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Executor the JDK client runs its asynchronous tasks on.
+         * The caller owns it: closing the {@code Lettr} instance does not shut it
+         * down. When unset, the SDK creates a cached pool of daemon threads and
+         * shuts it down on close.
+         */
+        @Nonnull
+        public Builder executor(@Nullable Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Runs the SDK's own threads as virtual threads
+         * (default {@code false}; requires Java 21 or later). That covers the
+         * executor the SDK creates for the JDK client when no {@code executor}
+         * is given, the workers of a {@code BatchingEmailSender} and the
+         * uploads of a {@code ContactImporter}, so that each of them waits on
+         * the network without holding an OS thread. Blocking calls made from
+         * your own virtual threads need no setting: they park while the
+         * request is in flight either way.
+         */
+        @Nonnull
+        public Builder virtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Preferred HTTP version. Defaults to the JDK's choice
+         * (HTTP/2 with fallback to HTTP/1.1).
+         */
+        @Nonnull
+        public Builder httpVersion(@Nullable java.net.http.HttpClient.Version httpVersion) {
+            this.httpVersion = httpVersion;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> A preconfigured JDK client to send requests with,
+         * for callers who tune pooling, proxies or TLS themselves. When set,
+         * {@code connectTimeout}, {@code executor} and {@code httpVersion} are
+         * ignored, and closing the {@code Lettr} instance leaves the client open.
+         */
+        @Nonnull
+        public Builder httpClient(@Nullable java.net.http.HttpClient httpClient) {
+            this.httpClient = httpClient;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> The HTTP engine to send requests with, in place of
+         * the JDK client (see {@link Transport}). When set, {@code connectTimeout},
+         * {@code executor}, {@code httpVersion} and {@code httpClient} are
+         * ignored, and closing the {@code Lettr} instance leaves the transport
+         * open. Retries, rate limits, compression and {@code requestTimeout}
+         * still apply.
+         */
+        @Nonnull
+        public Builder transport(@Nullable Transport transport) {
+            this.transport = transport;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> When and how failed requests are retried (default
+         * {@link RetryPolicy#defaults()}). Pass {@link RetryPolicy#none()} to
+         * report every failure straight away.
+         */
+        @Nonnull
+        public Builder retryPolicy(@Nullable RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Paces requests whose path starts with
+         * {@code pathPrefix} (relative to the base URL, e.g. {@code "/emails"}
+         * or {@code "/audience"}; a trailing {@code "/*"} is ignored). A prefix
+         * matches whole path segments, and when several match, the longest
+         * wins; {@code "/"} matches every request. Requests matching no prefix
+         * are not limited. Passing {@code null} removes the limiter for that prefix.
+         */
+        @Nonnull
+        public Builder rateLimiter(@Nonnull String pathPrefix, @Nullable RateLimiter rateLimiter) {
+            String prefix = normalizePrefix(pathPrefix);
+            if (rateLimiter == null) {
+                rateLimiters.remove(prefix);
+            } else {
+                rateLimiters.put(prefix, rateLimiter);
+            }
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Caps the requests in flight at once, across every
+         * service, and adapts the cap to the API's latency and {@code 429}s
+         * (default {@code null}: no cap). Each attempt of a retried request
+         * takes a slot of its own; backoff delays hold none. Combines with
+         * {@link #rateLimiter(String, RateLimiter)}, which paces requests before
+         * they queue here.
+         */
+        @Nonnull
+        public Builder concurrencyLimiter(@Nullable ConcurrencyLimiter concurrencyLimiter) {
+            this.concurrencyLimiter = concurrencyLimiter;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Schedules requests whose path starts with
+         * {@code pathPrefix} as {@code priority} in the
+         * {@link #concurrencyLimiter(ConcurrencyLimiter) concurrency limiter},
+         * whatever their method. Prefixes match as in
+         * {@link #rateLimiter(String, RateLimiter)}. Requests matching no prefix
+         * keep the class {@link Priority} describes. Passing {@code null}
+         * removes the override for that prefix.
+         */
+        @Nonnull
+        public Builder priority(@Nonnull String pathPrefix, @Nullable Priority priority) {
+            String prefix = normalizePrefix(pathPrefix);
+            if (priority == null) {
+                priorities.remove(prefix);
+            } else {
+                priorities.put(prefix, priority);
+            }
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Hedges {@code GET} requests whose path starts with
+         * {@code pathPrefix} (see {@link HedgingPolicy}). Prefixes match as in
+         * {@link #rateLimiter(String, RateLimiter)}. Requests matching no
+         * prefix are never hedged. A prefix covers every path below it; to
+         * keep bulk listings such as {@code /emails/events} out, register
+         * {@link HedgingPolicy#disabled()} under their longer prefix.
+         * Passing {@code null} removes the policy for that prefix.
+         */
+        @Nonnull
+        public Builder hedgingPolicy(@Nonnull String pathPrefix, @Nullable HedgingPolicy hedgingPolicy) {
+            String prefix = normalizePrefix(pathPrefix);
+            if (hedgingPolicy == null) {
+                hedgingPolicies.remove(prefix);
+            } else {
+                hedgingPolicies.put(prefix, hedgingPolicy);
+            }
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Fails requests whose path starts with
+         * {@code pathPrefix} fast while that endpoint family keeps failing or
+         * answering slowly (see {@link CircuitBreaker}). Prefixes match as in
+         * {@link #rateLimiter(String, RateLimiter)}, and the matching prefix
+         * names the family, e.g. {@code "/audience"}. Requests matching no
+         * prefix are never refused. Passing {@code null} removes the breaker
+         * for that prefix.
+         */
+        @Nonnull
+        public Builder circuitBreaker(@Nonnull String pathPrefix, @Nullable CircuitBreaker circuitBreaker) {
+            String prefix = normalizePrefix(pathPrefix);
+            if (circuitBreaker == null) {
+                circuitBreakers.remove(prefix);
+            } else {
+                circuitBreakers.put(prefix, circuitBreaker);
+            }
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Gzips JSON request bodies of at least
+         * {@code minBytes} and sends them with {@code Content-Encoding: gzip}
+         * (default {@code null}: never). Bulk contact uploads and template HTML
+         * typically shrink five- to tenfold; a threshold of a few kilobytes
+         * keeps small requests, where compression saves nothing worth its CPU,
+         * as they are. Bodies carrying file or stream attachments are not
+         * compressed.
+         */
+        @Nonnull
+        public Builder requestCompression(@Nullable Integer minBytes) {
+            this.requestCompressionMinBytes = minBytes;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Whether to ask for gzipped responses with
+         * {@code Accept-Encoding: gzip} (default {@code true}). A gzipped
+         * response is decompressed as it is read either way.
+         */
+        @Nonnull
+        public Builder responseCompression(boolean responseCompression) {
+            this.responseCompression = responseCompression;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Whether to give email sends ({@code POST /emails}
+         * and {@code POST /emails/scheduled}) without an idempotency key of
+         * their own an {@code Idempotency-Key} derived from their content
+         * (default {@code false}). The key is a SHA-256 of the request body,
+         * so the same message to the same recipients always gets the same key
+         * and is sent at most once, and a send that timed out may be retried
+         * without risking a duplicate. Leave this off if the application
+         * deliberately sends identical emails, or give those sends keys of
+         * their own with {@link RequestOptions.Builder#idempotencyKey(String)}.
+         * Sends with stream attachments, whose content cannot be read twice,
+         * get no derived key.
+         */
+        @Nonnull
+        public Builder emailIdempotencyKeys(boolean emailIdempotencyKeys) {
+            this.emailIdempotencyKeys = emailIdempotencyKeys;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Remembers the successful responses of email sends
+         * ({@code POST /emails} and {@code POST /emails/scheduled}) carrying
+         * an {@code Idempotency-Key}, and answers a repeat of the key from the
+         * store without contacting the API (default {@code null}: every
+         * request is sent). Other requests never use the store. See {@link MemoryIdempotencyStore} and
+         * {@link FileIdempotencyStore}.
+         */
+        @Nonnull
+        public Builder idempotencyStore(@Nullable IdempotencyStore idempotencyStore) {
+            this.idempotencyStore = idempotencyStore;
+            return this;
+        }
+
+        /**
+         * Builds the {@link ClientOptions} instance.
+         *
+         * @throws IllegalArgumentException if {@code baseUrl} is empty, a timeout is not positive,
+         *                                  {@code requestCompression} is negative, or
+         *                                  {@code virtualThreads} is set on a runtime before Java 21
+         */
+        @Nonnull
+        public ClientOptions build() {
+            if (baseUrl == null || baseUrl.isEmpty()) {
+                throw new IllegalArgumentException("baseUrl is required");
+            }
+            if (baseUrl.endsWith("/")) {
+                baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
+            }
+            if (connectTimeout == null || connectTimeout.isNegative() || connectTimeout.isZero()) {
+                throw new IllegalArgumentException("connectTimeout must be positive");
+            }
+            if (requestTimeout == null || requestTimeout.isNegative() || requestTimeout.isZero()) {
+                throw new IllegalArgumentException("requestTimeout must be positive");
+            }
+            if (requestCompressionMinBytes != null && requestCompressionMinBytes < 0) {
+                throw new IllegalArgumentException("requestCompression must not be negative");
+            }
+            if (virtualThreads && !Threads.virtualThreadsSupported()) {
+                throw new IllegalArgumentException("virtualThreads requires Java 21 or later");
+            }
+            return new ClientOptions(this);
+        }
+    }
+
+    static String normalizePrefix(String pathPrefix) {
+        String prefix = pathPrefix.endsWith("/*") ? pathPrefix.substring(0, pathPrefix.length() - 2) : pathPrefix;
+        while (prefix.endsWith("/")) {
+            prefix = prefix.substring(0, prefix.length() - 1);
+        }
+        return prefix.isEmpty() || prefix.startsWith("/") ? prefix : "/" + prefix;
+    }
+}
@@ -0,0 +1,536 @@
+package com.lettr.core.net;
+
+import com.lettr.core.util.Args;
+
+import javax.annotation.Nonnull;
+import java.io.InterruptedIOException;
+import java.net.http.HttpTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Caps the number of requests in flight at once, and adapts the cap to what
+ * the API sustains at the time.
+ *
+ * <p>Every request, of every service, takes a slot before it is sent and
+ * gives it back when its response arrives; a request that finds every slot
+ * taken waits in line. Install one with
+ * {@link ClientOptions.Builder#concurrencyLimiter(ConcurrencyLimiter)}:</p>
+ *
+ * <pre>{@code
+ * ConcurrencyLimiter limiter = ConcurrencyLimiter.builder()
+ *     .initialLimit(20)
+ *     .maxLimit(200)
+ *     .build();
+ * Lettr lettr = new Lettr("your-api-key", ClientOptions.builder()
+ *     .concurrencyLimiter(limiter)
+ *     .build());
+ * }</pre>
+ *
+ * <p>When adaptive (the default), the limit follows additive increase,
+ * multiplicative decrease. While the slots are in use, each response that
+ * comes back within {@code latencyTolerance} times the baseline round trip
+ * raises the limit by {@code 1/limit}, about one slot per round trip. A
+ * {@code 429}, a {@code 503} or a timeout multiplies it by
+ * {@code backoffRatio}, and a response slower than the tolerance by 0.9:
+ * queueing on the server shows in latency before it shows in errors. Decreases
+ * happen at most once a second, since the requests in flight all see the same
+ * overload. Each {@link Priority} class has a baseline of its own, the fastest
+ * round trip of its last {@value #BASELINE_WINDOW} or so responses, so it
+ * follows lasting changes in network distance, and a health check does not
+ * make every email send look slow. {@link Priority#BULK} requests vary too
+ * much in size for their latency to mean anything, so for them only
+ * {@code 429}s, {@code 503}s and timeouts count as overload.</p>
+ *
+ * <p>Each request belongs to a {@link Priority} class, and waits in the line
+ * of its class. When a slot frees up, the classes with requests waiting take
+ * turns in proportion to their weights (8, 4 and 1 for transactional,
+ * interactive and bulk by default), so bulk work keeps moving without
+ * standing in front of an email send. A reservation keeps slots free for a
+ * class even while others are waiting: with {@code reserve(TRANSACTIONAL, 4)},
+ * a nightly import can fill every slot but four, and a password reset starts
+ * at once. When the limit has shrunk below the reservations, other classes
+ * still run one request at a time.</p>
+ *
+ * <p>A {@link RateLimiter} bounds how often requests start; this bounds how
+ * many are running. Batch jobs that submit as fast as they can are best served
+ * by this one, which finds the rate on its own. Instances are thread-safe and
+ * may be shared by several clients.</p>
+ */
+public final class ConcurrencyLimiter {
+
+    static final int BASELINE_WINDOW = 500;
+    static final double LATENCY_BACKOFF_RATIO = 0.9;
+    private static final long DECREASE_COOLDOWN_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    /** What a finished request says about the API's load. */
+    enum Outcome {
+        /** A response: its round trip is a latency sample. */
+        SUCCESS,
+        /** A {@code 429}, {@code 503} or timeout. */
+        OVERLOAD,
+        /** Says nothing about load, e.g. a refused connection or a cancelled call. */
+        IGNORE
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final double backoffRatio;
+    private final boolean adaptive;
+    private final int[] weights = new int[PRIORITIES.length];
+    private final int[] reserved = new int[PRIORITIES.length];
+    private final LongSupplier clock;
+
+    // Guarded by this. Nothing blocks while holding the lock; waiters are
+    // completed after it is released.
+    private double limit;
+    private int inFlight;
+    private final int[] inFlightByPriority = new int[PRIORITIES.length];
+    private final Map<Priority, ArrayDeque<CompletableFuture<Permit>>> waiters = new EnumMap<>(Priority.class);
+    // Smooth weighted round-robin: the eligible class with the most credit goes next.
+    private final int[] credit = new int[PRIORITIES.length];
+    // Latency baselines, per class.
+    private final long[] baselineRtt = new long[PRIORITIES.length];
+    private final long[] windowMinRtt = new long[PRIORITIES.length];
+    private final int[] windowSamples = new int[PRIORITIES.length];
+    private long lastDecrease;
+
+    private ConcurrencyLimiter(Builder builder, LongSupplier clock) {
+        this.minLimit = builder.minLimit;
+        this.maxLimit = builder.maxLimit;
+        this.latencyTolerance = builder.latencyTolerance;
+        this.backoffRatio = builder.backoffRatio;
+        this.adaptive = builder.adaptive;
+        for (Priority priority : PRIORITIES) {
+            weights[priority.ordinal()] = builder.weights.get(priority);
+            reserved[priority.ordinal()] = builder.reservations.get(priority);
+            waiters.put(priority, new ArrayDeque<>());
+            windowMinRtt[priority.ordinal()] = Long.MAX_VALUE;
+        }
+        this.clock = clock;
+        this.limit = builder.initialLimit;
+        this.lastDecrease = clock.getAsLong() - DECREASE_COOLDOWN_NANOS;
+    }
+
+    @Nonnull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Returns the number of requests currently allowed in flight at once. */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /** Returns the number of requests currently in flight. */
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /** Returns the number of requests of {@code priority} currently in flight. */
+    public synchronized int getInFlight(@Nonnull Priority priority) {
+        return inFlightByPriority[priority.ordinal()];
+    }
+
+    /** Returns the number of requests waiting for a slot. */
+    public synchronized int getQueueDepth() {
+        int depth = 0;
+        for (Priority priority : PRIORITIES) {
+            depth += getQueueDepth(priority);
+        }
+        return depth;
+    }
+
+    /** Returns the number of requests of {@code priority} waiting for a slot. */
+    public synchronized int getQueueDepth(@Nonnull Priority priority) {
+        int depth = 0;
+        for (CompletableFuture<Permit> waiter : waiters.get(priority)) {
+            if (!waiter.isDone()) {
+                depth++; // waiters that gave up stay in line until their turn comes
+            }
+        }
+        return depth;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    public int getWeight(@Nonnull Priority priority) {
+        return weights[priority.ordinal()];
+    }
+
+    public int getReserved(@Nonnull Priority priority) {
+        return reserved[priority.ordinal()];
+    }
+
+    /**
+     * Returns a future completed with a permit once a slot is free for
+     * {@code priority}, at once if one is free now. Cancelling the future
+     * gives up the place in line. Whoever completes a waiter runs what
+     * depends on it, so callers should not block in dependent stages.
+     */
+    @Nonnull
+    CompletableFuture<Permit> acquire(Priority priority) {
+        CompletableFuture<Permit> permit = new CompletableFuture<>();
+        List<Grant> granted;
+        synchronized (this) {
+            waiters.get(priority).add(permit);
+            granted = dispatch();
+        }
+        complete(granted);
+        return permit;
+    }
+
+    /**
+     * Waits for a slot.
+     *
+     * @throws InterruptedException if interrupted while waiting; the place in
+     *                              line is given up
+     */
+    @Nonnull
+    Permit acquireBlocking(Priority priority) throws InterruptedException {
+        return acquireBlocking(priority, Long.MAX_VALUE);
+    }
+
+    /**
+     * Waits for a slot for at most {@code timeoutNanos}; {@link Long#MAX_VALUE}
+     * waits as long as it takes.
+     *
+     * @return the slot, or {@code null} if none was free in time
+     * @throws InterruptedException if interrupted while waiting; the place in
+     *                              line is given up
+     */
+    Permit acquireBlocking(Priority priority, long timeoutNanos) throws InterruptedException {
+        CompletableFuture<Permit> permit = acquire(priority);
+        try {
+            return timeoutNanos == Long.MAX_VALUE ? permit.get() : permit.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            if (!permit.cancel(false)) {
+                permit.join().release();
+            }
+            throw e;
+        } catch (TimeoutException e) {
+            // Granted just as the wait ran out: take it after all.
+            return permit.cancel(false) ? null : permit.join();
+        } catch (java.util.concurrent.ExecutionException e) {
+            // Permits are never completed exceptionally.
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void release(Priority priority, Outcome outcome, long rttNanos) {
+        List<Grant> granted;
+        synchronized (this) {
+            if (adaptive) {
+                adjust(priority, outcome, rttNanos);
+            }
+            inFlight--;
+            inFlightByPriority[priority.ordinal()]--;
+            granted = dispatch();
+        }
+        complete(granted);
+    }
+
+    // Called with the lock held: hands out free slots to waiters, and returns
+    // them to be completed once the lock is released.
+    private List<Grant> dispatch() {
+        List<Grant> granted = new ArrayList<>();
+        while (inFlight < (int) limit) {
+            Priority next = null;
+            int totalWeight = 0;
+            for (Priority priority : PRIORITIES) {
+                int i = priority.ordinal();
+                ArrayDeque<CompletableFuture<Permit>> line = waiters.get(priority);
+                while (!line.isEmpty() && line.peek().isDone()) {
+                    line.poll(); // cancelled
+                }
+                if (line.isEmpty()) {
+                    credit[i] = 0;
+                } else if (mayStart(priority)) {
+                    credit[i] += weights[i];
+                    totalWeight += weights[i];
+                    if (next == null || credit[i] > credit[next.ordinal()]) {
+                        next = priority;
+                    }
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            credit[next.ordinal()] -= totalWeight;
+            inFlight++;
+            inFlightByPriority[next.ordinal()]++;
+            granted.add(new Grant(waiters.get(next).poll(), new Permit(next)));
+        }
+        return granted;
+    }
+
+    // Whether a request of priority may take a free slot without touching the
+    // unused reservations of other classes.
+    private boolean mayStart(Priority priority) {
+        if (inFlight == 0) {
+            return true;
+        }
+        int held = 0;
+        for (Priority other : PRIORITIES) {
+            if (other != priority) {
+                held += Math.max(0, reserved[other.ordinal()] - inFlightByPriority[other.ordinal()]);
+            }
+        }
+        return inFlight + held < (int) limit;
+    }
+
+    private static void complete(List<Grant> granted) {
+        for (Grant grant : granted) {
+            if (!grant.waiter.complete(grant.permit)) {
+                grant.permit.release(); // cancelled between the poll and now
+            }
+        }
+    }
+
+    // Called with the lock held, before inFlight drops for this request.
+    private void adjust(Priority priority, Outcome outcome, long rttNanos) {
+        long now = clock.getAsLong();
+        if (outcome == Outcome.OVERLOAD) {
+            decrease(now, backoffRatio);
+        } else if (outcome == Outcome.SUCCESS) {
+            long baseline = sample(priority.ordinal(), rttNanos);
+            if (priority != Priority.BULK && rttNanos > baseline * latencyTolerance) {
+                decrease(now, LATENCY_BACKOFF_RATIO);
+            } else if (inFlight * 2 >= limit) {
+                // Only a limit that is actually in use is evidence that more would be sustained.
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+    }
+
+    // Records a round trip of class i, and returns the class's baseline.
+    private long sample(int i, long rttNanos) {
+        baselineRtt[i] = baselineRtt[i] == 0 ? rttNanos : Math.min(baselineRtt[i], rttNanos);
+        windowMinRtt[i] = Math.min(windowMinRtt[i], rttNanos);
+        if (++windowSamples[i] == BASELINE_WINDOW) {
+            baselineRtt[i] = windowMinRtt[i];
+            windowMinRtt[i] = Long.MAX_VALUE;
+            windowSamples[i] = 0;
+        }
+        return baselineRtt[i];
+    }
+
+    private void decrease(long now, double ratio) {
+        if (now - lastDecrease < DECREASE_COOLDOWN_NANOS) {
+            return;
+        }
+        lastDecrease = now;
+        limit = Math.max(minLimit, limit * ratio);
+    }
+
+    static Outcome outcome(int statusCode) {
+        return statusCode == 429 || statusCode == 503 ? Outcome.OVERLOAD : Outcome.SUCCESS;
+    }
+
+    static Outcome outcome(Throwable error) {
+        return error instanceof HttpTimeoutException || error instanceof InterruptedIOException
+                ? Outcome.OVERLOAD : Outcome.IGNORE;
+    }
+
+    /** Test hook: a limiter running on the given nanosecond clock. */
+    static ConcurrencyLimiter withClock(Builder builder, LongSupplier clock) {
+        return new ConcurrencyLimiter(builder.validated(), clock);
+    }
+
+    private static final class Grant {
+        final CompletableFuture<Permit> waiter;
+        final Permit permit;
+
+        Grant(CompletableFuture<Permit> waiter, Permit permit) {
+            this.waiter = waiter;
+            this.permit = permit;
+        }
+    }
+
+    /**
+     * A slot held by one request. The first of {@link #onResponse(int)},
+     * {@link #onError(Throwable)} and {@link #release()} gives it back; later
+     * calls do nothing.
+     */
+    final class Permit {
+        private final Priority priority;
+        private final long start = clock.getAsLong();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Priority priority) {
+            this.priority = priority;
+        }
+
+        Priority priority() {
+            return priority;
+        }
+
+        /** Gives the slot back after a response with {@code statusCode}. */
+        void onResponse(int statusCode) {
+            finish(outcome(statusCode));
+        }
+
+        /** Gives the slot back after the exchange failed with {@code error}. */
+        void onError(Throwable error) {
+            finish(outcome(error));
+        }
+
+        /** Gives the slot back without drawing any conclusion about load. */
+        void release() {
+            finish(Outcome.IGNORE);
+        }
+
+        private void finish(Outcome outcome) {
+            if (released.compareAndSet(false, true)) {
+                ConcurrencyLimiter.this.release(priority, outcome, clock.getAsLong() - start);
+            }
+        }
+    }
+
+    public static class Builder {
+        private int initialLimit = 20;
+        private int minLimit = 1;
+        private int maxLimit = 200;
+        private double latencyTolerance = 2.0;
+        private double backoffRatio = 0.5;
+        private boolean adaptive = true;
+        private final Map<Priority, Integer> weights = new EnumMap<>(Priority.class);
+        private final Map<Priority, Integer> reservations = new EnumMap<>(Priority.class);
+
+        private Builder() {
+            for (Priority priority : PRIORITIES) {
+                weights.put(priority, priority.defaultWeight());
+                reservations.put(priority, 0);
+            }
+        }
+
+        /** <b>(optional)</b> Requests allowed in flight at the start (default 20). */
+        @Nonnull
+        public Builder initialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        /** <b>(optional)</b> Floor for the adapted limit (default 1). */
+        @Nonnull
+        public Builder minLimit(int minLimit) {
+            this.minLimit = minLimit;
+            return this;
+        }
+
+        /** <b>(optional)</b> Ceiling for the adapted limit (default 200). */
+        @Nonnull
+        public Builder maxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> How many times the baseline round trip a response
+         * may take before it counts as a sign of overload (default 2.0).
+         */
+        @Nonnull
+        public Builder latencyTolerance(double latencyTolerance) {
+            this.latencyTolerance = latencyTolerance;
+            return this;
+        }
+
+        /** <b>(optional)</b> Factor the limit is multiplied by on a {@code 429}, {@code 503} or timeout (default 0.5). */
+        @Nonnull
+        public Builder backoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Whether the limit adapts (default {@code true}).
+         * When off, {@code initialLimit} is a fixed cap.
+         */
+        @Nonnull
+        public Builder adaptive(boolean adaptive) {
+            this.adaptive = adaptive;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Share of freed slots that waiting requests of
+         * {@code priority} receive, relative to the other classes with requests
+         * waiting (defaults 8, 4 and 1 for transactional, interactive and bulk).
+         */
+        @Nonnull
+        public Builder weight(@Nonnull Priority priority, int weight) {
+            weights.put(Args.requireNonNull("priority", priority), weight);
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Slots other classes may not take while fewer than
+         * {@code slots} requests of {@code priority} are in flight (default 0).
+         */
+        @Nonnull
+        public Builder reserve(@Nonnull Priority priority, int slots) {
+            reservations.put(Args.requireNonNull("priority", priority), slots);
+            return this;
+        }
+
+        /**
+         * Builds the {@link ConcurrencyLimiter} instance.
+         *
+         * @throws IllegalArgumentException if a limit is below 1, the limits are out of order,
+         *                                  {@code latencyTolerance} is not above 1, or
+         *                                  {@code backoffRatio} is not between 0 and 1, a weight
+         *                                  is below 1 or a reservation is negative
+         */
+        @Nonnull
+        public ConcurrencyLimiter build() {
+            return new ConcurrencyLimiter(validated(), System::nanoTime);
+        }
+
+        Builder validated() {
+            if (minLimit < 1) {
+                throw new IllegalArgumentException("minLimit must be at least 1");
+            }
+            if (maxLimit < minLimit) {
+                throw new IllegalArgumentException("maxLimit must not be below minLimit");
+            }
+            if (initialLimit < minLimit || initialLimit > maxLimit) {
+                throw new IllegalArgumentException("initialLimit must be between minLimit and maxLimit");
+            }
+            if (!(latencyTolerance > 1) || Double.isInfinite(latencyTolerance)) {
+                throw new IllegalArgumentException("latencyTolerance must be greater than 1");
+            }
+            if (!(backoffRatio > 0 && backoffRatio < 1)) {
+                throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+            }
+            for (Priority priority : PRIORITIES) {
+                if (weights.get(priority) < 1) {
+                    throw new IllegalArgumentException("weight must be at least 1");
+                }
+                if (reservations.get(priority) < 0) {
+                    throw new IllegalArgumentException("reserve must not be negative");
+                }
+            }
+            return this;
+        }
+    }
+}
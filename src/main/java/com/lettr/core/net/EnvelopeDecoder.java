@@ -0,0 +1,83 @@
+package com.lettr.core.net;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binds the {@code data} member of a Lettr response envelope straight from the
+ * response stream.
+ *
+ * <p>The body is read token by token: the {@code data} value is handed to Gson
+ * as soon as its name is seen, so a large page is never held as a
+ * {@code String} or a {@code JsonObject} tree on its way to the model objects.
+ * Members other than {@code data} are small ({@code message} and the like) and
+ * are only kept in case the body turns out to have no envelope at all.</p>
+ */
+final class EnvelopeDecoder {
+
+    private static final String DATA = "data";
+
+    private EnvelopeDecoder() {}
+
+    /**
+     * Decodes {@code body} into {@code type}: the {@code data} member when the
+     * body is an object carrying one, otherwise the whole body. Returns
+     * {@code null} for an empty body.
+     *
+     * @throws IOException on a read failure or malformed JSON
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T decode(Gson gson, InputStream body, Type type) throws IOException {
+        return decode(gson, body, (TypeAdapter<T>) gson.getAdapter(TypeToken.get(type)));
+    }
+
+    /** Like {@link #decode(Gson, InputStream, Type)}, binding with {@code adapter}. */
+    static <T> T decode(Gson gson, InputStream body, TypeAdapter<T> adapter) throws IOException {
+        // The adapter rather than Gson#fromJson(JsonReader, Type), which would
+        // rewrap a mid-body network failure as a JsonSyntaxException.
+        JsonReader reader = gson.newJsonReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+
+        JsonToken first;
+        try {
+            first = reader.peek();
+        } catch (EOFException e) {
+            return null; // empty body
+        }
+        if (first != JsonToken.BEGIN_OBJECT) {
+            return adapter.read(reader);
+        }
+
+        JsonObject others = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (DATA.equals(name)) {
+                T data = adapter.read(reader);
+                // Drain the rest so the connection can go back to the pool.
+                while (reader.hasNext()) {
+                    reader.skipValue();
+                }
+                reader.endObject();
+                return data;
+            }
+            if (others == null) {
+                others = new JsonObject();
+            }
+            others.add(name, JsonParser.parseReader(reader));
+        }
+        reader.endObject();
+        return adapter.fromJsonTree(others != null ? others : new JsonObject());
+    }
+}
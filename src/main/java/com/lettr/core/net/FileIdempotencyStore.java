@@ -0,0 +1,170 @@
+package com.lettr.core.net;
+
+import com.lettr.core.util.Args;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * An {@link IdempotencyStore} that keeps each response in a file of its own
+ * in {@code directory} for {@code ttl}, so that a resend after a restart, or
+ * from another process on the same host, is still answered locally.
+ *
+ * <pre>{@code
+ * Lettr lettr = new Lettr("your-api-key", ClientOptions.builder()
+ *     .emailIdempotencyKeys(true)
+ *     .idempotencyStore(FileIdempotencyStore.of(Path.of("/var/lib/myapp/lettr-sends"), Duration.ofHours(24)))
+ *     .build());
+ * }</pre>
+ *
+ * <p>Files are named after the SHA-256 of their key, and written to a
+ * temporary file first and then moved into place, so a reader never sees
+ * part of a response. An entry's age is its file's modification time.
+ * Expired files are deleted when looked up, and the whole directory is swept
+ * of them every {@value #SWEEP_EVERY} stores. The directory should hold
+ * nothing else.</p>
+ */
+public final class FileIdempotencyStore implements IdempotencyStore {
+
+    static final int SWEEP_EVERY = 256;
+    private static final String SUFFIX = ".json";
+
+    private final Path directory;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final AtomicInteger puts = new AtomicInteger();
+
+    private FileIdempotencyStore(Path directory, Duration ttl, LongSupplier clock) {
+        this.directory = directory;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Creates a store keeping each response in {@code directory} for
+     * {@code ttl}, creating the directory if needed.
+     *
+     * @throws IllegalArgumentException if {@code directory} is missing, or
+     *                                  {@code ttl} is missing or not positive
+     * @throws IOException              if the directory cannot be created
+     */
+    @Nonnull
+    public static FileIdempotencyStore of(@Nonnull Path directory, @Nonnull Duration ttl) throws IOException {
+        return withClock(directory, ttl, System::currentTimeMillis);
+    }
+
+    /** Test hook: a store running on the given wall clock, in epoch milliseconds. */
+    static FileIdempotencyStore withClock(Path directory, Duration ttl, LongSupplier clock) throws IOException {
+        Args.requireNonNull("directory", directory);
+        Args.requireNonNull("ttl", ttl);
+        if (ttl.toMillis() <= 0) {
+            throw new IllegalArgumentException("ttl must be at least a millisecond");
+        }
+        Files.createDirectories(directory);
+        return new FileIdempotencyStore(directory, ttl, clock);
+    }
+
+    /** Returns the directory responses are kept in. */
+    @Nonnull
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Nullable
+    @Override
+    public byte[] get(@Nonnull String key) {
+        Path file = fileFor(key);
+        try {
+            if (expired(file)) {
+                Files.deleteIfExists(file);
+                return null;
+            }
+            return Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void put(@Nonnull String key, @Nonnull byte[] body) {
+        try {
+            Path temp = Files.createTempFile(directory, ".put-", ".tmp");
+            try {
+                Files.write(temp, body);
+                Files.setLastModifiedTime(temp, FileTime.fromMillis(clock.getAsLong()));
+                move(temp, fileFor(key));
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (puts.incrementAndGet() % SWEEP_EVERY == 0) {
+            removeExpired();
+        }
+    }
+
+    /**
+     * Deletes the files of expired entries, and temporary files left behind
+     * by stores that were interrupted.
+     *
+     * @return the number of files deleted
+     */
+    public int removeExpired() {
+        int removed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*{" + SUFFIX + ",.tmp}")) {
+            for (Path file : files) {
+                try {
+                    if (expired(file) && Files.deleteIfExists(file)) {
+                        removed++;
+                    }
+                } catch (NoSuchFileException e) {
+                    // Deleted meanwhile by another reader.
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return removed;
+    }
+
+    private boolean expired(Path file) throws IOException {
+        return clock.getAsLong() - Files.getLastModifiedTime(file).toMillis() >= ttlMillis;
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private Path fileFor(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + SUFFIX);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.lettr.core.net;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Sends a second copy of a slow {@code GET} and takes whichever response
+ * arrives first, trimming the tail latency of reads that users wait on.
+ *
+ * <p>If no response has arrived {@code delay} after a request was sent, the
+ * same request is sent again (a hedge). The first response wins and the other
+ * exchange is cancelled. An error from one copy is reported only if the other
+ * fails as well. Without a fixed delay, the policy hedges at the
+ * {@code percentile} of recent response times ({@code 0.95} by default, never
+ * less than {@code minDelay}), so about one request in twenty is hedged. It
+ * starts hedging only once it has seen {@value #MIN_SAMPLES} responses.
+ * Register policies per path prefix with
+ * {@link ClientOptions.Builder#hedgingPolicy(String, HedgingPolicy)}:</p>
+ *
+ * <pre>{@code
+ * HedgingPolicy hedging = HedgingPolicy.builder().build();
+ * Lettr lettr = new Lettr("your-api-key", ClientOptions.builder()
+ *     .hedgingPolicy("/emails", hedging)
+ *     .hedgingPolicy("/emails/events", HedgingPolicy.disabled())
+ *     .hedgingPolicy("/templates", hedging)
+ *     .build());
+ * }</pre>
+ *
+ * <p>A prefix covers every path below it, and the longest registered prefix
+ * wins. Register {@link #disabled()} under a longer prefix to leave bulk
+ * listings out: above, {@code emails().get(requestId)} is hedged but the
+ * {@code /emails/events} pages are not. Hedging those would fetch large
+ * responses twice, each read whole, by hedges that take no
+ * {@link ConcurrencyLimiter} slot and that the {@link CircuitBreaker} does
+ * not count.</p>
+ *
+ * <p>Only {@code GET} requests are hedged. Hedges are paid from a
+ * {@link RetryBudget} (default {@code RetryBudget.of(0.05, 10)}), so they add
+ * at most about 5% to the load whatever the latency. A hedge does not take a
+ * slot of the {@link ConcurrencyLimiter}. Hedged requests are sent
+ * asynchronously even by blocking calls, and their bodies are read whole
+ * before the call returns.</p>
+ *
+ * <p>{@link #getRequests()}, {@link #getHedges()} and {@link #getHedgeWins()}
+ * count what the policy did. Instances are thread-safe and may be shared by
+ * several prefixes and clients, which then share their statistics.</p>
+ */
+public final class HedgingPolicy {
+
+    static final int MIN_SAMPLES = 20;
+    static final int LATENCY_WINDOW = 512;
+    // The percentile is recomputed every so many samples rather than on every request.
+    private static final int RECOMPUTE_EVERY = 16;
+    private static final HedgingPolicy DISABLED = new HedgingPolicy(new Builder(), System::nanoTime);
+
+    private final Duration fixedDelay;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final RetryBudget budget;
+    private final LongSupplier clock;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+
+    // Guarded by latencies: the last LATENCY_WINDOW response times, in a ring.
+    private final long[] latencies = new long[LATENCY_WINDOW];
+    private int samples;
+    private int next;
+    /** The adaptive delay in nanoseconds, or -1 until there are enough samples. */
+    private volatile long adaptiveDelayNanos = -1;
+
+    private HedgingPolicy(Builder builder, LongSupplier clock) {
+        this.fixedDelay = builder.delay;
+        this.percentile = builder.percentile;
+        this.minDelayNanos = builder.minDelay.toNanos();
+        this.budget = builder.budget != null ? builder.budget : RetryBudget.of(0.05, 10);
+        this.clock = clock;
+    }
+
+    @Nonnull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the policy that never hedges. Registered under a prefix, it
+     * keeps the paths below it from being hedged by a shorter prefix.
+     */
+    @Nonnull
+    public static HedgingPolicy disabled() {
+        return DISABLED;
+    }
+
+    /** Returns whether this is the {@link #disabled()} policy. */
+    public boolean isDisabled() {
+        return this == DISABLED;
+    }
+
+    /** Returns the fixed hedge delay, or {@code null} if the delay adapts. */
+    @Nullable public Duration getDelay() { return fixedDelay; }
+    public double getPercentile() { return percentile; }
+    @Nonnull public RetryBudget getBudget() { return budget; }
+
+    /**
+     * Returns the delay after which a request is hedged right now, or
+     * {@code null} while an adaptive policy has too few samples to hedge.
+     */
+    @Nullable
+    public Duration getCurrentDelay() {
+        long nanos = delayNanos();
+        return nanos < 0 ? null : Duration.ofNanos(nanos);
+    }
+
+    /** Returns the number of requests sent under this policy, hedges not included. */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /** Returns the number of hedges sent. */
+    public long getHedges() {
+        return hedges.get();
+    }
+
+    /** Returns the number of hedges whose response arrived before the original's. */
+    public long getHedgeWins() {
+        return hedgeWins.get();
+    }
+
+    /**
+     * Sends {@code request} through {@code transport}, hedging it if no
+     * response has arrived in time. Cancelling the returned future cancels
+     * every copy still in flight.
+     */
+    CompletableFuture<TransportResponse> send(Transport transport, TransportRequest request) {
+        requests.incrementAndGet();
+        budget.onRequest();
+        CompletableFuture<TransportResponse> result = new CompletableFuture<>();
+        AtomicBoolean answered = new AtomicBoolean();
+        AtomicInteger pending = new AtomicInteger(1);
+        AtomicReference<Throwable> firstError = new AtomicReference<>();
+        AtomicReference<CompletableFuture<TransportResponse>> hedge = new AtomicReference<>();
+
+        CompletableFuture<TransportResponse> primary = attempt(transport, request);
+        primary.whenComplete((response, error) -> settle(result, response, error, answered, pending, firstError, false));
+        long delay = delayNanos();
+        if (delay >= 0) {
+            CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS).execute(() -> {
+                if (result.isDone() || !budget.tryAcquire()) {
+                    return;
+                }
+                pending.incrementAndGet();
+                hedges.incrementAndGet();
+                CompletableFuture<TransportResponse> second = attempt(transport, request);
+                hedge.set(second);
+                second.whenComplete((response, error) -> settle(result, response, error, answered, pending, firstError, true));
+                if (result.isDone()) {
+                    second.cancel(true); // settled while the hedge was being sent
+                }
+            });
+        }
+        result.whenComplete((response, error) -> {
+            primary.cancel(true);
+            CompletableFuture<TransportResponse> second = hedge.get();
+            if (second != null) {
+                second.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private CompletableFuture<TransportResponse> attempt(Transport transport, TransportRequest request) {
+        long start = clock.getAsLong();
+        CompletableFuture<TransportResponse> response = transport.sendAsync(request);
+        // Recorded on a side branch: the future handed back must stay the
+        // transport's own, so that cancelling it reaches the exchange.
+        response.thenRun(() -> recordLatency(clock.getAsLong() - start));
+        return response;
+    }
+
+    private void settle(CompletableFuture<TransportResponse> result, TransportResponse response, Throwable error,
+                        AtomicBoolean answered, AtomicInteger pending, AtomicReference<Throwable> firstError,
+                        boolean isHedge) {
+        if (response != null) {
+            // The win is counted before the result completes, and with it whatever the caller chained on.
+            boolean first = answered.compareAndSet(false, true);
+            if (first && isHedge) {
+                hedgeWins.incrementAndGet();
+            }
+            if (!first || !result.complete(response)) {
+                closeQuietly(response);
+            }
+            return;
+        }
+        firstError.compareAndSet(null, error);
+        if (pending.decrementAndGet() == 0) {
+            result.completeExceptionally(firstError.get());
+        }
+    }
+
+    private static void closeQuietly(TransportResponse response) {
+        try {
+            response.close();
+        } catch (IOException ignored) {
+            // The losing copy is discarded either way.
+        }
+    }
+
+    private long delayNanos() {
+        return fixedDelay != null ? fixedDelay.toNanos() : adaptiveDelayNanos;
+    }
+
+    void recordLatency(long nanos) {
+        if (fixedDelay != null) {
+            return;
+        }
+        synchronized (latencies) {
+            latencies[next] = nanos;
+            next = (next + 1) % LATENCY_WINDOW;
+            samples++;
+            if (samples >= MIN_SAMPLES && (samples == MIN_SAMPLES || samples % RECOMPUTE_EVERY == 0)) {
+                int count = Math.min(samples, LATENCY_WINDOW);
+                long[] sorted = Arrays.copyOf(latencies, count);
+                Arrays.sort(sorted);
+                int index = Math.min(count - 1, (int) Math.ceil(percentile * count) - 1);
+                adaptiveDelayNanos = Math.max(minDelayNanos, sorted[Math.max(0, index)]);
+            }
+        }
+    }
+
+    /** Test hook: a policy timing responses with the given nanosecond clock. */
+    static HedgingPolicy withClock(Builder builder, LongSupplier clock) {
+        return new HedgingPolicy(builder.validated(), clock);
+    }
+
+    public static class Builder {
+        private Duration delay;
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(10);
+        private RetryBudget budget;
+
+        private Builder() {}
+
+        /**
+         * <b>(optional)</b> Hedges every request that has had no response
+         * after {@code delay}. Default {@code null}: the delay follows
+         * {@code percentile}.
+         */
+        @Nonnull
+        public Builder delay(@Nullable Duration delay) {
+            this.delay = delay;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Percentile of recent response times to hedge at,
+         * when no fixed delay is set (default {@code 0.95}).
+         */
+        @Nonnull
+        public Builder percentile(double percentile) {
+            this.percentile = percentile;
+            return this;
+        }
+
+        /** <b>(optional)</b> Shortest adaptive delay (default 10 ms). */
+        @Nonnull
+        public Builder minDelay(@Nonnull Duration minDelay) {
+            this.minDelay = minDelay;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Budget hedges are paid from (default
+         * {@code RetryBudget.of(0.05, 10)}); a hedge it cannot pay for is not sent.
+         */
+        @Nonnull
+        public Builder budget(@Nullable RetryBudget budget) {
+            this.budget = budget;
+            return this;
+        }
+
+        /**
+         * Builds the {@link HedgingPolicy} instance.
+         *
+         * @throws IllegalArgumentException if {@code delay} is negative, {@code percentile} is not
+         *                                  between 0 and 1, or {@code minDelay} is missing or negative
+         */
+        @Nonnull
+        public HedgingPolicy build() {
+            return new HedgingPolicy(validated(), System::nanoTime);
+        }
+
+        Builder validated() {
+            if (delay != null && delay.isNegative()) {
+                throw new IllegalArgumentException("delay must not be negative");
+            }
+            if (!(percentile > 0 && percentile < 1)) {
+                throw new IllegalArgumentException("percentile must be between 0 and 1");
+            }
+            if (minDelay == null || minDelay.isNegative()) {
+                throw new IllegalArgumentException("minDelay must not be negative");
+            }
+            return this;
+        }
+    }
+}
@@ -5,48 +5,207 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.MalformedJsonException;
+import com.lettr.core.exception.CircuitOpenException;
+import com.lettr.core.exception.DeadlineExceededException;
 import com.lettr.core.exception.LettrApiException;
 import com.lettr.core.exception.LettrException;
 import com.lettr.core.exception.LettrValidationException;
+import com.lettr.core.util.Args;
+import com.lettr.core.util.Threads;
 
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
 import java.lang.reflect.Type;
 import java.net.URI;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Internal HTTP client for communicating with the Lettr API.
+ *
+ * <p>One instance serves a whole {@link com.lettr.Lettr} client: every service
+ * shares its {@link Transport} (and with it the connection pool and TLS
+ * sessions) and its {@link Gson}. Requests are built, retried, paced,
+ * compressed and decoded here; the transport only carries out each exchange.
+ * Instances are thread-safe.</p>
+ *
+ * <p>{@link #withOptions(RequestOptions)} returns a view of the client that
+ * applies per-call {@link RequestOptions}; services hand such views out from
+ * their own {@code withOptions}.</p>
  */
-public class HttpClient {
+public class HttpClient implements AutoCloseable {
 
-    private static final String BASE_URL = "https://app.lettr.com/api";
     private static final String SDK_VERSION = loadVersion();
     private static final String USER_AGENT = "lettr-java/" + SDK_VERSION;
-    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+    private static final int GZIP_BUFFER_SIZE = 8 * 1024;
+    private static final Duration UNLIMITED = Duration.ofDays(365);
+    // Paths, relative to the base URL, that a POST to sends an email.
+    private static final Set<String> EMAIL_SENDS = Set.of("/emails", "/emails/scheduled");
+    private static final HttpHeaders NO_HEADERS = HttpHeaders.of(Collections.emptyMap(), (name, value) -> true);
 
     private final String apiKey;
-    private final java.net.http.HttpClient client;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+    private final Transport transport;
     private final Gson gson;
+    private final RetryPolicy retryPolicy;
+    private final Map<String, RateLimiter> rateLimiters;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final Map<String, Priority> priorities;
+    private final Map<String, HedgingPolicy> hedgingPolicies;
+    private final Map<String, CircuitBreaker> circuitBreakers;
+    private final int basePathLength;
+    private final long requestCompressionMinBytes;
+    private final boolean acceptGzip;
+    private final boolean virtualThreads;
+    private final boolean emailIdempotencyKeys;
+    private final IdempotencyStore idempotencyStore;
+    // Per-call settings of a view made by withOptions; a client of its own has none.
+    private final Priority priority;
+    private final Instant deadline;
+    private final Duration totalTimeout;
+    private final Map<String, String> extraHeaders;
+    private final boolean view;
+    // Only what the SDK created itself is released on close(); caller-supplied
+    // executors, clients and transports stay the caller's to manage.
+    private final ExecutorService ownedExecutor;
+    private final boolean ownsTransport;
+    // Shared with every view.
+    private final AtomicBoolean closed;
 
     public HttpClient(String apiKey) {
+        this(apiKey, ClientOptions.defaults());
+    }
+
+    public HttpClient(String apiKey, ClientOptions options) {
         this.apiKey = apiKey;
-        this.client = java.net.http.HttpClient.newBuilder()
-                .connectTimeout(DEFAULT_TIMEOUT)
-                .build();
+        this.baseUrl = options.getBaseUrl();
+        this.requestTimeout = options.getRequestTimeout();
+        this.retryPolicy = options.getRetryPolicy();
+        this.rateLimiters = options.getRateLimiters();
+        this.concurrencyLimiter = options.getConcurrencyLimiter();
+        this.priorities = options.getPriorities();
+        this.hedgingPolicies = options.getHedgingPolicies();
+        this.circuitBreakers = options.getCircuitBreakers();
+        this.requestCompressionMinBytes = options.getRequestCompressionMinBytes() != null
+                ? options.getRequestCompressionMinBytes() : Long.MAX_VALUE;
+        this.acceptGzip = options.isResponseCompression();
+        this.virtualThreads = options.isVirtualThreads();
+        this.emailIdempotencyKeys = options.isEmailIdempotencyKeys();
+        this.idempotencyStore = options.getIdempotencyStore();
+        String basePath = URI.create(baseUrl).getRawPath();
+        this.basePathLength = basePath == null ? 0 : basePath.length();
+        this.priority = null;
+        this.deadline = null;
+        this.totalTimeout = null;
+        this.extraHeaders = Collections.emptyMap();
+        this.view = false;
+        this.closed = new AtomicBoolean();
+
+        if (options.getTransport() != null) {
+            this.transport = options.getTransport();
+            this.ownsTransport = false;
+            this.ownedExecutor = null;
+        } else if (options.getHttpClient() != null) {
+            this.transport = new JdkTransport(options.getHttpClient(), false);
+            this.ownsTransport = true;
+            this.ownedExecutor = null;
+        } else {
+            java.net.http.HttpClient.Builder builder = java.net.http.HttpClient.newBuilder()
+                    .connectTimeout(options.getConnectTimeout());
+            if (options.getExecutor() != null) {
+                builder.executor(options.getExecutor());
+                this.ownedExecutor = null;
+            } else {
+                this.ownedExecutor = Threads.newExecutor("lettr-http-", virtualThreads);
+                builder.executor(ownedExecutor);
+            }
+            if (options.getHttpVersion() != null) {
+                builder.version(options.getHttpVersion());
+            }
+            this.transport = new JdkTransport(builder.build(), true);
+            this.ownsTransport = true;
+        }
+
         this.gson = new GsonBuilder()
                 .setDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX")
                 .create();
     }
 
+    private HttpClient(HttpClient parent, RequestOptions options) {
+        this.apiKey = parent.apiKey;
+        this.baseUrl = parent.baseUrl;
+        this.requestTimeout = options.getTimeout() != null ? options.getTimeout() : parent.requestTimeout;
+        this.transport = parent.transport;
+        this.gson = parent.gson;
+        this.retryPolicy = options.getRetryPolicy() != null ? options.getRetryPolicy() : parent.retryPolicy;
+        this.rateLimiters = parent.rateLimiters;
+        this.concurrencyLimiter = parent.concurrencyLimiter;
+        this.priorities = parent.priorities;
+        this.hedgingPolicies = parent.hedgingPolicies;
+        this.circuitBreakers = parent.circuitBreakers;
+        this.basePathLength = parent.basePathLength;
+        this.requestCompressionMinBytes = parent.requestCompressionMinBytes;
+        this.acceptGzip = parent.acceptGzip;
+        this.virtualThreads = parent.virtualThreads;
+        this.emailIdempotencyKeys = parent.emailIdempotencyKeys;
+        this.idempotencyStore = parent.idempotencyStore;
+        this.priority = options.getPriority() != null ? options.getPriority() : parent.priority;
+        this.deadline = options.getDeadline() != null ? options.getDeadline() : parent.deadline;
+        this.totalTimeout = options.getTotalTimeout() != null ? options.getTotalTimeout() : parent.totalTimeout;
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(parent.extraHeaders);
+        headers.putAll(options.getHeaders());
+        this.extraHeaders = Collections.unmodifiableMap(headers);
+        this.view = true;
+        this.ownedExecutor = null;
+        this.ownsTransport = false;
+        this.closed = parent.closed;
+    }
+
+    /**
+     * Returns a view of this client whose requests follow {@code options}, on
+     * top of any this client already applies. The view shares everything else
+     * with this client: transport, limiters, breakers and its open state.
+     * Closing the view has no effect.
+     *
+     * @param options per-call settings
+     * @return a client applying {@code options}
+     */
+    public HttpClient withOptions(RequestOptions options) {
+        return new HttpClient(this, Args.requireNonNull("options", options));
+    }
+
     /**
      * Perform a GET request.
      *
@@ -58,18 +217,18 @@ public class HttpClient {
      * @throws LettrException on error
      */
     public <T> T get(String path, Map<String, String> queryParams, Type responseType) throws LettrException {
-        String url = buildUrl(path, queryParams);
-
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .timeout(DEFAULT_TIMEOUT)
-                .header("Authorization", "Bearer " + apiKey)
-                .header("Accept", "application/json")
-                .header("User-Agent", USER_AGENT)
-                .GET()
-                .build();
+        return execute(newRequest("GET", buildUrl(path, queryParams), null), adapter(responseType));
+    }
 
-        return execute(request, responseType);
+    /**
+     * Perform a GET request, decoding the "data" field with {@code responseAdapter}
+     * instead of the adapter Gson would pick for the type. Lets a service decode
+     * a response differently per call, e.g. only some fields of it.
+     *
+     * @see #get(String, Map, Type)
+     */
+    public <T> T get(String path, Map<String, String> queryParams, TypeAdapter<T> responseAdapter) throws LettrException {
+        return execute(newRequest("GET", buildUrl(path, queryParams), null), responseAdapter);
     }
 
     /**
@@ -83,20 +242,7 @@ public class HttpClient {
      * @throws LettrException on error
      */
     public <T> T post(String path, Object body, Type responseType) throws LettrException {
-        String url = buildUrl(path, null);
-        String jsonBody = gson.toJson(body);
-
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .timeout(DEFAULT_TIMEOUT)
-                .header("Authorization", "Bearer " + apiKey)
-                .header("Content-Type", "application/json")
-                .header("Accept", "application/json")
-                .header("User-Agent", USER_AGENT)
-                .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
-                .build();
-
-        return execute(request, responseType);
+        return execute(newRequest("POST", buildUrl(path, null), jsonBody(body)), adapter(responseType));
     }
 
     /**
@@ -111,18 +257,7 @@ public class HttpClient {
      * @throws LettrException on error
      */
     public <T> T post(String path, Type responseType) throws LettrException {
-        String url = buildUrl(path, null);
-
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .timeout(DEFAULT_TIMEOUT)
-                .header("Authorization", "Bearer " + apiKey)
-                .header("Accept", "application/json")
-                .header("User-Agent", USER_AGENT)
-                .POST(HttpRequest.BodyPublishers.noBody())
-                .build();
-
-        return execute(request, responseType);
+        return execute(newRequest("POST", buildUrl(path, null), null), adapter(responseType));
     }
 
     /**
@@ -136,20 +271,7 @@ public class HttpClient {
      * @throws LettrException on error
      */
     public <T> T put(String path, Object body, Type responseType) throws LettrException {
-        String url = buildUrl(path, null);
-        String jsonBody = gson.toJson(body);
-
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .timeout(DEFAULT_TIMEOUT)
-                .header("Authorization", "Bearer " + apiKey)
-                .header("Content-Type", "application/json")
-                .header("Accept", "application/json")
-                .header("User-Agent", USER_AGENT)
-                .PUT(HttpRequest.BodyPublishers.ofString(jsonBody))
-                .build();
-
-        return execute(request, responseType);
+        return execute(newRequest("PUT", buildUrl(path, null), jsonBody(body)), adapter(responseType));
     }
 
     /**
@@ -161,20 +283,7 @@ public class HttpClient {
      * @throws LettrException on error
      */
     public void post(String path, Object body) throws LettrException {
-        String url = buildUrl(path, null);
-        String jsonBody = gson.toJson(body);
-
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .timeout(DEFAULT_TIMEOUT)
-                .header("Authorization", "Bearer " + apiKey)
-                .header("Content-Type", "application/json")
-                .header("Accept", "application/json")
-                .header("User-Agent", USER_AGENT)
-                .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
-                .build();
-
-        executeNoResponse(request);
+        executeNoResponse(newRequest("POST", buildUrl(path, null), jsonBody(body)));
     }
 
     /**
@@ -188,20 +297,7 @@ public class HttpClient {
      * @throws LettrException on error
      */
     public <T> T patch(String path, Object body, Type responseType) throws LettrException {
-        String url = buildUrl(path, null);
-        String jsonBody = gson.toJson(body);
-
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .timeout(DEFAULT_TIMEOUT)
-                .header("Authorization", "Bearer " + apiKey)
-                .header("Content-Type", "application/json")
-                .header("Accept", "application/json")
-                .header("User-Agent", USER_AGENT)
-                .method("PATCH", HttpRequest.BodyPublishers.ofString(jsonBody))
-                .build();
-
-        return execute(request, responseType);
+        return execute(newRequest("PATCH", buildUrl(path, null), jsonBody(body)), adapter(responseType));
     }
 
     /**
@@ -222,18 +318,7 @@ public class HttpClient {
      * @throws LettrException on error
      */
     public void delete(String path, Map<String, String> queryParams) throws LettrException {
-        String url = buildUrl(path, queryParams);
-
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .timeout(DEFAULT_TIMEOUT)
-                .header("Authorization", "Bearer " + apiKey)
-                .header("Accept", "application/json")
-                .header("User-Agent", USER_AGENT)
-                .DELETE()
-                .build();
-
-        executeNoResponse(request);
+        executeNoResponse(newRequest("DELETE", buildUrl(path, queryParams), null));
     }
 
     /**
@@ -248,20 +333,64 @@ public class HttpClient {
      * @throws LettrException on error
      */
     public <T> T delete(String path, Object body, Type responseType) throws LettrException {
-        String url = buildUrl(path, null);
-        String jsonBody = gson.toJson(body);
+        return execute(newRequest("DELETE", buildUrl(path, null), jsonBody(body)), adapter(responseType));
+    }
+
+    // --- Asynchronous variants ---
+    //
+    // Each mirrors the blocking method of the same name but is sent with
+    // Transport#sendAsync, so no thread waits on the network.
+    // API and network failures complete the future exceptionally with the same
+    // LettrException subtypes the blocking methods throw.
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .timeout(DEFAULT_TIMEOUT)
-                .header("Authorization", "Bearer " + apiKey)
-                .header("Content-Type", "application/json")
-                .header("Accept", "application/json")
-                .header("User-Agent", USER_AGENT)
-                .method("DELETE", HttpRequest.BodyPublishers.ofString(jsonBody))
-                .build();
+    /** Asynchronous {@link #get(String, Map, Type)}. */
+    public <T> CompletableFuture<T> getAsync(String path, Map<String, String> queryParams, Type responseType) {
+        return executeAsync(newRequest("GET", buildUrl(path, queryParams), null), adapter(responseType));
+    }
 
-        return execute(request, responseType);
+    /** Asynchronous {@link #get(String, Map, TypeAdapter)}. */
+    public <T> CompletableFuture<T> getAsync(String path, Map<String, String> queryParams, TypeAdapter<T> responseAdapter) {
+        return executeAsync(newRequest("GET", buildUrl(path, queryParams), null), responseAdapter);
+    }
+
+    /** Asynchronous {@link #post(String, Object, Type)}. */
+    public <T> CompletableFuture<T> postAsync(String path, Object body, Type responseType) {
+        return executeAsync(newRequest("POST", buildUrl(path, null), jsonBody(body)), adapter(responseType));
+    }
+
+    /** Asynchronous {@link #post(String, Type)}. */
+    public <T> CompletableFuture<T> postAsync(String path, Type responseType) {
+        return executeAsync(newRequest("POST", buildUrl(path, null), null), adapter(responseType));
+    }
+
+    /** Asynchronous {@link #put(String, Object, Type)}. */
+    public <T> CompletableFuture<T> putAsync(String path, Object body, Type responseType) {
+        return executeAsync(newRequest("PUT", buildUrl(path, null), jsonBody(body)), adapter(responseType));
+    }
+
+    /** Asynchronous {@link #post(String, Object)}. */
+    public CompletableFuture<Void> postAsync(String path, Object body) {
+        return executeNoResponseAsync(newRequest("POST", buildUrl(path, null), jsonBody(body)));
+    }
+
+    /** Asynchronous {@link #patch(String, Object, Type)}. */
+    public <T> CompletableFuture<T> patchAsync(String path, Object body, Type responseType) {
+        return executeAsync(newRequest("PATCH", buildUrl(path, null), jsonBody(body)), adapter(responseType));
+    }
+
+    /** Asynchronous {@link #delete(String)}. */
+    public CompletableFuture<Void> deleteAsync(String path) {
+        return deleteAsync(path, (Map<String, String>) null);
+    }
+
+    /** Asynchronous {@link #delete(String, Map)}. */
+    public CompletableFuture<Void> deleteAsync(String path, Map<String, String> queryParams) {
+        return executeNoResponseAsync(newRequest("DELETE", buildUrl(path, queryParams), null));
+    }
+
+    /** Asynchronous {@link #delete(String, Object, Type)}. */
+    public <T> CompletableFuture<T> deleteAsync(String path, Object body, Type responseType) {
+        return executeAsync(newRequest("DELETE", buildUrl(path, null), jsonBody(body)), adapter(responseType));
     }
 
     /**
@@ -281,61 +410,712 @@ public class HttpClient {
                 .replace("%7E", "~");
     }
 
-    private void executeNoResponse(HttpRequest request) throws LettrException {
-        try {
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            int statusCode = response.statusCode();
-
-            if (statusCode == 204) {
-                return; // Success with no content
+    private TransportRequest newRequest(String method, String url, JsonBody jsonBody) {
+        URI uri = URI.create(url);
+        TransportRequest.Builder builder = TransportRequest.builder()
+                .method(method)
+                .uri(uri)
+                .timeout(requestTimeout)
+                .header("Authorization", "Bearer " + apiKey);
+        header(builder, "Accept", "application/json");
+        header(builder, "User-Agent", USER_AGENT);
+        if (acceptGzip) {
+            header(builder, "Accept-Encoding", "gzip");
+        }
+        if (jsonBody != null) {
+            header(builder, "Content-Type", "application/json");
+            String key = derivedIdempotencyKey(method, uri, jsonBody);
+            if (key != null) {
+                builder.header(RetryPolicy.IDEMPOTENCY_KEY_HEADER, key);
+            }
+            // Compressed after the key is derived, which hashes the body as written.
+            JsonBody sent = jsonBody.length() >= requestCompressionMinBytes ? jsonBody.gzip() : jsonBody;
+            if (sent.isGzip()) {
+                header(builder, "Content-Encoding", "gzip");
             }
+            builder.body(sent.publisher());
+        }
+        extraHeaders.forEach(builder::header);
+        return builder.build();
+    }
+
+    /** Sets one of the SDK's own headers, unless the request options replace it. */
+    private void header(TransportRequest.Builder builder, String name, String value) {
+        if (!extraHeaders.containsKey(name)) {
+            builder.header(name, value);
+        }
+    }
+
+    /** Serializes a request body; {@link #newRequest} compresses it if it reaches the configured size. */
+    private JsonBody jsonBody(Object body) {
+        return JsonBody.of(gson, body);
+    }
 
-            if (statusCode >= 400) {
-                handleErrorResponse(statusCode, response.body());
+    /**
+     * Returns the idempotency key of an email send, derived from its method,
+     * path and body, or {@code null} if derived keys are off, the request is
+     * not an email send, the caller gave a key, or the body cannot be read
+     * twice.
+     */
+    private String derivedIdempotencyKey(String method, URI uri, JsonBody body) {
+        if (!emailIdempotencyKeys || !"POST".equals(method)
+                || extraHeaders.containsKey(RetryPolicy.IDEMPOTENCY_KEY_HEADER)) {
+            return null;
+        }
+        String path = relativePath(uri);
+        if (!EMAIL_SENDS.contains(path)) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((method + " " + path + "\n").getBytes(StandardCharsets.UTF_8));
+            if (!body.digestInto(digest)) {
+                return null;
             }
-        } catch (LettrException e) {
-            throw e;
+            return "lettr-" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest());
         } catch (IOException e) {
-            throw new LettrException("Network error communicating with Lettr API", e);
+            // An attachment that cannot be read fails the send, which reports it.
+            return null;
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> TypeAdapter<T> adapter(Type responseType) {
+        return (TypeAdapter<T>) gson.getAdapter(TypeToken.get(responseType));
+    }
+
+    private void executeNoResponse(TransportRequest request) throws LettrException {
+        TransportResponse response = send(request);
+        try (TransportResponse raw = response; InputStream body = decoded(raw)) {
+            handleNoResponse(response.getStatusCode(), body);
+        } catch (IOException e) {
+            throw networkError(e);
+        }
+    }
+
+    private <T> T execute(TransportRequest request, TypeAdapter<T> responseAdapter) throws LettrException {
+        // Decoded on the calling thread as bytes arrive; see handleResponse.
+        TransportResponse response = send(request);
+        try (TransportResponse raw = response; InputStream body = decoded(raw)) {
+            return handleResponse(response.getStatusCode(), body, responseAdapter);
+        } catch (IOException e) {
+            throw networkError(e);
+        }
+    }
+
+    /**
+     * Sends {@code request}, or answers it from the {@link IdempotencyStore}
+     * if its idempotency key is stored there.
+     */
+    private TransportResponse send(TransportRequest request) throws LettrException {
+        String key = storedKey(request);
+        if (key == null) {
+            return sendWithRetries(request);
+        }
+        byte[] stored = lookup(key);
+        if (stored != null) {
+            ensureOpen();
+            return replayed(stored);
+        }
+        TransportResponse response = sendWithRetries(request);
+        try {
+            return remember(key, response);
+        } catch (IOException e) {
+            throw networkError(e);
+        }
+    }
+
+    /**
+     * Sends {@code request}, retrying as the {@link RetryPolicy} allows, and
+     * returns the response of the last attempt.
+     */
+    private TransportResponse sendWithRetries(TransportRequest request) throws LettrException {
+        ensureOpen();
+        long deadline = deadlineNanos();
+        RateLimiter limiter = rateLimiterFor(request);
+        HedgingPolicy hedging = hedgingPolicyFor(request);
+        try {
+            for (int attempt = 1; ; attempt++) {
+                if (limiter != null) {
+                    long wait = limiter.reserve().toNanos();
+                    if (wait > 0 && wait >= nanosLeft(deadline)) {
+                        throw deadlineExceeded(null);
+                    }
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                    ensureOpen();
+                }
+                Duration delay;
+                // The slot is held until the headers arrive; the body is the caller's to read.
+                ConcurrencyLimiter.Permit permit = null;
+                if (concurrencyLimiter != null) {
+                    permit = concurrencyLimiter.acquireBlocking(priorityFor(request), nanosLeft(deadline));
+                    if (permit == null) {
+                        throw deadlineExceeded(null);
+                    }
+                }
+                CircuitBreaker.Call call = null;
+                TransportRequest attempted = request;
+                try {
+                    if (permit != null) {
+                        ensureOpen();
+                    }
+                    attempted = withinDeadline(request, deadline);
+                    // Taken after the slot, so that time spent queueing never counts as a slow call.
+                    call = circuitCallFor(request);
+                    TransportResponse response = hedging != null ? await(hedging.send(transport, attempted))
+                            : transport.send(attempted);
+                    if (call != null) {
+                        call.onResponse(response.getStatusCode());
+                    }
+                    if (permit != null) {
+                        permit.onResponse(response.getStatusCode());
+                    }
+                    if (limiter != null) {
+                        limiter.onResponse(response.getStatusCode(), response.getHeaders());
+                    }
+                    delay = retryPolicy.retryDelay(request, attempt, response.getStatusCode(), response.getHeaders(),
+                            remaining(deadline));
+                    if (delay == null) {
+                        return response;
+                    }
+                    discard(response.getBody());
+                } catch (IOException e) {
+                    if (attempted != request && e instanceof HttpTimeoutException) {
+                        // Cut short by the caller's deadline: no sign of trouble at the
+                        // endpoint, so the call and the slot are given up without an outcome.
+                        throw deadlineExceeded(e);
+                    }
+                    if (call != null) {
+                        call.onError(e);
+                    }
+                    if (permit != null) {
+                        permit.onError(e);
+                    }
+                    delay = retryPolicy.retryDelay(request, attempt, e, remaining(deadline));
+                    if (delay == null) {
+                        throw networkError(e);
+                    }
+                } finally {
+                    if (call != null) {
+                        call.release();
+                    }
+                    if (permit != null) {
+                        permit.release();
+                    }
+                }
+                Thread.sleep(delay.toMillis());
+                ensureOpen();
+            }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new LettrException("Request was interrupted", e);
         }
     }
 
-    private <T> T execute(HttpRequest request, Type responseType) throws LettrException {
-        try {
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            int statusCode = response.statusCode();
-            String responseBody = response.body();
+    // On the async paths the transport completes once the whole body has
+    // arrived (see Transport#sendAsync), so decoding it never blocks a thread
+    // of the transport's executor. The body is still decoded without an
+    // intermediate String or tree.
 
-            if (statusCode >= 400) {
-                handleErrorResponse(statusCode, responseBody);
+    private CompletableFuture<Void> executeNoResponseAsync(TransportRequest request) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        CompletableFuture<TransportResponse> sent = sendAsync(request);
+        // Cancelling the call cancels the request; completing it already did nothing.
+        result.whenComplete((ignored, error) -> sent.cancel(true));
+        sent.whenComplete((response, error) -> {
+            try {
+                if (error != null) {
+                    throw asyncFailure(error);
+                }
+                handleNoResponse(response.getStatusCode(), decoded(response));
+                result.complete(null);
+            } catch (IOException e) {
+                result.completeExceptionally(networkError(e));
+            } catch (Exception e) {
+                result.completeExceptionally(e);
             }
+        });
+        return result;
+    }
 
-            if (responseBody == null || responseBody.isEmpty()) {
-                return null;
+    private <T> CompletableFuture<T> executeAsync(TransportRequest request, TypeAdapter<T> responseAdapter) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        CompletableFuture<TransportResponse> sent = sendAsync(request);
+        result.whenComplete((ignored, error) -> sent.cancel(true));
+        sent.whenComplete((response, error) -> {
+            try {
+                if (error != null) {
+                    throw asyncFailure(error);
+                }
+                result.complete(handleResponse(response.getStatusCode(), decoded(response), responseAdapter));
+            } catch (IOException e) {
+                result.completeExceptionally(networkError(e));
+            } catch (Exception e) {
+                result.completeExceptionally(e);
             }
+        });
+        return result;
+    }
 
-            JsonObject json = JsonParser.parseString(responseBody).getAsJsonObject();
+    /** Asynchronous {@link #send(TransportRequest)}. */
+    private CompletableFuture<TransportResponse> sendAsync(TransportRequest request) {
+        String key = storedKey(request);
+        if (key == null) {
+            return sendWithRetriesAsync(request);
+        }
+        byte[] stored = lookup(key);
+        if (stored != null) {
+            ensureOpen();
+            return CompletableFuture.completedFuture(replayed(stored));
+        }
+        CompletableFuture<TransportResponse> sent = sendWithRetriesAsync(request);
+        CompletableFuture<TransportResponse> result = sent.thenApply(response -> {
+            try {
+                return remember(key, response);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+        result.whenComplete((response, error) -> sent.cancel(true));
+        return result;
+    }
+
+    /** Asynchronous {@link #sendWithRetries(TransportRequest)}; retries are scheduled rather than slept. */
+    private CompletableFuture<TransportResponse> sendWithRetriesAsync(TransportRequest request) {
+        ensureOpen();
+        long deadline = deadlineNanos();
+        CompletableFuture<TransportResponse> result = new CompletableFuture<>();
+        if (deadline != Long.MAX_VALUE) {
+            // Mostly for time spent queueing for a slot: attempts are given no
+            // more time than is left, and retries are not scheduled past it.
+            // The timer is cancelled with the call, so that a finished call
+            // is not kept reachable until its deadline.
+            CompletableFuture<Void> timer = new CompletableFuture<Void>()
+                    .orTimeout(nanosLeft(deadline), TimeUnit.NANOSECONDS);
+            timer.whenComplete((ignored, error) -> {
+                if (error instanceof TimeoutException) {
+                    result.completeExceptionally(deadlineExceeded(null));
+                }
+            });
+            result.whenComplete((response, error) -> timer.cancel(false));
+        }
+        attemptAsync(request, rateLimiterFor(request), 1, result, deadline);
+        return result;
+    }
 
-            if (json.has("data")) {
-                return gson.fromJson(json.get("data"), responseType);
+    private void attemptAsync(TransportRequest request, RateLimiter limiter, int attempt,
+                              CompletableFuture<TransportResponse> result, long deadline) {
+        Duration wait = limiter != null ? limiter.reserve() : Duration.ZERO;
+        if (wait.isZero()) {
+            dispatchAsync(request, limiter, attempt, result, deadline);
+        } else if (wait.toNanos() >= nanosLeft(deadline)) {
+            result.completeExceptionally(deadlineExceeded(null));
+        } else {
+            later(wait, result, () -> dispatchAsync(request, limiter, attempt, result, deadline));
+        }
+    }
+
+    private void dispatchAsync(TransportRequest request, RateLimiter limiter, int attempt,
+                               CompletableFuture<TransportResponse> result, long deadline) {
+        if (concurrencyLimiter == null) {
+            exchangeAsync(request, limiter, attempt, result, deadline, null);
+            return;
+        }
+        // Waiting for a slot holds no thread: the request goes out from
+        // whichever thread releases the slot before it.
+        CompletableFuture<ConcurrencyLimiter.Permit> waiter = concurrencyLimiter.acquire(priorityFor(request));
+        waiter.thenAccept(permit -> {
+            if (result.isDone()) {
+                permit.release();
+                return;
             }
+            try {
+                ensureOpen();
+                exchangeAsync(request, limiter, attempt, result, deadline, permit);
+            } catch (RuntimeException e) {
+                permit.release();
+                result.completeExceptionally(e);
+            }
+        });
+        // Gives up the place in line if the call ends while waiting, e.g. out of time.
+        result.whenComplete((response, error) -> waiter.cancel(false));
+    }
 
-            return gson.fromJson(responseBody, responseType);
+    private void exchangeAsync(TransportRequest request, RateLimiter limiter, int attempt,
+                               CompletableFuture<TransportResponse> result, long deadline,
+                               ConcurrencyLimiter.Permit permit) {
+        TransportRequest attempted;
+        CircuitBreaker.Call call;
+        try {
+            attempted = withinDeadline(request, deadline);
+            call = circuitCallFor(request);
         } catch (LettrException e) {
-            throw e;
-        } catch (IOException e) {
-            throw new LettrException("Network error communicating with Lettr API", e);
+            if (permit != null) {
+                permit.release();
+            }
+            result.completeExceptionally(e);
+            return;
+        }
+        HedgingPolicy hedging = hedgingPolicyFor(request);
+        CompletableFuture<TransportResponse> exchange;
+        try {
+            exchange = hedging != null ? hedging.send(transport, attempted) : transport.sendAsync(attempted);
+        } catch (RuntimeException e) {
+            // A transport that throws instead of failing its future must not
+            // keep the call, a trial slot when half open, or the permit.
+            if (call != null) {
+                call.release();
+            }
+            if (permit != null) {
+                permit.release();
+            }
+            result.completeExceptionally(e);
+            return;
+        }
+        // A call that ends first, cancelled or out of time, aborts the exchange
+        // rather than leaving it to hold a connection and a slot.
+        result.whenComplete((response, error) -> exchange.cancel(true));
+        exchange.whenComplete((response, error) -> {
+            try {
+                if (attempted != request && unwrap(error) instanceof HttpTimeoutException) {
+                    // See send: the call and the slot are given up without an outcome.
+                    if (call != null) {
+                        call.release();
+                    }
+                    if (permit != null) {
+                        permit.release();
+                    }
+                    result.completeExceptionally(deadlineExceeded(unwrap(error)));
+                    return;
+                }
+                if (call != null) {
+                    if (response != null) {
+                        call.onResponse(response.getStatusCode());
+                    } else {
+                        call.onError(unwrap(error));
+                    }
+                }
+                if (permit != null) {
+                    if (response != null) {
+                        permit.onResponse(response.getStatusCode());
+                    } else {
+                        permit.onError(unwrap(error));
+                    }
+                }
+                if (limiter != null && response != null) {
+                    limiter.onResponse(response.getStatusCode(), response.getHeaders());
+                }
+                Duration delay;
+                if (error != null) {
+                    Throwable cause = unwrap(error);
+                    delay = cause instanceof IOException
+                            ? retryPolicy.retryDelay(request, attempt, (IOException) cause, remaining(deadline)) : null;
+                    if (delay == null) {
+                        result.completeExceptionally(error);
+                        return;
+                    }
+                } else {
+                    delay = retryPolicy.retryDelay(request, attempt, response.getStatusCode(), response.getHeaders(),
+                            remaining(deadline));
+                    if (delay == null) {
+                        if (!result.complete(response)) {
+                            response.close(); // the call already ended, e.g. out of time
+                        }
+                        return;
+                    }
+                    discard(response.getBody());
+                }
+                later(delay, result, () -> attemptAsync(request, limiter, attempt + 1, result, deadline));
+            } catch (IOException | RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+    }
+
+    /** Waits for a hedged exchange on the calling thread, unwrapping its failure as {@link #send} would. */
+    private static TransportResponse await(CompletableFuture<TransportResponse> exchange)
+            throws IOException, InterruptedException {
+        try {
+            return exchange.get();
         } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new LettrException("Request was interrupted", e);
-        } catch (Exception e) {
+            exchange.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /** Runs {@code step} after {@code delay} unless {@code result} completes or the client closes first. */
+    private void later(Duration delay, CompletableFuture<?> result, Runnable step) {
+        CompletableFuture.delayedExecutor(delay.toNanos(), TimeUnit.NANOSECONDS).execute(() -> {
+            // The caller may have given up, or closed the client, while we waited.
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                ensureOpen();
+                step.run();
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+    }
+
+    /**
+     * Returns the {@link System#nanoTime()} by which a call starting
+     * now must be done, or {@link Long#MAX_VALUE} if it may take any time.
+     */
+    private long deadlineNanos() {
+        Duration left = totalTimeout;
+        if (deadline != null) {
+            Duration untilDeadline = Duration.between(Instant.now(), deadline);
+            left = left == null || untilDeadline.compareTo(left) < 0 ? untilDeadline : left;
+        }
+        // Beyond a year is as good as unlimited, and safe from overflow.
+        if (left == null || left.compareTo(UNLIMITED) >= 0) {
+            return Long.MAX_VALUE;
+        }
+        return System.nanoTime() + left.toNanos();
+    }
+
+    private static long nanosLeft(long deadline) {
+        return deadline == Long.MAX_VALUE ? Long.MAX_VALUE : Math.max(0, deadline - System.nanoTime());
+    }
+
+    /** Returns the time left before {@code deadline}, or {@code null} if there is no deadline. */
+    private static Duration remaining(long deadline) {
+        return deadline == Long.MAX_VALUE ? null : Duration.ofNanos(nanosLeft(deadline));
+    }
+
+    /** Returns {@code request}, its timeout cut to the time left before {@code deadline}. */
+    private static TransportRequest withinDeadline(TransportRequest request, long deadline)
+            throws DeadlineExceededException {
+        long left = nanosLeft(deadline);
+        if (left == Long.MAX_VALUE) {
+            return request;
+        }
+        if (left == 0) {
+            throw deadlineExceeded(null);
+        }
+        Duration timeout = request.getTimeout();
+        return timeout != null && timeout.toNanos() <= left ? request : request.withTimeout(Duration.ofNanos(left));
+    }
+
+    private static DeadlineExceededException deadlineExceeded(Throwable cause) {
+        return new DeadlineExceededException("Request deadline exceeded", cause);
+    }
+
+    /** Returns the limiter registered for the longest prefix of the request path, if any. */
+    private RateLimiter rateLimiterFor(TransportRequest request) {
+        return rateLimiters.isEmpty() ? null : longestPrefixMatch(rateLimiters, relativePath(request));
+    }
+
+    /**
+     * Returns the priority of the request options, else the override for the
+     * longest prefix of the request path, else the built-in class.
+     */
+    private Priority priorityFor(TransportRequest request) {
+        if (priority != null) {
+            return priority;
+        }
+        String path = relativePath(request);
+        Priority override = priorities.isEmpty() ? null : longestPrefixMatch(priorities, path);
+        return override != null ? override : Priority.classify(request.getMethod(), path);
+    }
+
+    /**
+     * Lets a call through the circuit breaker registered for the longest
+     * prefix of the request path; {@code null} if there is none.
+     */
+    private CircuitBreaker.Call circuitCallFor(TransportRequest request) throws CircuitOpenException {
+        if (circuitBreakers.isEmpty()) {
+            return null;
+        }
+        String prefix = longestPrefix(circuitBreakers.keySet(), relativePath(request));
+        return prefix != null ? circuitBreakers.get(prefix).acquire(prefix.isEmpty() ? "/" : prefix) : null;
+    }
+
+    /**
+     * Returns the hedging policy for a {@code GET} request's longest path
+     * prefix; {@code null} if there is none or it is {@link HedgingPolicy#disabled()}.
+     */
+    private HedgingPolicy hedgingPolicyFor(TransportRequest request) {
+        if (hedgingPolicies.isEmpty() || !"GET".equals(request.getMethod())) {
+            return null;
+        }
+        HedgingPolicy policy = longestPrefixMatch(hedgingPolicies, relativePath(request));
+        return policy != null && !policy.isDisabled() ? policy : null;
+    }
+
+    /**
+     * The key to look {@code request} up by in the store, or {@code null} if
+     * there is no store, the request is not an email send, or it has no
+     * idempotency key. The key is scoped by method and path: a view with a
+     * key also sends it on lookups, which must never be answered from the store.
+     */
+    private String storedKey(TransportRequest request) {
+        if (idempotencyStore == null || !"POST".equals(request.getMethod())) {
+            return null;
+        }
+        String path = relativePath(request);
+        if (!EMAIL_SENDS.contains(path)) {
+            return null;
+        }
+        return request.getHeaders().firstValue(RetryPolicy.IDEMPOTENCY_KEY_HEADER)
+                .map(key -> "POST " + path + " " + key)
+                .orElse(null);
+    }
+
+    private byte[] lookup(String key) {
+        try {
+            return idempotencyStore.get(key);
+        } catch (RuntimeException e) {
+            // A store that cannot be read is no reason to fail the call.
+            return null;
+        }
+    }
+
+    private static TransportResponse replayed(byte[] body) {
+        return TransportResponse.of(200, NO_HEADERS, new ByteArrayInputStream(body));
+    }
+
+    /**
+     * Stores the body of {@code response} under {@code key} if the call
+     * succeeded, and returns the response with its body read and decoded.
+     */
+    private TransportResponse remember(String key, TransportResponse response) throws IOException {
+        if (response.getStatusCode() / 100 != 2) {
+            return response;
+        }
+        byte[] body;
+        try (TransportResponse raw = response; InputStream in = decoded(raw)) {
+            body = in.readAllBytes();
+        }
+        try {
+            idempotencyStore.put(key, body);
+        } catch (RuntimeException ignored) {
+            // The email was sent; failing to remember it must not report otherwise.
+        }
+        HttpHeaders headers = HttpHeaders.of(response.getHeaders().map(),
+                (name, value) -> !name.equalsIgnoreCase("Content-Encoding"));
+        return TransportResponse.of(response.getStatusCode(), headers, new ByteArrayInputStream(body));
+    }
+
+    private String relativePath(TransportRequest request) {
+        return relativePath(request.getUri());
+    }
+
+    private String relativePath(URI uri) {
+        String rawPath = uri.getRawPath();
+        return rawPath.length() >= basePathLength ? rawPath.substring(basePathLength) : rawPath;
+    }
+
+    private static <V> V longestPrefixMatch(Map<String, V> byPrefix, String path) {
+        String prefix = longestPrefix(byPrefix.keySet(), path);
+        return prefix != null ? byPrefix.get(prefix) : null;
+    }
+
+    /** Returns the longest of {@code prefixes} that matches {@code path} in whole segments, if any. */
+    private static String longestPrefix(Iterable<String> prefixes, String path) {
+        String match = null;
+        for (String prefix : prefixes) {
+            boolean matches = path.startsWith(prefix)
+                    && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/');
+            if (matches && (match == null || prefix.length() > match.length())) {
+                match = prefix;
+            }
+        }
+        return match;
+    }
+
+    private static void discard(InputStream body) throws IOException {
+        try (InputStream in = body) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    /**
+     * Returns the body of {@code response}, decompressed as it is read if the
+     * response is gzipped. An empty body, as some servers send with a 204, is
+     * returned as is, since there is no gzip header to read.
+     */
+    private static InputStream decoded(TransportResponse response) throws IOException {
+        InputStream body = response.getBody();
+        String encoding = response.getHeaders().firstValue("Content-Encoding").orElse("");
+        if (!encoding.equalsIgnoreCase("gzip") && !encoding.equalsIgnoreCase("x-gzip")) {
+            return body;
+        }
+        PushbackInputStream in = new PushbackInputStream(body, 1);
+        int first = in.read();
+        if (first < 0) {
+            return in;
+        }
+        in.unread(first);
+        return new GZIPInputStream(in, GZIP_BUFFER_SIZE);
+    }
+
+    private void handleNoResponse(int statusCode, InputStream body) throws LettrException, IOException {
+        if (statusCode >= 400) {
+            handleErrorResponse(statusCode, readString(body));
+        }
+        // 2xx bodies carry at most a {"message": ...} envelope; drain it so the
+        // connection can be reused.
+        body.transferTo(OutputStream.nullOutputStream());
+    }
+
+    /**
+     * Binds a successful response straight from the body stream (see
+     * {@link EnvelopeDecoder}); error bodies are small and read whole.
+     */
+    private <T> T handleResponse(int statusCode, InputStream body, TypeAdapter<T> responseAdapter) throws LettrException, IOException {
+        if (statusCode >= 400) {
+            handleErrorResponse(statusCode, readString(body));
+        }
+
+        try {
+            return EnvelopeDecoder.decode(gson, body, responseAdapter);
+        } catch (MalformedJsonException | EOFException | RuntimeException e) {
             throw new LettrException("Failed to parse API response", e);
         }
     }
 
+    private static String readString(InputStream body) throws IOException {
+        return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    private static LettrException networkError(IOException e) {
+        return new LettrException("Network error communicating with Lettr API", e);
+    }
+
+    /** Maps the failure of an asynchronous exchange to what the blocking path would throw. */
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static LettrException asyncFailure(Throwable error) {
+        Throwable cause = unwrap(error);
+        if (cause instanceof LettrException) {
+            return (LettrException) cause;
+        }
+        if (cause instanceof IOException) {
+            return networkError((IOException) cause);
+        }
+        if (cause instanceof CancellationException) {
+            return new LettrException("Request was cancelled", cause);
+        }
+        return new LettrException("Request failed", cause);
+    }
+
     private void handleErrorResponse(int statusCode, String responseBody) throws LettrException {
         if (responseBody == null || responseBody.isEmpty()) {
             throw new LettrApiException("API request failed with status " + statusCode, statusCode, null);
@@ -370,8 +1150,8 @@ public class HttpClient {
         }
     }
 
-    private String buildUrl(String path, Map<String, String> queryParams) {
-        StringBuilder url = new StringBuilder(BASE_URL).append(path);
+    String buildUrl(String path, Map<String, String> queryParams) {
+        StringBuilder url = new StringBuilder(baseUrl).append(path);
 
         if (queryParams != null && !queryParams.isEmpty()) {
             url.append("?");
@@ -401,6 +1181,46 @@ public class HttpClient {
         return gson;
     }
 
+    /**
+     * Releases the threads this client created. Requests already in flight are
+     * allowed to finish; new requests fail with {@link IllegalStateException}.
+     * A caller-supplied executor, JDK client or transport is left untouched.
+     * Idempotent; does nothing on a view made by {@link #withOptions(RequestOptions)}.
+     */
+    @Override
+    public void close() {
+        if (view || !closed.compareAndSet(false, true)) {
+            return;
+        }
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+        if (ownsTransport) {
+            transport.close();
+        }
+    }
+
+    /**
+     * Returns whether the SDK's own threads for this client are virtual
+     * threads (see {@link ClientOptions.Builder#virtualThreads(boolean)}).
+     * Helpers that fan work out, such as {@code BatchingEmailSender}, create
+     * their threads to match.
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /** Returns whether {@link #close()} has been called. */
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    private void ensureOpen() {
+        if (closed.get()) {
+            throw new IllegalStateException("Lettr client has been closed");
+        }
+    }
+
     private static String loadVersion() {
         try (InputStream in = HttpClient.class.getResourceAsStream("/com/lettr/version.properties")) {
             if (in == null) {
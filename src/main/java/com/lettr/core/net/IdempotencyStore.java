@@ -0,0 +1,48 @@
+package com.lettr.core.net;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Remembers the responses to email sends made with an idempotency key, so
+ * that sending the same key again is answered locally instead of going to the
+ * API.
+ *
+ * <p>Install one with {@link ClientOptions.Builder#idempotencyStore(IdempotencyStore)}.
+ * Before an email send ({@code POST /emails} or {@code POST /emails/scheduled})
+ * carrying an {@code Idempotency-Key} header is sent, the client looks the key
+ * up, prefixed with the method and path, e.g.
+ * {@code "POST /emails send-42"}. Other requests never use the store. If a response is stored, the call returns it
+ * without making a request. Otherwise the request is sent as usual, and a
+ * successful ({@code 2xx}) response body is stored under the key. Failed
+ * calls are not stored, so they may be retried.</p>
+ *
+ * <p>Implementations decide how long entries are kept:
+ * {@link MemoryIdempotencyStore} for one process, and
+ * {@link FileIdempotencyStore} to survive restarts or be shared by processes
+ * on one host. They must be thread-safe. A store that fails does not fail the
+ * call: a lookup that throws counts as a miss, and a response that cannot be
+ * stored is still returned. Keys are not scoped by API key, so a store should
+ * serve clients of a single account.</p>
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Returns the response body stored under {@code key}, or {@code null} if
+     * there is none or it has expired.
+     *
+     * @param key the idempotency key
+     * @return the stored body, not to be modified
+     */
+    @Nullable
+    byte[] get(@Nonnull String key);
+
+    /**
+     * Stores the body of a successful response to the request sent with
+     * {@code key}, replacing any body stored before.
+     *
+     * @param key  the idempotency key
+     * @param body the decoded response body, not to be modified
+     */
+    void put(@Nonnull String key, @Nonnull byte[] body);
+}
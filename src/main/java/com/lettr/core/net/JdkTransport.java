@@ -0,0 +1,84 @@
+package com.lettr.core.net;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The default {@link Transport}, backed by a {@code java.net.http.HttpClient}.
+ *
+ * <p>Blocking sends hand back the body as the JDK's response stream, read as
+ * it arrives. Asynchronous sends collect the body as bytes instead: reading a
+ * stream would park a thread of the client's executor until the body
+ * arrived, and a small caller-supplied executor could then starve the very
+ * threads that deliver it.</p>
+ */
+final class JdkTransport implements Transport {
+
+    private final java.net.http.HttpClient client;
+    private final boolean ownsClient;
+
+    /**
+     * @param ownsClient whether {@link #close()} closes {@code client}; a
+     *                   caller-supplied client stays the caller's to manage
+     */
+    JdkTransport(java.net.http.HttpClient client, boolean ownsClient) {
+        this.client = client;
+        this.ownsClient = ownsClient;
+    }
+
+    @Override
+    public TransportResponse send(TransportRequest request) throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = client.send(toHttpRequest(request), HttpResponse.BodyHandlers.ofInputStream());
+        return TransportResponse.of(response.statusCode(), response.headers(), response.body());
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> sendAsync(TransportRequest request) {
+        HttpRequest httpRequest;
+        try {
+            httpRequest = toHttpRequest(request);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<HttpResponse<byte[]>> exchange =
+                client.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofByteArray());
+        CompletableFuture<TransportResponse> response = exchange.thenApply(r ->
+                TransportResponse.of(r.statusCode(), r.headers(), new ByteArrayInputStream(r.body())));
+        // Cancelling a dependent stage does not reach the exchange by itself.
+        // Since Java 16, cancelling the client's own future aborts the exchange.
+        response.whenComplete((r, error) -> {
+            if (response.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        return response;
+    }
+
+    private static HttpRequest toHttpRequest(TransportRequest request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request.getUri());
+        if (request.getTimeout() != null) {
+            builder.timeout(request.getTimeout());
+        }
+        request.getHeaders().map().forEach((name, values) -> values.forEach(value -> builder.header(name, value)));
+        HttpRequest.BodyPublisher body = request.getBody();
+        builder.method(request.getMethod(), body != null ? body : HttpRequest.BodyPublishers.noBody());
+        return builder.build();
+    }
+
+    @Override
+    public void close() {
+        // java.net.http.HttpClient only became AutoCloseable in Java 21; on
+        // older runtimes its selector thread exits once the client is unreachable.
+        if (ownsClient && client instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) client).close();
+            } catch (Exception ignored) {
+                // Best effort: the client is being discarded either way.
+            }
+        }
+    }
+}
@@ -0,0 +1,498 @@
+package com.lettr.core.net;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonNull;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serializes a request body straight to UTF-8 in fixed-size chunks.
+ *
+ * <p>{@code BodyPublishers.ofString(gson.toJson(body))} holds the body twice
+ * at its peak — once as a {@code String}, UTF-16 as soon as it contains a
+ * non-Latin-1 character, and again as the single UTF-8 array it is encoded
+ * into — and that array is one humongous allocation for a body of a few
+ * megabytes. Here Gson writes into a {@link Writer} that encodes as it goes,
+ * so the body exists once, as {@value #CHUNK_SIZE}-byte arrays, and nothing
+ * larger than a chunk is allocated.</p>
+ *
+ * <p>The chunks are handed to {@code java.net.http} as they are and are not
+ * reused afterwards: the client gives no signal when it has finished writing
+ * a buffer, so recycling one could corrupt a later request. The same
+ * publisher can be subscribed again, which retries rely on.</p>
+ *
+ * <p>{@link BinaryContent} read from a file, buffer or stream is not written
+ * into the chunks. Its place in the body is recorded, and it is base64-encoded
+ * from its source while the body is published, so it never exists on the heap
+ * as a whole. Its length is still exact unless the content comes from an
+ * {@code InputStream}.</p>
+ *
+ * <p>{@link #gzip()} compresses a body into chunks of its own, so a gzipped
+ * body keeps its exact length and is compressed once however often it is
+ * retried.</p>
+ */
+final class JsonBody {
+
+    static final int CHUNK_SIZE = 16 * 1024;
+
+    // Each part is a byte[] chunk or deferred BinaryContent.
+    private final List<Object> parts;
+    private final long length;
+    private final boolean deferred;
+    private final boolean gzip;
+
+    private JsonBody(List<Object> parts, long length, boolean deferred, boolean gzip) {
+        this.parts = parts;
+        this.length = length;
+        this.deferred = deferred;
+        this.gzip = gzip;
+    }
+
+    /** Serializes {@code body} with {@code gson}; {@code null} is written as JSON {@code null}. */
+    static JsonBody of(Gson gson, Object body) {
+        Utf8ChunkWriter out = new Utf8ChunkWriter();
+        try {
+            JsonWriter writer = new BodyWriter(out, gson.newJsonWriter(out));
+            if (body == null) {
+                gson.toJson(JsonNull.INSTANCE, writer);
+            } else {
+                gson.toJson(body, body.getClass(), writer);
+            }
+            writer.flush();
+        } catch (IOException e) {
+            // The writer only fills arrays, so this is unreachable.
+            throw new UncheckedIOException(e);
+        }
+        return new JsonBody(out.finish(), out.length(), out.hasDeferred(), false);
+    }
+
+    /** Returns a publisher of {@code body} serialized with {@code gson}, with its exact content length if known. */
+    static HttpRequest.BodyPublisher publisher(Gson gson, Object body) {
+        return of(gson, body).publisher();
+    }
+
+    /** Length in bytes as sent, or -1 if it is not known until the body is published. */
+    long length() {
+        return length;
+    }
+
+    /** Whether the body is gzip-compressed and needs {@code Content-Encoding: gzip}. */
+    boolean isGzip() {
+        return gzip;
+    }
+
+    /**
+     * Returns this body gzip-compressed, in chunks like the original, so that
+     * it still has an exact length and can be published again on a retry.
+     * A body with deferred {@link BinaryContent} is returned as is: its
+     * content is only read while it is published, and base64 of files that
+     * are mostly compressed already would gain little.
+     */
+    JsonBody gzip() {
+        if (gzip || deferred) {
+            return this;
+        }
+        ChunkOutputStream chunks = new ChunkOutputStream();
+        // The fastest level: on API JSON it compresses within a few percent of
+        // the default at about half the CPU.
+        try (GZIPOutputStream out = new GZIPOutputStream(chunks, CHUNK_SIZE) {
+            {
+                def.setLevel(Deflater.BEST_SPEED);
+            }
+        }) {
+            for (Object part : parts) {
+                out.write((byte[]) part);
+            }
+        } catch (IOException e) {
+            // Only arrays are written to, so this is unreachable.
+            throw new UncheckedIOException(e);
+        }
+        return new JsonBody(chunks.finish(), chunks.length(), false, true);
+    }
+
+    /**
+     * Feeds the body as published, before any compression, to {@code digest}.
+     * Returns {@code false}, having read nothing, if the body holds content
+     * from an {@code InputStream}, which can only be read once.
+     */
+    boolean digestInto(MessageDigest digest) throws IOException {
+        if (gzip) {
+            throw new IllegalStateException("digest the body before compressing it");
+        }
+        for (Object part : parts) {
+            if (part instanceof BinaryContent && ((BinaryContent) part).base64Length() < 0) {
+                return false;
+            }
+        }
+        for (Object part : parts) {
+            if (part instanceof byte[]) {
+                digest.update((byte[]) part);
+                continue;
+            }
+            try (BinaryContent.Chunks chunks = ((BinaryContent) part).base64Chunks()) {
+                for (ByteBuffer chunk = chunks.next(); chunk != null; chunk = chunks.next()) {
+                    digest.update(chunk);
+                }
+            }
+        }
+        return true;
+    }
+
+    /** Returns a publisher of this body, which can be subscribed any number of times. */
+    HttpRequest.BodyPublisher publisher() {
+        if (!deferred) {
+            @SuppressWarnings("unchecked")
+            List<byte[]> chunks = (List<byte[]>) (List<?>) parts;
+            return HttpRequest.BodyPublishers.fromPublisher(HttpRequest.BodyPublishers.ofByteArrays(chunks), length);
+        }
+        PartsPublisher publisher = new PartsPublisher(parts);
+        return length < 0
+                ? HttpRequest.BodyPublishers.fromPublisher(publisher)
+                : HttpRequest.BodyPublishers.fromPublisher(publisher, length);
+    }
+
+    /** Collects bytes into a list of {@value #CHUNK_SIZE}-byte chunks. */
+    private static final class ChunkOutputStream extends OutputStream {
+
+        private final List<Object> chunks = new ArrayList<>();
+        private byte[] chunk = new byte[CHUNK_SIZE];
+        private int position;
+        private long length;
+
+        @Override
+        public void write(int b) {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            while (len > 0) {
+                if (position == CHUNK_SIZE) {
+                    chunks.add(chunk);
+                    chunk = new byte[CHUNK_SIZE];
+                    position = 0;
+                }
+                int n = Math.min(len, CHUNK_SIZE - position);
+                System.arraycopy(b, off, chunk, position, n);
+                position += n;
+                off += n;
+                len -= n;
+                length += n;
+            }
+        }
+
+        long length() {
+            return length;
+        }
+
+        List<Object> finish() {
+            if (position > 0) {
+                chunks.add(Arrays.copyOf(chunk, position));
+            }
+            chunk = null;
+            return chunks;
+        }
+    }
+
+    /**
+     * A {@link JsonWriter} that lets {@link BinaryContent.Adapter} leave content
+     * to be encoded when the body is published.
+     */
+    static final class BodyWriter extends JsonWriter {
+
+        private final Utf8ChunkWriter out;
+
+        /** Writes to {@code out} with the settings Gson gave {@code template}. */
+        BodyWriter(Utf8ChunkWriter out, JsonWriter template) {
+            super(out);
+            this.out = out;
+            setFormattingStyle(template.getFormattingStyle());
+            setHtmlSafe(template.isHtmlSafe());
+            setStrictness(template.getStrictness());
+            setSerializeNulls(template.getSerializeNulls());
+        }
+
+        /** Writes {@code content} as a string value whose base64 text is produced later. */
+        void base64Value(BinaryContent content) throws IOException {
+            // Opens the string and completes the value as far as JsonWriter's
+            // state is concerned; nothing is buffered between it and out.
+            jsonValue("\"");
+            out.defer(content);
+            out.write('"');
+        }
+    }
+
+    /**
+     * Publishes the parts of a body in order, opening deferred content only
+     * when it is reached and reading no further ahead than the subscriber
+     * has asked for.
+     */
+    private static final class PartsPublisher implements Flow.Publisher<ByteBuffer> {
+
+        private final List<Object> parts;
+
+        PartsPublisher(List<Object> parts) {
+            this.parts = parts;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+            PartsSubscription subscription = new PartsSubscription(parts, subscriber);
+            subscriber.onSubscribe(subscription);
+            subscription.drain();
+        }
+    }
+
+    private static final class PartsSubscription implements Flow.Subscription {
+
+        private final List<Object> parts;
+        private final Flow.Subscriber<? super ByteBuffer> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        // Serializes drain(): only the thread that raises it from zero emits.
+        private final AtomicInteger drains = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable badRequest;
+        private int next;
+        private BinaryContent.Chunks current;
+        private boolean done;
+
+        PartsSubscription(List<Object> parts, Flow.Subscriber<? super ByteBuffer> subscriber) {
+            this.parts = parts;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                badRequest = new IllegalArgumentException("request must be positive: " + n);
+            } else {
+                demand.getAndUpdate(d -> d + n < 0 ? Long.MAX_VALUE : d + n);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        void drain() {
+            if (drains.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                if (done) {
+                    continue;
+                }
+                if (cancelled) {
+                    finish(null, false);
+                    continue;
+                }
+                if (badRequest != null) {
+                    finish(badRequest, true);
+                    continue;
+                }
+                while (demand.get() > 0 && !cancelled) {
+                    ByteBuffer buffer;
+                    try {
+                        buffer = nextBuffer();
+                    } catch (IOException | RuntimeException e) {
+                        finish(e, true);
+                        break;
+                    }
+                    if (buffer == null) {
+                        finish(null, true);
+                        break;
+                    }
+                    demand.decrementAndGet();
+                    subscriber.onNext(buffer);
+                }
+            } while (drains.decrementAndGet() != 0);
+        }
+
+        private ByteBuffer nextBuffer() throws IOException {
+            while (true) {
+                if (current != null) {
+                    ByteBuffer buffer = current.next();
+                    if (buffer != null) {
+                        return buffer;
+                    }
+                    current.close();
+                    current = null;
+                }
+                if (next == parts.size()) {
+                    return null;
+                }
+                Object part = parts.get(next++);
+                if (part instanceof byte[]) {
+                    return ByteBuffer.wrap((byte[]) part);
+                }
+                current = ((BinaryContent) part).base64Chunks();
+            }
+        }
+
+        private void finish(Throwable error, boolean signal) {
+            done = true;
+            if (current != null) {
+                try {
+                    current.close();
+                } catch (IOException e) {
+                    if (error != null) {
+                        error.addSuppressed(e);
+                    }
+                }
+                current = null;
+            }
+            if (!signal) {
+                return;
+            }
+            if (error == null) {
+                subscriber.onComplete();
+            } else {
+                subscriber.onError(error);
+            }
+        }
+    }
+
+    /**
+     * Encodes characters to UTF-8 into a list of chunks, replacing an unpaired
+     * surrogate with {@code '?'} as {@link String#getBytes} does.
+     */
+    static final class Utf8ChunkWriter extends Writer {
+
+        private final List<Object> parts = new ArrayList<>();
+        private byte[] chunk = new byte[CHUNK_SIZE];
+        private int position;
+        private long length;
+        private char highSurrogate;
+        private boolean deferred;
+
+        @Override
+        public void write(int c) {
+            encode((char) c);
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int count) {
+            for (int i = offset, end = offset + count; i < end; i++) {
+                encode(buffer[i]);
+            }
+        }
+
+        @Override
+        public void write(String text, int offset, int count) {
+            for (int i = offset, end = offset + count; i < end; i++) {
+                encode(text.charAt(i));
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        /** Total bytes written, or -1 if deferred content of unknown length was. */
+        long length() {
+            return length;
+        }
+
+        /** Whether {@link #defer} was called. */
+        boolean hasDeferred() {
+            return deferred;
+        }
+
+        /** Records {@code content} to be base64-encoded at this point when the body is published. */
+        void defer(BinaryContent content) {
+            flushSurrogate();
+            if (position > 0) {
+                parts.add(Arrays.copyOf(chunk, position));
+                position = 0;
+            }
+            parts.add(content);
+            deferred = true;
+            long contentLength = content.base64Length();
+            length = length < 0 || contentLength < 0 ? -1 : length + contentLength;
+        }
+
+        /**
+         * Returns the chunks, the last trimmed to its content, with any deferred
+         * {@link BinaryContent} in between. No writes may follow.
+         */
+        List<Object> finish() {
+            flushSurrogate();
+            if (position > 0) {
+                parts.add(Arrays.copyOf(chunk, position));
+            }
+            chunk = null;
+            return parts;
+        }
+
+        private void flushSurrogate() {
+            if (highSurrogate != 0) {
+                highSurrogate = 0;
+                put('?');
+            }
+        }
+
+        private void encode(char c) {
+            if (highSurrogate != 0) {
+                char high = highSurrogate;
+                highSurrogate = 0;
+                if (Character.isLowSurrogate(c)) {
+                    int codePoint = Character.toCodePoint(high, c);
+                    put(0xF0 | (codePoint >> 18));
+                    put(0x80 | ((codePoint >> 12) & 0x3F));
+                    put(0x80 | ((codePoint >> 6) & 0x3F));
+                    put(0x80 | (codePoint & 0x3F));
+                    return;
+                }
+                put('?');
+            }
+            if (c < 0x80) {
+                put(c);
+            } else if (c < 0x800) {
+                put(0xC0 | (c >> 6));
+                put(0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c)) {
+                highSurrogate = c;
+            } else if (Character.isLowSurrogate(c)) {
+                put('?');
+            } else {
+                put(0xE0 | (c >> 12));
+                put(0x80 | ((c >> 6) & 0x3F));
+                put(0x80 | (c & 0x3F));
+            }
+        }
+
+        private void put(int b) {
+            if (position == CHUNK_SIZE) {
+                parts.add(chunk);
+                chunk = new byte[CHUNK_SIZE];
+                position = 0;
+            }
+            chunk[position++] = (byte) b;
+            if (length >= 0) {
+                length++;
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.lettr.core.net;
+
+import com.lettr.core.util.Args;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * An {@link IdempotencyStore} that keeps responses on the heap for
+ * {@code ttl}, and at most {@code maxEntries} of them, evicting the oldest
+ * first. Entries are lost when the process exits.
+ *
+ * <pre>{@code
+ * Lettr lettr = new Lettr("your-api-key", ClientOptions.builder()
+ *     .emailIdempotencyKeys(true)
+ *     .idempotencyStore(MemoryIdempotencyStore.of(Duration.ofHours(1), 10_000))
+ *     .build());
+ * }</pre>
+ */
+public final class MemoryIdempotencyStore implements IdempotencyStore {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier clock;
+    // Guarded by this. In insertion order, which with a single ttl is also
+    // the order entries expire in.
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    private MemoryIdempotencyStore(Duration ttl, int maxEntries, LongSupplier clock) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    /**
+     * Creates a store keeping each response for {@code ttl}, and at most
+     * {@code maxEntries} responses.
+     *
+     * @throws IllegalArgumentException if {@code ttl} is missing or not positive,
+     *                                  or {@code maxEntries} is below 1
+     */
+    @Nonnull
+    public static MemoryIdempotencyStore of(@Nonnull Duration ttl, int maxEntries) {
+        return withClock(ttl, maxEntries, System::nanoTime);
+    }
+
+    /** Test hook: a store running on the given nanosecond clock. */
+    static MemoryIdempotencyStore withClock(Duration ttl, int maxEntries, LongSupplier clock) {
+        Args.requireNonNull("ttl", ttl);
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        return new MemoryIdempotencyStore(ttl, maxEntries, clock);
+    }
+
+    /** Returns the number of responses held, expired ones not yet evicted included. */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Nullable
+    @Override
+    public synchronized byte[] get(@Nonnull String key) {
+        evictExpired(clock.getAsLong());
+        Entry entry = entries.get(key);
+        return entry != null ? entry.body : null;
+    }
+
+    @Override
+    public synchronized void put(@Nonnull String key, @Nonnull byte[] body) {
+        long now = clock.getAsLong();
+        evictExpired(now);
+        // Removed first, so that a replaced entry moves to the end of the line.
+        entries.remove(key);
+        entries.put(key, new Entry(body, now + ttlNanos));
+        if (entries.size() > maxEntries) {
+            Iterator<Entry> oldest = entries.values().iterator();
+            oldest.next();
+            oldest.remove();
+        }
+    }
+
+    private void evictExpired(long now) {
+        for (Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+            if (now - it.next().getValue().expiresAt < 0) {
+                return;
+            }
+            it.remove();
+        }
+    }
+
+    private static final class Entry {
+        final byte[] body;
+        final long expiresAt;
+
+        Entry(byte[] body, long expiresAt) {
+            this.body = body;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
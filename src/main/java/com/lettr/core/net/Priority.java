@@ -0,0 +1,46 @@
+package com.lettr.core.net;
+
+/**
+ * Scheduling class of a request. When every slot of a
+ * {@link ConcurrencyLimiter} is taken, waiting requests are let through by
+ * weighted fair queuing across classes, and each class may have slots kept
+ * free for it (see {@link ConcurrencyLimiter.Builder#weight(Priority, int)}
+ * and {@link ConcurrencyLimiter.Builder#reserve(Priority, int)}). Without a
+ * concurrency limiter, priorities have no effect.
+ *
+ * <p>Unless {@link ClientOptions.Builder#priority(String, Priority)} says
+ * otherwise, sending an email ({@code POST /emails} and
+ * {@code POST /emails/scheduled}) is {@link #TRANSACTIONAL}, bulk contact
+ * endpoints ({@code .../bulk}) and {@code /emails/events} are {@link #BULK},
+ * and everything else is {@link #INTERACTIVE}.</p>
+ */
+public enum Priority {
+
+    /** Email sends a person is waiting on, such as password resets. Weight 8 by default. */
+    TRANSACTIONAL(8),
+    /** Lookups and changes made on behalf of a user. Weight 4 by default. */
+    INTERACTIVE(4),
+    /** Imports, backfills and other background work. Weight 1 by default. */
+    BULK(1);
+
+    private final int defaultWeight;
+
+    Priority(int defaultWeight) {
+        this.defaultWeight = defaultWeight;
+    }
+
+    int defaultWeight() {
+        return defaultWeight;
+    }
+
+    /** The built-in class of a request with {@code method} to {@code path}, relative to the base URL. */
+    static Priority classify(String method, String path) {
+        if ("POST".equals(method) && ("/emails".equals(path) || "/emails/scheduled".equals(path))) {
+            return TRANSACTIONAL;
+        }
+        if (path.endsWith("/bulk") || "/emails/events".equals(path)) {
+            return BULK;
+        }
+        return INTERACTIVE;
+    }
+}
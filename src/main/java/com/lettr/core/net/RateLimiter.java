@@ -0,0 +1,261 @@
+package com.lettr.core.net;
+
+import javax.annotation.Nonnull;
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket that paces the requests sent to one family of endpoints.
+ *
+ * <p>The bucket holds up to {@code burst} permits and refills at
+ * {@code permitsPerSecond}. A request that finds it empty waits for its permit
+ * before it is sent, rather than being sent early and rejected with a
+ * {@code 429}. Register limiters per path prefix with
+ * {@link ClientOptions.Builder#rateLimiter(String, RateLimiter)}:</p>
+ *
+ * <pre>{@code
+ * Lettr lettr = new Lettr("your-api-key", ClientOptions.builder()
+ *     .rateLimiter("/emails", RateLimiter.builder().permitsPerSecond(50).burst(100).build())
+ *     .rateLimiter("/audience", RateLimiter.builder().permitsPerSecond(10).build())
+ *     .build());
+ * }</pre>
+ *
+ * <p>When adaptive (the default), the limiter also follows what the API tells
+ * it: a {@code 429} halves the rate, at most once a second and never below
+ * {@code minPermitsPerSecond}, and each successful response wins back 1% of
+ * the configured rate. A {@code Retry-After} header, or a
+ * {@code RateLimit-Remaining}/{@code X-RateLimit-Remaining} of zero with its
+ * matching {@code Reset}, holds every request back until that time (at most
+ * 60 seconds).</p>
+ *
+ * <p>Permits are handed out with a single compare-and-set on the time the
+ * bucket next runs dry, so the limiter stays cheap with many threads sending
+ * at once. Instances are thread-safe.</p>
+ */
+public final class RateLimiter {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long MAX_PAUSE_NANOS = TimeUnit.SECONDS.toNanos(60);
+    private static final long DECREASE_COOLDOWN_NANOS = NANOS_PER_SECOND;
+    // Reset values this large are Unix timestamps rather than delta-seconds.
+    private static final long EPOCH_SECONDS_THRESHOLD = 1_000_000_000L;
+
+    private final double configuredRate;
+    private final double minRate;
+    private final int burst;
+    private final boolean adaptive;
+    private final LongSupplier clock;
+
+    /** Bits of the current rate, as a double. */
+    private final AtomicLong rate;
+    /** Theoretical time (nanos) at which the bucket is full again; see {@link #reserve()}. */
+    private final AtomicLong fullAt;
+    private final AtomicLong lastDecrease;
+
+    private RateLimiter(Builder builder, LongSupplier clock) {
+        this.configuredRate = builder.permitsPerSecond;
+        this.minRate = Math.min(builder.minPermitsPerSecond, builder.permitsPerSecond);
+        this.burst = builder.burst;
+        this.adaptive = builder.adaptive;
+        this.clock = clock;
+        this.rate = new AtomicLong(Double.doubleToLongBits(configuredRate));
+        long now = clock.getAsLong();
+        this.fullAt = new AtomicLong(now);
+        this.lastDecrease = new AtomicLong(now - DECREASE_COOLDOWN_NANOS);
+    }
+
+    @Nonnull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Returns the configured rate in permits per second. */
+    public double getPermitsPerSecond() {
+        return configuredRate;
+    }
+
+    /** Returns the rate currently applied, which is lower than the configured one after a {@code 429}. */
+    public double getCurrentPermitsPerSecond() {
+        return Double.longBitsToDouble(rate.get());
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    /**
+     * Takes a permit and returns how long the caller must wait before using it
+     * ({@link Duration#ZERO} if it can send straight away). The permit is the
+     * caller's either way; waiting is up to the caller.
+     */
+    @Nonnull
+    Duration reserve() {
+        long interval = interval();
+        long capacity = interval * burst;
+        while (true) {
+            long now = clock.getAsLong();
+            long current = fullAt.get();
+            // Each permit pushes the "full again" time one interval further out;
+            // a permit is usable once that time is within one bucket of now.
+            long next = Math.max(current, now) + interval;
+            if (fullAt.compareAndSet(current, next)) {
+                long wait = next - capacity - now;
+                return wait > 0 ? Duration.ofNanos(wait) : Duration.ZERO;
+            }
+        }
+    }
+
+    /** Adjusts the rate from the status and rate-limit headers of a response. */
+    void onResponse(int statusCode, HttpHeaders headers) {
+        if (!adaptive) {
+            return;
+        }
+        long now = clock.getAsLong();
+        if (statusCode == 429) {
+            decrease(now);
+            Optional<String> retryAfter = headers.firstValue("Retry-After");
+            if (retryAfter.isPresent()) {
+                Duration delay = RetryPolicy.parseRetryAfter(retryAfter.get());
+                if (delay != null) {
+                    pauseUntil(now, delay.toNanos());
+                }
+            }
+        } else if (statusCode < 400) {
+            increase();
+        }
+
+        if ("0".equals(header(headers, "Remaining"))) {
+            String reset = header(headers, "Reset");
+            if (reset != null) {
+                try {
+                    long seconds = Long.parseLong(reset.trim());
+                    if (seconds >= EPOCH_SECONDS_THRESHOLD) {
+                        seconds -= System.currentTimeMillis() / 1000;
+                    }
+                    if (seconds > 0) {
+                        pauseUntil(now, TimeUnit.SECONDS.toNanos(seconds));
+                    }
+                } catch (NumberFormatException ignored) {
+                    // Unknown format; the 429 that follows will slow us down instead.
+                }
+            }
+        }
+    }
+
+    private static String header(HttpHeaders headers, String suffix) {
+        return headers.firstValue("RateLimit-" + suffix)
+                .orElse(headers.firstValue("X-RateLimit-" + suffix).orElse(null));
+    }
+
+    private void decrease(long now) {
+        long last = lastDecrease.get();
+        // Many in-flight requests see the same 429 storm; halve once per cooldown, not once per response.
+        if (now - last < DECREASE_COOLDOWN_NANOS || !lastDecrease.compareAndSet(last, now)) {
+            return;
+        }
+        rate.accumulateAndGet(0, (bits, ignored) ->
+                Double.doubleToLongBits(Math.max(minRate, Double.longBitsToDouble(bits) / 2)));
+    }
+
+    private void increase() {
+        long bits = rate.get();
+        if (Double.longBitsToDouble(bits) >= configuredRate) {
+            return; // the common case: no write, no contention
+        }
+        rate.accumulateAndGet(0, (current, ignored) ->
+                Double.doubleToLongBits(Math.min(configuredRate,
+                        Double.longBitsToDouble(current) + configuredRate / 100)));
+    }
+
+    /** Holds every permit back until {@code now + delayNanos}. */
+    private void pauseUntil(long now, long delayNanos) {
+        long until = now + Math.min(delayNanos, MAX_PAUSE_NANOS);
+        // The next permit is usable once fullAt - capacity + interval >= until.
+        long interval = interval();
+        long target = until + interval * (burst - 1);
+        fullAt.accumulateAndGet(target, Math::max);
+    }
+
+    private long interval() {
+        return (long) (NANOS_PER_SECOND / getCurrentPermitsPerSecond());
+    }
+
+    /** Test hook: a limiter running on the given nanosecond clock. */
+    static RateLimiter withClock(Builder builder, LongSupplier clock) {
+        return new RateLimiter(builder.validated(), clock);
+    }
+
+    public static class Builder {
+        private double permitsPerSecond;
+        private int burst = 1;
+        private double minPermitsPerSecond = Double.NaN;
+        private boolean adaptive = true;
+
+        private Builder() {}
+
+        /** <b>(required)</b> Sustained request rate. */
+        @Nonnull
+        public Builder permitsPerSecond(double permitsPerSecond) {
+            this.permitsPerSecond = permitsPerSecond;
+            return this;
+        }
+
+        /** <b>(optional)</b> Requests that may go out back to back after a quiet spell (default 1). */
+        @Nonnull
+        public Builder burst(int burst) {
+            this.burst = burst;
+            return this;
+        }
+
+        /** <b>(optional)</b> Floor for the adapted rate (default a tenth of the configured rate). */
+        @Nonnull
+        public Builder minPermitsPerSecond(double minPermitsPerSecond) {
+            this.minPermitsPerSecond = minPermitsPerSecond;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Whether to slow down on {@code 429} and rate-limit
+         * headers (default {@code true}). When off, the limiter keeps its
+         * configured rate whatever the API answers.
+         */
+        @Nonnull
+        public Builder adaptive(boolean adaptive) {
+            this.adaptive = adaptive;
+            return this;
+        }
+
+        /**
+         * Builds the {@link RateLimiter} instance.
+         *
+         * @throws IllegalArgumentException if the rate or burst is not positive
+         */
+        @Nonnull
+        public RateLimiter build() {
+            return new RateLimiter(validated(), System::nanoTime);
+        }
+
+        Builder validated() {
+            if (!(permitsPerSecond > 0) || Double.isInfinite(permitsPerSecond)) {
+                throw new IllegalArgumentException("permitsPerSecond must be positive");
+            }
+            if (burst < 1) {
+                throw new IllegalArgumentException("burst must be at least 1");
+            }
+            if (Double.isNaN(minPermitsPerSecond)) {
+                minPermitsPerSecond = permitsPerSecond / 10;
+            } else if (!(minPermitsPerSecond > 0)) {
+                throw new IllegalArgumentException("minPermitsPerSecond must be positive");
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.lettr.core.net;
+
+import com.lettr.core.util.Args;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Settings for individual calls, overriding the {@link ClientOptions} of the
+ * client they are sent through. Every service takes them through
+ * {@code withOptions}, which returns a view of the service whose calls all
+ * use them:
+ *
+ * <pre>{@code
+ * // On a web request path: give up after 2 seconds, retries included.
+ * CreateEmailResponse sent = lettr.emails()
+ *     .withOptions(RequestOptions.builder().totalTimeout(Duration.ofSeconds(2)).build())
+ *     .send(email);
+ *
+ * // A long import: each attempt may take 5 minutes.
+ * lettr.audience().contacts()
+ *     .withOptions(RequestOptions.builder().timeout(Duration.ofMinutes(5)).priority(Priority.BULK).build())
+ *     .bulkCreate(batch);
+ * }</pre>
+ *
+ * <p>{@code timeout} bounds each attempt, as
+ * {@link ClientOptions.Builder#requestTimeout(Duration)} does. A
+ * {@code deadline} or {@code totalTimeout} bounds the whole call: rate-limit
+ * pauses, queueing for a {@link ConcurrencyLimiter} slot, every attempt and
+ * the backoff between them. Attempts are given no more time than is left, a
+ * retry that could not finish in time is not made, and a call out of time
+ * fails with {@link com.lettr.core.exception.DeadlineExceededException}. The
+ * deadline covers the wait for response headers; the body is read after.</p>
+ *
+ * <p>Instances are immutable. Views made from views combine their options,
+ * the later ones winning.</p>
+ */
+public final class RequestOptions {
+
+    private final Instant deadline;
+    private final Duration totalTimeout;
+    private final Duration timeout;
+    private final RetryPolicy retryPolicy;
+    private final Priority priority;
+    private final Map<String, String> headers;
+
+    private RequestOptions(Builder builder) {
+        this.deadline = builder.deadline;
+        this.totalTimeout = builder.totalTimeout;
+        this.timeout = builder.timeout;
+        this.retryPolicy = builder.retryPolicy;
+        this.priority = builder.priority;
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(builder.headers);
+        this.headers = Collections.unmodifiableMap(headers);
+    }
+
+    @Nonnull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Time after which calls fail, or {@code null} if there is none. */
+    @Nullable public Instant getDeadline() { return deadline; }
+    /** Time each call may take from start to finish, or {@code null} if there is no limit. */
+    @Nullable public Duration getTotalTimeout() { return totalTimeout; }
+    /** Time each attempt may take, or {@code null} to keep the client's {@code requestTimeout}. */
+    @Nullable public Duration getTimeout() { return timeout; }
+    /** Retry policy for these calls, or {@code null} to keep the client's. */
+    @Nullable public RetryPolicy getRetryPolicy() { return retryPolicy; }
+    /** Scheduling class for these calls, or {@code null} to classify them by endpoint. */
+    @Nullable public Priority getPriority() { return priority; }
+    /** Headers set on every request, the idempotency key included; names are matched ignoring case. */
+    @Nonnull public Map<String, String> getHeaders() { return headers; }
+
+    /** Returns the idempotency key sent with every request, or {@code null} if there is none. */
+    @Nullable
+    public String getIdempotencyKey() {
+        return headers.get(RetryPolicy.IDEMPOTENCY_KEY_HEADER);
+    }
+
+    public static class Builder {
+        private Instant deadline;
+        private Duration totalTimeout;
+        private Duration timeout;
+        private RetryPolicy retryPolicy;
+        private Priority priority;
+        private final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+        private Builder() {}
+
+        /**
+         * <b>(optional)</b> Point in time after which calls fail with
+         * {@code DeadlineExceededException}. Suits a deadline handed down by
+         * the caller, such as what is left of an incoming request's budget.
+         */
+        @Nonnull
+        public Builder deadline(@Nullable Instant deadline) {
+            this.deadline = deadline;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Time each call may take in all, retries and
+         * waits included, counted from when it is made. When a
+         * {@code deadline} is set as well, the earlier of the two applies.
+         */
+        @Nonnull
+        public Builder totalTimeout(@Nullable Duration totalTimeout) {
+            this.totalTimeout = totalTimeout;
+            return this;
+        }
+
+        /** <b>(optional)</b> Time each attempt may take (default the client's {@code requestTimeout}). */
+        @Nonnull
+        public Builder timeout(@Nullable Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        /** <b>(optional)</b> Retry policy for these calls, e.g. {@link RetryPolicy#none()} (default the client's). */
+        @Nonnull
+        public Builder retryPolicy(@Nullable RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Scheduling class for these calls, overriding the
+         * class of their endpoint (see {@link Priority}).
+         */
+        @Nonnull
+        public Builder priority(@Nullable Priority priority) {
+            this.priority = priority;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Sends {@code Idempotency-Key: key}, which lets the
+         * API recognize a repeated request and lets the {@link RetryPolicy}
+         * retry methods that are not idempotent by themselves. A key stands
+         * for one operation: do not make several different calls with it.
+         */
+        @Nonnull
+        public Builder idempotencyKey(@Nonnull String key) {
+            Args.requireNonEmpty("key", key);
+            return header(RetryPolicy.IDEMPOTENCY_KEY_HEADER, key);
+        }
+
+        /** <b>(optional)</b> Sets a header on every request, replacing the SDK's own value if it sets one too. */
+        @Nonnull
+        public Builder header(@Nonnull String name, @Nonnull String value) {
+            Args.requireNonEmpty("name", name);
+            Args.requireNonNull("value", value);
+            headers.put(name, value);
+            return this;
+        }
+
+        /**
+         * Builds the {@link RequestOptions} instance.
+         *
+         * @throws IllegalArgumentException if {@code totalTimeout} or {@code timeout} is not positive,
+         *                                  or a header would change the authentication
+         */
+        @Nonnull
+        public RequestOptions build() {
+            if (totalTimeout != null && (totalTimeout.isNegative() || totalTimeout.isZero())) {
+                throw new IllegalArgumentException("totalTimeout must be positive");
+            }
+            if (timeout != null && (timeout.isNegative() || timeout.isZero())) {
+                throw new IllegalArgumentException("timeout must be positive");
+            }
+            if (headers.containsKey("Authorization")) {
+                throw new IllegalArgumentException("The Authorization header is set from the API key");
+            }
+            return new RequestOptions(this);
+        }
+    }
+}
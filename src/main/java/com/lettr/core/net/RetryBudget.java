@@ -0,0 +1,85 @@
+package com.lettr.core.net;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps retries at a fraction of the traffic a client actually sends, so that
+ * retries cannot multiply the load on an API that is already struggling.
+ *
+ * <p>Every request deposits {@code retryRatio} of a token and every retry
+ * withdraws a whole one; a retry the budget cannot pay for is not made and the
+ * failure is reported as is. The balance starts at, and never exceeds,
+ * {@code reserve} tokens, which lets a quiet client retry a short burst of
+ * failures without having sent much traffic first.</p>
+ *
+ * <p>A budget is shared by every request made under the {@link RetryPolicy}
+ * that owns it. It is thread-safe and lock-free.</p>
+ */
+public final class RetryBudget {
+
+    // Balances are kept in thousandths of a token so that deposits stay integral.
+    private static final long SCALE = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    private RetryBudget(long deposit, long capacity) {
+        this.deposit = deposit;
+        this.capacity = capacity;
+        this.balance = new AtomicLong(capacity);
+    }
+
+    /**
+     * Creates a budget allowing about {@code retryRatio} retries per request on
+     * top of a reserve of {@code reserve} retries.
+     *
+     * @param retryRatio retries earned per request, between 0 and 1
+     * @param reserve    retries available up front, and the most that can be saved up
+     * @throws IllegalArgumentException if {@code retryRatio} is outside [0, 1] or {@code reserve} is negative
+     */
+    @Nonnull
+    public static RetryBudget of(double retryRatio, int reserve) {
+        if (!(retryRatio >= 0 && retryRatio <= 1)) {
+            throw new IllegalArgumentException("retryRatio must be between 0 and 1");
+        }
+        if (reserve < 0) {
+            throw new IllegalArgumentException("reserve must not be negative");
+        }
+        return new RetryBudget(Math.round(retryRatio * SCALE), reserve * SCALE);
+    }
+
+    /** Creates a budget that never refuses a retry. */
+    @Nonnull
+    public static RetryBudget unlimited() {
+        return new RetryBudget(0, Long.MAX_VALUE);
+    }
+
+    /** Returns the number of whole retries the budget can currently pay for. */
+    public long available() {
+        return balance.get() / SCALE;
+    }
+
+    void onRequest() {
+        if (deposit == 0) {
+            return;
+        }
+        balance.accumulateAndGet(deposit, (current, add) -> Math.min(capacity, current + add));
+    }
+
+    boolean tryAcquire() {
+        if (capacity == Long.MAX_VALUE) {
+            return true;
+        }
+        while (true) {
+            long current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.lettr.core.net;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides whether and when the transport retries a failed request.
+ *
+ * <p>A request is retried after a network error or a retryable status
+ * ({@code 408}, {@code 429}, {@code 500}, {@code 502}, {@code 503},
+ * {@code 504} by default), provided that:</p>
+ * <ul>
+ *   <li>it is safe to repeat: its method is idempotent ({@code GET},
+ *       {@code HEAD} and {@code DELETE} by default) or it carries an
+ *       {@code Idempotency-Key} header. A {@code POST /emails} without a key is
+ *       never retried, since the first attempt may already have sent the email;</li>
+ *   <li>fewer than {@code maxAttempts} attempts have been made;</li>
+ *   <li>the {@link RetryBudget} can pay for it.</li>
+ * </ul>
+ *
+ * <p>The wait before retry <i>n</i> is drawn uniformly from
+ * {@code [0, min(maxBackoff, initialBackoff * multiplier^(n-1))]} ("full
+ * jitter"), so clients that failed together do not retry in lockstep. A
+ * {@code Retry-After} header, in seconds or as an HTTP date, replaces the
+ * computed wait; if it asks for longer than {@code maxRetryAfter} the request
+ * is not retried and the error is reported straight away.</p>
+ *
+ * <pre>{@code
+ * Lettr lettr = new Lettr("your-api-key", ClientOptions.builder()
+ *     .retryPolicy(RetryPolicy.builder()
+ *         .maxAttempts(5)
+ *         .initialBackoff(Duration.ofMillis(500))
+ *         .build())
+ *     .build());
+ * }</pre>
+ *
+ * <p>Instances are immutable apart from their budget, and thread-safe.</p>
+ */
+public final class RetryPolicy {
+
+    /** Header marking a request as safe to repeat. */
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private static final Set<String> DEFAULT_METHODS =
+            Collections.unmodifiableSet(new HashSet<>(Arrays.asList("GET", "HEAD", "DELETE")));
+    private static final Set<Integer> DEFAULT_STATUSES =
+            Collections.unmodifiableSet(new HashSet<>(Arrays.asList(408, 429, 500, 502, 503, 504)));
+
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final double multiplier;
+    private final boolean jitter;
+    private final Duration maxRetryAfter;
+    private final Set<String> idempotentMethods;
+    private final Set<Integer> retryableStatuses;
+    private final RetryBudget budget;
+
+    private RetryPolicy(Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoff = builder.initialBackoff;
+        this.maxBackoff = builder.maxBackoff;
+        this.multiplier = builder.multiplier;
+        this.jitter = builder.jitter;
+        this.maxRetryAfter = builder.maxRetryAfter;
+        this.idempotentMethods = builder.idempotentMethods;
+        this.retryableStatuses = builder.retryableStatuses;
+        this.budget = builder.budget != null ? builder.budget : RetryBudget.of(0.2, 20);
+    }
+
+    /**
+     * Returns a policy with the default settings: 3 attempts, backoff from
+     * 200 ms doubling up to 10 seconds with full jitter, {@code Retry-After}
+     * honoured up to 60 seconds, and a budget of 20% of requests plus a
+     * reserve of 20 retries. Each call creates a new budget.
+     */
+    @Nonnull
+    public static RetryPolicy defaults() {
+        return builder().build();
+    }
+
+    /** Returns a policy that never retries. */
+    @Nonnull
+    public static RetryPolicy none() {
+        return builder().maxAttempts(1).build();
+    }
+
+    @Nonnull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getMaxAttempts() { return maxAttempts; }
+    @Nonnull public Duration getInitialBackoff() { return initialBackoff; }
+    @Nonnull public Duration getMaxBackoff() { return maxBackoff; }
+    public double getMultiplier() { return multiplier; }
+    public boolean isJitter() { return jitter; }
+    @Nonnull public Duration getMaxRetryAfter() { return maxRetryAfter; }
+    @Nonnull public Set<String> getIdempotentMethods() { return idempotentMethods; }
+    @Nonnull public Set<Integer> getRetryableStatuses() { return retryableStatuses; }
+    @Nonnull public RetryBudget getBudget() { return budget; }
+
+    /**
+     * Returns how long to wait before retrying {@code request} after attempt
+     * number {@code attempt} (1-based) got {@code statusCode}, or {@code null}
+     * if the response should be returned as is.
+     */
+    @Nullable
+    Duration retryDelay(TransportRequest request, int attempt, int statusCode, HttpHeaders headers) {
+        return retryDelay(request, attempt, statusCode, headers, null);
+    }
+
+    /**
+     * As {@link #retryDelay(TransportRequest, int, int, HttpHeaders)}, but
+     * also {@code null} if the delay would use up the time {@code remaining}
+     * for the call, if limited.
+     */
+    @Nullable
+    Duration retryDelay(TransportRequest request, int attempt, int statusCode, HttpHeaders headers,
+                        @Nullable Duration remaining) {
+        if (attempt == 1) {
+            budget.onRequest();
+        }
+        if (!retryableStatuses.contains(statusCode)) {
+            return null;
+        }
+        Optional<String> retryAfter = headers.firstValue("Retry-After");
+        Duration delay = retryAfter.isPresent() ? parseRetryAfter(retryAfter.get()) : null;
+        if (delay == null) {
+            delay = backoff(attempt);
+        } else if (delay.compareTo(maxRetryAfter) > 0) {
+            return null;
+        }
+        return inTime(delay, remaining) && mayRetry(request, attempt) ? delay : null;
+    }
+
+    /**
+     * Returns how long to wait before retrying {@code request} after attempt
+     * number {@code attempt} (1-based) failed with {@code error}, or
+     * {@code null} if the error should be reported.
+     */
+    @Nullable
+    Duration retryDelay(TransportRequest request, int attempt, IOException error) {
+        return retryDelay(request, attempt, error, null);
+    }
+
+    /**
+     * As {@link #retryDelay(TransportRequest, int, IOException)}, but also
+     * {@code null} if the delay would use up the time {@code remaining} for
+     * the call, if limited.
+     */
+    @Nullable
+    Duration retryDelay(TransportRequest request, int attempt, IOException error, @Nullable Duration remaining) {
+        if (attempt == 1) {
+            budget.onRequest();
+        }
+        Duration delay = backoff(attempt);
+        return inTime(delay, remaining) && mayRetry(request, attempt) ? delay : null;
+    }
+
+    // Checked before mayRetry, so that a retry given up for lack of time spends no budget.
+    private static boolean inTime(Duration delay, @Nullable Duration remaining) {
+        return remaining == null || delay.compareTo(remaining) < 0;
+    }
+
+    private boolean mayRetry(TransportRequest request, int attempt) {
+        if (attempt >= maxAttempts) {
+            return false;
+        }
+        boolean repeatable = idempotentMethods.contains(request.getMethod())
+                || request.getHeaders().firstValue(IDEMPOTENCY_KEY_HEADER).isPresent();
+        // Checked last: only a retry that will actually be made spends budget.
+        return repeatable && budget.tryAcquire();
+    }
+
+    Duration backoff(int attempt) {
+        double ceiling = Math.min(maxBackoff.toMillis(),
+                initialBackoff.toMillis() * Math.pow(multiplier, attempt - 1));
+        long millis = jitter ? (long) (ThreadLocalRandom.current().nextDouble() * ceiling) : (long) ceiling;
+        return Duration.ofMillis(millis);
+    }
+
+    /** Parses a {@code Retry-After} value; {@code null} if it is neither seconds nor an HTTP date. */
+    @Nullable
+    static Duration parseRetryAfter(String value) {
+        String trimmed = value.trim();
+        try {
+            long seconds = Long.parseLong(trimmed);
+            return seconds < 0 ? null : Duration.ofSeconds(seconds);
+        } catch (NumberFormatException ignored) {
+            // Not delta-seconds; try an HTTP date.
+        }
+        try {
+            Instant at = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            Duration delay = Duration.between(Instant.now(), at);
+            return delay.isNegative() ? Duration.ZERO : delay;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    public static class Builder {
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(200);
+        private Duration maxBackoff = Duration.ofSeconds(10);
+        private double multiplier = 2.0;
+        private boolean jitter = true;
+        private Duration maxRetryAfter = Duration.ofSeconds(60);
+        private Set<String> idempotentMethods = DEFAULT_METHODS;
+        private Set<Integer> retryableStatuses = DEFAULT_STATUSES;
+        private RetryBudget budget;
+
+        private Builder() {}
+
+        /** <b>(optional)</b> Total attempts including the first (default 3; 1 disables retries). */
+        @Nonnull
+        public Builder maxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /** <b>(optional)</b> Backoff ceiling before the first retry (default 200 ms). */
+        @Nonnull
+        public Builder initialBackoff(@Nonnull Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+            return this;
+        }
+
+        /** <b>(optional)</b> Upper bound for the backoff ceiling (default 10 seconds). */
+        @Nonnull
+        public Builder maxBackoff(@Nonnull Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        /** <b>(optional)</b> Growth of the backoff ceiling per attempt (default 2). */
+        @Nonnull
+        public Builder multiplier(double multiplier) {
+            this.multiplier = multiplier;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Whether to randomise each wait between zero and the
+         * backoff ceiling (default {@code true}). Turning it off makes waits
+         * predictable but lets clients that failed together retry together.
+         */
+        @Nonnull
+        public Builder jitter(boolean jitter) {
+            this.jitter = jitter;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Longest {@code Retry-After} the SDK will wait out
+         * (default 60 seconds). A longer one fails the request instead.
+         */
+        @Nonnull
+        public Builder maxRetryAfter(@Nonnull Duration maxRetryAfter) {
+            this.maxRetryAfter = maxRetryAfter;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> HTTP methods retried without an idempotency key
+         * (default {@code GET}, {@code HEAD}, {@code DELETE}).
+         */
+        @Nonnull
+        public Builder idempotentMethods(@Nonnull Set<String> idempotentMethods) {
+            Set<String> upper = new HashSet<>();
+            for (String method : idempotentMethods) {
+                upper.add(method.toUpperCase(Locale.ROOT));
+            }
+            this.idempotentMethods = Collections.unmodifiableSet(upper);
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Response statuses worth retrying (default
+         * 408, 429, 500, 502, 503, 504).
+         */
+        @Nonnull
+        public Builder retryableStatuses(@Nonnull Set<Integer> retryableStatuses) {
+            this.retryableStatuses = Collections.unmodifiableSet(new HashSet<>(retryableStatuses));
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Budget the retries are paid from (default
+         * {@code RetryBudget.of(0.2, 20)}). Pass {@link RetryBudget#unlimited()}
+         * to retry every eligible failure.
+         */
+        @Nonnull
+        public Builder budget(@Nullable RetryBudget budget) {
+            this.budget = budget;
+            return this;
+        }
+
+        /**
+         * Builds the {@link RetryPolicy} instance.
+         *
+         * @throws IllegalArgumentException if a setting is out of range
+         */
+        @Nonnull
+        public RetryPolicy build() {
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("maxAttempts must be at least 1");
+            }
+            if (initialBackoff == null || initialBackoff.isNegative()) {
+                throw new IllegalArgumentException("initialBackoff must not be negative");
+            }
+            if (maxBackoff == null || maxBackoff.isNegative()) {
+                throw new IllegalArgumentException("maxBackoff must not be negative");
+            }
+            if (!(multiplier >= 1)) {
+                throw new IllegalArgumentException("multiplier must be at least 1");
+            }
+            if (maxRetryAfter == null || maxRetryAfter.isNegative()) {
+                throw new IllegalArgumentException("maxRetryAfter must not be negative");
+            }
+            return new RetryPolicy(this);
+        }
+    }
+}
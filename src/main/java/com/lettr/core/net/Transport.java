@@ -0,0 +1,72 @@
+package com.lettr.core.net;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The HTTP engine the SDK sends its requests with.
+ *
+ * <p>{@link HttpClient} builds each request, retries and paces it, compresses
+ * and decodes bodies; a transport only carries out single exchanges. The
+ * default is the JDK's {@code java.net.http} client. Another engine is
+ * plugged in with {@link ClientOptions.Builder#transport(Transport)}:</p>
+ *
+ * <pre>{@code
+ * Lettr lettr = new Lettr("your-api-key", ClientOptions.builder()
+ *     .transport(new MyNettyTransport(eventLoopGroup))
+ *     .build());
+ * }</pre>
+ *
+ * <p>An implementation must:</p>
+ * <ul>
+ *   <li>send the request's method, URI and headers as given, adding only the
+ *       headers its protocol requires ({@code Host}, {@code Content-Length} or
+ *       {@code Transfer-Encoding}, and so on);</li>
+ *   <li>subscribe to the request body once per exchange, as it is sent, and
+ *       send it as is: the same request is sent again on a retry, and a body
+ *       may be larger than the heap;</li>
+ *   <li>return every response, whatever its status, with its headers and its
+ *       body untouched: gzipped bodies are decoded by the SDK;</li>
+ *   <li>report failures to connect, to send or to receive, and the request
+ *       timeout running out, as an {@link IOException};</li>
+ *   <li>be safe for concurrent use.</li>
+ * </ul>
+ *
+ * <p>The conformance suite {@code com.lettr.testing.TransportConformanceSuite},
+ * published with the SDK's test fixtures, checks all of this against a local
+ * server; an implementation is expected to pass it.</p>
+ */
+public interface Transport extends AutoCloseable {
+
+    /**
+     * Sends {@code request} and returns once the response headers have
+     * arrived. The body is read from the response as it arrives; closing the
+     * response releases the connection.
+     *
+     * @throws IOException          if the exchange fails or times out
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    @Nonnull
+    TransportResponse send(@Nonnull TransportRequest request) throws IOException, InterruptedException;
+
+    /**
+     * Sends {@code request} without blocking the caller. The future completes
+     * once the whole response body has arrived, so that reading it never
+     * blocks, and completes exceptionally with an {@link IOException} where
+     * {@link #send} would throw one. Cancelling the future should abort the
+     * exchange where the engine can; the SDK cancels the slower copy of a
+     * hedged request (see {@link HedgingPolicy}).
+     */
+    @Nonnull
+    CompletableFuture<TransportResponse> sendAsync(@Nonnull TransportRequest request);
+
+    /**
+     * Releases what the transport holds. Called by {@code Lettr#close()} only
+     * for the default transport; one passed to
+     * {@link ClientOptions.Builder#transport(Transport)} stays the caller's to close.
+     */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,238 @@
+package com.lettr.core.net;
+
+import com.lettr.core.util.Args;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * A request handed to a {@link Transport}: method, URI, headers, an optional
+ * streaming body and the time allowed for the exchange. Immutable; the same
+ * instance is sent again on a retry.
+ *
+ * <p>Headers and the body use the JDK's own {@link HttpHeaders} and
+ * {@link HttpRequest.BodyPublisher} types, so that the default transport
+ * passes them through untouched. The body is a reactive stream of buffers that
+ * may be subscribed to any number of times, once per exchange; its
+ * {@link HttpRequest.BodyPublisher#contentLength() contentLength()} is
+ * {@code -1} when the length is not known before the body is written, in which
+ * case an HTTP/1.1 engine should send it chunked. Engines that write bodies to
+ * an {@link OutputStream} can use {@link #writeBodyTo(OutputStream)}.</p>
+ */
+public final class TransportRequest {
+
+    private final String method;
+    private final URI uri;
+    private final HttpHeaders headers;
+    private final HttpRequest.BodyPublisher body;
+    private final Duration timeout;
+
+    private TransportRequest(Builder builder) {
+        this.method = builder.method;
+        this.uri = builder.uri;
+        this.headers = HttpHeaders.of(builder.headers, (name, value) -> true);
+        this.body = builder.body;
+        this.timeout = builder.timeout;
+    }
+
+    private TransportRequest(TransportRequest request, Duration timeout) {
+        this.method = request.method;
+        this.uri = request.uri;
+        this.headers = request.headers;
+        this.body = request.body;
+        this.timeout = timeout;
+    }
+
+    @Nonnull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Returns a copy of this request allowed {@code timeout} for the exchange. */
+    TransportRequest withTimeout(Duration timeout) {
+        return new TransportRequest(this, timeout);
+    }
+
+    /** The request method in upper case, e.g. {@code "GET"} or {@code "PATCH"}. */
+    @Nonnull public String getMethod() { return method; }
+    @Nonnull public URI getUri() { return uri; }
+    /** The request headers; names are matched ignoring case. */
+    @Nonnull public HttpHeaders getHeaders() { return headers; }
+    /** The body, or {@code null} if the request has none. */
+    @Nullable public HttpRequest.BodyPublisher getBody() { return body; }
+    /** Time allowed from sending the request to receiving the end of the response, or {@code null} for no limit. */
+    @Nullable public Duration getTimeout() { return timeout; }
+
+    /**
+     * Writes the body to {@code out}, blocking until all of it is written.
+     * Each call subscribes to the body anew. Does nothing if there is no body;
+     * {@code out} is not closed.
+     *
+     * @throws IOException if the body cannot be produced or written, or the
+     *                     calling thread is interrupted
+     */
+    public void writeBodyTo(@Nonnull OutputStream out) throws IOException {
+        Args.requireNonNull("out", out);
+        if (body == null) {
+            return;
+        }
+        BlockingSubscriber subscriber = new BlockingSubscriber();
+        body.subscribe(subscriber);
+        subscriber.writeTo(out);
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + uri;
+    }
+
+    /**
+     * Hands the buffers of a body from the publisher to the writing thread one
+     * at a time, so that no more than one is held at once.
+     */
+    private static final class BlockingSubscriber implements Flow.Subscriber<ByteBuffer> {
+        private static final Object COMPLETE = new Object();
+
+        private final BlockingQueue<Object> signals = new LinkedBlockingQueue<>();
+        private volatile Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+            signals.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            signals.add(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            signals.add(COMPLETE);
+        }
+
+        void writeTo(OutputStream out) throws IOException {
+            byte[] copy = null;
+            try {
+                for (Object signal; (signal = signals.take()) != COMPLETE; ) {
+                    if (signal instanceof Throwable) {
+                        Throwable error = (Throwable) signal;
+                        throw error instanceof IOException ? (IOException) error : new IOException(error);
+                    }
+                    ByteBuffer buffer = (ByteBuffer) signal;
+                    if (buffer.hasArray()) {
+                        out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                    } else {
+                        if (copy == null) {
+                            copy = new byte[JsonBody.CHUNK_SIZE];
+                        }
+                        while (buffer.hasRemaining()) {
+                            int n = Math.min(copy.length, buffer.remaining());
+                            buffer.get(copy, 0, n);
+                            out.write(copy, 0, n);
+                        }
+                    }
+                    subscription.request(1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel();
+                throw new InterruptedIOException("Interrupted while writing the request body");
+            } catch (IOException | RuntimeException e) {
+                cancel();
+                throw e;
+            }
+        }
+
+        private void cancel() {
+            Flow.Subscription s = subscription;
+            if (s != null) {
+                s.cancel();
+            }
+        }
+    }
+
+    public static final class Builder {
+        private String method;
+        private URI uri;
+        private final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        private HttpRequest.BodyPublisher body;
+        private Duration timeout;
+
+        private Builder() {}
+
+        /** <b>(required)</b> The request method, e.g. {@code "GET"}. */
+        @Nonnull
+        public Builder method(@Nonnull String method) {
+            this.method = method;
+            return this;
+        }
+
+        /** <b>(required)</b> The absolute request URI. */
+        @Nonnull
+        public Builder uri(@Nonnull URI uri) {
+            this.uri = uri;
+            return this;
+        }
+
+        /** <b>(optional)</b> Adds a header value; a name may be given several values. */
+        @Nonnull
+        public Builder header(@Nonnull String name, @Nonnull String value) {
+            Args.requireNonNull("name", name);
+            Args.requireNonNull("value", value);
+            headers.computeIfAbsent(name, n -> new ArrayList<>()).add(value);
+            return this;
+        }
+
+        /** <b>(optional)</b> The request body (default none). */
+        @Nonnull
+        public Builder body(@Nullable HttpRequest.BodyPublisher body) {
+            this.body = body;
+            return this;
+        }
+
+        /** <b>(optional)</b> Time allowed for the exchange (default no limit). */
+        @Nonnull
+        public Builder timeout(@Nullable Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * Builds the {@link TransportRequest} instance.
+         *
+         * @throws IllegalArgumentException if {@code method} or {@code uri} is missing,
+         *                                  or {@code timeout} is not positive
+         */
+        @Nonnull
+        public TransportRequest build() {
+            Args.requireNonEmpty("method", method);
+            Args.requireNonNull("uri", uri);
+            if (timeout != null && (timeout.isNegative() || timeout.isZero())) {
+                throw new IllegalArgumentException("timeout must be positive");
+            }
+            return new TransportRequest(this);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.lettr.core.net;
+
+import com.lettr.core.util.Args;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpHeaders;
+
+/**
+ * A response returned by a {@link Transport}: status, headers and the body as
+ * it came off the wire, still compressed if the server compressed it.
+ * Closing the response closes the body, which releases the connection.
+ */
+public final class TransportResponse implements Closeable {
+
+    private final int statusCode;
+    private final HttpHeaders headers;
+    private final InputStream body;
+
+    private TransportResponse(int statusCode, HttpHeaders headers, InputStream body) {
+        this.statusCode = statusCode;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    /**
+     * Creates a response. An empty body is given as an empty stream.
+     *
+     * @throws IllegalArgumentException if {@code statusCode} is not a valid HTTP status
+     */
+    @Nonnull
+    public static TransportResponse of(int statusCode, @Nonnull HttpHeaders headers, @Nonnull InputStream body) {
+        if (statusCode < 100 || statusCode > 999) {
+            throw new IllegalArgumentException("statusCode must be a three-digit HTTP status");
+        }
+        return new TransportResponse(statusCode, Args.requireNonNull("headers", headers),
+                Args.requireNonNull("body", body));
+    }
+
+    public int getStatusCode() { return statusCode; }
+    /** The response headers; names are matched ignoring case. */
+    @Nonnull public HttpHeaders getHeaders() { return headers; }
+    /** The body, read once. */
+    @Nonnull public InputStream getBody() { return body; }
+
+    @Override
+    public void close() throws IOException {
+        body.close();
+    }
+}
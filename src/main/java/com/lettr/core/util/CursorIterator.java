@@ -0,0 +1,196 @@
+package com.lettr.core.util;
+
+import com.lettr.core.exception.LettrException;
+import com.lettr.core.exception.UncheckedLettrException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily walks a cursor-paginated listing one item at a time.
+ *
+ * <p>The next page is requested only once the current one is drained, and a
+ * drained page is released before the next is fetched, so memory stays bounded
+ * however long the listing is: one page, or two when prefetching. A prefetching
+ * iterator requests page N+1 in the background as soon as page N arrives, hiding
+ * the round trip behind the time spent consuming page N.</p>
+ *
+ * <p>Pages that come back empty with a cursor are skipped: the API returns them
+ * when a filter matched nothing in that window, and more results may follow.
+ * A page whose next cursor is the one it was fetched with would have the
+ * iterator fetch it forever; its items are returned, and then
+ * {@link #hasNext()} throws instead of fetching the page again.</p>
+ *
+ * <p>Failures surface from {@link #hasNext()} / {@link #next()} as
+ * {@link UncheckedLettrException}. Not thread-safe; {@link #close()} it (or the
+ * {@link #stream() stream}) to abandon an outstanding prefetch early.</p>
+ *
+ * @param <T> item type
+ */
+public final class CursorIterator<T> implements Iterator<T>, AutoCloseable {
+
+    /** Fetches one page, blocking. */
+    @FunctionalInterface
+    public interface Fetcher<T> {
+        @Nonnull
+        Page<T> fetch(@Nullable String cursor) throws LettrException;
+    }
+
+    /**
+     * Fetches one page without blocking. Cancelling the returned future
+     * should cancel the request behind it.
+     */
+    @FunctionalInterface
+    public interface AsyncFetcher<T> {
+        @Nonnull
+        CompletableFuture<Page<T>> fetch(@Nullable String cursor);
+    }
+
+    /** One page of items and the cursor of the page after it. */
+    public static final class Page<T> {
+        private final List<T> items;
+        private final String nextCursor;
+
+        public Page(@Nullable List<T> items, @Nullable String nextCursor) {
+            this.items = items != null ? items : Collections.emptyList();
+            this.nextCursor = nextCursor;
+        }
+
+        @Nonnull public List<T> getItems() { return items; }
+        @Nullable public String getNextCursor() { return nextCursor; }
+    }
+
+    private final Fetcher<T> fetcher;
+    private final AsyncFetcher<T> asyncFetcher;
+
+    private List<T> page = Collections.emptyList();
+    private int index;
+    private String nextCursor;
+    private boolean started;
+    private boolean exhausted;
+    /** The cursor the last page was fetched with, if that page pointed back to it. */
+    private String repeatedCursor;
+    private CompletableFuture<Page<T>> prefetched;
+
+    private CursorIterator(String firstCursor, Fetcher<T> fetcher, AsyncFetcher<T> asyncFetcher) {
+        this.nextCursor = firstCursor;
+        this.fetcher = fetcher;
+        this.asyncFetcher = asyncFetcher;
+    }
+
+    /**
+     * Creates an iterator that fetches each page on the calling thread when the
+     * previous one is drained.
+     *
+     * @param firstCursor cursor of the first page, or {@code null} to start at the beginning
+     */
+    @Nonnull
+    public static <T> CursorIterator<T> of(@Nullable String firstCursor, @Nonnull Fetcher<T> fetcher) {
+        return new CursorIterator<>(firstCursor, Args.requireNonNull("fetcher", fetcher), null);
+    }
+
+    /**
+     * Creates an iterator that keeps one page in flight ahead of the one being
+     * consumed.
+     *
+     * @param firstCursor cursor of the first page, or {@code null} to start at the beginning
+     */
+    @Nonnull
+    public static <T> CursorIterator<T> prefetching(@Nullable String firstCursor, @Nonnull AsyncFetcher<T> fetcher) {
+        return new CursorIterator<>(firstCursor, null, Args.requireNonNull("fetcher", fetcher));
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (index >= page.size()) {
+            if (exhausted || (started && nextCursor == null)) {
+                exhausted = true;
+                return false;
+            }
+            if (repeatedCursor != null) {
+                exhausted = true;
+                throw new UncheckedLettrException(new LettrException(
+                        "Listing returned cursor " + repeatedCursor + " as its own next page; stopping"));
+            }
+            page = Collections.emptyList(); // let the drained page go before fetching
+            index = 0;
+            String fetched = nextCursor;
+            Page<T> next = fetchNext();
+            started = true;
+            page = next.getItems();
+            nextCursor = next.getNextCursor();
+            if (nextCursor != null && nextCursor.equals(fetched)) {
+                repeatedCursor = fetched;
+            } else if (asyncFetcher != null && nextCursor != null) {
+                prefetched = asyncFetcher.fetch(nextCursor);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return page.get(index++);
+    }
+
+    /** Returns the remaining items as a sequential stream that closes this iterator when closed. */
+    @Nonnull
+    public Stream<T> stream() {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    /** Stops iterating and cancels any page fetch still in flight. Idempotent. */
+    @Override
+    public void close() {
+        exhausted = true;
+        page = Collections.emptyList();
+        index = 0;
+        if (prefetched != null) {
+            prefetched.cancel(false);
+            prefetched = null;
+        }
+    }
+
+    private Page<T> fetchNext() {
+        if (fetcher != null) {
+            try {
+                return fetcher.fetch(nextCursor);
+            } catch (LettrException e) {
+                throw new UncheckedLettrException(e);
+            }
+        }
+        CompletableFuture<Page<T>> future = prefetched != null ? prefetched : asyncFetcher.fetch(nextCursor);
+        prefetched = null;
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedLettrException(new LettrException("Interrupted while fetching the next page", e));
+        } catch (ExecutionException | CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof LettrException) {
+                throw new UncheckedLettrException((LettrException) cause);
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new UncheckedLettrException(new LettrException("Failed to fetch the next page", cause));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.lettr.core.util;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the threads the SDK runs work on: the JDK client's executor, the
+ * workers of {@code BatchingEmailSender} and the uploads of
+ * {@code ContactImporter}.
+ *
+ * <p>The SDK is a multi-release JAR. This is the Java 11 version, which only
+ * has platform threads; on Java 21 and later the JVM loads a version from
+ * {@code META-INF/versions/21} that can create virtual threads as well. See
+ * {@code ClientOptions.Builder#virtualThreads(boolean)}.</p>
+ */
+public final class Threads {
+
+    private Threads() {}
+
+    /** Whether this runtime can run the SDK's work on virtual threads (Java 21 and later). */
+    public static boolean virtualThreadsSupported() {
+        return false;
+    }
+
+    /**
+     * Returns a factory for threads named {@code prefix} followed by a counter
+     * starting at 1. Platform threads are daemon threads, so they never keep
+     * the JVM alive.
+     *
+     * @param virtual whether to create virtual threads
+     * @throws UnsupportedOperationException if {@code virtual} is set and
+     *                                       {@link #virtualThreadsSupported()} is not
+     */
+    @Nonnull
+    public static ThreadFactory factory(@Nonnull String prefix, boolean virtual) {
+        Args.requireNonNull("prefix", prefix);
+        if (virtual) {
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or later");
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Returns an unbounded executor: a cached pool of platform threads, or a
+     * new virtual thread per task.
+     *
+     * @throws UnsupportedOperationException if {@code virtual} is set and
+     *                                       {@link #virtualThreadsSupported()} is not
+     */
+    @Nonnull
+    public static ExecutorService newExecutor(@Nonnull String prefix, boolean virtual) {
+        return Executors.newCachedThreadPool(factory(prefix, virtual));
+    }
+}
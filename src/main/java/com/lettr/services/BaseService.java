@@ -1,6 +1,7 @@
 package com.lettr.services;
 
 import com.lettr.core.net.HttpClient;
+import com.lettr.core.util.Args;
 
 /**
  * Base class for all Lettr API service classes.
@@ -9,7 +10,17 @@ public abstract class BaseService {
 
     protected final HttpClient httpClient;
 
+    /**
+     * Creates a service with a transport of its own. Services obtained from
+     * {@link com.lettr.Lettr} share one transport instead, which is what you
+     * want outside of one-off scripts.
+     */
     protected BaseService(String apiKey) {
-        this.httpClient = new HttpClient(apiKey);
+        this(new HttpClient(apiKey));
+    }
+
+    /** Creates a service that sends its requests through the given shared transport. */
+    protected BaseService(HttpClient httpClient) {
+        this.httpClient = Args.requireNonNull("httpClient", httpClient);
     }
 }
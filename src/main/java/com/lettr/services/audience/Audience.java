@@ -1,5 +1,7 @@
 package com.lettr.services.audience;
 
+import com.lettr.core.net.HttpClient;
+import com.lettr.core.util.Args;
 import com.lettr.services.audience.contacts.AudienceContacts;
 import com.lettr.services.audience.lists.AudienceLists;
 import com.lettr.services.audience.properties.AudienceProperties;
@@ -11,42 +13,58 @@ import javax.annotation.Nonnull;
 /**
  * Entry point for the Lettr audience API. Returns sub-services for managing
  * audience lists, contacts, topics, properties, and segments.
+ *
+ * <p>All sub-services share this namespace's transport and are created once,
+ * so repeated calls to e.g. {@link #contacts()} return the same instance.</p>
  */
 public class Audience {
 
-    private final String apiKey;
+    private final AudienceLists lists;
+    private final AudienceContacts contacts;
+    private final AudienceTopics topics;
+    private final AudienceProperties properties;
+    private final AudienceSegments segments;
 
     public Audience(@Nonnull String apiKey) {
-        this.apiKey = apiKey;
+        this(new HttpClient(apiKey));
+    }
+
+    public Audience(@Nonnull HttpClient httpClient) {
+        Args.requireNonNull("httpClient", httpClient);
+        this.lists = new AudienceLists(httpClient);
+        this.contacts = new AudienceContacts(httpClient);
+        this.topics = new AudienceTopics(httpClient);
+        this.properties = new AudienceProperties(httpClient);
+        this.segments = new AudienceSegments(httpClient);
     }
 
     /** Returns the audience lists service. */
     @Nonnull
     public AudienceLists lists() {
-        return new AudienceLists(apiKey);
+        return lists;
     }
 
     /** Returns the audience contacts service. */
     @Nonnull
     public AudienceContacts contacts() {
-        return new AudienceContacts(apiKey);
+        return contacts;
     }
 
     /** Returns the audience topics service. */
     @Nonnull
     public AudienceTopics topics() {
-        return new AudienceTopics(apiKey);
+        return topics;
     }
 
     /** Returns the audience properties service. */
     @Nonnull
     public AudienceProperties properties() {
-        return new AudienceProperties(apiKey);
+        return properties;
     }
 
     /** Returns the audience segments service. */
     @Nonnull
     public AudienceSegments segments() {
-        return new AudienceSegments(apiKey);
+        return segments;
     }
 }
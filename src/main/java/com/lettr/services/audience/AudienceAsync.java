@@ -0,0 +1,64 @@
+package com.lettr.services.audience;
+
+import com.lettr.core.net.HttpClient;
+import com.lettr.core.util.Args;
+import com.lettr.services.audience.contacts.AudienceContactsAsync;
+import com.lettr.services.audience.lists.AudienceListsAsync;
+import com.lettr.services.audience.properties.AudiencePropertiesAsync;
+import com.lettr.services.audience.segments.AudienceSegmentsAsync;
+import com.lettr.services.audience.topics.AudienceTopicsAsync;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Asynchronous counterpart of {@link Audience}. Returns the
+ * {@link java.util.concurrent.CompletableFuture}-based sub-services for audience
+ * lists, contacts, topics, properties, and segments.
+ */
+public class AudienceAsync {
+
+    private final AudienceListsAsync lists;
+    private final AudienceContactsAsync contacts;
+    private final AudienceTopicsAsync topics;
+    private final AudiencePropertiesAsync properties;
+    private final AudienceSegmentsAsync segments;
+
+    public AudienceAsync(@Nonnull HttpClient httpClient) {
+        Args.requireNonNull("httpClient", httpClient);
+        this.lists = new AudienceListsAsync(httpClient);
+        this.contacts = new AudienceContactsAsync(httpClient);
+        this.topics = new AudienceTopicsAsync(httpClient);
+        this.properties = new AudiencePropertiesAsync(httpClient);
+        this.segments = new AudienceSegmentsAsync(httpClient);
+    }
+
+    /** Returns the asynchronous audience lists service. */
+    @Nonnull
+    public AudienceListsAsync lists() {
+        return lists;
+    }
+
+    /** Returns the asynchronous audience contacts service. */
+    @Nonnull
+    public AudienceContactsAsync contacts() {
+        return contacts;
+    }
+
+    /** Returns the asynchronous audience topics service. */
+    @Nonnull
+    public AudienceTopicsAsync topics() {
+        return topics;
+    }
+
+    /** Returns the asynchronous audience properties service. */
+    @Nonnull
+    public AudiencePropertiesAsync properties() {
+        return properties;
+    }
+
+    /** Returns the asynchronous audience segments service. */
+    @Nonnull
+    public AudienceSegmentsAsync segments() {
+        return segments;
+    }
+}
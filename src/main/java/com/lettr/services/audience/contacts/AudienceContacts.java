@@ -3,6 +3,8 @@ package com.lettr.services.audience.contacts;
 import com.lettr.core.exception.ContactAlreadyExistsException;
 import com.lettr.core.exception.LettrApiException;
 import com.lettr.core.exception.LettrException;
+import com.lettr.core.net.HttpClient;
+import com.lettr.core.net.RequestOptions;
 import com.lettr.services.BaseService;
 import com.lettr.services.audience.contacts.model.AudienceContactView;
 import com.lettr.services.audience.contacts.model.BulkAttachContactsResponse;
@@ -36,6 +38,27 @@ public class AudienceContacts extends BaseService {
         super(apiKey);
     }
 
+    public AudienceContacts(@Nonnull HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    /**
+     * Returns a view of this service whose calls follow {@code options}, such
+     * as a deadline, a timeout or a retry policy of their own.
+     *
+     * @param options per-call settings
+     * @return this service, applying {@code options}
+     */
+    @Nonnull
+    public AudienceContacts withOptions(@Nonnull RequestOptions options) {
+        return new AudienceContacts(httpClient.withOptions(options));
+    }
+
+    /** Whether helpers built on this service should run on virtual threads. */
+    boolean virtualThreads() {
+        return httpClient.isVirtualThreads();
+    }
+
     /** List contacts with default pagination. */
     @Nonnull
     public ListAudienceContactsResponse list() throws LettrException {
@@ -76,13 +99,22 @@ public class AudienceContacts extends BaseService {
         try {
             return httpClient.post("/audience/contacts", options, AudienceContactView.class);
         } catch (LettrApiException e) {
-            if (e.getStatusCode() == 409
-                    && (e.getErrorCode() == null || RESOURCE_ALREADY_EXISTS.equals(e.getErrorCode()))) {
-                throw new ContactAlreadyExistsException(
-                        e.getMessage(), e.getStatusCode(), e.getErrorCode(), options.getEmail());
-            }
-            throw e;
+            throw mapCreateFailure(e, options);
+        }
+    }
+
+    /**
+     * Narrows a duplicate-email 409 from {@code POST /audience/contacts} to
+     * {@link ContactAlreadyExistsException}; any other failure is returned as is.
+     * Shared with {@link AudienceContactsAsync#create}.
+     */
+    static LettrApiException mapCreateFailure(LettrApiException e, CreateAudienceContactOptions options) {
+        if (e.getStatusCode() == 409
+                && (e.getErrorCode() == null || RESOURCE_ALREADY_EXISTS.equals(e.getErrorCode()))) {
+            return new ContactAlreadyExistsException(
+                    e.getMessage(), e.getStatusCode(), e.getErrorCode(), options.getEmail());
         }
+        return e;
     }
 
     /**
@@ -0,0 +1,236 @@
+package com.lettr.services.audience.contacts;
+
+import com.lettr.core.exception.ContactAlreadyExistsException;
+import com.lettr.core.exception.LettrApiException;
+import com.lettr.core.exception.LettrException;
+import com.lettr.core.net.HttpClient;
+import com.lettr.core.net.RequestOptions;
+import com.lettr.services.BaseService;
+import com.lettr.services.audience.contacts.model.AudienceContactView;
+import com.lettr.services.audience.contacts.model.BulkAttachContactsResponse;
+import com.lettr.services.audience.contacts.model.BulkContactListsOptions;
+import com.lettr.services.audience.contacts.model.BulkContactTopicsOptions;
+import com.lettr.services.audience.contacts.model.BulkCreateAudienceContactsOptions;
+import com.lettr.services.audience.contacts.model.BulkCreateAudienceContactsResponse;
+import com.lettr.services.audience.contacts.model.BulkDetachContactsResponse;
+import com.lettr.services.audience.contacts.model.BulkSubscribeContactsResponse;
+import com.lettr.services.audience.contacts.model.BulkUnsubscribeContactsResponse;
+import com.lettr.services.audience.contacts.model.CreateAudienceContactOptions;
+import com.lettr.services.audience.contacts.model.ListAudienceContactsParams;
+import com.lettr.services.audience.contacts.model.ListAudienceContactsResponse;
+import com.lettr.services.audience.contacts.model.UpdateAudienceContactOptions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous counterpart of {@link AudienceContacts}: the same operations, each
+ * returning a {@link CompletableFuture} instead of blocking. Obtain it via
+ * {@code lettr.async()}.
+ *
+ * <p>Invalid arguments throw immediately, as they do on {@link AudienceContacts}; API and
+ * network failures complete the future exceptionally with the same
+ * {@link LettrException} subtypes the blocking methods throw.</p>
+ */
+public class AudienceContactsAsync extends BaseService {
+
+    public AudienceContactsAsync(@Nonnull HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    /**
+     * Returns a view of this service whose calls follow {@code options}, such
+     * as a deadline, a timeout or a retry policy of their own.
+     *
+     * @param options per-call settings
+     * @return this service, applying {@code options}
+     */
+    @Nonnull
+    public AudienceContactsAsync withOptions(@Nonnull RequestOptions options) {
+        return new AudienceContactsAsync(httpClient.withOptions(options));
+    }
+
+    /** List contacts with default pagination. */
+    @Nonnull
+    public CompletableFuture<ListAudienceContactsResponse> list() {
+        return list(null);
+    }
+
+    /** List contacts with optional pagination and filters. */
+    @Nonnull
+    public CompletableFuture<ListAudienceContactsResponse> list(@Nullable ListAudienceContactsParams params) {
+        return httpClient.getAsync("/audience/contacts",
+                params != null ? params.toQueryParams() : null,
+                ListAudienceContactsResponse.class);
+    }
+
+    /** Retrieve a single contact. */
+    @Nonnull
+    public CompletableFuture<AudienceContactView> get(@Nonnull String contactId) {
+        if (contactId == null || contactId.isEmpty()) {
+            throw new IllegalArgumentException("contactId is required");
+        }
+        return httpClient.getAsync("/audience/contacts/" + contactId, null, AudienceContactView.class);
+    }
+
+    /**
+     * Create a single contact (optionally with double opt-in).
+     *
+     * <p>Completes exceptionally with {@link ContactAlreadyExistsException} when
+     * the email is already in the team's audience. Do not retry — update the
+     * existing contact instead, or use {@link #bulkCreate} with
+     * {@code updateExisting(true)}.
+     */
+    @Nonnull
+    public CompletableFuture<AudienceContactView> create(@Nonnull CreateAudienceContactOptions options) {
+        if (options == null) {
+            throw new IllegalArgumentException("options is required");
+        }
+        CompletableFuture<AudienceContactView> result = new CompletableFuture<>();
+        httpClient.<AudienceContactView>postAsync("/audience/contacts", options, AudienceContactView.class)
+                .whenComplete((contact, error) -> {
+                    if (error == null) {
+                        result.complete(contact);
+                    } else if (error instanceof LettrApiException) {
+                        result.completeExceptionally(AudienceContacts.mapCreateFailure((LettrApiException) error, options));
+                    } else {
+                        result.completeExceptionally(error);
+                    }
+                });
+        return result;
+    }
+
+    /**
+     * Bulk create up to 1000 contacts.
+     *
+     * <p>Rows that fail validation are skipped, not fatal: the call still
+     * returns HTTP 201 and reports them in the response's {@code errors}. Check
+     * {@link BulkCreateAudienceContactsResponse#hasErrors()} — a call that
+     * returns without throwing does not mean every row landed.
+     */
+    @Nonnull
+    public CompletableFuture<BulkCreateAudienceContactsResponse> bulkCreate(@Nonnull BulkCreateAudienceContactsOptions options) {
+        if (options == null) {
+            throw new IllegalArgumentException("options is required");
+        }
+        return httpClient.postAsync("/audience/contacts/bulk", options, BulkCreateAudienceContactsResponse.class);
+    }
+
+    /** Partially update a contact. */
+    @Nonnull
+    public CompletableFuture<AudienceContactView> update(@Nonnull String contactId, @Nonnull UpdateAudienceContactOptions options) {
+        if (contactId == null || contactId.isEmpty()) {
+            throw new IllegalArgumentException("contactId is required");
+        }
+        if (options == null) {
+            throw new IllegalArgumentException("options is required");
+        }
+        return httpClient.patchAsync("/audience/contacts/" + contactId, options, AudienceContactView.class);
+    }
+
+    /** Permanently delete a contact. */
+    @Nonnull
+    public CompletableFuture<Void> delete(@Nonnull String contactId) {
+        if (contactId == null || contactId.isEmpty()) {
+            throw new IllegalArgumentException("contactId is required");
+        }
+        return httpClient.deleteAsync("/audience/contacts/" + contactId);
+    }
+
+    /** Bulk attach contacts to lists (cartesian product of contactIds × listIds). */
+    @Nonnull
+    public CompletableFuture<BulkAttachContactsResponse> bulkAttachToLists(@Nonnull BulkContactListsOptions options) {
+        if (options == null) {
+            throw new IllegalArgumentException("options is required");
+        }
+        return httpClient.postAsync("/audience/contacts/lists/bulk", options, BulkAttachContactsResponse.class);
+    }
+
+    /** Bulk detach contacts from lists (cartesian product of contactIds × listIds). */
+    @Nonnull
+    public CompletableFuture<BulkDetachContactsResponse> bulkDetachFromLists(@Nonnull BulkContactListsOptions options) {
+        if (options == null) {
+            throw new IllegalArgumentException("options is required");
+        }
+        return httpClient.deleteAsync("/audience/contacts/lists/bulk", options, BulkDetachContactsResponse.class);
+    }
+
+    /** Attach a single contact to a single list. Idempotent. */
+    @Nonnull
+    public CompletableFuture<Void> attachToList(@Nonnull String contactId, @Nonnull String listId) {
+        if (contactId == null || contactId.isEmpty()) {
+            throw new IllegalArgumentException("contactId is required");
+        }
+        if (listId == null || listId.isEmpty()) {
+            throw new IllegalArgumentException("listId is required");
+        }
+        return httpClient.postAsync("/audience/contacts/" + contactId + "/lists/" + listId, null);
+    }
+
+    /** Detach a single contact from a single list. Idempotent. */
+    @Nonnull
+    public CompletableFuture<Void> detachFromList(@Nonnull String contactId, @Nonnull String listId) {
+        if (contactId == null || contactId.isEmpty()) {
+            throw new IllegalArgumentException("contactId is required");
+        }
+        if (listId == null || listId.isEmpty()) {
+            throw new IllegalArgumentException("listId is required");
+        }
+        return httpClient.deleteAsync("/audience/contacts/" + contactId + "/lists/" + listId);
+    }
+
+    /** Subscribe a contact to a topic. Idempotent. */
+    @Nonnull
+    public CompletableFuture<Void> subscribeToTopic(@Nonnull String contactId, @Nonnull String topicId) {
+        if (contactId == null || contactId.isEmpty()) {
+            throw new IllegalArgumentException("contactId is required");
+        }
+        if (topicId == null || topicId.isEmpty()) {
+            throw new IllegalArgumentException("topicId is required");
+        }
+        return httpClient.postAsync("/audience/contacts/" + contactId + "/topics/" + topicId, null);
+    }
+
+    /**
+     * Bulk subscribe contacts to topics (cartesian product of contactIds × topicIds,
+     * up to 1000 × 50).
+     *
+     * <p>Pass {@link BulkCreateAudienceContactsResponse#getContactIds()} from a
+     * bulk create — no id lookup needed.
+     */
+    @Nonnull
+    public CompletableFuture<BulkSubscribeContactsResponse> bulkSubscribeToTopics(@Nonnull BulkContactTopicsOptions options) {
+        if (options == null) {
+            throw new IllegalArgumentException("options is required");
+        }
+        return httpClient.postAsync("/audience/contacts/topics/bulk", options, BulkSubscribeContactsResponse.class);
+    }
+
+    /**
+     * Bulk unsubscribe contacts from topics (cartesian product of
+     * contactIds × topicIds). Pairs that do not exist are ignored.
+     *
+     * <p>This is a DELETE carrying a request body, as
+     * {@link #bulkDetachFromLists} already is.
+     */
+    @Nonnull
+    public CompletableFuture<BulkUnsubscribeContactsResponse> bulkUnsubscribeFromTopics(@Nonnull BulkContactTopicsOptions options) {
+        if (options == null) {
+            throw new IllegalArgumentException("options is required");
+        }
+        return httpClient.deleteAsync("/audience/contacts/topics/bulk", options, BulkUnsubscribeContactsResponse.class);
+    }
+
+    /** Unsubscribe a contact from a topic. Idempotent. */
+    @Nonnull
+    public CompletableFuture<Void> unsubscribeFromTopic(@Nonnull String contactId, @Nonnull String topicId) {
+        if (contactId == null || contactId.isEmpty()) {
+            throw new IllegalArgumentException("contactId is required");
+        }
+        if (topicId == null || topicId.isEmpty()) {
+            throw new IllegalArgumentException("topicId is required");
+        }
+        return httpClient.deleteAsync("/audience/contacts/" + contactId + "/topics/" + topicId);
+    }
+}
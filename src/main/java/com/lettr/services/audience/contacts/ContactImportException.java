@@ -0,0 +1,36 @@
+package com.lettr.services.audience.contacts;
+
+import com.lettr.core.exception.LettrException;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Thrown when a {@link ContactImporter} run stops because a chunk could not be
+ * uploaded. The cause is the failure of that chunk.
+ *
+ * <p>{@link #getReport()} covers the rows imported before the first failed
+ * chunk — the same rows the checkpoint, if any, records — so running the import
+ * again with the same checkpoint picks up where this one stopped.</p>
+ */
+public class ContactImportException extends LettrException {
+
+    private final transient ContactImportReport report;
+    private final long failedRow;
+
+    public ContactImportException(String message, ContactImportReport report, long failedRow, Throwable cause) {
+        super(message, cause);
+        this.report = report;
+        this.failedRow = failedRow;
+    }
+
+    /** What was imported before the failure. */
+    @Nonnull
+    public ContactImportReport getReport() {
+        return report;
+    }
+
+    /** Zero-based input position of the first row of the chunk that failed. */
+    public long getFailedRow() {
+        return failedRow;
+    }
+}
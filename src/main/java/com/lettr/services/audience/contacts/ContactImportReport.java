@@ -0,0 +1,119 @@
+package com.lettr.services.audience.contacts;
+
+import com.lettr.services.audience.contacts.model.BulkAudienceContactError;
+import com.lettr.services.audience.contacts.model.BulkCreateAudienceContactsResponse;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Totals of a {@link ContactImporter} run: the counters of every
+ * {@link BulkCreateAudienceContactsResponse} added up, and every skipped row
+ * with its position in the whole input rather than in its chunk.
+ *
+ * <p>Like a single bulk create, an import can partially succeed — check
+ * {@link #hasErrors()}. The counters follow the API's semantics, so
+ * {@code alreadyExisted} and {@code updated} overlap and do not sum to
+ * {@link #getRows()}.</p>
+ */
+public class ContactImportReport {
+
+    private long rows;
+    private long chunks;
+    private long created;
+    private long alreadyExisted;
+    private long updated;
+    private long errorCount;
+    private List<RowError> errors = new ArrayList<>();
+    private long resumedFrom;
+
+    ContactImportReport() {}
+
+    /** Rows uploaded, including any counted by the checkpoint this run resumed from. */
+    public long getRows() { return rows; }
+
+    /** Bulk-create requests made, including those before the checkpoint. */
+    public long getChunks() { return chunks; }
+
+    public long getCreated() { return created; }
+
+    public long getAlreadyExisted() { return alreadyExisted; }
+
+    public long getUpdated() { return updated; }
+
+    /** Number of skipped rows. */
+    public long getErrorCount() { return errorCount; }
+
+    /** The skipped rows, ordered by their position in the input. Never {@code null}. */
+    @Nonnull
+    public List<RowError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    /** Whether any row was skipped. */
+    public boolean hasErrors() {
+        return errorCount > 0 || !errors.isEmpty();
+    }
+
+    /** Number of input rows skipped because a checkpoint showed they were already imported. */
+    public long getResumedFrom() { return resumedFrom; }
+
+    void resumedFrom(long rows) {
+        this.resumedFrom = rows;
+    }
+
+    /** Puts back the skipped rows of a checkpoint, which records only the counters. */
+    void restoreErrors(List<RowError> restored) {
+        this.errors = new ArrayList<>(restored);
+    }
+
+    /** Folds in the response for the chunk that started at input row {@code offset}. */
+    void add(long offset, int size, BulkCreateAudienceContactsResponse response) {
+        rows += size;
+        chunks++;
+        created += response.getCreated();
+        alreadyExisted += response.getAlreadyExisted();
+        updated += response.getUpdated();
+        errorCount += response.getErrorCount();
+        for (BulkAudienceContactError error : response.getErrors()) {
+            errors.add(new RowError(offset + error.getIndex(), error));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ContactImportReport{rows=" + rows
+                + ", chunks=" + chunks
+                + ", created=" + created
+                + ", alreadyExisted=" + alreadyExisted
+                + ", updated=" + updated
+                + ", errorCount=" + errorCount
+                + ", resumedFrom=" + resumedFrom + '}';
+    }
+
+    /** A skipped row and its zero-based position in the whole input. */
+    public static class RowError {
+
+        private final long row;
+        private final BulkAudienceContactError error;
+
+        RowError(long row, BulkAudienceContactError error) {
+            this.row = row;
+            this.error = error;
+        }
+
+        /** Zero-based position of the row in the input, counting rows before any checkpoint. */
+        public long getRow() { return row; }
+
+        /** The API's report for the row; its {@code index} is relative to the chunk. */
+        @Nonnull
+        public BulkAudienceContactError getError() { return error; }
+
+        @Override
+        public String toString() {
+            return "RowError{row=" + row + ", error=" + error + '}';
+        }
+    }
+}
@@ -0,0 +1,481 @@
+package com.lettr.services.audience.contacts;
+
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.lettr.core.exception.LettrException;
+import com.lettr.core.util.Args;
+import com.lettr.core.util.Threads;
+import com.lettr.services.audience.contacts.model.AudienceTopicSubscription;
+import com.lettr.services.audience.contacts.model.BulkAudienceContactRow;
+import com.lettr.services.audience.contacts.model.BulkCreateAudienceContactsOptions;
+import com.lettr.services.audience.contacts.model.BulkCreateAudienceContactsResponse;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Imports any number of contacts through
+ * {@link AudienceContacts#bulkCreate(BulkCreateAudienceContactsOptions)},
+ * which takes at most 1000 rows per request.
+ *
+ * <pre>{@code
+ * ContactImporter importer = ContactImporter.builder(lettr.audience().contacts())
+ *     .parallelism(4)
+ *     .listIds(List.of("01h-everyone"))
+ *     .updateExisting(true)
+ *     .checkpoint(Path.of("crm-import.checkpoint"))
+ *     .build();
+ *
+ * try (Stream<BulkAudienceContactRow> rows = readCrmExport()) {
+ *     ContactImportReport report = importer.importRows(rows);
+ * }
+ * }</pre>
+ *
+ * <p>Rows are read lazily and cut into chunks of {@code chunkSize}; up to
+ * {@code parallelism} chunks are uploaded at once, and reading pauses while
+ * they are, so at most {@code parallelism} chunks are held in memory however
+ * large the input. Batch-wide settings ({@code listIds}, {@code topics},
+ * {@code properties}, {@code updateExisting}) are sent with every chunk.</p>
+ *
+ * <h2>Failures and resuming</h2>
+ *
+ * <p>Rows the API skips are reported in the {@link ContactImportReport}, as
+ * with a single bulk create. A chunk whose request fails outright stops the
+ * import: no further chunks are started, those in flight are allowed to
+ * finish, and {@link ContactImportException} is thrown.</p>
+ *
+ * <p>With a {@link Builder#checkpoint(Path) checkpoint} file, the importer
+ * records after each chunk how many leading rows are done, along with the
+ * counters of the report so far. Skipped rows are appended to a file next to
+ * it, named after it with {@code .errors} added, so that each write is as
+ * small as the chunk however many rows the import has skipped. A later run
+ * with the same file skips those rows and carries on, so the input must
+ * produce the same rows in the same order. Chunks that finished out of order
+ * beyond that point are uploaded again, which is harmless for contacts that
+ * already exist. Both files are deleted once an import completes.</p>
+ *
+ * <p>An importer can be reused but runs one import at a time per checkpoint
+ * file.</p>
+ */
+public final class ContactImporter {
+
+    /** Largest chunk {@code POST /audience/contacts/bulk} accepts. */
+    public static final int MAX_CHUNK_SIZE = 1000;
+
+    private static final AtomicInteger IMPORT_COUNT = new AtomicInteger();
+
+    private final AudienceContacts contacts;
+    private final int chunkSize;
+    private final int parallelism;
+    private final List<String> listIds;
+    private final List<AudienceTopicSubscription> topics;
+    private final Map<String, String> properties;
+    private final boolean updateExisting;
+    private final Path checkpoint;
+    private final Path errorLog;
+    private final Gson gson = new Gson();
+    // The checkpoint holds the counters; skipped rows go to errorLog.
+    private final Gson checkpointGson = new GsonBuilder()
+            .setExclusionStrategies(new ExclusionStrategy() {
+                @Override
+                public boolean shouldSkipField(FieldAttributes field) {
+                    return field.getDeclaringClass() == ContactImportReport.class && field.getName().equals("errors");
+                }
+
+                @Override
+                public boolean shouldSkipClass(Class<?> type) {
+                    return false;
+                }
+            })
+            .create();
+
+    private ContactImporter(Builder builder) {
+        this.contacts = builder.contacts;
+        this.chunkSize = builder.chunkSize;
+        this.parallelism = builder.parallelism;
+        this.listIds = builder.listIds;
+        this.topics = builder.topics;
+        this.properties = builder.properties;
+        this.updateExisting = builder.updateExisting;
+        this.checkpoint = builder.checkpoint;
+        this.errorLog = checkpoint != null ? checkpoint.resolveSibling(checkpoint.getFileName() + ".errors") : null;
+    }
+
+    @Nonnull
+    public static Builder builder(@Nonnull AudienceContacts contacts) {
+        return new Builder(Args.requireNonNull("contacts", contacts));
+    }
+
+    /**
+     * Imports every row of {@code rows}. The stream is consumed but not closed.
+     *
+     * @see #importRows(Iterator)
+     */
+    @Nonnull
+    public ContactImportReport importRows(@Nonnull Stream<BulkAudienceContactRow> rows) throws LettrException {
+        return importRows(Args.requireNonNull("rows", rows).iterator());
+    }
+
+    /**
+     * Imports every row of {@code rows}, resuming from the checkpoint if one
+     * exists.
+     *
+     * @return the merged report of every chunk, including those recorded in the checkpoint
+     * @throws ContactImportException if a chunk could not be uploaded
+     * @throws LettrException         if the checkpoint cannot be read or written
+     * @throws IllegalArgumentException if {@code rows} is null or yields a null row
+     */
+    @Nonnull
+    public ContactImportReport importRows(@Nonnull Iterator<BulkAudienceContactRow> rows) throws LettrException {
+        Args.requireNonNull("rows", rows);
+        ContactImportReport report = loadCheckpoint();
+        long skip = report.getRows();
+        report.resumedFrom(skip);
+        for (long i = 0; i < skip && rows.hasNext(); i++) {
+            rows.next();
+        }
+
+        Run run = new Run(report, skip);
+        ExecutorService uploads = Executors.newFixedThreadPool(parallelism, Threads.factory(
+                "lettr-contact-import-" + IMPORT_COUNT.incrementAndGet() + "-", contacts.virtualThreads()));
+        try {
+            long offset = skip;
+            while (!run.stopped() && rows.hasNext()) {
+                List<BulkAudienceContactRow> chunk = new ArrayList<>(chunkSize);
+                while (chunk.size() < chunkSize && rows.hasNext()) {
+                    chunk.add(Args.requireNonNull("row", rows.next()));
+                }
+                run.acquireSlot();
+                long chunkOffset = offset;
+                uploads.execute(() -> run.upload(chunkOffset, chunk));
+                offset += chunk.size();
+            }
+            run.awaitIdle();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LettrException("Contact import was interrupted", e);
+        } finally {
+            uploads.shutdown();
+        }
+        return run.finish();
+    }
+
+    private BulkCreateAudienceContactsOptions chunkOptions(List<BulkAudienceContactRow> chunk) {
+        return BulkCreateAudienceContactsOptions.builder()
+                .contacts(chunk)
+                .listIds(listIds)
+                .topics(topics)
+                .properties(properties)
+                .updateExisting(updateExisting)
+                .build();
+    }
+
+    private ContactImportReport loadCheckpoint() throws LettrException {
+        if (checkpoint == null) {
+            return new ContactImportReport();
+        }
+        ContactImportReport report;
+        try (Reader reader = Files.newBufferedReader(checkpoint, StandardCharsets.UTF_8)) {
+            report = checkpointGson.fromJson(reader, ContactImportReport.class);
+        } catch (NoSuchFileException e) {
+            report = null;
+        } catch (IOException | JsonParseException e) {
+            throw new LettrException("Failed to read import checkpoint " + checkpoint, e);
+        }
+        if (report == null) {
+            report = new ContactImportReport();
+        }
+        try {
+            report.restoreErrors(loadErrors(report.getRows()));
+        } catch (IOException | JsonParseException e) {
+            throw new LettrException("Failed to read import errors " + errorLog, e);
+        }
+        return report;
+    }
+
+    /**
+     * Reads the skipped rows before {@code rows} back from the error log, and
+     * rewrites it without any that a run appended before failing to save the
+     * checkpoint that covered them.
+     */
+    private List<ContactImportReport.RowError> loadErrors(long rows) throws IOException {
+        List<ContactImportReport.RowError> errors = new ArrayList<>();
+        boolean stale = false;
+        try (BufferedReader reader = Files.newBufferedReader(errorLog, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                ContactImportReport.RowError error = gson.fromJson(line, ContactImportReport.RowError.class);
+                if (error.getRow() < rows) {
+                    errors.add(error);
+                } else {
+                    stale = true;
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return errors;
+        }
+        if (stale) {
+            Files.delete(errorLog);
+            appendErrors(errors);
+        }
+        return errors;
+    }
+
+    private void appendErrors(List<ContactImportReport.RowError> errors) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(errorLog, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (ContactImportReport.RowError error : errors) {
+                gson.toJson(error, writer);
+                writer.write('\n');
+            }
+        }
+    }
+
+    /** Appends {@code newErrors} to the error log, then records the counters of {@code report}. */
+    private void saveCheckpoint(ContactImportReport report, List<ContactImportReport.RowError> newErrors)
+            throws IOException {
+        if (!newErrors.isEmpty()) {
+            appendErrors(newErrors);
+        }
+        Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            checkpointGson.toJson(report, writer);
+        }
+        try {
+            Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /** State of one {@link #importRows(Iterator)} call. */
+    private final class Run {
+
+        private final ContactImportReport report;
+        private final Semaphore slots = new Semaphore(parallelism);
+        // Chunks that finished ahead of an earlier one, keyed by offset, waiting
+        // to be folded into the report in input order.
+        private final TreeMap<Long, Done> finished = new TreeMap<>();
+        private long watermark;
+        private volatile Failure failure;
+
+        Run(ContactImportReport report, long watermark) {
+            this.report = report;
+            this.watermark = watermark;
+        }
+
+        boolean stopped() {
+            return failure != null;
+        }
+
+        void acquireSlot() throws InterruptedException {
+            slots.acquire();
+        }
+
+        void awaitIdle() throws InterruptedException {
+            slots.acquire(parallelism);
+            slots.release(parallelism);
+        }
+
+        void upload(long offset, List<BulkAudienceContactRow> chunk) {
+            try {
+                if (stopped()) {
+                    return;
+                }
+                BulkCreateAudienceContactsResponse response = contacts.bulkCreate(chunkOptions(chunk));
+                completed(offset, chunk.size(), response);
+            } catch (Exception e) {
+                failed(offset, e);
+            } finally {
+                slots.release();
+            }
+        }
+
+        private synchronized void completed(long offset, int size, BulkCreateAudienceContactsResponse response)
+                throws IOException {
+            finished.put(offset, new Done(size, response));
+            boolean advanced = false;
+            int knownErrors = report.getErrors().size();
+            Map.Entry<Long, Done> next;
+            while ((next = finished.firstEntry()) != null && next.getKey() == watermark) {
+                finished.pollFirstEntry();
+                report.add(watermark, next.getValue().size, next.getValue().response);
+                watermark += next.getValue().size;
+                advanced = true;
+            }
+            if (advanced && checkpoint != null) {
+                List<ContactImportReport.RowError> errors = report.getErrors();
+                saveCheckpoint(report, errors.subList(knownErrors, errors.size()));
+            }
+        }
+
+        private synchronized void failed(long offset, Exception e) {
+            if (failure == null || offset < failure.offset) {
+                failure = new Failure(offset, e);
+            }
+        }
+
+        ContactImportReport finish() throws LettrException {
+            Failure failed = failure;
+            if (failed != null) {
+                Exception cause = failed.error;
+                String message = cause instanceof IOException
+                        ? "Failed to write import checkpoint " + checkpoint
+                        : "Contact import stopped at row " + failed.offset + ": " + cause.getMessage();
+                throw new ContactImportException(message, report, failed.offset, cause);
+            }
+            if (checkpoint != null) {
+                try {
+                    Files.deleteIfExists(checkpoint);
+                    Files.deleteIfExists(errorLog);
+                } catch (IOException e) {
+                    throw new LettrException("Failed to delete import checkpoint " + checkpoint, e);
+                }
+            }
+            return report;
+        }
+    }
+
+    private static final class Done {
+        final int size;
+        final BulkCreateAudienceContactsResponse response;
+
+        Done(int size, BulkCreateAudienceContactsResponse response) {
+            this.size = size;
+            this.response = response;
+        }
+    }
+
+    private static final class Failure {
+        final long offset;
+        final Exception error;
+
+        Failure(long offset, Exception error) {
+            this.offset = offset;
+            this.error = error;
+        }
+    }
+
+    public static class Builder {
+        private final AudienceContacts contacts;
+        private int chunkSize = MAX_CHUNK_SIZE;
+        private int parallelism = 4;
+        private List<String> listIds;
+        private List<AudienceTopicSubscription> topics;
+        private Map<String, String> properties;
+        private boolean updateExisting;
+        private Path checkpoint;
+
+        private Builder(AudienceContacts contacts) {
+            this.contacts = contacts;
+        }
+
+        /** <b>(optional)</b> Rows per request, 1–1000 (default 1000). */
+        @Nonnull
+        public Builder chunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Chunks uploaded at once (default 4), one thread
+         * each; virtual threads when the client was built with
+         * {@code ClientOptions.Builder#virtualThreads(true)}.
+         */
+        @Nonnull
+        public Builder parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /** <b>(optional)</b> Up to 50 lists every contact is added to. */
+        @Nonnull
+        public Builder listIds(@Nullable List<String> listIds) {
+            this.listIds = listIds == null ? null : new ArrayList<>(listIds);
+            return this;
+        }
+
+        /** <b>(optional)</b> Up to 50 topic subscriptions applied to every contact. */
+        @Nonnull
+        public Builder topics(@Nullable List<AudienceTopicSubscription> topics) {
+            this.topics = topics == null ? null : new ArrayList<>(topics);
+            return this;
+        }
+
+        /** <b>(optional)</b> Property values for every contact; a row's own key wins. */
+        @Nonnull
+        public Builder properties(@Nullable Map<String, String> properties) {
+            this.properties = properties == null ? null : new LinkedHashMap<>(properties);
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Merge properties into contacts that already exist
+         * (default {@code false}); see
+         * {@link BulkCreateAudienceContactsOptions.Builder#updateExisting(boolean)}.
+         */
+        @Nonnull
+        public Builder updateExisting(boolean updateExisting) {
+            this.updateExisting = updateExisting;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> File recording progress so an interrupted import
+         * can resume. Created on the first completed chunk and deleted when the
+         * import completes, along with the file of skipped rows kept next to
+         * it (the same name with {@code .errors} added).
+         */
+        @Nonnull
+        public Builder checkpoint(@Nullable Path checkpoint) {
+            this.checkpoint = checkpoint;
+            return this;
+        }
+
+        /**
+         * Builds the {@link ContactImporter} instance.
+         *
+         * @throws IllegalArgumentException if a setting is out of range
+         */
+        @Nonnull
+        public ContactImporter build() {
+            if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+                throw new IllegalArgumentException("chunkSize must be between 1 and " + MAX_CHUNK_SIZE);
+            }
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("parallelism must be at least 1");
+            }
+            if (listIds != null && listIds.size() > 50) {
+                throw new IllegalArgumentException("listIds cannot contain more than 50 ids");
+            }
+            if (topics != null && topics.size() > 50) {
+                throw new IllegalArgumentException("topics cannot contain more than 50 subscriptions");
+            }
+            return new ContactImporter(this);
+        }
+    }
+}
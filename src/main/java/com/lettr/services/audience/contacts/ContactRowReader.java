@@ -0,0 +1,189 @@
+package com.lettr.services.audience.contacts;
+
+import com.lettr.core.util.Args;
+import com.lettr.services.audience.contacts.model.BulkAudienceContactRow;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads {@link BulkAudienceContactRow}s from a CSV or NDJSON source one at a
+ * time, so a multi-gigabyte export can be fed to a {@link ContactImporter}
+ * without ever being held in memory.
+ *
+ * <pre>{@code
+ * try (ContactRowReader rows = ContactRowReader.csv(Path.of("crm-export.csv"))) {
+ *     ContactImportReport report = importer.importRows(rows);
+ *     log.info("skipped {} rows without an email", rows.getSkippedRows());
+ * }
+ * }</pre>
+ *
+ * <p>Files are read through a {@link FileChannel} with a 64 KB buffer and
+ * decoded as UTF-8; a leading byte-order mark is ignored. See
+ * {@link CsvOptions} for how CSV columns map onto a row. NDJSON lines are
+ * objects in the shape {@code POST /audience/contacts/bulk} takes —
+ * {@code email}, {@code properties}, {@code list_ids}, {@code topics} — and any
+ * other top-level string, number or boolean member is added to
+ * {@code properties}.</p>
+ *
+ * <p>A record without an email address is skipped and counted in
+ * {@link #getSkippedRows()}; everything else is left for the API to validate.
+ * Read failures and malformed input surface from {@link #hasNext()} and
+ * {@link #next()} as {@link UncheckedIOException}, with the line number in the
+ * message. Not thread-safe.</p>
+ */
+public abstract class ContactRowReader implements Iterator<BulkAudienceContactRow>, Closeable {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader source;
+    private BulkAudienceContactRow next;
+    private boolean done;
+    private long skippedRows;
+
+    ContactRowReader(Reader source) {
+        this.source = source;
+    }
+
+    /** Reads {@code path} as CSV with the default {@link CsvOptions}. */
+    @Nonnull
+    public static ContactRowReader csv(@Nonnull Path path) throws IOException {
+        return csv(path, CsvOptions.defaults());
+    }
+
+    /** Reads {@code path} as CSV. */
+    @Nonnull
+    public static ContactRowReader csv(@Nonnull Path path, @Nonnull CsvOptions options) throws IOException {
+        Args.requireNonNull("options", options);
+        return csvOrClose(open(path), options);
+    }
+
+    /**
+     * Reads CSV from {@code source}, which the returned reader closes. Pass a
+     * {@link BufferedReader} or another buffered source for throughput.
+     *
+     * @throws IOException if the header cannot be read or names no email
+     *                     column; {@code source} is closed
+     */
+    @Nonnull
+    public static ContactRowReader csv(@Nonnull Reader source, @Nonnull CsvOptions options) throws IOException {
+        return csvOrClose(Args.requireNonNull("source", source), Args.requireNonNull("options", options));
+    }
+
+    // The constructor reads the header, and closes nothing when that fails.
+    private static ContactRowReader csvOrClose(Reader source, CsvOptions options) throws IOException {
+        try {
+            return new CsvContactRowReader(source, options);
+        } catch (IOException | RuntimeException e) {
+            try {
+                source.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    /** Reads {@code path} as newline-delimited JSON. */
+    @Nonnull
+    public static ContactRowReader ndjson(@Nonnull Path path) throws IOException {
+        return new NdjsonContactRowReader(open(path));
+    }
+
+    /** Reads newline-delimited JSON from {@code source}, which the returned reader closes. */
+    @Nonnull
+    public static ContactRowReader ndjson(@Nonnull Reader source) {
+        return new NdjsonContactRowReader(Args.requireNonNull("source", source));
+    }
+
+    private static Reader open(Path path) throws IOException {
+        Args.requireNonNull("path", path);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        return new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), BUFFER_SIZE), BUFFER_SIZE);
+    }
+
+    /**
+     * Reads the next record, or returns {@code null} at the end of the input.
+     * Records without an email are reported with {@link #skipped()}.
+     */
+    abstract BulkAudienceContactRow readRow() throws IOException;
+
+    final void skipped() {
+        skippedRows++;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (done) {
+            return false;
+        }
+        try {
+            next = readRow();
+        } catch (IOException e) {
+            done = true;
+            throw new UncheckedIOException(e);
+        }
+        if (next == null) {
+            done = true;
+        }
+        return next != null;
+    }
+
+    @Override
+    @Nonnull
+    public BulkAudienceContactRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        BulkAudienceContactRow row = next;
+        next = null;
+        return row;
+    }
+
+    /** Number of records skipped so far because they had no email address. */
+    public long getSkippedRows() {
+        return skippedRows;
+    }
+
+    /** Returns the remaining rows as a sequential stream that closes this reader when closed. */
+    @Nonnull
+    public Stream<BulkAudienceContactRow> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    @Override
+    public void close() throws IOException {
+        done = true;
+        next = null;
+        source.close();
+    }
+
+    final Reader source() {
+        return source;
+    }
+}
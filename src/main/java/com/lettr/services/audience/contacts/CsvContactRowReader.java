@@ -0,0 +1,220 @@
+package com.lettr.services.audience.contacts;
+
+import com.lettr.services.audience.contacts.model.BulkAudienceContactRow;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * RFC 4180 CSV behind {@link ContactRowReader#csv}. Characters are pulled from
+ * the source in bulk into a private buffer and fields are assembled in one
+ * reused {@link StringBuilder}, so the only per-row garbage is the row itself.
+ */
+final class CsvContactRowReader extends ContactRowReader {
+
+    private static final char BOM = '\uFEFF';
+
+    private final CsvOptions options;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private long line = 1;
+    private long recordLine;
+    private final StringBuilder field = new StringBuilder();
+    private final List<String> record = new ArrayList<>();
+
+    private final int emailIndex;
+    private final int listIdsIndex;
+    private final String[] propertyNames; // by column; null where the column is not a property
+
+    CsvContactRowReader(Reader source, CsvOptions options) throws IOException {
+        super(source);
+        this.options = options;
+
+        if (!readRecord()) {
+            throw new IOException("CSV input is empty; expected a header line");
+        }
+        if (!record.isEmpty() && !record.get(0).isEmpty() && record.get(0).charAt(0) == BOM) {
+            record.set(0, record.get(0).substring(1));
+        }
+        String email = normalize(options.getEmailColumn());
+        String listIds = options.getListIdsColumn() != null ? normalize(options.getListIdsColumn()) : null;
+        int emailAt = -1;
+        int listIdsAt = -1;
+        propertyNames = new String[record.size()];
+        for (int i = 0; i < record.size(); i++) {
+            String name = normalize(record.get(i));
+            if (name.equals(email) && emailAt < 0) {
+                emailAt = i;
+            } else if (name.equals(listIds) && listIdsAt < 0) {
+                listIdsAt = i;
+            } else if (!name.isEmpty()
+                    && (options.getPropertyColumns() == null || options.getPropertyColumns().contains(name))) {
+                propertyNames[i] = record.get(i).trim();
+            }
+        }
+        if (emailAt < 0) {
+            throw new IOException("CSV header has no '" + options.getEmailColumn() + "' column");
+        }
+        this.emailIndex = emailAt;
+        this.listIdsIndex = listIdsAt;
+    }
+
+    static String normalize(String column) {
+        return column.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    BulkAudienceContactRow readRow() throws IOException {
+        while (readRecord()) {
+            if (record.size() == 1 && record.get(0).isEmpty()) {
+                continue; // blank line
+            }
+            String email = cell(emailIndex).trim();
+            if (email.isEmpty()) {
+                skipped();
+                continue;
+            }
+            BulkAudienceContactRow.Builder row = BulkAudienceContactRow.builder().email(email);
+
+            Map<String, String> properties = null;
+            for (int i = 0; i < propertyNames.length && i < record.size(); i++) {
+                String value = record.get(i);
+                if (propertyNames[i] != null && !value.isEmpty()) {
+                    if (properties == null) {
+                        properties = new LinkedHashMap<>();
+                    }
+                    properties.put(propertyNames[i], value);
+                }
+            }
+            row.properties(properties);
+
+            if (listIdsIndex >= 0) {
+                List<String> listIds = split(cell(listIdsIndex), options.getListIdSeparator());
+                if (!listIds.isEmpty()) {
+                    row.listIds(listIds);
+                }
+            }
+            try {
+                return row.build();
+            } catch (IllegalArgumentException e) {
+                throw new IOException("line " + recordLine + ": " + e.getMessage(), e);
+            }
+        }
+        return null;
+    }
+
+    private String cell(int index) {
+        return index < record.size() ? record.get(index) : "";
+    }
+
+    private static List<String> split(String cell, char separator) {
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= cell.length(); i++) {
+            if (i == cell.length() || cell.charAt(i) == separator) {
+                String part = cell.substring(start, i).trim();
+                if (!part.isEmpty()) {
+                    parts.add(part);
+                }
+                start = i + 1;
+            }
+        }
+        return parts;
+    }
+
+    /** Reads the next record into {@link #record}; {@code false} at the end of the input. */
+    private boolean readRecord() throws IOException {
+        record.clear();
+        field.setLength(0);
+        char delimiter = options.getDelimiter();
+        boolean sawAnything = false;
+        boolean quoted = false;   // the current field started with a quote
+        boolean inQuotes = false; // ... and the closing quote is still to come
+        recordLine = line;
+
+        while (true) {
+            int c = read();
+            if (inQuotes) {
+                if (c < 0) {
+                    throw new IOException("line " + recordLine + ": unterminated quoted field");
+                }
+                if (c == '"') {
+                    if (peek() == '"') {
+                        position++;
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+                continue;
+            }
+            if (c < 0) {
+                if (!sawAnything) {
+                    return false;
+                }
+                endField();
+                return true;
+            }
+            sawAnything = true;
+            if (c == delimiter) {
+                endField();
+                quoted = false;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && peek() == '\n') {
+                    position++;
+                }
+                line++;
+                endField();
+                return true;
+            } else if (c == '"' && !quoted && field.length() == 0) {
+                quoted = true;
+                inQuotes = true;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    private void endField() {
+        record.add(field.toString());
+        field.setLength(0);
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int n;
+        do {
+            n = source().read(buffer, 0, buffer.length);
+        } while (n == 0);
+        if (n < 0) {
+            return false;
+        }
+        position = 0;
+        limit = n;
+        return true;
+    }
+}
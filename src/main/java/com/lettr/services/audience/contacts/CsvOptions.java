@@ -0,0 +1,136 @@
+package com.lettr.services.audience.contacts;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * How {@link ContactRowReader#csv(java.nio.file.Path, CsvOptions)} maps CSV
+ * columns onto a {@link com.lettr.services.audience.contacts.model.BulkAudienceContactRow}.
+ *
+ * <p>The first record is the header. Column names are matched ignoring case
+ * and surrounding spaces. The {@code emailColumn} (default {@code email}) is
+ * required; the optional {@code listIdsColumn} (default {@code list_ids}) holds
+ * list ids separated by {@code listIdSeparator} (default {@code ;}). Every other
+ * column becomes a property named after its header, or only those named in
+ * {@code propertyColumns} when set. Empty cells are left out of
+ * {@code properties}, so they never blank out a value an existing contact
+ * already has.</p>
+ *
+ * <p>Fields follow RFC 4180: they may be quoted with {@code "}, a quoted field
+ * may contain the delimiter, line breaks and doubled {@code ""} quotes, and
+ * lines may end in {@code \n} or {@code \r\n}.</p>
+ */
+public class CsvOptions {
+
+    private final char delimiter;
+    private final String emailColumn;
+    private final String listIdsColumn;
+    private final char listIdSeparator;
+    private final Set<String> propertyColumns;
+
+    private CsvOptions(Builder builder) {
+        this.delimiter = builder.delimiter;
+        this.emailColumn = builder.emailColumn;
+        this.listIdsColumn = builder.listIdsColumn;
+        this.listIdSeparator = builder.listIdSeparator;
+        this.propertyColumns = builder.propertyColumns;
+    }
+
+    /** Returns comma-separated options with an {@code email} and a {@code list_ids} column. */
+    @Nonnull
+    public static CsvOptions defaults() {
+        return builder().build();
+    }
+
+    @Nonnull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public char getDelimiter() { return delimiter; }
+    @Nonnull public String getEmailColumn() { return emailColumn; }
+    @Nullable public String getListIdsColumn() { return listIdsColumn; }
+    public char getListIdSeparator() { return listIdSeparator; }
+    @Nullable public Set<String> getPropertyColumns() { return propertyColumns; }
+
+    public static class Builder {
+        private char delimiter = ',';
+        private String emailColumn = "email";
+        private String listIdsColumn = "list_ids";
+        private char listIdSeparator = ';';
+        private Set<String> propertyColumns;
+
+        private Builder() {}
+
+        /** <b>(optional)</b> Field delimiter (default {@code ,}). */
+        @Nonnull
+        public Builder delimiter(char delimiter) {
+            this.delimiter = delimiter;
+            return this;
+        }
+
+        /** <b>(optional)</b> Header of the email address column (default {@code email}). */
+        @Nonnull
+        public Builder emailColumn(@Nonnull String emailColumn) {
+            this.emailColumn = emailColumn;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Header of the list ids column (default
+         * {@code list_ids}); {@code null} treats no column as list ids. The
+         * column may be absent from the file either way.
+         */
+        @Nonnull
+        public Builder listIdsColumn(@Nullable String listIdsColumn) {
+            this.listIdsColumn = listIdsColumn;
+            return this;
+        }
+
+        /** <b>(optional)</b> Separator between list ids within a cell (default {@code ;}). */
+        @Nonnull
+        public Builder listIdSeparator(char listIdSeparator) {
+            this.listIdSeparator = listIdSeparator;
+            return this;
+        }
+
+        /**
+         * <b>(optional)</b> Columns to import as properties. Defaults to every
+         * column other than the email and list ids ones.
+         */
+        @Nonnull
+        public Builder propertyColumns(@Nullable Collection<String> propertyColumns) {
+            if (propertyColumns == null) {
+                this.propertyColumns = null;
+            } else {
+                Set<String> normalized = new LinkedHashSet<>();
+                for (String column : propertyColumns) {
+                    normalized.add(CsvContactRowReader.normalize(column));
+                }
+                this.propertyColumns = Collections.unmodifiableSet(normalized);
+            }
+            return this;
+        }
+
+        /**
+         * Builds the {@link CsvOptions} instance.
+         *
+         * @throws IllegalArgumentException if {@code emailColumn} is empty, or the
+         *                                  delimiter is a quote or line break
+         */
+        @Nonnull
+        public CsvOptions build() {
+            if (emailColumn == null || emailColumn.trim().isEmpty()) {
+                throw new IllegalArgumentException("emailColumn is required");
+            }
+            if (delimiter == '"' || delimiter == '\n' || delimiter == '\r') {
+                throw new IllegalArgumentException("delimiter cannot be a quote or a line break");
+            }
+            return new CsvOptions(this);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.lettr.services.audience.contacts;
+
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.lettr.services.audience.contacts.model.AudienceTopicSubscription;
+import com.lettr.services.audience.contacts.model.AudienceTopicSubscriptionState;
+import com.lettr.services.audience.contacts.model.BulkAudienceContactRow;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Newline-delimited JSON behind {@link ContactRowReader#ndjson}. Each object is
+ * bound token by token straight into a row builder, without an intermediate
+ * tree.
+ */
+final class NdjsonContactRowReader extends ContactRowReader {
+
+    private final JsonReader json;
+
+    NdjsonContactRowReader(Reader source) {
+        super(source);
+        this.json = new JsonReader(source);
+        // Lenient so that one reader can read a sequence of top-level objects.
+        json.setStrictness(Strictness.LENIENT);
+    }
+
+    @Override
+    BulkAudienceContactRow readRow() throws IOException {
+        while (json.peek() != JsonToken.END_DOCUMENT) {
+            String email = null;
+            Map<String, String> properties = null;
+            List<String> listIds = null;
+            List<AudienceTopicSubscription> topics = null;
+
+            beginObject();
+            while (json.hasNext()) {
+                String name = json.nextName();
+                switch (name) {
+                    case "email":
+                        email = scalar();
+                        break;
+                    case "properties":
+                        properties = properties(properties);
+                        break;
+                    case "list_ids":
+                        listIds = strings();
+                        break;
+                    case "topics":
+                        topics = topics();
+                        break;
+                    default:
+                        String value = scalar();
+                        if (value != null) {
+                            if (properties == null) {
+                                properties = new LinkedHashMap<>();
+                            }
+                            properties.put(name, value);
+                        }
+                }
+            }
+            json.endObject();
+
+            if (email == null || email.trim().isEmpty()) {
+                skipped();
+                continue;
+            }
+            try {
+                return BulkAudienceContactRow.builder()
+                        .email(email.trim())
+                        .properties(properties)
+                        .listIds(listIds)
+                        .topics(topics)
+                        .build();
+            } catch (IllegalArgumentException e) {
+                throw new IOException(e.getMessage() + " (" + json + ")", e);
+            }
+        }
+        return null;
+    }
+
+    /** Consumes the start of an object, or fails with the position if the next value is anything else. */
+    private void beginObject() throws IOException {
+        if (json.peek() != JsonToken.BEGIN_OBJECT) {
+            throw new IOException("Expected a JSON object (" + json + ")");
+        }
+        json.beginObject();
+    }
+
+    /** Reads a string, number or boolean as a string; skips anything else and returns {@code null}. */
+    private String scalar() throws IOException {
+        switch (json.peek()) {
+            case STRING:
+            case NUMBER:
+                return json.nextString();
+            case BOOLEAN:
+                return String.valueOf(json.nextBoolean());
+            default:
+                json.skipValue();
+                return null;
+        }
+    }
+
+    private Map<String, String> properties(Map<String, String> into) throws IOException {
+        if (json.peek() != JsonToken.BEGIN_OBJECT) {
+            json.skipValue();
+            return into;
+        }
+        Map<String, String> properties = into != null ? into : new LinkedHashMap<>();
+        json.beginObject();
+        while (json.hasNext()) {
+            String name = json.nextName();
+            String value = scalar();
+            if (value != null) {
+                properties.put(name, value);
+            }
+        }
+        json.endObject();
+        return properties;
+    }
+
+    private List<String> strings() throws IOException {
+        if (json.peek() != JsonToken.BEGIN_ARRAY) {
+            json.skipValue();
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        json.beginArray();
+        while (json.hasNext()) {
+            String value = scalar();
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        json.endArray();
+        return values;
+    }
+
+    private List<AudienceTopicSubscription> topics() throws IOException {
+        if (json.peek() != JsonToken.BEGIN_ARRAY) {
+            json.skipValue();
+            return null;
+        }
+        List<AudienceTopicSubscription> topics = new ArrayList<>();
+        json.beginArray();
+        while (json.hasNext()) {
+            String id = null;
+            String subscription = null;
+            beginObject();
+            while (json.hasNext()) {
+                String name = json.nextName();
+                if ("id".equals(name)) {
+                    id = scalar();
+                } else if ("subscription".equals(name)) {
+                    subscription = scalar();
+                } else {
+                    json.skipValue();
+                }
+            }
+            json.endObject();
+            if (id == null || id.isEmpty()) {
+                throw new IOException("Topic without an id (" + json + ")");
+            }
+            topics.add(AudienceTopicSubscription.of(id, state(subscription)));
+        }
+        json.endArray();
+        return topics;
+    }
+
+    private AudienceTopicSubscriptionState state(String subscription) throws IOException {
+        if ("opt_in".equals(subscription)) {
+            return AudienceTopicSubscriptionState.OPT_IN;
+        }
+        if ("opt_out".equals(subscription)) {
+            return AudienceTopicSubscriptionState.OPT_OUT;
+        }
+        throw new IOException("Unknown topic subscription '" + subscription + "' (" + json + ")");
+    }
+}
@@ -1,6 +1,8 @@
 package com.lettr.services.audience.lists;
 
 import com.lettr.core.exception.LettrException;
+import com.lettr.core.net.HttpClient;
+import com.lettr.core.net.RequestOptions;
 import com.lettr.services.BaseService;
 import com.lettr.services.audience.lists.model.AudienceListView;
 import com.lettr.services.audience.lists.model.BulkDeleteAudienceListsOptions;
@@ -22,6 +24,22 @@ public class AudienceLists extends BaseService {
         super(apiKey);
     }
 
+    public AudienceLists(@Nonnull HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    /**
+     * Returns a view of this service whose calls follow {@code options}, such
+     * as a deadline, a timeout or a retry policy of their own.
+     *
+     * @param options per-call settings
+     * @return this service, applying {@code options}
+     */
+    @Nonnull
+    public AudienceLists withOptions(@Nonnull RequestOptions options) {
+        return new AudienceLists(httpClient.withOptions(options));
+    }
+
     /** List audience lists with default pagination. */
     @Nonnull
     public ListAudienceListsResponse list() throws LettrException {
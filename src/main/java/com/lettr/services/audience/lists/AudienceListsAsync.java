@@ -0,0 +1,107 @@
+package com.lettr.services.audience.lists;
+
+import com.lettr.core.exception.LettrException;
+import com.lettr.core.net.HttpClient;
+import com.lettr.core.net.RequestOptions;
+import com.lettr.services.BaseService;
+import com.lettr.services.audience.lists.model.AudienceListView;
+import com.lettr.services.audience.lists.model.BulkDeleteAudienceListsOptions;
+import com.lettr.services.audience.lists.model.BulkDeleteAudienceListsResponse;
+import com.lettr.services.audience.lists.model.CreateAudienceListOptions;
+import com.lettr.services.audience.lists.model.ListAudienceListsResponse;
+import com.lettr.services.audience.lists.model.UpdateAudienceListOptions;
+import com.lettr.services.audience.model.PageParams;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous counterpart of {@link AudienceLists}: the same operations, each
+ * returning a {@link CompletableFuture} instead of blocking. Obtain it via
+ * {@code lettr.async()}.
+ *
+ * <p>Invalid arguments throw immediately, as they do on {@link AudienceLists}; API and
+ * network failures complete the future exceptionally with the same
+ * {@link LettrException} subtypes the blocking methods throw.</p>
+ */
+public class AudienceListsAsync extends BaseService {
+
+    public AudienceListsAsync(@Nonnull HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    /**
+     * Returns a view of this service whose calls follow {@code options}, such
+     * as a deadline, a timeout or a retry policy of their own.
+     *
+     * @param options per-call settings
+     * @return this service, applying {@code options}
+     */
+    @Nonnull
+    public AudienceListsAsync withOptions(@Nonnull RequestOptions options) {
+        return new AudienceListsAsync(httpClient.withOptions(options));
+    }
+
+    /** List audience lists with default pagination. */
+    @Nonnull
+    public CompletableFuture<ListAudienceListsResponse> list() {
+        return list(null);
+    }
+
+    /** List audience lists with optional pagination. */
+    @Nonnull
+    public CompletableFuture<ListAudienceListsResponse> list(@Nullable PageParams params) {
+        return httpClient.getAsync("/audience/lists",
+                params != null ? params.toQueryParams() : null,
+                ListAudienceListsResponse.class);
+    }
+
+    /** Retrieve a single audience list. */
+    @Nonnull
+    public CompletableFuture<AudienceListView> get(@Nonnull String listId) {
+        if (listId == null || listId.isEmpty()) {
+            throw new IllegalArgumentException("listId is required");
+        }
+        return httpClient.getAsync("/audience/lists/" + listId, null, AudienceListView.class);
+    }
+
+    /** Create a new audience list. */
+    @Nonnull
+    public CompletableFuture<AudienceListView> create(@Nonnull CreateAudienceListOptions options) {
+        if (options == null) {
+            throw new IllegalArgumentException("options is required");
+        }
+        return httpClient.postAsync("/audience/lists", options, AudienceListView.class);
+    }
+
+    /** Partially update an audience list. */
+    @Nonnull
+    public CompletableFuture<AudienceListView> update(@Nonnull String listId, @Nonnull UpdateAudienceListOptions options) {
+        if (listId == null || listId.isEmpty()) {
+            throw new IllegalArgumentException("listId is required");
+        }
+        if (options == null) {
+            throw new IllegalArgumentException("options is required");
+        }
+        return httpClient.patchAsync("/audience/lists/" + listId, options, AudienceListView.class);
+    }
+
+    /** Permanently delete an audience list. */
+    @Nonnull
+    public CompletableFuture<Void> delete(@Nonnull String listId) {
+        if (listId == null || listId.isEmpty()) {
+            throw new IllegalArgumentException("listId is required");
+        }
+        return httpClient.deleteAsync("/audience/lists/" + listId);
+    }
+
+    /** Bulk delete up to 50 audience lists in a single request. */
+    @Nonnull
+    public CompletableFuture<BulkDeleteAudienceListsResponse> bulkDelete(@Nonnull BulkDeleteAudienceListsOptions options) {
+        if (options == null) {
+            throw new IllegalArgumentException("options is required");
+        }
+        return httpClient.deleteAsync("/audience/lists/bulk", options, BulkDeleteAudienceListsResponse.class);
+    }
+}
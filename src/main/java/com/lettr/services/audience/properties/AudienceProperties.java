@@ -1,6 +1,8 @@
 package com.lettr.services.audience.properties;
 
 import com.lettr.core.exception.LettrException;
+import com.lettr.core.net.HttpClient;
+import com.lettr.core.net.RequestOptions;
 import com.lettr.services.BaseService;
 import com.lettr.services.audience.model.PageParams;
 import com.lettr.services.audience.properties.model.AudiencePropertyView;
@@ -20,6 +22,22 @@ public class AudienceProperties extends BaseService {
         super(apiKey);
     }
 
+    public AudienceProperties(@Nonnull HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    /**
+     * Returns a view of this service whose calls follow {@code options}, such
+     * as a deadline, a timeout or a retry policy of their own.
+     *
+     * @param options per-call settings
+     * @return this service, applying {@code options}
+     */
+    @Nonnull
+    public AudienceProperties withOptions(@Nonnull RequestOptions options) {
+        return new AudienceProperties(httpClient.withOptions(options));
+    }
+
     @Nonnull
     public ListAudiencePropertiesResponse list() throws LettrException {
         return list(null);
@@ -0,0 +1,90 @@
+package com.lettr.services.audience.properties;
+
+import com.lettr.core.exception.LettrException;
+import com.lettr.core.net.HttpClient;
+import com.lettr.core.net.RequestOptions;
+import com.lettr.services.BaseService;
+import com.lettr.services.audience.model.PageParams;
+import com.lettr.services.audience.properties.model.AudiencePropertyView;
+import com.lettr.services.audience.properties.model.CreateAudiencePropertyOptions;
+import com.lettr.services.audience.properties.model.ListAudiencePropertiesResponse;
+import com.lettr.services.audience.properties.model.UpdateAudiencePropertyOptions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous counterpart of {@link AudienceProperties}: the same operations, each
+ * returning a {@link CompletableFuture} instead of blocking. Obtain it via
+ * {@code lettr.async()}.
+ *
+ * <p>Invalid arguments throw immediately, as they do on {@link AudienceProperties}; API and
+ * network failures complete the future exceptionally with the same
+ * {@link LettrException} subtypes the blocking methods throw.</p>
+ */
+public class AudiencePropertiesAsync extends BaseService {
+
+    public AudiencePropertiesAsync(@Nonnull HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    /**
+     * Returns a view of this service whose calls follow {@code options}, such
+     * as a deadline, a timeout or a retry policy of their own.
+     *
+     * @param options per-call settings
+     * @return this service, applying {@code options}
+     */
+    @Nonnull
+    public AudiencePropertiesAsync withOptions(@Nonnull RequestOptions options) {
+        return new AudiencePropertiesAsync(httpClient.withOptions(options));
+    }
+
+    @Nonnull
+    public CompletableFuture<ListAudiencePropertiesResponse> list() {
+        return list(null);
+    }
+
+    @Nonnull
+    public CompletableFuture<ListAudiencePropertiesResponse> list(@Nullable PageParams params) {
+        return httpClient.getAsync("/audience/properties",
+                params != null ? params.toQueryParams() : null,
+                ListAudiencePropertiesResponse.class);
+    }
+
+    @Nonnull
+    public CompletableFuture<AudiencePropertyView> get(@Nonnull String propertyId) {
+        if (propertyId == null || propertyId.isEmpty()) {
+            throw new IllegalArgumentException("propertyId is required");
+        }
+        return httpClient.getAsync("/audience/properties/" + propertyId, null, AudiencePropertyView.class);
+    }
+
+    @Nonnull
+    public CompletableFuture<AudiencePropertyView> create(@Nonnull CreateAudiencePropertyOptions options) {
+        if (options == null) {
+            throw new IllegalArgumentException("options is required");
+        }
+        return httpClient.postAsync("/audience/properties", options, AudiencePropertyView.class);
+    }
+
+    @Nonnull
+    public CompletableFuture<AudiencePropertyView> update(@Nonnull String propertyId, @Nonnull UpdateAudiencePropertyOptions options) {
+        if (propertyId == null || propertyId.isEmpty()) {
+            throw new IllegalArgumentException("propertyId is required");
+        }
+        if (options == null) {
+            throw new IllegalArgumentException("options is required");
+        }
+        return httpClient.patchAsync("/audience/properties/" + propertyId, options, AudiencePropertyView.class);
+    }
+
+    @Nonnull
+    public CompletableFuture<Void> delete(@Nonnull String propertyId) {
+        if (propertyId == null || propertyId.isEmpty()) {
+            throw new IllegalArgumentException("propertyId is required");
+        }
+        return httpClient.deleteAsync("/audience/properties/" + propertyId);
+    }
+}
@@ -1,6 +1,8 @@
 package com.lettr.services.audience.segments;
 
 import com.lettr.core.exception.LettrException;
+import com.lettr.core.net.HttpClient;
+import com.lettr.core.net.RequestOptions;
 import com.lettr.services.BaseService;
 import com.lettr.services.audience.segments.model.AudienceSegmentView;
 import com.lettr.services.audience.segments.model.CreateAudienceSegmentOptions;
@@ -20,6 +22,22 @@ public class AudienceSegments extends BaseService {
         super(apiKey);
     }
 
+    public AudienceSegments(@Nonnull HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    /**
+     * Returns a view of this service whose calls follow {@code options}, such
+     * as a deadline, a timeout or a retry policy of their own.
+     *
+     * @param options per-call settings
+     * @return this service, applying {@code options}
+     */
+    @Nonnull
+    public AudienceSegments withOptions(@Nonnull RequestOptions options) {
+        return new AudienceSegments(httpClient.withOptions(options));
+    }
+
     @Nonnull
     public ListAudienceSegmentsResponse list() throws LettrException {
         return list(null);
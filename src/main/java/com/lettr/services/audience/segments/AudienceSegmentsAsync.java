@@ -0,0 +1,90 @@
+package com.lettr.services.audience.segments;
+
+import com.lettr.core.exception.LettrException;
+import com.lettr.core.net.HttpClient;
+import com.lettr.core.net.RequestOptions;
+import com.lettr.services.BaseService;
+import com.lettr.services.audience.segments.model.AudienceSegmentView;
+import com.lettr.services.audience.segments.model.CreateAudienceSegmentOptions;
+import com.lettr.services.audience.segments.model.ListAudienceSegmentsParams;
+import com.lettr.services.audience.segments.model.ListAudienceSegmentsResponse;
+import com.lettr.services.audience.segments.model.UpdateAudienceSegmentOptions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous counterpart of {@link AudienceSegments}: the same operations, each
+ * returning a {@link CompletableFuture} instead of blocking. Obtain it via
+ * {@code lettr.async()}.
+ *
+ * <p>Invalid arguments throw immediately, as they do on {@link AudienceSegments}; API and
+ * network failures complete the future exceptionally with the same
+ * {@link LettrException} subtypes the blocking methods throw.</p>
+ */
+public class AudienceSegmentsAsync extends BaseService {
+
+    public AudienceSegmentsAsync(@Nonnull HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    /**
+     * Returns a view of this service whose calls follow {@code options}, such
+     * as a deadline, a timeout or a retry policy of their own.
+     *
+     * @param options per-call settings
+     * @return this service, applying {@code options}
+     */
+    @Nonnull
+    public AudienceSegmentsAsync withOptions(@Nonnull RequestOptions options) {
+        return new AudienceSegmentsAsync(httpClient.withOptions(options));
+    }
+
+    @Nonnull
+    public CompletableFuture<ListAudienceSegmentsResponse> list() {
+        return list(null);
+    }
+
+    @Nonnull
+    public CompletableFuture<ListAudienceSegmentsResponse> list(@Nullable ListAudienceSegmentsParams params) {
+        return httpClient.getAsync("/audience/segments",
+                params != null ? params.toQueryParams() : null,
+                ListAudienceSegmentsResponse.class);
+    }
+
+    @Nonnull
+    public CompletableFuture<AudienceSegmentView> get(@Nonnull String segmentId) {
+        if (segmentId == null || segmentId.isEmpty()) {
+            throw new IllegalArgumentException("segmentId is required");
+        }
+        return httpClient.getAsync("/audience/segments/" + segmentId, null, AudienceSegmentView.class);
+    }
+
+    @Nonnull
+    public CompletableFuture<AudienceSegmentView> create(@Nonnull CreateAudienceSegmentOptions options) {
+        if (options == null) {
+            throw new IllegalArgumentException("options is required");
+        }
+        return httpClient.postAsync("/audience/segments", options, AudienceSegmentView.class);
+    }
+
+    @Nonnull
+    public CompletableFuture<AudienceSegmentView> update(@Nonnull String segmentId, @Nonnull UpdateAudienceSegmentOptions options) {
+        if (segmentId == null || segmentId.isEmpty()) {
+            throw new IllegalArgumentException("segmentId is required");
+        }
+        if (options == null) {
+            throw new IllegalArgumentException("options is required");
+        }
+        return httpClient.patchAsync("/audience/segments/" + segmentId, options, AudienceSegmentView.class);
+    }
+
+    @Nonnull
+    public CompletableFuture<Void> delete(@Nonnull String segmentId) {
+        if (segmentId == null || segmentId.isEmpty()) {
+            throw new IllegalArgumentException("segmentId is required");
+        }
+        return httpClient.deleteAsync("/audience/segments/" + segmentId);
+    }
+}
@@ -0,0 +1,90 @@
+package com.lettr.services.audience.topics;
+
+import com.lettr.core.exception.LettrException;
+import com.lettr.core.net.HttpClient;
+import com.lettr.core.net.RequestOptions;
+import com.lettr.services.BaseService;
+import com.lettr.services.audience.model.PageParams;
+import com.lettr.services.audience.topics.model.AudienceTopicView;
+import com.lettr.services.audience.topics.model.CreateAudienceTopicOptions;
+import com.lettr.services.audience.topics.model.ListAudienceTopicsResponse;
+import com.lettr.services.audience.topics.model.UpdateAudienceTopicOptions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous counterpart of {@link AudienceTopics}: the same operations, each
+ * returning a {@link CompletableFuture} instead of blocking. Obtain it via
+ * {@code lettr.async()}.
+ *
+ * <p>Invalid arguments throw immediately, as they do on {@link AudienceTopics}; API and
+ * network failures complete the future exceptionally with the same
+ * {@link LettrException} subtypes the blocking methods throw.</p>
+ */
+public class AudienceTopicsAsync extends BaseService {
+
+    public AudienceTopicsAsync(@Nonnull HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    /**
+     * Returns a view of this service whose calls follow {@code options}, such
+     * as a deadline, a timeout or a retry policy of their own.
+     *
+     * @param options per-call settings
+     * @return this service, applying {@code options}
+     */
+    @Nonnull
+    public AudienceTopicsAsync withOptions(@Nonnull RequestOptions options) {
+        return new AudienceTopicsAsync(httpClient.withOptions(options));
+    }
+
+    @Nonnull
+    public CompletableFuture<ListAudienceTopicsResponse> list() {
+        return list(null);
+    }
+
+    @Nonnull
+    public CompletableFuture<ListAudienceTopicsResponse> list(@Nullable PageParams params) {
+        return httpClient.getAsync("/audience/topics",
+                params != null ? params.toQueryParams() : null,
+                ListAudienceTopicsResponse.class);
+    }
+
+    @Nonnull
+    public CompletableFuture<AudienceTopicView> get(@Nonnull String topicId) {
+        if (topicId == null || topicId.isEmpty()) {
+            throw new IllegalArgumentException("topicId is required");
+        }
+        return httpClient.getAsync("/audience/topics/" + topicId, null, AudienceTopicView.class);
+    }
+
+    @Nonnull
+    public CompletableFuture<AudienceTopicView> create(@Nonnull CreateAudienceTopicOptions options) {
+        if (options == null) {
+            throw new IllegalArgumentException("options is required");
+        }
+        return httpClient.postAsync("/audience/topics", options, AudienceTopicView.class);
+    }
+
+    @Nonnull
+    public CompletableFuture<AudienceTopicView> update(@Nonnull String topicId, @Nonnull UpdateAudienceTopicOptions options) {
+        if (topicId == null || topicId.isEmpty()) {
+            throw new IllegalArgumentException("topicId is required");
+        }
+        if (options == null) {
+            throw new IllegalArgumentException("options is required");
+        }
+        return httpClient.patchAsync("/audience/topics/" + topicId, options, AudienceTopicView.class);
+    }
+
+    @Nonnull
+    public CompletableFuture<Void> delete(@Nonnull String topicId) {
+        if (topicId == null || topicId.isEmpty()) {
+            throw new IllegalArgumentException("topicId is required");
+        }
+        return httpClient.deleteAsync("/audience/topics/" + topicId);
+    }
+}
@@ -2,6 +2,7 @@ package com.lettr.services.campaigns;
 
 import com.lettr.core.exception.LettrException;
 import com.lettr.core.net.HttpClient;
+import com.lettr.core.net.RequestOptions;
 import com.lettr.core.util.Args;
 import com.lettr.services.BaseService;
 import com.lettr.services.campaigns.model.*;
@@ -21,6 +22,22 @@ public class Campaigns extends BaseService {
         super(apiKey);
     }
 
+    public Campaigns(@Nonnull HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    /**
+     * Returns a view of this service whose calls follow {@code options}, such
+     * as a deadline, a timeout or a retry policy of their own.
+     *
+     * @param options per-call settings
+     * @return this service, applying {@code options}
+     */
+    @Nonnull
+    public Campaigns withOptions(@Nonnull RequestOptions options) {
+        return new Campaigns(httpClient.withOptions(options));
+    }
+
     /**
      * List campaigns with optional filtering and pagination.
      *
@@ -0,0 +1,138 @@
+package com.lettr.services.campaigns;
+
+import com.lettr.core.exception.LettrException;
+import com.lettr.core.net.HttpClient;
+import com.lettr.core.net.RequestOptions;
+import com.lettr.core.util.Args;
+import com.lettr.services.BaseService;
+import com.lettr.services.campaigns.model.*;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous counterpart of {@link Campaigns}: the same operations, each
+ * returning a {@link CompletableFuture} instead of blocking. Obtain it via
+ * {@code lettr.async()}.
+ *
+ * <p>Invalid arguments throw immediately, as they do on {@link Campaigns}; API and
+ * network failures complete the future exceptionally with the same
+ * {@link LettrException} subtypes the blocking methods throw.</p>
+ */
+public class CampaignsAsync extends BaseService {
+
+    public CampaignsAsync(@Nonnull HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    /**
+     * Returns a view of this service whose calls follow {@code options}, such
+     * as a deadline, a timeout or a retry policy of their own.
+     *
+     * @param options per-call settings
+     * @return this service, applying {@code options}
+     */
+    @Nonnull
+    public CampaignsAsync withOptions(@Nonnull RequestOptions options) {
+        return new CampaignsAsync(httpClient.withOptions(options));
+    }
+
+    /**
+     * List campaigns with optional filtering and pagination.
+     *
+     * @param params optional query parameters; pass null for defaults
+     * @return a page of campaigns with pagination metadata
+     */
+    @Nonnull
+    public CompletableFuture<ListCampaignsResponse> list(@Nullable ListCampaignsParams params) {
+        return httpClient.getAsync("/campaigns", params != null ? params.toQueryParams() : null, ListCampaignsResponse.class);
+    }
+
+    /** List campaigns with default pagination. */
+    @Nonnull
+    public CompletableFuture<ListCampaignsResponse> list() {
+        return list(null);
+    }
+
+    /**
+     * Retrieve a single campaign. The returned {@link CampaignDetail} exposes
+     * the rendered HTML via {@link CampaignDetail#getHtmlContent()}, which may
+     * be {@code null} for drafts that have no rendered content yet.
+     *
+     * @param campaignId the campaign ID
+     * @return the campaign detail; {@code getHtmlContent()} may be {@code null} for drafts
+     * @throws IllegalArgumentException if {@code campaignId} is null or empty
+     */
+    @Nonnull
+    public CompletableFuture<CampaignDetail> get(@Nonnull String campaignId) {
+        Args.requireNonEmpty("campaignId", campaignId);
+        return httpClient.getAsync("/campaigns/" + HttpClient.encodePathSegment(campaignId), null, CampaignDetail.class);
+    }
+
+    /**
+     * List engagement events for a campaign with optional filtering. Uses
+     * cursor-based pagination via {@link ListCampaignEventsResponse#getNextCursor()}.
+     *
+     * @param campaignId the campaign ID
+     * @param params     optional query parameters; pass null for defaults
+     * @return a page of events with a next-page cursor
+     * @throws IllegalArgumentException if {@code campaignId} is null or empty
+     */
+    @Nonnull
+    public CompletableFuture<ListCampaignEventsResponse> listEvents(@Nonnull String campaignId, @Nullable ListCampaignEventsParams params) {
+        Args.requireNonEmpty("campaignId", campaignId);
+        return httpClient.getAsync("/campaigns/" + HttpClient.encodePathSegment(campaignId) + "/events",
+                params != null ? params.toQueryParams() : null,
+                ListCampaignEventsResponse.class);
+    }
+
+    /** List campaign engagement events with default parameters. */
+    @Nonnull
+    public CompletableFuture<ListCampaignEventsResponse> listEvents(@Nonnull String campaignId) {
+        return listEvents(campaignId, null);
+    }
+
+    /**
+     * Immediately send a draft campaign. Sending is asynchronous; the campaign
+     * transitions to {@code preparing}.
+     *
+     * @param campaignId the campaign ID
+     * @return the updated campaign
+     * @throws IllegalArgumentException if {@code campaignId} is null or empty
+     */
+    @Nonnull
+    public CompletableFuture<CampaignView> send(@Nonnull String campaignId) {
+        Args.requireNonEmpty("campaignId", campaignId);
+        return httpClient.postAsync("/campaigns/" + HttpClient.encodePathSegment(campaignId) + "/send", CampaignView.class);
+    }
+
+    /**
+     * Schedule a campaign for future delivery, or reschedule an already-scheduled
+     * campaign to a new time.
+     *
+     * @param campaignId the campaign ID
+     * @param options    schedule options including {@code scheduledAt}
+     * @return the updated campaign
+     * @throws IllegalArgumentException if {@code campaignId} is null/empty or {@code options} is null
+     */
+    @Nonnull
+    public CompletableFuture<CampaignView> schedule(@Nonnull String campaignId, @Nonnull ScheduleCampaignOptions options) {
+        Args.requireNonEmpty("campaignId", campaignId);
+        Args.requireNonNull("options", options);
+        return httpClient.postAsync("/campaigns/" + HttpClient.encodePathSegment(campaignId) + "/schedule", options, CampaignView.class);
+    }
+
+    /**
+     * Cancel a scheduled send, returning the campaign to {@code draft}.
+     *
+     * @param campaignId the campaign ID
+     * @return the updated campaign
+     * @throws IllegalArgumentException if {@code campaignId} is null or empty
+     */
+    @Nonnull
+    public CompletableFuture<CampaignView> unschedule(@Nonnull String campaignId) {
+        Args.requireNonEmpty("campaignId", campaignId);
+        return httpClient.postAsync("/campaigns/" + HttpClient.encodePathSegment(campaignId) + "/unschedule", CampaignView.class);
+    }
+}
@@ -1,6 +1,8 @@
 package com.lettr.services.domains;
 
 import com.lettr.core.exception.LettrException;
+import com.lettr.core.net.HttpClient;
+import com.lettr.core.net.RequestOptions;
 import com.lettr.services.BaseService;
 import com.lettr.services.domains.model.CreateDomainOptions;
 import com.lettr.services.domains.model.CreateDomainResponse;
@@ -19,6 +21,22 @@ public class Domains extends BaseService {
         super(apiKey);
     }
 
+    public Domains(@Nonnull HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    /**
+     * Returns a view of this service whose calls follow {@code options}, such
+     * as a deadline, a timeout or a retry policy of their own.
+     *
+     * @param options per-call settings
+     * @return this service, applying {@code options}
+     */
+    @Nonnull
+    public Domains withOptions(@Nonnull RequestOptions options) {
+        return new Domains(httpClient.withOptions(options));
+    }
+
     /** List all sending domains. */
     @Nonnull
     public ListDomainsResponse list() throws LettrException {
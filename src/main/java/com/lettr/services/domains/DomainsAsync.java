@@ -0,0 +1,94 @@
+package com.lettr.services.domains;
+
+import com.lettr.core.exception.LettrException;
+import com.lettr.core.net.HttpClient;
+import com.lettr.core.net.RequestOptions;
+import com.lettr.services.BaseService;
+import com.lettr.services.domains.model.CreateDomainOptions;
+import com.lettr.services.domains.model.CreateDomainResponse;
+import com.lettr.services.domains.model.Domain;
+import com.lettr.services.domains.model.ListDomainsResponse;
+import com.lettr.services.domains.model.VerifyDomainResponse;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous counterpart of {@link Domains}: the same operations, each
+ * returning a {@link CompletableFuture} instead of blocking. Obtain it via
+ * {@code lettr.async()}.
+ *
+ * <p>Invalid arguments throw immediately, as they do on {@link Domains}; API and
+ * network failures complete the future exceptionally with the same
+ * {@link LettrException} subtypes the blocking methods throw.</p>
+ */
+public class DomainsAsync extends BaseService {
+
+    public DomainsAsync(@Nonnull HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    /**
+     * Returns a view of this service whose calls follow {@code options}, such
+     * as a deadline, a timeout or a retry policy of their own.
+     *
+     * @param options per-call settings
+     * @return this service, applying {@code options}
+     */
+    @Nonnull
+    public DomainsAsync withOptions(@Nonnull RequestOptions options) {
+        return new DomainsAsync(httpClient.withOptions(options));
+    }
+
+    /** List all sending domains. */
+    @Nonnull
+    public CompletableFuture<ListDomainsResponse> list() {
+        return httpClient.getAsync("/domains", null, ListDomainsResponse.class);
+    }
+
+    /**
+     * Get details of a specific domain.
+     *
+     * @param domain the domain name (e.g. "example.com")
+     * @throws IllegalArgumentException if {@code domain} is null or empty
+     */
+    @Nonnull
+    public CompletableFuture<Domain> get(@Nonnull String domain) {
+        if (domain == null || domain.isEmpty()) {
+            throw new IllegalArgumentException("domain is required");
+        }
+        return httpClient.getAsync("/domains/" + domain, null, Domain.class);
+    }
+
+    /** Create a new sending domain. */
+    @Nonnull
+    public CompletableFuture<CreateDomainResponse> create(@Nonnull CreateDomainOptions options) {
+        return httpClient.postAsync("/domains", options, CreateDomainResponse.class);
+    }
+
+    /**
+     * Delete a sending domain.
+     *
+     * @throws IllegalArgumentException if {@code domain} is null or empty
+     */
+    @Nonnull
+    public CompletableFuture<Void> delete(@Nonnull String domain) {
+        if (domain == null || domain.isEmpty()) {
+            throw new IllegalArgumentException("domain is required");
+        }
+        return httpClient.deleteAsync("/domains/" + domain);
+    }
+
+    /**
+     * Verify a domain's DNS configuration (DKIM, CNAME, DMARC, SPF).
+     *
+     * @throws IllegalArgumentException if {@code domain} is null or empty
+     */
+    @Nonnull
+    public CompletableFuture<VerifyDomainResponse> verify(@Nonnull String domain) {
+        if (domain == null || domain.isEmpty()) {
+            throw new IllegalArgumentException("domain is required");
+        }
+        return httpClient.postAsync("/domains/" + domain + "/verify", null, VerifyDomainResponse.class);
+    }
+}
@@ -0,0 +1,309 @@
+package com.lettr.services.emails;
+
+import com.lettr.core.util.Args;
+import com.lettr.core.util.Threads;
+import com.lettr.services.emails.model.CreateEmailOptions;
+import com.lettr.services.emails.model.CreateEmailResponse;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands transactional sends off to a bounded queue and sends them in the
+ * background, so the calling thread does not wait for a round trip.
+ *
+ * <pre>{@code
+ * BatchingEmailSender sender = BatchingEmailSender.builder(lettr.emails())
+ *     .maxInFlight(16)
+ *     .queueCapacity(10_000)
+ *     .overflowPolicy(BatchingEmailSender.OverflowPolicy.FAIL_FAST)
+ *     .build();
+ *
+ * sender.submit(options).whenComplete((response, error) -> { ... });
+ * ...
+ * sender.close(); // sends what is queued, then stops
+ * }</pre>
+ *
+ * <p>{@code maxInFlight} worker threads take messages off the queue and send
+ * them with {@link Emails#send(CreateEmailOptions)}, so at most that many
+ * requests are in flight at once. Each message gets its own
+ * {@link CompletableFuture}, completed with the API's response or with the
+ * {@link com.lettr.core.exception.LettrException} the send threw; retries,
+ * rate limiting and so on are those of the {@code Lettr} client the
+ * {@link Emails} came from. What happens when the queue is full is set by the
+ * {@link OverflowPolicy}.</p>
+ *
+ * <p>Instances are thread-safe.</p>
+ */
+public final class BatchingEmailSender implements AutoCloseable {
+
+    /** What {@link #submit(CreateEmailOptions)} does when the queue is full. */
+    public enum OverflowPolicy {
+        /** Wait until there is room. The default. */
+        BLOCK,
+        /** Throw {@link RejectedExecutionException} from {@code submit}. */
+        FAIL_FAST,
+        /**
+         * Discard the message: {@code submit} returns a future already failed
+         * with {@link RejectedExecutionException}, and the drop is counted in
+         * {@link #getDroppedCount()}.
+         */
+        DROP
+    }
+
+    private static final AtomicInteger SENDER_COUNT = new AtomicInteger();
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final Emails emails;
+    private final OverflowPolicy overflowPolicy;
+    private final BlockingQueue<Pending> queue;
+    private final List<Thread> workers;
+    private final AtomicLong droppedCount = new AtomicLong();
+    private volatile boolean shutdown;
+
+    private BatchingEmailSender(Builder builder) {
+        this.emails = builder.emails;
+        this.overflowPolicy = builder.overflowPolicy;
+        this.queue = new ArrayBlockingQueue<>(builder.queueCapacity);
+        this.workers = new ArrayList<>(builder.maxInFlight);
+
+        ThreadFactory threads = Threads.factory("lettr-batch-sender-" + SENDER_COUNT.incrementAndGet() + "-",
+                emails.virtualThreads());
+        for (int i = 1; i <= builder.maxInFlight; i++) {
+            workers.add(threads.newThread(this::work));
+        }
+        workers.forEach(Thread::start);
+    }
+
+    @Nonnull
+    public static Builder builder(@Nonnull Emails emails) {
+        return new Builder(Args.requireNonNull("emails", emails));
+    }
+
+    /**
+     * Queues {@code options} for sending.
+     *
+     * @param options the email to send
+     * @return a future completed with the API's response, or exceptionally
+     *         with the failure of the send
+     * @throws IllegalArgumentException  if {@code options} is null
+     * @throws RejectedExecutionException if the sender is shut down, if the
+     *                                    queue is full under
+     *                                    {@link OverflowPolicy#FAIL_FAST}, or if
+     *                                    the thread is interrupted while waiting
+     *                                    under {@link OverflowPolicy#BLOCK}
+     */
+    @Nonnull
+    public CompletableFuture<CreateEmailResponse> submit(@Nonnull CreateEmailOptions options) {
+        Args.requireNonNull("options", options);
+        ensureRunning();
+        Pending pending = new Pending(options);
+
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    queue.put(pending);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RejectedExecutionException("Interrupted while waiting for queue space", e);
+                }
+                break;
+            case FAIL_FAST:
+                if (!queue.offer(pending)) {
+                    throw new RejectedExecutionException("Send queue is full");
+                }
+                break;
+            default:
+                if (!queue.offer(pending)) {
+                    droppedCount.incrementAndGet();
+                    pending.result.completeExceptionally(new RejectedExecutionException("Send queue is full"));
+                    return pending.result;
+                }
+        }
+
+        // A shutdown that raced with the enqueue may already have let every
+        // worker exit; take the message back rather than strand it.
+        if (shutdown && queue.remove(pending)) {
+            throw new RejectedExecutionException("Sender has been shut down");
+        }
+        return pending.result;
+    }
+
+    /** Returns the number of messages waiting to be sent. */
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    /** Returns the number of messages discarded under {@link OverflowPolicy#DROP}. */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Stops accepting messages. Messages already queued are still sent; use
+     * {@link #awaitTermination(Duration)} to wait for them. Idempotent.
+     */
+    public void shutdown() {
+        shutdown = true;
+    }
+
+    /**
+     * Stops accepting messages and cancels those still queued. Sends already
+     * in flight complete normally.
+     *
+     * @return the number of queued messages that were cancelled
+     */
+    public int shutdownNow() {
+        shutdown = true;
+        List<Pending> drained = new ArrayList<>();
+        queue.drainTo(drained);
+        drained.forEach(pending -> pending.result.cancel(false));
+        return drained.size();
+    }
+
+    /** Returns whether {@link #shutdown()} or {@link #shutdownNow()} has been called. */
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * Waits for queued and in-flight messages to finish after a shutdown.
+     *
+     * @return {@code true} if every worker has finished, {@code false} if the timeout elapsed first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitTermination(@Nonnull Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (Thread worker : workers) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining > 0) {
+                TimeUnit.NANOSECONDS.timedJoin(worker, remaining);
+            }
+            if (worker.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Shuts down and waits until every queued message has been sent. If
+     * interrupted, queued messages are cancelled and the interrupt is restored.
+     */
+    @Override
+    public void close() {
+        shutdown();
+        try {
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        } catch (InterruptedException e) {
+            shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void ensureRunning() {
+        if (shutdown) {
+            throw new RejectedExecutionException("Sender has been shut down");
+        }
+    }
+
+    private void work() {
+        while (true) {
+            Pending pending;
+            try {
+                pending = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (pending == null) {
+                if (shutdown && queue.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+            if (pending.result.isDone()) {
+                continue; // cancelled by the caller while queued
+            }
+            try {
+                pending.result.complete(emails.send(pending.options));
+            } catch (Exception e) {
+                pending.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static final class Pending {
+        final CreateEmailOptions options;
+        final CompletableFuture<CreateEmailResponse> result = new CompletableFuture<>();
+
+        Pending(CreateEmailOptions options) {
+            this.options = options;
+        }
+    }
+
+    public static class Builder {
+        private final Emails emails;
+        private int maxInFlight = 8;
+        private int queueCapacity = 1_000;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+        private Builder(Emails emails) {
+            this.emails = emails;
+        }
+
+        /**
+         * <b>(optional)</b> Sends in flight at once, one worker thread each
+         * (default 8). The workers are virtual threads when the client was
+         * built with {@code ClientOptions.Builder#virtualThreads(true)}, which
+         * makes thousands of them affordable.
+         */
+        @Nonnull
+        public Builder maxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /** <b>(optional)</b> Messages that may wait to be sent (default 1,000). */
+        @Nonnull
+        public Builder queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /** <b>(optional)</b> What to do when the queue is full (default {@link OverflowPolicy#BLOCK}). */
+        @Nonnull
+        public Builder overflowPolicy(@Nonnull OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        /**
+         * Builds the sender and starts its worker threads.
+         *
+         * @throws IllegalArgumentException if a setting is out of range
+         */
+        @Nonnull
+        public BatchingEmailSender build() {
+            if (maxInFlight < 1) {
+                throw new IllegalArgumentException("maxInFlight must be at least 1");
+            }
+            if (queueCapacity < 1) {
+                throw new IllegalArgumentException("queueCapacity must be at least 1");
+            }
+            Args.requireNonNull("overflowPolicy", overflowPolicy);
+            return new BatchingEmailSender(this);
+        }
+    }
+}
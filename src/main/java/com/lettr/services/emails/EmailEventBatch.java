@@ -0,0 +1,428 @@
+package com.lettr.services.emails;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.lettr.core.util.JsonReads;
+import com.lettr.services.emails.model.EmailEvent;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Email events held column by column, for keeping millions of them in memory
+ * for analytics.
+ *
+ * <pre>{@code
+ * EmailEventBatch batch = lettr.emails().readEventBatch(ListEmailEventsParams.builder()
+ *     .from("2024-01-15T00:00:00Z").to("2024-01-15T23:59:59Z").perPage(1000).build());
+ *
+ * int[] bouncesByProvider = new int[batch.dictionary(EmailEventBatch.Dimension.MAILBOX_PROVIDER).size()];
+ * for (int row = 0; row < batch.size(); row++) {
+ *     int provider = batch.code(EmailEventBatch.Dimension.MAILBOX_PROVIDER, row);
+ *     if (provider >= 0 && batch.has(EmailEventBatch.Metric.BOUNCE_CLASS, row)) {
+ *         bouncesByProvider[provider]++;
+ *     }
+ * }
+ * }</pre>
+ *
+ * <p>Instead of one {@link EmailEvent} per row with a {@code String} per field,
+ * a batch keeps:</p>
+ * <ul>
+ *   <li>low-cardinality strings, the {@link Dimension}s, as an {@code int}
+ *       code per row into a dictionary holding each distinct value once;</li>
+ *   <li>the numeric {@link Metric}s in {@code int} arrays;</li>
+ *   <li>{@code timestamp} as epoch milliseconds in a {@code long} array;</li>
+ *   <li>the per-event identifiers ({@code event_id}, {@code request_id},
+ *       {@code message_id}, {@code rcpt_to}) as plain strings.</li>
+ * </ul>
+ * <p>Other event fields are not kept. Rows are filled straight from the
+ * response stream, so no {@code EmailEvent} is ever created for them.
+ * {@link #row(int)} and iteration give an {@code EmailEvent}-like view of a
+ * row for code written against the getters.</p>
+ *
+ * <p>A batch is read-only once returned and may then be shared between
+ * threads.</p>
+ */
+public final class EmailEventBatch implements Iterable<EmailEventBatch.Row> {
+
+    /** Low-cardinality string fields, stored as dictionary codes. */
+    public enum Dimension {
+        TYPE("type"),
+        SENDING_DOMAIN("sending_domain"),
+        RECIPIENT_DOMAIN("recipient_domain"),
+        MAILBOX_PROVIDER("mailbox_provider"),
+        IP_POOL("ip_pool"),
+        CAMPAIGN_ID("campaign_id"),
+        TEMPLATE_ID("template_id");
+
+        private final String field;
+
+        Dimension(String field) {
+            this.field = field;
+        }
+    }
+
+    /** Integer fields, stored unboxed. */
+    public enum Metric {
+        BOUNCE_CLASS("bounce_class"),
+        MSG_SIZE("msg_size"),
+        QUEUE_TIME("queue_time"),
+        NUM_RETRIES("num_retries");
+
+        private final String field;
+
+        Metric(String field) {
+            this.field = field;
+        }
+    }
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int ABSENT = Integer.MIN_VALUE;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    private static final Map<String, Dimension> DIMENSIONS = new HashMap<>();
+    private static final Map<String, Metric> METRICS = new HashMap<>();
+
+    static {
+        for (Dimension dimension : Dimension.values()) {
+            DIMENSIONS.put(dimension.field, dimension);
+        }
+        for (Metric metric : Metric.values()) {
+            METRICS.put(metric.field, metric);
+        }
+    }
+
+    private final EnumMap<Dimension, Dictionary> dictionaries = new EnumMap<>(Dimension.class);
+    private final EnumMap<Dimension, int[]> codes = new EnumMap<>(Dimension.class);
+    private final EnumMap<Metric, int[]> metrics = new EnumMap<>(Metric.class);
+    private long[] timestamps;
+    private String[] eventIds;
+    private String[] requestIds;
+    private String[] messageIds;
+    private String[] rcptTos;
+    private int size;
+
+    EmailEventBatch() {
+        for (Dimension dimension : Dimension.values()) {
+            dictionaries.put(dimension, new Dictionary());
+            codes.put(dimension, new int[INITIAL_CAPACITY]);
+        }
+        for (Metric metric : Metric.values()) {
+            metrics.put(metric, new int[INITIAL_CAPACITY]);
+        }
+        timestamps = new long[INITIAL_CAPACITY];
+        eventIds = new String[INITIAL_CAPACITY];
+        requestIds = new String[INITIAL_CAPACITY];
+        messageIds = new String[INITIAL_CAPACITY];
+        rcptTos = new String[INITIAL_CAPACITY];
+    }
+
+    /** Number of events in the batch. */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the dictionary code of {@code dimension} in {@code row}, an index
+     * into {@link #dictionary(Dimension)}, or {@code -1} if the event had no
+     * value for it.
+     */
+    public int code(@Nonnull Dimension dimension, int row) {
+        return codes.get(dimension)[checkRow(row)];
+    }
+
+    /** Returns the distinct values of {@code dimension}, indexed by code. */
+    @Nonnull
+    public List<String> dictionary(@Nonnull Dimension dimension) {
+        return Collections.unmodifiableList(dictionaries.get(dimension).values);
+    }
+
+    /** Returns the value of {@code dimension} in {@code row}, or {@code null}. */
+    @Nullable
+    public String value(@Nonnull Dimension dimension, int row) {
+        int code = code(dimension, row);
+        return code < 0 ? null : dictionaries.get(dimension).values.get(code);
+    }
+
+    /** Returns whether the event in {@code row} had a value for {@code metric}. */
+    public boolean has(@Nonnull Metric metric, int row) {
+        return metrics.get(metric)[checkRow(row)] != ABSENT;
+    }
+
+    /** Returns {@code metric} in {@code row}, or {@code 0} if the event had no value for it. */
+    public int get(@Nonnull Metric metric, int row) {
+        int value = metrics.get(metric)[checkRow(row)];
+        return value == ABSENT ? 0 : value;
+    }
+
+    /** Returns whether the event in {@code row} had a {@code timestamp}. */
+    public boolean hasTimestamp(int row) {
+        return timestamps[checkRow(row)] != NO_TIMESTAMP;
+    }
+
+    /** Returns the event's {@code timestamp} in epoch milliseconds, or {@code 0} if it had none. */
+    public long timestampMillis(int row) {
+        long millis = timestamps[checkRow(row)];
+        return millis == NO_TIMESTAMP ? 0 : millis;
+    }
+
+    /** Returns a view of {@code row}. Views are cheap and hold no data of their own. */
+    @Nonnull
+    public Row row(int row) {
+        return new Row(checkRow(row));
+    }
+
+    @Override
+    @Nonnull
+    public Iterator<Row> iterator() {
+        return new Iterator<Row>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public Row next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return new Row(next++);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "EmailEventBatch{size=" + size + '}';
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row " + row + " of " + size);
+        }
+        return row;
+    }
+
+    /**
+     * Returns an adapter for the {@code data} of a {@code GET /emails/events}
+     * response that appends its events to this batch and returns the page's
+     * {@code next_cursor}.
+     */
+    TypeAdapter<String> pageAdapter() {
+        return new TypeAdapter<String>() {
+            @Override
+            public void write(JsonWriter out, String value) {
+                throw new UnsupportedOperationException("An events page is response-only");
+            }
+
+            @Override
+            public String read(JsonReader in) throws IOException {
+                return readPage(in);
+            }
+        };
+    }
+
+    private String readPage(JsonReader in) throws IOException {
+        String nextCursor = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            if (!"events".equals(in.nextName()) || in.peek() == JsonToken.NULL) {
+                in.skipValue();
+                continue;
+            }
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if ("data".equals(name) && in.peek() == JsonToken.BEGIN_ARRAY) {
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        readEvent(in);
+                    }
+                    in.endArray();
+                } else if ("pagination".equals(name) && in.peek() == JsonToken.BEGIN_OBJECT) {
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        if ("next_cursor".equals(in.nextName())) {
+                            nextCursor = JsonReads.nextString(in);
+                        } else {
+                            in.skipValue();
+                        }
+                    }
+                    in.endObject();
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+        }
+        in.endObject();
+        return nextCursor;
+    }
+
+    private void readEvent(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.skipValue();
+            return;
+        }
+        int row = appendRow();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            switch (name) {
+                case "event_id": eventIds[row] = JsonReads.nextString(in); break;
+                case "request_id": requestIds[row] = JsonReads.nextString(in); break;
+                case "message_id": messageIds[row] = JsonReads.nextString(in); break;
+                case "rcpt_to": rcptTos[row] = JsonReads.nextString(in); break;
+                case "timestamp": timestamps[row] = parseTimestamp(JsonReads.nextString(in)); break;
+                default:
+                    Dimension dimension = DIMENSIONS.get(name);
+                    Metric metric = dimension == null ? METRICS.get(name) : null;
+                    if (dimension != null) {
+                        codes.get(dimension)[row] = dictionaries.get(dimension).code(JsonReads.nextString(in));
+                    } else if (metric != null) {
+                        Integer value = JsonReads.nextInteger(in);
+                        metrics.get(metric)[row] = value != null ? value : ABSENT;
+                    } else {
+                        in.skipValue();
+                    }
+            }
+        }
+        in.endObject();
+    }
+
+    private int appendRow() {
+        if (size == timestamps.length) {
+            grow();
+        }
+        int row = size++;
+        for (int[] column : codes.values()) {
+            column[row] = -1;
+        }
+        for (int[] column : metrics.values()) {
+            column[row] = ABSENT;
+        }
+        timestamps[row] = NO_TIMESTAMP;
+        return row;
+    }
+
+    private void grow() {
+        int capacity = Math.max(INITIAL_CAPACITY, timestamps.length + (timestamps.length >> 1));
+        codes.replaceAll((dimension, column) -> Arrays.copyOf(column, capacity));
+        metrics.replaceAll((metric, column) -> Arrays.copyOf(column, capacity));
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        eventIds = Arrays.copyOf(eventIds, capacity);
+        requestIds = Arrays.copyOf(requestIds, capacity);
+        messageIds = Arrays.copyOf(messageIds, capacity);
+        rcptTos = Arrays.copyOf(rcptTos, capacity);
+    }
+
+    /** Releases the spare capacity left by the last {@link #grow()}. */
+    void trimToSize() {
+        codes.replaceAll((dimension, column) -> Arrays.copyOf(column, size));
+        metrics.replaceAll((metric, column) -> Arrays.copyOf(column, size));
+        timestamps = Arrays.copyOf(timestamps, size);
+        eventIds = Arrays.copyOf(eventIds, size);
+        requestIds = Arrays.copyOf(requestIds, size);
+        messageIds = Arrays.copyOf(messageIds, size);
+        rcptTos = Arrays.copyOf(rcptTos, size);
+        dictionaries.values().forEach(dictionary -> dictionary.index = null);
+    }
+
+    private static long parseTimestamp(String text) {
+        if (text == null) {
+            return NO_TIMESTAMP;
+        }
+        try {
+            return DateTimeFormatter.ISO_OFFSET_DATE_TIME.parse(text, Instant::from).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            throw new JsonSyntaxException("Unparseable event timestamp: " + text, e);
+        }
+    }
+
+    private static final class Dictionary {
+        final List<String> values = new ArrayList<>();
+        Map<String, Integer> index = new HashMap<>();
+
+        int code(String value) {
+            if (value == null) {
+                return -1;
+            }
+            Integer code = index.get(value);
+            if (code == null) {
+                code = values.size();
+                values.add(value);
+                index.put(value, code);
+            }
+            return code;
+        }
+    }
+
+    /**
+     * One event of the batch, with the getters of {@link EmailEvent} for the
+     * fields a batch keeps. {@link #getTimestamp()} formats the stored instant
+     * as ISO 8601 in UTC.
+     */
+    public final class Row {
+
+        private final int row;
+
+        private Row(int row) {
+            this.row = row;
+        }
+
+        /** Position of this event in the batch. */
+        public int index() { return row; }
+
+        @Nullable public String getEventId() { return eventIds[row]; }
+        @Nullable public String getRequestId() { return requestIds[row]; }
+        @Nullable public String getMessageId() { return messageIds[row]; }
+        @Nullable public String getRcptTo() { return rcptTos[row]; }
+        @Nullable public String getType() { return value(Dimension.TYPE, row); }
+        @Nullable public String getSendingDomain() { return value(Dimension.SENDING_DOMAIN, row); }
+        @Nullable public String getRecipientDomain() { return value(Dimension.RECIPIENT_DOMAIN, row); }
+        @Nullable public String getMailboxProvider() { return value(Dimension.MAILBOX_PROVIDER, row); }
+        @Nullable public String getIpPool() { return value(Dimension.IP_POOL, row); }
+        @Nullable public String getCampaignId() { return value(Dimension.CAMPAIGN_ID, row); }
+        @Nullable public String getTemplateId() { return value(Dimension.TEMPLATE_ID, row); }
+        @Nullable public Integer getBounceClass() { return boxed(Metric.BOUNCE_CLASS); }
+        @Nullable public Integer getMsgSize() { return boxed(Metric.MSG_SIZE); }
+        @Nullable public Integer getQueueTime() { return boxed(Metric.QUEUE_TIME); }
+        @Nullable public Integer getNumRetries() { return boxed(Metric.NUM_RETRIES); }
+
+        @Nullable
+        public String getTimestamp() {
+            return hasTimestamp(row) ? Instant.ofEpochMilli(timestamps[row]).toString() : null;
+        }
+
+        public long getTimestampMillis() {
+            return timestampMillis(row);
+        }
+
+        private Integer boxed(Metric metric) {
+            return has(metric, row) ? get(metric, row) : null;
+        }
+
+        @Override
+        public String toString() {
+            return "EmailEventBatch.Row{eventId='" + getEventId() + "', type='" + getType()
+                    + "', rcptTo='" + getRcptTo() + "', timestamp='" + getTimestamp() + "'}";
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.lettr.services.emails;
 
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
 import com.lettr.core.exception.LettrException;
 import com.lettr.core.net.HttpClient;
+import com.lettr.core.net.RequestOptions;
+import com.lettr.core.util.CursorIterator;
 import com.lettr.services.BaseService;
 import com.lettr.services.emails.model.*;
 
@@ -9,16 +13,51 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Service for sending, scheduling, and retrieving emails via the Lettr API.
  */
 public class Emails extends BaseService {
 
+    // Projected events adapters by field set, most recently used last, so that
+    // paging with fields does not build a Gson per page.
+    private static final int PROJECTION_CACHE_SIZE = 32;
+    private static final Map<Set<String>, Projection> PROJECTIONS =
+            new LinkedHashMap<Set<String>, Projection>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Set<String>, Projection> eldest) {
+                    return size() > PROJECTION_CACHE_SIZE;
+                }
+            };
+
     public Emails(@Nonnull String apiKey) {
         super(apiKey);
     }
 
+    public Emails(@Nonnull HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    /**
+     * Returns a view of this service whose calls follow {@code options}, such
+     * as a deadline, a timeout or a retry policy of their own.
+     *
+     * @param options per-call settings
+     * @return this service, applying {@code options}
+     */
+    @Nonnull
+    public Emails withOptions(@Nonnull RequestOptions options) {
+        return new Emails(httpClient.withOptions(options));
+    }
+
+    /** Whether helpers built on this service should run on virtual threads. */
+    boolean virtualThreads() {
+        return httpClient.isVirtualThreads();
+    }
+
     /**
      * Send a transactional email.
      *
@@ -58,7 +97,7 @@ public class Emails extends BaseService {
      */
     @Nonnull
     public ListEmailEventsResponse listEvents(@Nullable ListEmailEventsParams params) throws LettrException {
-        return httpClient.get("/emails/events", params != null ? params.toQueryParams() : null, ListEmailEventsResponse.class);
+        return httpClient.get("/emails/events", params != null ? params.toQueryParams() : null, eventsAdapter(httpClient, params));
     }
 
     /** List email events with default parameters. */
@@ -67,6 +106,152 @@ public class Emails extends BaseService {
         return listEvents(null);
     }
 
+    /**
+     * Stream every email event matching {@code params}, following
+     * {@link ListEmailEventsResponse.Pagination#getNextCursor() nextCursor}
+     * across pages. Pages are fetched lazily, one at a time, as the stream is
+     * consumed; at most one page is held in memory.
+     *
+     * <p>Close the stream (e.g. with try-with-resources) if you stop before
+     * the end. Request failures surface as
+     * {@link com.lettr.core.exception.UncheckedLettrException}. When you
+     * only read a few fields, name them with
+     * {@link ListEmailEventsParams.Builder#fields(String...)} and the rest are
+     * skipped while decoding.</p>
+     *
+     * <pre>{@code
+     * try (Stream<EmailEvent> events = lettr.emails().streamEvents(ListEmailEventsParams.builder()
+     *         .events(List.of("bounce")).perPage(100)
+     *         .fields("event_id", "rcpt_to", "bounce_class")
+     *         .build())) {
+     *     events.forEach(this::record);
+     * }
+     * }</pre>
+     *
+     * @param params optional filters and page size; a {@code cursor} in them is where streaming starts
+     */
+    @Nonnull
+    public Stream<EmailEvent> streamEvents(@Nullable ListEmailEventsParams params) {
+        return iterateEvents(params, false).stream();
+    }
+
+    /**
+     * Like {@link #streamEvents(ListEmailEventsParams)}, but with
+     * {@code prefetch} set the next page is requested in the background as
+     * soon as the current one arrives, so at most two pages are held in memory.
+     */
+    @Nonnull
+    public Stream<EmailEvent> streamEvents(@Nullable ListEmailEventsParams params, boolean prefetch) {
+        return iterateEvents(params, prefetch).stream();
+    }
+
+    /**
+     * Iterator form of {@link #streamEvents(ListEmailEventsParams, boolean)}.
+     * Close it to cancel an outstanding prefetch if you stop early.
+     */
+    @Nonnull
+    public CursorIterator<EmailEvent> iterateEvents(@Nullable ListEmailEventsParams params, boolean prefetch) {
+        Map<String, String> query = params != null ? params.toQueryParams() : new LinkedHashMap<>();
+        String firstCursor = query.remove("cursor");
+        TypeAdapter<ListEmailEventsResponse> adapter = eventsAdapter(httpClient, params);
+        if (prefetch) {
+            return CursorIterator.prefetching(firstCursor, cursor -> {
+                CompletableFuture<ListEmailEventsResponse> response =
+                        httpClient.getAsync("/emails/events", withCursor(query, cursor), adapter);
+                CompletableFuture<CursorIterator.Page<EmailEvent>> page = response.thenApply(Emails::toPage);
+                // Cancelling the page, as close() does, cancels the request under it.
+                page.whenComplete((ignored, error) -> response.cancel(true));
+                return page;
+            });
+        }
+        return CursorIterator.of(firstCursor, cursor -> toPage(
+                httpClient.get("/emails/events", withCursor(query, cursor), adapter)));
+    }
+
+    /**
+     * Read every email event matching {@code params} into an
+     * {@link EmailEventBatch}, following {@code next_cursor} until the last
+     * page. Events go from the response stream straight into the batch's
+     * columns, so a day of events takes a fraction of the memory the same
+     * events would as {@link EmailEvent}s. The {@code fields} of
+     * {@code params} do not apply; a batch keeps its own set.
+     *
+     * @param params optional filters and page size; a {@code cursor} in them is where reading starts
+     * @return the events, in the order the API returned them
+     * @throws LettrException if a request fails or a page names its own cursor as the next one;
+     *                        events read so far are discarded
+     */
+    @Nonnull
+    public EmailEventBatch readEventBatch(@Nullable ListEmailEventsParams params) throws LettrException {
+        Map<String, String> query = params != null ? params.toQueryParams() : new LinkedHashMap<>();
+        String cursor = query.remove("cursor");
+        EmailEventBatch batch = new EmailEventBatch();
+        TypeAdapter<String> pageAdapter = batch.pageAdapter();
+        while (true) {
+            String next = httpClient.get("/emails/events", withCursor(query, cursor), pageAdapter);
+            if (next == null) {
+                break;
+            }
+            if (next.equals(cursor)) {
+                throw new LettrException("Listing returned cursor " + next + " as its own next page; stopping");
+            }
+            cursor = next;
+        }
+        batch.trimToSize();
+        return batch;
+    }
+
+    /**
+     * The adapter for an events page: the client's own, or one decoding only
+     * the {@link ListEmailEventsParams#getFields() fields} asked for.
+     */
+    static TypeAdapter<ListEmailEventsResponse> eventsAdapter(HttpClient httpClient, @Nullable ListEmailEventsParams params) {
+        Set<String> fields = params != null ? params.getFields() : null;
+        Gson gson = httpClient.getGson();
+        if (fields == null) {
+            return gson.getAdapter(ListEmailEventsResponse.class);
+        }
+        synchronized (PROJECTIONS) {
+            Projection projection = PROJECTIONS.get(fields);
+            if (projection == null || projection.gson != gson) {
+                projection = new Projection(gson, gson.newBuilder()
+                        .registerTypeAdapterFactory(EmailEvent.projection(fields))
+                        .create()
+                        .getAdapter(ListEmailEventsResponse.class));
+                PROJECTIONS.put(fields, projection);
+            }
+            return projection.adapter;
+        }
+    }
+
+    /** A projected events adapter and the client Gson it was derived from. */
+    private static final class Projection {
+        final Gson gson;
+        final TypeAdapter<ListEmailEventsResponse> adapter;
+
+        Projection(Gson gson, TypeAdapter<ListEmailEventsResponse> adapter) {
+            this.gson = gson;
+            this.adapter = adapter;
+        }
+    }
+
+    private static Map<String, String> withCursor(Map<String, String> query, String cursor) {
+        Map<String, String> pageQuery = new LinkedHashMap<>(query);
+        if (cursor != null) {
+            pageQuery.put("cursor", cursor);
+        }
+        return pageQuery;
+    }
+
+    private static CursorIterator.Page<EmailEvent> toPage(ListEmailEventsResponse response) {
+        ListEmailEventsResponse.Events events = response != null ? response.getEvents() : null;
+        if (events == null) {
+            return new CursorIterator.Page<>(null, null);
+        }
+        ListEmailEventsResponse.Pagination pagination = events.getPagination();
+        return new CursorIterator.Page<>(events.getData(), pagination != null ? pagination.getNextCursor() : null);
+    }
+
     /**
      * Get details of a specific email transmission.
      *
@@ -0,0 +1,162 @@
+package com.lettr.services.emails;
+
+import com.lettr.core.exception.LettrException;
+import com.lettr.core.net.HttpClient;
+import com.lettr.core.net.RequestOptions;
+import com.lettr.services.BaseService;
+import com.lettr.services.emails.model.*;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous counterpart of {@link Emails}: the same operations, each
+ * returning a {@link CompletableFuture} instead of blocking. Obtain it via
+ * {@code lettr.async()}.
+ *
+ * <p>Invalid arguments throw immediately, as they do on {@link Emails}; API and
+ * network failures complete the future exceptionally with the same
+ * {@link LettrException} subtypes the blocking methods throw.</p>
+ */
+public class EmailsAsync extends BaseService {
+
+    public EmailsAsync(@Nonnull HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    /**
+     * Returns a view of this service whose calls follow {@code options}, such
+     * as a deadline, a timeout or a retry policy of their own.
+     *
+     * @param options per-call settings
+     * @return this service, applying {@code options}
+     */
+    @Nonnull
+    public EmailsAsync withOptions(@Nonnull RequestOptions options) {
+        return new EmailsAsync(httpClient.withOptions(options));
+    }
+
+    /**
+     * Send a transactional email.
+     *
+     * @param options email options including from, to, subject, and content
+     * @return response containing the request ID and acceptance counts
+     */
+    @Nonnull
+    public CompletableFuture<CreateEmailResponse> send(@Nonnull CreateEmailOptions options) {
+        return httpClient.postAsync("/emails", options, CreateEmailResponse.class);
+    }
+
+    /**
+     * List sent emails with optional filtering and pagination.
+     *
+     * @param params optional query parameters; pass null for defaults
+     * @return paginated list of email events
+     */
+    @Nonnull
+    public CompletableFuture<ListEmailsResponse> list(@Nullable ListEmailsParams params) {
+        return httpClient.getAsync("/emails", params != null ? params.toQueryParams() : null, ListEmailsResponse.class);
+    }
+
+    /** List sent emails with default pagination. */
+    @Nonnull
+    public CompletableFuture<ListEmailsResponse> list() {
+        return list(null);
+    }
+
+    /**
+     * List email events with optional filtering and pagination.
+     *
+     * @param params optional query parameters; pass null for defaults
+     * @return paginated list of email events
+     */
+    @Nonnull
+    public CompletableFuture<ListEmailEventsResponse> listEvents(@Nullable ListEmailEventsParams params) {
+        return httpClient.getAsync("/emails/events", params != null ? params.toQueryParams() : null,
+                Emails.eventsAdapter(httpClient, params));
+    }
+
+    /** List email events with default parameters. */
+    @Nonnull
+    public CompletableFuture<ListEmailEventsResponse> listEvents() {
+        return listEvents(null);
+    }
+
+    /**
+     * Get details of a specific email transmission.
+     *
+     * @param requestId the request ID returned when the email was sent
+     * @return response containing transmission details and events
+     * @throws IllegalArgumentException if {@code requestId} is null or empty
+     */
+    @Nonnull
+    public CompletableFuture<GetEmailResponse> get(@Nonnull String requestId) {
+        return get(requestId, null, null);
+    }
+
+    /**
+     * Get details of a specific email transmission with optional date range filtering.
+     *
+     * @param requestId the request ID returned when the email was sent
+     * @param from      optional start date for the event search range (ISO 8601). Defaults to 10 days ago.
+     * @param to        optional end date for the event search range (ISO 8601). Defaults to now.
+     * @return response containing transmission details and events
+     * @throws IllegalArgumentException if {@code requestId} is null or empty
+     */
+    @Nonnull
+    public CompletableFuture<GetEmailResponse> get(@Nonnull String requestId, @Nullable String from, @Nullable String to) {
+        if (requestId == null || requestId.isEmpty()) {
+            throw new IllegalArgumentException("requestId is required");
+        }
+        Map<String, String> params = null;
+        if (from != null || to != null) {
+            params = new LinkedHashMap<>();
+            if (from != null) params.put("from", from);
+            if (to != null) params.put("to", to);
+        }
+        return httpClient.getAsync("/emails/" + HttpClient.encodePathSegment(requestId), params, GetEmailResponse.class);
+    }
+
+    /**
+     * Schedule an email for future delivery.
+     *
+     * @param options schedule email options including {@code scheduledAt}
+     * @return response containing the request ID and acceptance counts
+     */
+    @Nonnull
+    public CompletableFuture<CreateEmailResponse> schedule(@Nonnull ScheduleEmailOptions options) {
+        return httpClient.postAsync("/emails/scheduled", options, CreateEmailResponse.class);
+    }
+
+    /**
+     * Get details of a scheduled email transmission.
+     *
+     * @param transmissionId the transmission ID
+     * @return scheduled email details
+     * @throws IllegalArgumentException if {@code transmissionId} is null or empty
+     */
+    @Nonnull
+    public CompletableFuture<ScheduledEmail> getScheduled(@Nonnull String transmissionId) {
+        if (transmissionId == null || transmissionId.isEmpty()) {
+            throw new IllegalArgumentException("transmissionId is required");
+        }
+        return httpClient.getAsync("/emails/scheduled/" + HttpClient.encodePathSegment(transmissionId), null, ScheduledEmail.class);
+    }
+
+    /**
+     * Cancel a scheduled email.
+     *
+     * @param transmissionId the transmission ID to cancel
+     * @throws IllegalArgumentException if {@code transmissionId} is null or empty
+     */
+    @Nonnull
+    public CompletableFuture<Void> cancelScheduled(@Nonnull String transmissionId) {
+        if (transmissionId == null || transmissionId.isEmpty()) {
+            throw new IllegalArgumentException("transmissionId is required");
+        }
+        return httpClient.deleteAsync("/emails/scheduled/" + HttpClient.encodePathSegment(transmissionId));
+    }
+}
@@ -1,16 +1,28 @@
 package com.lettr.services.emails.model;
 
+import com.lettr.core.net.BinaryContent;
+
 import javax.annotation.Nonnull;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 /**
  * Represents a file attachment for an email.
  * All three fields ({@code name}, {@code type}, {@code data}) are required.
+ *
+ * <p>The data can be given already base64-encoded, or as a {@link Path},
+ * {@link ByteBuffer} or {@link InputStream} that is encoded while the request
+ * is sent, so large files are never held in memory. See {@link BinaryContent},
+ * and {@link com.lettr.core.net.BinaryContentCache} for files attached to
+ * many emails.</p>
  */
 public class Attachment {
 
     private final String name;
     private final String type;
-    private final String data;
+    private final BinaryContent data;
 
     private Attachment(Builder builder) {
         this.name = builder.name;
@@ -25,12 +37,23 @@ public class Attachment {
 
     @Nonnull public String getName() { return name; }
     @Nonnull public String getType() { return type; }
-    @Nonnull public String getData() { return data; }
+
+    /**
+     * Returns the base64-encoded data, reading and encoding it in full if it
+     * was given as a file or buffer.
+     *
+     * @throws IllegalStateException if the data was given as an {@link InputStream}
+     */
+    @Nonnull public String getData() { return data.toBase64(); }
+
+    /** Returns the data as given to the builder. */
+    @Nonnull public BinaryContent getContent() { return data; }
 
     public static class Builder {
         private String name;
         private String type;
-        private String data;
+        private BinaryContent data;
+        private Path file;
 
         private Builder() {}
 
@@ -59,14 +82,65 @@ public class Attachment {
          */
         @Nonnull
         public Builder data(@Nonnull String data) {
-            this.data = data;
+            this.data = data == null || data.isEmpty() ? null : BinaryContent.ofBase64(data);
+            this.file = null;
+            return this;
+        }
+
+        /**
+         * <b>(required)</b> Sets the file to attach. It is memory-mapped and
+         * base64-encoded while the request is sent, each time it is sent.
+         */
+        @Nonnull
+        public Builder data(@Nonnull Path file) {
+            this.data = file == null ? null : BinaryContent.ofFile(file);
+            this.file = file;
+            return this;
+        }
+
+        /**
+         * <b>(required)</b> Sets the attachment content to the remaining bytes
+         * of {@code buffer}, base64-encoded while the request is sent. The
+         * buffer's position is left unchanged.
+         */
+        @Nonnull
+        public Builder data(@Nonnull ByteBuffer buffer) {
+            this.data = buffer == null ? null : BinaryContent.ofBuffer(buffer);
+            this.file = null;
+            return this;
+        }
+
+        /**
+         * <b>(required)</b> Sets the attachment content to the rest of
+         * {@code stream}, base64-encoded while the request is sent and closed
+         * after. A stream can be read only once, so a send carrying it cannot
+         * be retried; attach a {@link Path} or {@link ByteBuffer} where retries
+         * matter.
+         */
+        @Nonnull
+        public Builder data(@Nonnull InputStream stream) {
+            this.data = stream == null ? null : BinaryContent.ofStream(stream);
+            this.file = null;
+            return this;
+        }
+
+        /**
+         * <b>(required)</b> Sets the attachment content, for example one taken
+         * from a {@link com.lettr.core.net.BinaryContentCache} so that a file
+         * attached to many emails is encoded only once.
+         */
+        @Nonnull
+        public Builder data(@Nonnull BinaryContent content) {
+            this.data = content;
+            this.file = null;
             return this;
         }
 
         /**
          * Builds the {@link Attachment} instance.
          *
-         * @throws IllegalArgumentException if {@code name}, {@code type}, or {@code data} is missing
+         * @throws IllegalArgumentException if {@code name}, {@code type}, or {@code data} is missing,
+         *                                  or {@code data} is a path that is not a regular file
          */
         @Nonnull
         public Attachment build() {
@@ -76,9 +150,12 @@ public class Attachment {
             if (type == null || type.isEmpty()) {
                 throw new IllegalArgumentException("Attachment type is required");
             }
-            if (data == null || data.isEmpty()) {
+            if (data == null) {
                 throw new IllegalArgumentException("Attachment data is required");
             }
+            if (file != null && !Files.isRegularFile(file)) {
+                throw new IllegalArgumentException("Attachment file not found: " + file);
+            }
             return new Attachment(this);
         }
     }
@@ -1,10 +1,26 @@
 package com.lettr.services.emails.model;
 
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.lettr.core.util.JsonReads;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Represents a single email event (injection, delivery, bounce, open, click, etc.).
@@ -16,6 +32,8 @@ import java.util.List;
  */
 public class EmailEvent {
 
+    private static final Set<String> FIELD_NAMES = declaredFieldNames();
+
     // Common properties
     @SerializedName("event_id")
     private String eventId;
@@ -255,4 +273,167 @@ public class EmailEvent {
                 ", timestamp='" + timestamp + '\'' +
                 '}';
     }
+
+    /**
+     * Returns the JSON names of every field an event can carry ({@code event_id},
+     * {@code bounce_class}, {@code geo_ip}, ...), the names
+     * {@link #projection(Collection)} accepts.
+     */
+    @Nonnull
+    public static Set<String> fieldNames() {
+        return FIELD_NAMES;
+    }
+
+    private static Set<String> declaredFieldNames() {
+        Set<String> names = new LinkedHashSet<>();
+        for (Field field : EmailEvent.class.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                SerializedName name = field.getAnnotation(SerializedName.class);
+                names.add(name != null ? name.value() : field.getName());
+            }
+        }
+        return Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * Returns a Gson {@link TypeAdapterFactory} that decodes events with only
+     * the given fields filled in. Every other member is skipped in the JSON
+     * without being turned into a {@code String} or a nested object, which
+     * cuts allocation sharply when scanning many events for a few fields;
+     * the getters of skipped fields return {@code null}.
+     *
+     * <p>{@link com.lettr.services.emails.Emails} applies this for
+     * {@link ListEmailEventsParams.Builder#fields(Collection)}; register it on
+     * your own {@code GsonBuilder} to decode webhook payloads the same way.
+     * Serialization is unaffected.</p>
+     *
+     * @param fields JSON field names, as listed by {@link #fieldNames()}
+     * @throws IllegalArgumentException if {@code fields} is null or names an unknown field
+     */
+    @Nonnull
+    public static TypeAdapterFactory projection(@Nonnull Collection<String> fields) {
+        return new ProjectionFactory(checkFieldNames(fields));
+    }
+
+    static Set<String> checkFieldNames(Collection<String> fields) {
+        if (fields == null) {
+            throw new IllegalArgumentException("fields is required");
+        }
+        Set<String> names = new HashSet<>(fields);
+        for (String name : names) {
+            if (!FIELD_NAMES.contains(name)) {
+                throw new IllegalArgumentException("Unknown EmailEvent field: " + name);
+            }
+        }
+        return Collections.unmodifiableSet(names);
+    }
+
+    private static final class ProjectionFactory implements TypeAdapterFactory {
+
+        private final Set<String> fields;
+
+        ProjectionFactory(Set<String> fields) {
+            this.fields = fields;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            if (type.getRawType() != EmailEvent.class) {
+                return null;
+            }
+            TypeAdapter<EmailEvent> reflective = gson.getDelegateAdapter(this, TypeToken.get(EmailEvent.class));
+            TypeAdapter<Object> objects = gson.getAdapter(Object.class);
+            TypeAdapter<GeoIp> geoIps = gson.getAdapter(GeoIp.class);
+            TypeAdapter<UserAgentParsed> userAgents = gson.getAdapter(UserAgentParsed.class);
+            return (TypeAdapter<T>) new TypeAdapter<EmailEvent>() {
+                @Override
+                public void write(JsonWriter out, EmailEvent value) throws IOException {
+                    reflective.write(out, value);
+                }
+
+                @Override
+                public EmailEvent read(JsonReader in) throws IOException {
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                        return null;
+                    }
+                    EmailEvent event = new EmailEvent();
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        String name = in.nextName();
+                        if (fields.contains(name)) {
+                            readField(in, name, event, objects, geoIps, userAgents);
+                        } else {
+                            in.skipValue();
+                        }
+                    }
+                    in.endObject();
+                    return event;
+                }
+            };
+        }
+
+        // One case per field; EmailsTest checks that none is missing.
+        private static void readField(JsonReader in, String name, EmailEvent event, TypeAdapter<Object> objects,
+                                      TypeAdapter<GeoIp> geoIps, TypeAdapter<UserAgentParsed> userAgents)
+                throws IOException {
+            switch (name) {
+                case "event_id": event.eventId = JsonReads.nextString(in); break;
+                case "type": event.type = JsonReads.nextString(in); break;
+                case "timestamp": event.timestamp = JsonReads.nextString(in); break;
+                case "request_id": event.requestId = JsonReads.nextString(in); break;
+                case "message_id": event.messageId = JsonReads.nextString(in); break;
+                case "subject": event.subject = JsonReads.nextString(in); break;
+                case "friendly_from": event.friendlyFrom = JsonReads.nextString(in); break;
+                case "sending_domain": event.sendingDomain = JsonReads.nextString(in); break;
+                case "rcpt_to": event.rcptTo = JsonReads.nextString(in); break;
+                case "raw_rcpt_to": event.rawRcptTo = JsonReads.nextString(in); break;
+                case "recipient_domain": event.recipientDomain = JsonReads.nextString(in); break;
+                case "mailbox_provider": event.mailboxProvider = JsonReads.nextString(in); break;
+                case "mailbox_provider_region": event.mailboxProviderRegion = JsonReads.nextString(in); break;
+                case "sending_ip": event.sendingIp = JsonReads.nextString(in); break;
+                case "click_tracking": event.clickTracking = JsonReads.nextBoolean(in); break;
+                case "open_tracking": event.openTracking = JsonReads.nextBoolean(in); break;
+                case "transactional": event.transactional = JsonReads.nextBoolean(in); break;
+                case "msg_size": event.msgSize = JsonReads.nextInteger(in); break;
+                case "injection_time": event.injectionTime = JsonReads.nextString(in); break;
+                case "rcpt_meta": event.rcptMeta = objects.read(in); break;
+                case "campaign_id": event.campaignId = JsonReads.nextString(in); break;
+                case "template_id": event.templateId = JsonReads.nextString(in); break;
+                case "template_version": event.templateVersion = JsonReads.nextString(in); break;
+                case "ip_pool": event.ipPool = JsonReads.nextString(in); break;
+                case "msg_from": event.msgFrom = JsonReads.nextString(in); break;
+                case "rcpt_type": event.rcptType = JsonReads.nextString(in); break;
+                case "rcpt_tags": event.rcptTags = JsonReads.nextStringList(in); break;
+                case "amp_enabled": event.ampEnabled = JsonReads.nextBoolean(in); break;
+                case "delv_method": event.delvMethod = JsonReads.nextString(in); break;
+                case "recv_method": event.recvMethod = JsonReads.nextString(in); break;
+                case "routing_domain": event.routingDomain = JsonReads.nextString(in); break;
+                case "scheduled_time": event.scheduledTime = JsonReads.nextString(in); break;
+                case "ab_test_id": event.abTestId = JsonReads.nextString(in); break;
+                case "ab_test_version": event.abTestVersion = JsonReads.nextString(in); break;
+                case "reason": event.reason = JsonReads.nextString(in); break;
+                case "raw_reason": event.rawReason = JsonReads.nextString(in); break;
+                case "error_code": event.errorCode = JsonReads.nextString(in); break;
+                case "bounce_class": event.bounceClass = JsonReads.nextInteger(in); break;
+                case "num_retries": event.numRetries = JsonReads.nextInteger(in); break;
+                case "queue_time": event.queueTime = JsonReads.nextInteger(in); break;
+                case "target_link_url": event.targetLinkUrl = JsonReads.nextString(in); break;
+                case "target_link_name": event.targetLinkName = JsonReads.nextString(in); break;
+                case "user_agent": event.userAgent = JsonReads.nextString(in); break;
+                case "geo_ip": event.geoIp = geoIps.read(in); break;
+                case "user_agent_parsed": event.userAgentParsed = userAgents.read(in); break;
+                case "ip_address": event.ipAddress = JsonReads.nextString(in); break;
+                case "initial_pixel": event.initialPixel = JsonReads.nextBoolean(in); break;
+                case "outbound_tls": event.outboundTls = JsonReads.nextString(in); break;
+                case "device_token": event.deviceToken = JsonReads.nextString(in); break;
+                case "fbtype": event.fbtype = JsonReads.nextString(in); break;
+                case "report_by": event.reportBy = JsonReads.nextString(in); break;
+                case "report_to": event.reportTo = JsonReads.nextString(in); break;
+                case "remote_addr": event.remoteAddr = JsonReads.nextString(in); break;
+                default: in.skipValue();
+            }
+        }
+    }
 }
@@ -2,9 +2,12 @@ package com.lettr.services.emails.model;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Parameters for listing email events. All fields are optional.
@@ -19,6 +22,7 @@ public class ListEmailEventsParams {
     private final String cursor;
     private final String transmissions;
     private final String bounceClasses;
+    private final Set<String> fields;
 
     private ListEmailEventsParams(Builder builder) {
         this.events = builder.events;
@@ -29,6 +33,7 @@ public class ListEmailEventsParams {
         this.cursor = builder.cursor;
         this.transmissions = builder.transmissions;
         this.bounceClasses = builder.bounceClasses;
+        this.fields = builder.fields;
     }
 
     @Nonnull
@@ -54,6 +59,15 @@ public class ListEmailEventsParams {
         return params;
     }
 
+    /**
+     * The event fields to decode, or {@code null} for all of them. Applied
+     * on the client; it is not part of the query.
+     */
+    @Nullable
+    public Set<String> getFields() {
+        return fields;
+    }
+
     public static class Builder {
         private List<String> events;
         private List<String> recipients;
@@ -63,6 +77,7 @@ public class ListEmailEventsParams {
         private String cursor;
         private String transmissions;
         private String bounceClasses;
+        private Set<String> fields;
 
         private Builder() {}
 
@@ -122,6 +137,28 @@ public class ListEmailEventsParams {
             return this;
         }
 
+        /**
+         * <b>(optional)</b> Decodes only these {@link EmailEvent} fields, by
+         * their JSON names (e.g. {@code "event_id"}, {@code "rcpt_to"},
+         * {@code "bounce_class"}); the getters of all others return
+         * {@code null}. The API still sends whole events, but the skipped
+         * members never become objects, so scanning many events for a few
+         * fields allocates far less. See {@link EmailEvent#fieldNames()}.
+         *
+         * @throws IllegalArgumentException if a name is not an event field
+         */
+        @Nonnull
+        public Builder fields(@Nullable Collection<String> fields) {
+            this.fields = fields != null ? EmailEvent.checkFieldNames(fields) : null;
+            return this;
+        }
+
+        /** <b>(optional)</b> Varargs form of {@link #fields(Collection)}. */
+        @Nonnull
+        public Builder fields(@Nullable String... fields) {
+            return fields(fields != null ? Arrays.asList(fields) : null);
+        }
+
         @Nonnull
         public ListEmailEventsParams build() {
             return new ListEmailEventsParams(this);
@@ -1,6 +1,8 @@
 package com.lettr.services.projects;
 
 import com.lettr.core.exception.LettrException;
+import com.lettr.core.net.HttpClient;
+import com.lettr.core.net.RequestOptions;
 import com.lettr.services.BaseService;
 import com.lettr.services.projects.model.ListProjectsParams;
 import com.lettr.services.projects.model.ListProjectsResponse;
@@ -17,6 +19,22 @@ public class Projects extends BaseService {
         super(apiKey);
     }
 
+    public Projects(@Nonnull HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    /**
+     * Returns a view of this service whose calls follow {@code options}, such
+     * as a deadline, a timeout or a retry policy of their own.
+     *
+     * @param options per-call settings
+     * @return this service, applying {@code options}
+     */
+    @Nonnull
+    public Projects withOptions(@Nonnull RequestOptions options) {
+        return new Projects(httpClient.withOptions(options));
+    }
+
     /**
      * List projects with optional pagination.
      *
@@ -0,0 +1,56 @@
+package com.lettr.services.projects;
+
+import com.lettr.core.exception.LettrException;
+import com.lettr.core.net.HttpClient;
+import com.lettr.core.net.RequestOptions;
+import com.lettr.services.BaseService;
+import com.lettr.services.projects.model.ListProjectsParams;
+import com.lettr.services.projects.model.ListProjectsResponse;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous counterpart of {@link Projects}: the same operations, each
+ * returning a {@link CompletableFuture} instead of blocking. Obtain it via
+ * {@code lettr.async()}.
+ *
+ * <p>Invalid arguments throw immediately, as they do on {@link Projects}; API and
+ * network failures complete the future exceptionally with the same
+ * {@link LettrException} subtypes the blocking methods throw.</p>
+ */
+public class ProjectsAsync extends BaseService {
+
+    public ProjectsAsync(@Nonnull HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    /**
+     * Returns a view of this service whose calls follow {@code options}, such
+     * as a deadline, a timeout or a retry policy of their own.
+     *
+     * @param options per-call settings
+     * @return this service, applying {@code options}
+     */
+    @Nonnull
+    public ProjectsAsync withOptions(@Nonnull RequestOptions options) {
+        return new ProjectsAsync(httpClient.withOptions(options));
+    }
+
+    /**
+     * List projects with optional pagination.
+     *
+     * @param params optional query parameters; pass null for defaults
+     */
+    @Nonnull
+    public CompletableFuture<ListProjectsResponse> list(@Nullable ListProjectsParams params) {
+        return httpClient.getAsync("/projects", params != null ? params.toQueryParams() : null, ListProjectsResponse.class);
+    }
+
+    /** List projects with default pagination. */
+    @Nonnull
+    public CompletableFuture<ListProjectsResponse> list() {
+        return list(null);
+    }
+}
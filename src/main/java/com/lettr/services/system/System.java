@@ -1,6 +1,8 @@
 package com.lettr.services.system;
 
 import com.lettr.core.exception.LettrException;
+import com.lettr.core.net.HttpClient;
+import com.lettr.core.net.RequestOptions;
 import com.lettr.services.BaseService;
 import com.lettr.services.system.model.AuthCheckResponse;
 import com.lettr.services.system.model.HealthResponse;
@@ -16,6 +18,22 @@ public class System extends BaseService {
         super(apiKey);
     }
 
+    public System(@Nonnull HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    /**
+     * Returns a view of this service whose calls follow {@code options}, such
+     * as a deadline, a timeout or a retry policy of their own.
+     *
+     * @param options per-call settings
+     * @return this service, applying {@code options}
+     */
+    @Nonnull
+    public System withOptions(@Nonnull RequestOptions options) {
+        return new System(httpClient.withOptions(options));
+    }
+
     /**
      * Check the health status of the API. Does not require authentication.
      *
@@ -0,0 +1,59 @@
+package com.lettr.services.system;
+
+import com.lettr.core.exception.LettrException;
+import com.lettr.core.net.HttpClient;
+import com.lettr.core.net.RequestOptions;
+import com.lettr.services.BaseService;
+import com.lettr.services.system.model.AuthCheckResponse;
+import com.lettr.services.system.model.HealthResponse;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous counterpart of {@link System}: the same operations, each
+ * returning a {@link CompletableFuture} instead of blocking. Obtain it via
+ * {@code lettr.async()}.
+ *
+ * <p>Invalid arguments throw immediately, as they do on {@link System}; API and
+ * network failures complete the future exceptionally with the same
+ * {@link LettrException} subtypes the blocking methods throw.</p>
+ */
+public class SystemAsync extends BaseService {
+
+    public SystemAsync(@Nonnull HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    /**
+     * Returns a view of this service whose calls follow {@code options}, such
+     * as a deadline, a timeout or a retry policy of their own.
+     *
+     * @param options per-call settings
+     * @return this service, applying {@code options}
+     */
+    @Nonnull
+    public SystemAsync withOptions(@Nonnull RequestOptions options) {
+        return new SystemAsync(httpClient.withOptions(options));
+    }
+
+    /**
+     * Check the health status of the API. Does not require authentication.
+     *
+     * @return health status with timestamp
+     */
+    @Nonnull
+    public CompletableFuture<HealthResponse> health() {
+        return httpClient.getAsync("/health", null, HealthResponse.class);
+    }
+
+    /**
+     * Validate the configured API key and return associated team information.
+     *
+     * @return team ID and timestamp
+     */
+    @Nonnull
+    public CompletableFuture<AuthCheckResponse> authCheck() {
+        return httpClient.getAsync("/auth/check", null, AuthCheckResponse.class);
+    }
+}
@@ -1,6 +1,8 @@
 package com.lettr.services.templates;
 
 import com.lettr.core.exception.LettrException;
+import com.lettr.core.net.HttpClient;
+import com.lettr.core.net.RequestOptions;
 import com.lettr.services.BaseService;
 import com.lettr.services.templates.model.*;
 
@@ -18,6 +20,22 @@ public class Templates extends BaseService {
         super(apiKey);
     }
 
+    public Templates(@Nonnull HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    /**
+     * Returns a view of this service whose calls follow {@code options}, such
+     * as a deadline, a timeout or a retry policy of their own.
+     *
+     * @param options per-call settings
+     * @return this service, applying {@code options}
+     */
+    @Nonnull
+    public Templates withOptions(@Nonnull RequestOptions options) {
+        return new Templates(httpClient.withOptions(options));
+    }
+
     /**
      * List templates with optional filtering and pagination.
      *
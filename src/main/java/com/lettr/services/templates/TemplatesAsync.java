@@ -0,0 +1,163 @@
+package com.lettr.services.templates;
+
+import com.lettr.core.exception.LettrException;
+import com.lettr.core.net.HttpClient;
+import com.lettr.core.net.RequestOptions;
+import com.lettr.services.BaseService;
+import com.lettr.services.templates.model.*;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous counterpart of {@link Templates}: the same operations, each
+ * returning a {@link CompletableFuture} instead of blocking. Obtain it via
+ * {@code lettr.async()}.
+ *
+ * <p>Invalid arguments throw immediately, as they do on {@link Templates}; API and
+ * network failures complete the future exceptionally with the same
+ * {@link LettrException} subtypes the blocking methods throw.</p>
+ */
+public class TemplatesAsync extends BaseService {
+
+    public TemplatesAsync(@Nonnull HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    /**
+     * Returns a view of this service whose calls follow {@code options}, such
+     * as a deadline, a timeout or a retry policy of their own.
+     *
+     * @param options per-call settings
+     * @return this service, applying {@code options}
+     */
+    @Nonnull
+    public TemplatesAsync withOptions(@Nonnull RequestOptions options) {
+        return new TemplatesAsync(httpClient.withOptions(options));
+    }
+
+    /**
+     * List templates with optional filtering and pagination.
+     *
+     * @param params optional query parameters; pass null for defaults
+     */
+    @Nonnull
+    public CompletableFuture<ListTemplatesResponse> list(@Nullable ListTemplatesParams params) {
+        return httpClient.getAsync("/templates", params != null ? params.toQueryParams() : null, ListTemplatesResponse.class);
+    }
+
+    /** List templates with default pagination. */
+    @Nonnull
+    public CompletableFuture<ListTemplatesResponse> list() {
+        return list(null);
+    }
+
+    /**
+     * Get a template by slug.
+     *
+     * @throws IllegalArgumentException if {@code slug} is null or empty
+     */
+    @Nonnull
+    public CompletableFuture<TemplateDetail> get(@Nonnull String slug) {
+        return get(slug, null);
+    }
+
+    /**
+     * Get a template by slug within a specific project.
+     *
+     * @param projectId optional project ID; null uses the team's default project
+     * @throws IllegalArgumentException if {@code slug} is null or empty
+     */
+    @Nonnull
+    public CompletableFuture<TemplateDetail> get(@Nonnull String slug, @Nullable Integer projectId) {
+        if (slug == null || slug.isEmpty()) {
+            throw new IllegalArgumentException("slug is required");
+        }
+        Map<String, String> params = null;
+        if (projectId != null) {
+            params = new LinkedHashMap<>();
+            params.put("project_id", projectId.toString());
+        }
+        return httpClient.getAsync("/templates/" + slug, params, TemplateDetail.class);
+    }
+
+    /** Create a new email template. */
+    @Nonnull
+    public CompletableFuture<CreateTemplateResponse> create(@Nonnull CreateTemplateOptions options) {
+        return httpClient.postAsync("/templates", options, CreateTemplateResponse.class);
+    }
+
+    /**
+     * Update an existing template.
+     *
+     * @throws IllegalArgumentException if {@code slug} is null or empty
+     */
+    @Nonnull
+    public CompletableFuture<UpdateTemplateResponse> update(@Nonnull String slug, @Nonnull UpdateTemplateOptions options) {
+        if (slug == null || slug.isEmpty()) {
+            throw new IllegalArgumentException("slug is required");
+        }
+        return httpClient.putAsync("/templates/" + slug, options, UpdateTemplateResponse.class);
+    }
+
+    /**
+     * Delete a template by slug.
+     *
+     * @throws IllegalArgumentException if {@code slug} is null or empty
+     */
+    @Nonnull
+    public CompletableFuture<Void> delete(@Nonnull String slug) {
+        return delete(slug, null);
+    }
+
+    /**
+     * Delete a template by slug within a specific project.
+     *
+     * @throws IllegalArgumentException if {@code slug} is null or empty
+     */
+    @Nonnull
+    public CompletableFuture<Void> delete(@Nonnull String slug, @Nullable Integer projectId) {
+        if (slug == null || slug.isEmpty()) {
+            throw new IllegalArgumentException("slug is required");
+        }
+        Map<String, String> params = null;
+        if (projectId != null) {
+            params = new LinkedHashMap<>();
+            params.put("project_id", projectId.toString());
+        }
+        return httpClient.deleteAsync("/templates/" + slug, params);
+    }
+
+    /**
+     * Get merge tags for a template.
+     *
+     * @throws IllegalArgumentException if {@code slug} is null or empty
+     */
+    @Nonnull
+    public CompletableFuture<GetMergeTagsResponse> getMergeTags(@Nonnull String slug) {
+        return getMergeTags(slug, null);
+    }
+
+    /**
+     * Get merge tags for a template with optional parameters.
+     *
+     * @throws IllegalArgumentException if {@code slug} is null or empty
+     */
+    @Nonnull
+    public CompletableFuture<GetMergeTagsResponse> getMergeTags(@Nonnull String slug, @Nullable GetMergeTagsParams params) {
+        if (slug == null || slug.isEmpty()) {
+            throw new IllegalArgumentException("slug is required");
+        }
+        return httpClient.getAsync("/templates/" + slug + "/merge-tags",
+                params != null ? params.toQueryParams() : null, GetMergeTagsResponse.class);
+    }
+
+    /** Get the rendered HTML for a template. */
+    @Nonnull
+    public CompletableFuture<GetTemplateHtmlResponse> getHtml(@Nonnull GetTemplateHtmlParams params) {
+        return httpClient.getAsync("/templates/html", params.toQueryParams(), GetTemplateHtmlResponse.class);
+    }
+}
@@ -1,6 +1,8 @@
 package com.lettr.services.webhooks;
 
 import com.lettr.core.exception.LettrException;
+import com.lettr.core.net.HttpClient;
+import com.lettr.core.net.RequestOptions;
 import com.lettr.services.BaseService;
 import com.lettr.services.webhooks.model.CreateWebhookOptions;
 import com.lettr.services.webhooks.model.ListWebhooksResponse;
@@ -18,6 +20,22 @@ public class Webhooks extends BaseService {
         super(apiKey);
     }
 
+    public Webhooks(@Nonnull HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    /**
+     * Returns a view of this service whose calls follow {@code options}, such
+     * as a deadline, a timeout or a retry policy of their own.
+     *
+     * @param options per-call settings
+     * @return this service, applying {@code options}
+     */
+    @Nonnull
+    public Webhooks withOptions(@Nonnull RequestOptions options) {
+        return new Webhooks(httpClient.withOptions(options));
+    }
+
     /** List all configured webhooks. */
     @Nonnull
     public ListWebhooksResponse list() throws LettrException {
@@ -0,0 +1,92 @@
+package com.lettr.services.webhooks;
+
+import com.lettr.core.exception.LettrException;
+import com.lettr.core.net.HttpClient;
+import com.lettr.core.net.RequestOptions;
+import com.lettr.services.BaseService;
+import com.lettr.services.webhooks.model.CreateWebhookOptions;
+import com.lettr.services.webhooks.model.ListWebhooksResponse;
+import com.lettr.services.webhooks.model.UpdateWebhookOptions;
+import com.lettr.services.webhooks.model.Webhook;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous counterpart of {@link Webhooks}: the same operations, each
+ * returning a {@link CompletableFuture} instead of blocking. Obtain it via
+ * {@code lettr.async()}.
+ *
+ * <p>Invalid arguments throw immediately, as they do on {@link Webhooks}; API and
+ * network failures complete the future exceptionally with the same
+ * {@link LettrException} subtypes the blocking methods throw.</p>
+ */
+public class WebhooksAsync extends BaseService {
+
+    public WebhooksAsync(@Nonnull HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    /**
+     * Returns a view of this service whose calls follow {@code options}, such
+     * as a deadline, a timeout or a retry policy of their own.
+     *
+     * @param options per-call settings
+     * @return this service, applying {@code options}
+     */
+    @Nonnull
+    public WebhooksAsync withOptions(@Nonnull RequestOptions options) {
+        return new WebhooksAsync(httpClient.withOptions(options));
+    }
+
+    /** List all configured webhooks. */
+    @Nonnull
+    public CompletableFuture<ListWebhooksResponse> list() {
+        return httpClient.getAsync("/webhooks", null, ListWebhooksResponse.class);
+    }
+
+    /**
+     * Get details of a specific webhook.
+     *
+     * @throws IllegalArgumentException if {@code webhookId} is null or empty
+     */
+    @Nonnull
+    public CompletableFuture<Webhook> get(@Nonnull String webhookId) {
+        if (webhookId == null || webhookId.isEmpty()) {
+            throw new IllegalArgumentException("webhookId is required");
+        }
+        return httpClient.getAsync("/webhooks/" + webhookId, null, Webhook.class);
+    }
+
+    /** Create a new webhook. */
+    @Nonnull
+    public CompletableFuture<Webhook> create(@Nonnull CreateWebhookOptions options) {
+        return httpClient.postAsync("/webhooks", options, Webhook.class);
+    }
+
+    /**
+     * Update an existing webhook.
+     *
+     * @throws IllegalArgumentException if {@code webhookId} is null or empty
+     */
+    @Nonnull
+    public CompletableFuture<Webhook> update(@Nonnull String webhookId, @Nonnull UpdateWebhookOptions options) {
+        if (webhookId == null || webhookId.isEmpty()) {
+            throw new IllegalArgumentException("webhookId is required");
+        }
+        return httpClient.putAsync("/webhooks/" + webhookId, options, Webhook.class);
+    }
+
+    /**
+     * Delete a webhook.
+     *
+     * @throws IllegalArgumentException if {@code webhookId} is null or empty
+     */
+    @Nonnull
+    public CompletableFuture<Void> delete(@Nonnull String webhookId) {
+        if (webhookId == null || webhookId.isEmpty()) {
+            throw new IllegalArgumentException("webhookId is required");
+        }
+        return httpClient.deleteAsync("/webhooks/" + webhookId);
+    }
+}
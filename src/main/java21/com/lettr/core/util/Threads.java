@@ -0,0 +1,61 @@
+package com.lettr.core.util;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the threads the SDK runs work on: the JDK client's executor, the
+ * workers of {@code BatchingEmailSender} and the uploads of
+ * {@code ContactImporter}.
+ *
+ * <p>This is the Java 21 version, loaded from {@code META-INF/versions/21} of
+ * the multi-release JAR. It keeps the API of the Java 11 version and adds
+ * virtual threads, which park rather than hold an OS thread while a blocking
+ * call waits on the network.</p>
+ */
+public final class Threads {
+
+    private Threads() {}
+
+    /** Whether this runtime can run the SDK's work on virtual threads (Java 21 and later). */
+    public static boolean virtualThreadsSupported() {
+        return true;
+    }
+
+    /**
+     * Returns a factory for threads named {@code prefix} followed by a counter
+     * starting at 1. Platform threads are daemon threads, so they never keep
+     * the JVM alive; virtual threads never do.
+     *
+     * @param virtual whether to create virtual threads
+     */
+    @Nonnull
+    public static ThreadFactory factory(@Nonnull String prefix, boolean virtual) {
+        Args.requireNonNull("prefix", prefix);
+        if (virtual) {
+            return Thread.ofVirtual().name(prefix, 1).factory();
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Returns an unbounded executor: a cached pool of platform threads, or a
+     * new virtual thread per task. Virtual threads are cheap to create and
+     * are not pooled.
+     */
+    @Nonnull
+    public static ExecutorService newExecutor(@Nonnull String prefix, boolean virtual) {
+        if (virtual) {
+            return Executors.newThreadPerTaskExecutor(factory(prefix, true));
+        }
+        return Executors.newCachedThreadPool(factory(prefix, false));
+    }
+}
@@ -83,15 +83,44 @@ class LettrTest {
     }
 
     @Test
-    void servicesAreNewInstancesEachCall() {
+    void servicesAreCachedPerClient() {
         Lettr lettr = new Lettr("test-api-key");
-        assertNotSame(lettr.emails(), lettr.emails());
-        assertNotSame(lettr.domains(), lettr.domains());
-        assertNotSame(lettr.webhooks(), lettr.webhooks());
-        assertNotSame(lettr.templates(), lettr.templates());
-        assertNotSame(lettr.projects(), lettr.projects());
-        assertNotSame(lettr.system(), lettr.system());
-        assertNotSame(lettr.audience(), lettr.audience());
-        assertNotSame(lettr.campaigns(), lettr.campaigns());
+        assertSame(lettr.emails(), lettr.emails());
+        assertSame(lettr.domains(), lettr.domains());
+        assertSame(lettr.webhooks(), lettr.webhooks());
+        assertSame(lettr.templates(), lettr.templates());
+        assertSame(lettr.projects(), lettr.projects());
+        assertSame(lettr.system(), lettr.system());
+        assertSame(lettr.audience(), lettr.audience());
+        assertSame(lettr.audience().contacts(), lettr.audience().contacts());
+        assertSame(lettr.campaigns(), lettr.campaigns());
+    }
+
+    @Test
+    void asyncReturnsCachedServices() {
+        Lettr lettr = new Lettr("test-api-key");
+        assertSame(lettr.async(), lettr.async());
+        assertNotNull(lettr.async().emails());
+        assertSame(lettr.async().emails(), lettr.async().emails());
+        assertSame(lettr.async().audience().contacts(), lettr.async().audience().contacts());
+    }
+
+    @Test
+    void separateClientsDoNotShareServices() {
+        assertNotSame(new Lettr("test-api-key").emails(), new Lettr("test-api-key").emails());
+    }
+
+    @Test
+    void constructorRequiresOptions() {
+        assertThrows(IllegalArgumentException.class, () -> new Lettr("test-api-key", null));
+    }
+
+    @Test
+    void closedClientRejectsRequests() {
+        Lettr lettr = new Lettr("test-api-key");
+        lettr.close();
+        lettr.close(); // idempotent
+        assertThrows(IllegalStateException.class, () -> lettr.emails().list());
+        assertThrows(IllegalStateException.class, () -> lettr.audience().contacts().list());
     }
 }
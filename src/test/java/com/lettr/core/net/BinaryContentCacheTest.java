@@ -0,0 +1,141 @@
+package com.lettr.core.net;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryContentCacheTest {
+
+    private Path dir;
+
+    @BeforeEach
+    void createDir() throws IOException {
+        dir = Files.createTempDirectory("lettr-cache");
+    }
+
+    @AfterEach
+    void deleteDir() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void encodesEachFileOnce() throws IOException {
+        byte[] bytes = randomBytes(10_000, 1);
+        Path file = write("terms.pdf", bytes);
+        BinaryContentCache cache = BinaryContentCache.of(1024 * 1024);
+
+        BinaryContent first = cache.get(file);
+        BinaryContent second = cache.get(file);
+
+        assertSame(first, second);
+        assertEquals(Base64.getEncoder().encodeToString(bytes), first.toBase64());
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.hitCount());
+        assertEquals(BinaryContent.base64Length(bytes.length), cache.encodedBytes());
+    }
+
+    @Test
+    void identicalContentSharesOneEntry() throws IOException {
+        byte[] bytes = randomBytes(3_000, 2);
+        BinaryContentCache cache = BinaryContentCache.of(1024 * 1024);
+
+        BinaryContent fromFile = cache.get(write("a.pdf", bytes));
+        BinaryContent fromCopy = cache.get(write("b.pdf", bytes));
+        BinaryContent fromBuffer = cache.get(ByteBuffer.wrap(bytes));
+
+        assertSame(fromFile, fromCopy);
+        assertSame(fromFile, fromBuffer);
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.missCount());
+        assertEquals(2, cache.hitCount());
+    }
+
+    @Test
+    void changedFileIsEncodedAgain() throws IOException {
+        Path file = write("price-list.pdf", randomBytes(1_000, 3));
+        BinaryContentCache cache = BinaryContentCache.of(1024 * 1024);
+        cache.get(file);
+
+        byte[] updated = randomBytes(1_000, 4);
+        Files.write(file, updated);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 5_000));
+
+        assertEquals(Base64.getEncoder().encodeToString(updated), cache.get(file).toBase64());
+        assertEquals(2, cache.missCount());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxBytes() {
+        // Each 3,000-byte content encodes to 4,000 bytes; two fit.
+        BinaryContentCache cache = BinaryContentCache.of(8_000);
+        ByteBuffer a = ByteBuffer.wrap(randomBytes(3_000, 5));
+        ByteBuffer b = ByteBuffer.wrap(randomBytes(3_000, 6));
+        ByteBuffer c = ByteBuffer.wrap(randomBytes(3_000, 7));
+
+        BinaryContent evicted = cache.get(a);
+        cache.get(b);
+        cache.get(a);
+        cache.get(c);
+
+        assertEquals(2, cache.size());
+        assertEquals(8_000, cache.encodedBytes());
+        cache.get(a);
+        assertEquals(3, cache.missCount());
+        cache.get(b);
+        assertEquals(4, cache.missCount());
+        assertEquals(Base64.getEncoder().encodeToString(a.array()), evicted.toBase64());
+    }
+
+    @Test
+    void contentLargerThanTheCacheIsNotCached() throws IOException {
+        byte[] bytes = randomBytes(3_000, 8);
+        BinaryContentCache cache = BinaryContentCache.of(1_000);
+
+        BinaryContent content = cache.get(write("big.pdf", bytes));
+
+        assertEquals(0, cache.size());
+        assertEquals(Base64.getEncoder().encodeToString(bytes), content.toBase64());
+    }
+
+    @Test
+    void cachedContentIsPublishedVerbatim() throws Exception {
+        byte[] bytes = randomBytes(50_000, 9);
+        BinaryContent content = BinaryContentCache.of(1024 * 1024).get(write("a.pdf", bytes));
+        Gson gson = new HttpClient("test-key").getGson();
+
+        String body = JsonBodyTest.collectString(JsonBody.publisher(gson, Collections.singletonMap("data", content)));
+
+        assertEquals("{\"data\":\"" + Base64.getEncoder().encodeToString(bytes) + "\"}", body);
+    }
+
+    @Test
+    void rejectsNonPositiveMaxBytes() {
+        assertThrows(IllegalArgumentException.class, () -> BinaryContentCache.of(0));
+    }
+
+    private Path write(String name, byte[] bytes) throws IOException {
+        return Files.write(dir.resolve(name), bytes);
+    }
+
+    private static byte[] randomBytes(int size, long seed) {
+        byte[] bytes = new byte[size];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
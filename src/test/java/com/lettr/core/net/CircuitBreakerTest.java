@@ -0,0 +1,222 @@
+package com.lettr.core.net;
+
+import com.lettr.core.exception.CircuitOpenException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static final String ENDPOINT = "/audience";
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong now = new AtomicLong();
+
+    private CircuitBreaker breaker(CircuitBreaker.Builder builder) {
+        return CircuitBreaker.withClock(builder, now::get);
+    }
+
+    private static CircuitBreaker.Builder small() {
+        return CircuitBreaker.builder()
+                .windowSize(10)
+                .minimumCalls(4)
+                .openDuration(Duration.ofSeconds(30))
+                .slowCallDuration(Duration.ofSeconds(2))
+                .halfOpenCalls(2);
+    }
+
+    private static void respond(CircuitBreaker breaker, int statusCode) throws CircuitOpenException {
+        breaker.acquire(ENDPOINT).onResponse(statusCode);
+    }
+
+    private void trip(CircuitBreaker breaker) throws CircuitOpenException {
+        for (int i = 0; i < 4; i++) {
+            respond(breaker, 503);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ENDPOINT));
+    }
+
+    @Test
+    void opensWhenTheFailureRateIsReached() throws Exception {
+        CircuitBreaker breaker = breaker(small());
+        respond(breaker, 200);
+        respond(breaker, 200);
+        respond(breaker, 500);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ENDPOINT));
+
+        breaker.acquire(ENDPOINT).onError(new IOException("connection reset"));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ENDPOINT));
+    }
+
+    @Test
+    void staysClosedUntilMinimumCallsAreSeen() throws Exception {
+        CircuitBreaker breaker = breaker(small());
+        for (int i = 0; i < 3; i++) {
+            respond(breaker, 503);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ENDPOINT));
+    }
+
+    @Test
+    void opensWhenTheSlowCallRateIsReached() throws Exception {
+        CircuitBreaker breaker = breaker(small());
+        for (int i = 0; i < 4; i++) {
+            CircuitBreaker.Call call = breaker.acquire(ENDPOINT);
+            now.addAndGet(i % 2 == 0 ? 3 * SECOND : 1);
+            call.onResponse(200);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ENDPOINT));
+    }
+
+    @Test
+    void clientErrorsAndThrottlingCountAsSuccesses() throws Exception {
+        CircuitBreaker breaker = breaker(small());
+        for (int i = 0; i < 10; i++) {
+            respond(breaker, i % 2 == 0 ? 404 : 429);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ENDPOINT));
+    }
+
+    @Test
+    void onlyTheMostRecentWindowCounts() throws Exception {
+        CircuitBreaker breaker = breaker(small().minimumCalls(10));
+        for (int i = 0; i < 3; i++) {
+            respond(breaker, 503);
+        }
+        for (int i = 0; i < 10; i++) {
+            respond(breaker, 200);
+        }
+        for (int i = 0; i < 4; i++) {
+            respond(breaker, 503);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ENDPOINT));
+
+        // 5 of the last 10 calls; the first 3 failures no longer count either way.
+        respond(breaker, 503);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ENDPOINT));
+    }
+
+    @Test
+    void openCircuitFailsFast() throws Exception {
+        CircuitBreaker breaker = breaker(small());
+        trip(breaker);
+        now.addAndGet(10 * SECOND);
+
+        CircuitOpenException e = assertThrows(CircuitOpenException.class, () -> breaker.acquire(ENDPOINT));
+        assertEquals(ENDPOINT, e.getEndpoint());
+        assertEquals(Duration.ofSeconds(20), e.getRetryAfter());
+        assertEquals(1, breaker.getRejectedCalls());
+    }
+
+    @Test
+    void circuitsAreKeptPerEndpoint() throws Exception {
+        CircuitBreaker breaker = breaker(small());
+        trip(breaker);
+
+        breaker.acquire("/emails").onResponse(200);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState("/emails"));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getStates().get(ENDPOINT));
+    }
+
+    @Test
+    void successfulTrialsCloseTheCircuit() throws Exception {
+        CircuitBreaker breaker = breaker(small());
+        trip(breaker);
+        now.addAndGet(30 * SECOND);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState(ENDPOINT));
+
+        CircuitBreaker.Call first = breaker.acquire(ENDPOINT);
+        CircuitBreaker.Call second = breaker.acquire(ENDPOINT);
+        CircuitOpenException e = assertThrows(CircuitOpenException.class, () -> breaker.acquire(ENDPOINT));
+        assertEquals(Duration.ZERO, e.getRetryAfter());
+
+        first.onResponse(200);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState(ENDPOINT));
+        second.onResponse(201);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ENDPOINT));
+
+        // The window starts afresh.
+        for (int i = 0; i < 3; i++) {
+            respond(breaker, 503);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ENDPOINT));
+    }
+
+    @Test
+    void failedTrialReopensTheCircuit() throws Exception {
+        CircuitBreaker breaker = breaker(small());
+        trip(breaker);
+        now.addAndGet(30 * SECOND);
+
+        breaker.acquire(ENDPOINT).onError(new HttpTimeoutException("request timed out"));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ENDPOINT));
+        assertThrows(CircuitOpenException.class, () -> breaker.acquire(ENDPOINT));
+    }
+
+    @Test
+    void slowTrialReopensTheCircuit() throws Exception {
+        CircuitBreaker breaker = breaker(small());
+        trip(breaker);
+        now.addAndGet(30 * SECOND);
+
+        CircuitBreaker.Call call = breaker.acquire(ENDPOINT);
+        now.addAndGet(2 * SECOND);
+        call.onResponse(200);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ENDPOINT));
+    }
+
+    @Test
+    void releasedTrialFreesItsSlot() throws Exception {
+        CircuitBreaker breaker = breaker(small().halfOpenCalls(1));
+        trip(breaker);
+        now.addAndGet(30 * SECOND);
+
+        CircuitBreaker.Call call = breaker.acquire(ENDPOINT);
+        assertThrows(CircuitOpenException.class, () -> breaker.acquire(ENDPOINT));
+        call.release();
+        call.onResponse(503); // too late: the call was already given up
+
+        breaker.acquire(ENDPOINT).onResponse(200);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ENDPOINT));
+    }
+
+    @Test
+    void callsFromAnEarlierStateAreIgnored() throws Exception {
+        CircuitBreaker breaker = breaker(small());
+        CircuitBreaker.Call straggler = breaker.acquire(ENDPOINT);
+        trip(breaker);
+        now.addAndGet(30 * SECOND);
+
+        CircuitBreaker.Call trial = breaker.acquire(ENDPOINT);
+        straggler.onResponse(503);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState(ENDPOINT));
+        trial.onResponse(200);
+        breaker.acquire(ENDPOINT).onResponse(200);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ENDPOINT));
+    }
+
+    @Test
+    void nonNetworkErrorsAreNotCounted() throws Exception {
+        CircuitBreaker breaker = breaker(small());
+        for (int i = 0; i < 10; i++) {
+            breaker.acquire(ENDPOINT).onError(new IllegalStateException("bad request body"));
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ENDPOINT));
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> CircuitBreaker.builder().failureRateThreshold(0).build());
+        assertThrows(IllegalArgumentException.class, () -> CircuitBreaker.builder().slowCallRateThreshold(1.5).build());
+        assertThrows(IllegalArgumentException.class, () -> CircuitBreaker.builder().slowCallDuration(Duration.ZERO).build());
+        assertThrows(IllegalArgumentException.class, () -> CircuitBreaker.builder().openDuration(null).build());
+        assertThrows(IllegalArgumentException.class, () -> CircuitBreaker.builder().halfOpenCalls(0).build());
+        assertThrows(IllegalArgumentException.class, () -> CircuitBreaker.builder().windowSize(5).minimumCalls(6).build());
+    }
+}
@@ -0,0 +1,319 @@
+package com.lettr.core.net;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimiterTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(1_000 * SECOND);
+
+    private ConcurrencyLimiter limiter(ConcurrencyLimiter.Builder builder) {
+        return ConcurrencyLimiter.withClock(builder, clock::get);
+    }
+
+    private static List<ConcurrencyLimiter.Permit> take(ConcurrencyLimiter limiter, int count) {
+        List<ConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            CompletableFuture<ConcurrencyLimiter.Permit> permit = limiter.acquire(Priority.INTERACTIVE);
+            assertTrue(permit.isDone());
+            permits.add(permit.join());
+        }
+        return permits;
+    }
+
+    /** Runs {@code count} requests at once that each take {@code rttMillis}, all answered with {@code status}. */
+    private void wave(ConcurrencyLimiter limiter, int count, long rttMillis, int status) {
+        List<ConcurrencyLimiter.Permit> permits = take(limiter, count);
+        clock.addAndGet(rttMillis * MILLI);
+        permits.forEach(permit -> permit.onResponse(status));
+    }
+
+    /**
+     * Keeps every slot busy for {@code rounds} round trips of {@code rttMillis}:
+     * each response is followed at once by as many new requests as there are free slots.
+     */
+    private void saturate(ConcurrencyLimiter limiter, int rounds, long rttMillis) {
+        List<ConcurrencyLimiter.Permit> running = take(limiter, limiter.getLimit());
+        for (int round = 0; round < rounds; round++) {
+            clock.addAndGet(rttMillis * MILLI);
+            List<ConcurrencyLimiter.Permit> next = new ArrayList<>();
+            for (ConcurrencyLimiter.Permit permit : running) {
+                permit.onResponse(200);
+                next.addAll(take(limiter, limiter.getLimit() - limiter.getInFlight()));
+            }
+            running = next;
+        }
+        running.forEach(ConcurrencyLimiter.Permit::release);
+    }
+
+    @Test
+    void queuesBeyondTheLimitInArrivalOrder() {
+        ConcurrencyLimiter limiter = limiter(ConcurrencyLimiter.builder().initialLimit(2).adaptive(false));
+        List<ConcurrencyLimiter.Permit> running = take(limiter, 2);
+        CompletableFuture<ConcurrencyLimiter.Permit> first = limiter.acquire(Priority.INTERACTIVE);
+        CompletableFuture<ConcurrencyLimiter.Permit> second = limiter.acquire(Priority.INTERACTIVE);
+        assertFalse(first.isDone());
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(2, limiter.getQueueDepth());
+
+        running.get(0).onResponse(200);
+
+        assertTrue(first.isDone());
+        assertFalse(second.isDone());
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(1, limiter.getQueueDepth());
+
+        running.get(1).release();
+        first.join().release();
+        second.join().release();
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(0, limiter.getQueueDepth());
+    }
+
+    @Test
+    void permitIsReturnedOnce() {
+        ConcurrencyLimiter limiter = limiter(ConcurrencyLimiter.builder().initialLimit(2).adaptive(false));
+        ConcurrencyLimiter.Permit permit = take(limiter, 1).get(0);
+        permit.onResponse(200);
+        permit.onError(new IOException("late"));
+        permit.release();
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void cancelledWaiterGivesUpItsPlace() {
+        ConcurrencyLimiter limiter = limiter(ConcurrencyLimiter.builder().initialLimit(1).adaptive(false));
+        ConcurrencyLimiter.Permit running = take(limiter, 1).get(0);
+        CompletableFuture<ConcurrencyLimiter.Permit> cancelled = limiter.acquire(Priority.INTERACTIVE);
+        CompletableFuture<ConcurrencyLimiter.Permit> next = limiter.acquire(Priority.INTERACTIVE);
+        cancelled.cancel(false);
+
+        running.release();
+
+        assertTrue(next.isDone());
+        assertEquals(1, limiter.getInFlight());
+        assertEquals(0, limiter.getQueueDepth());
+    }
+
+    @Test
+    void blockingAcquireGivesUpItsPlaceWhenInterrupted() throws Exception {
+        ConcurrencyLimiter limiter = limiter(ConcurrencyLimiter.builder().initialLimit(1).adaptive(false));
+        ConcurrencyLimiter.Permit running = take(limiter, 1).get(0);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            try {
+                limiter.acquireBlocking(Priority.INTERACTIVE);
+            } catch (Throwable e) {
+                failure.set(e);
+            } finally {
+                done.countDown();
+            }
+        });
+        waiter.start();
+        while (limiter.getQueueDepth() == 0) {
+            Thread.sleep(1);
+        }
+        waiter.interrupt();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertInstanceOf(InterruptedException.class, failure.get());
+
+        running.release();
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void classesShareFreedSlotsByWeight() {
+        ConcurrencyLimiter limiter = limiter(ConcurrencyLimiter.builder().initialLimit(1).adaptive(false));
+        ConcurrencyLimiter.Permit running = take(limiter, 1).get(0);
+        List<ConcurrencyLimiter.Permit> granted = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire(Priority.BULK).thenAccept(granted::add);
+            limiter.acquire(Priority.TRANSACTIONAL).thenAccept(granted::add);
+        }
+        assertEquals(10, limiter.getQueueDepth(Priority.BULK));
+
+        running.release();
+        for (int i = 0; i < 8; i++) {
+            granted.get(i).release();
+        }
+
+        assertEquals(9, granted.size());
+        assertEquals(8, granted.stream().filter(permit -> permit.priority() == Priority.TRANSACTIONAL).count());
+        assertEquals(11, limiter.getQueueDepth());
+    }
+
+    @Test
+    void reservedSlotsStayFreeForTheirClass() {
+        ConcurrencyLimiter limiter = limiter(ConcurrencyLimiter.builder().initialLimit(4).adaptive(false)
+                .reserve(Priority.TRANSACTIONAL, 1));
+        List<CompletableFuture<ConcurrencyLimiter.Permit>> bulk = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            bulk.add(limiter.acquire(Priority.BULK));
+        }
+        assertTrue(bulk.get(2).isDone());
+        assertFalse(bulk.get(3).isDone());
+
+        CompletableFuture<ConcurrencyLimiter.Permit> send = limiter.acquire(Priority.TRANSACTIONAL);
+        assertTrue(send.isDone());
+        assertEquals(1, limiter.getInFlight(Priority.TRANSACTIONAL));
+        assertEquals(3, limiter.getInFlight(Priority.BULK));
+
+        // With its reservation in use, the class no longer holds anything back.
+        bulk.get(0).join().release();
+        assertTrue(bulk.get(3).isDone());
+    }
+
+    @Test
+    void reservationsAboveTheLimitStillLetOneRequestThrough() {
+        ConcurrencyLimiter limiter = limiter(ConcurrencyLimiter.builder().initialLimit(2).adaptive(false)
+                .reserve(Priority.TRANSACTIONAL, 4));
+        assertTrue(limiter.acquire(Priority.BULK).isDone());
+        assertFalse(limiter.acquire(Priority.BULK).isDone());
+        assertTrue(limiter.acquire(Priority.TRANSACTIONAL).isDone());
+    }
+
+    @Test
+    void growsAboutOneSlotPerRoundTripWhileSaturated() {
+        ConcurrencyLimiter limiter = limiter(ConcurrencyLimiter.builder().initialLimit(10));
+        saturate(limiter, 10, 50);
+        int limit = limiter.getLimit();
+        assertTrue(limit >= 18 && limit <= 20, "limit after 10 round trips: " + limit);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void doesNotGrowWhileMostlyIdle() {
+        ConcurrencyLimiter limiter = limiter(ConcurrencyLimiter.builder().initialLimit(10));
+        for (int i = 0; i < 100; i++) {
+            wave(limiter, 2, 50, 200);
+        }
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void neverGrowsPastMaxLimit() {
+        ConcurrencyLimiter limiter = limiter(ConcurrencyLimiter.builder().initialLimit(4).maxLimit(5));
+        saturate(limiter, 20, 50);
+        assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    void overloadBacksOffOncePerCooldown() {
+        ConcurrencyLimiter limiter = limiter(ConcurrencyLimiter.builder().initialLimit(40));
+        wave(limiter, 8, 50, 429);
+        assertEquals(20, limiter.getLimit());
+
+        clock.addAndGet(SECOND);
+        wave(limiter, 1, 50, 503);
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void timeoutsCountAsOverloadButOtherErrorsDoNot() {
+        ConcurrencyLimiter limiter = limiter(ConcurrencyLimiter.builder().initialLimit(40));
+        take(limiter, 1).get(0).onError(new ConnectException("refused"));
+        assertEquals(40, limiter.getLimit());
+
+        take(limiter, 1).get(0).onError(new HttpTimeoutException("timed out"));
+        assertEquals(20, limiter.getLimit());
+
+        clock.addAndGet(SECOND);
+        take(limiter, 1).get(0).onError(new SocketTimeoutException("read timed out"));
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void slowResponsesShrinkTheLimit() {
+        ConcurrencyLimiter limiter = limiter(ConcurrencyLimiter.builder().initialLimit(40));
+        wave(limiter, 4, 50, 200);
+        assertEquals(40, limiter.getLimit());
+
+        wave(limiter, 4, 150, 200);
+        assertEquals(36, limiter.getLimit());
+    }
+
+    @Test
+    void mixedFastAndSlowTrafficDoesNotShrinkTheLimit() {
+        ConcurrencyLimiter limiter = limiter(ConcurrencyLimiter.builder().initialLimit(20));
+        for (int i = 0; i < 50; i++) {
+            // Health checks and small lookups, sends ten times slower, and bulk pages slower still.
+            List<ConcurrencyLimiter.Permit> lookups = take(limiter, 4);
+            ConcurrencyLimiter.Permit send = limiter.acquire(Priority.TRANSACTIONAL).join();
+            ConcurrencyLimiter.Permit upload = limiter.acquire(Priority.BULK).join();
+            clock.addAndGet(5 * MILLI);
+            lookups.forEach(permit -> permit.onResponse(200));
+            clock.addAndGet(45 * MILLI);
+            send.onResponse(200);
+            clock.addAndGet(950 * MILLI);
+            upload.onResponse(200);
+            clock.addAndGet(SECOND);
+        }
+        assertEquals(20, limiter.getLimit());
+
+        // A class that slows down against its own baseline still counts.
+        ConcurrencyLimiter.Permit send = limiter.acquire(Priority.TRANSACTIONAL).join();
+        clock.addAndGet(150 * MILLI);
+        send.onResponse(200);
+        assertEquals(18, limiter.getLimit());
+    }
+
+    @Test
+    void baselineFollowsLastingLatencyChanges() {
+        ConcurrencyLimiter limiter = limiter(ConcurrencyLimiter.builder().initialLimit(10).minLimit(10));
+        wave(limiter, 1, 20, 200);
+        // The route got longer: each window of samples tells the limiter so.
+        for (int i = 0; i < 2 * ConcurrencyLimiter.BASELINE_WINDOW; i++) {
+            wave(limiter, 1, 100, 200);
+        }
+        assertEquals(10, limiter.getLimit());
+        saturate(limiter, 2, 100);
+        assertTrue(limiter.getLimit() > 10);
+    }
+
+    @Test
+    void neverShrinksBelowMinLimit() {
+        ConcurrencyLimiter limiter = limiter(ConcurrencyLimiter.builder().initialLimit(4).minLimit(3));
+        for (int i = 0; i < 5; i++) {
+            clock.addAndGet(SECOND);
+            wave(limiter, 1, 50, 429);
+        }
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    void fixedLimitIgnoresOverload() {
+        ConcurrencyLimiter limiter = limiter(ConcurrencyLimiter.builder().initialLimit(8).adaptive(false));
+        wave(limiter, 8, 50, 429);
+        assertEquals(8, limiter.getLimit());
+        assertFalse(limiter.isAdaptive());
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> ConcurrencyLimiter.builder().minLimit(0).build());
+        assertThrows(IllegalArgumentException.class, () -> ConcurrencyLimiter.builder().minLimit(5).maxLimit(4).build());
+        assertThrows(IllegalArgumentException.class, () -> ConcurrencyLimiter.builder().initialLimit(300).build());
+        assertThrows(IllegalArgumentException.class, () -> ConcurrencyLimiter.builder().latencyTolerance(1).build());
+        assertThrows(IllegalArgumentException.class, () -> ConcurrencyLimiter.builder().backoffRatio(1).build());
+        assertThrows(IllegalArgumentException.class, () -> ConcurrencyLimiter.builder().backoffRatio(0).build());
+        assertThrows(IllegalArgumentException.class, () -> ConcurrencyLimiter.builder().weight(Priority.BULK, 0).build());
+        assertThrows(IllegalArgumentException.class, () -> ConcurrencyLimiter.builder().reserve(Priority.BULK, -1).build());
+    }
+}
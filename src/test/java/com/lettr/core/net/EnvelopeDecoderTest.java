@@ -0,0 +1,88 @@
+package com.lettr.core.net;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.MalformedJsonException;
+import com.lettr.services.emails.model.ListEmailEventsResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnvelopeDecoderTest {
+
+    private final Gson gson = new GsonBuilder()
+            .setDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX")
+            .create();
+
+    @Test
+    void bindsDataMember() throws IOException {
+        Map<?, ?> data = decode("{\"message\":\"ok\",\"data\":{\"id\":\"abc\"}}", Map.class);
+        assertEquals("abc", data.get("id"));
+    }
+
+    @Test
+    void bindsDataMemberFollowedByOtherMembers() throws IOException {
+        Map<?, ?> data = decode("{\"data\":{\"id\":\"abc\"},\"message\":\"ok\",\"meta\":{\"a\":[1,2]}}", Map.class);
+        assertEquals("abc", data.get("id"));
+    }
+
+    @Test
+    void bindsWholeBodyWithoutEnvelope() throws IOException {
+        Map<?, ?> body = decode("{\"status\":\"healthy\",\"timestamp\":\"now\"}", Map.class);
+        assertEquals("healthy", body.get("status"));
+        assertEquals("now", body.get("timestamp"));
+    }
+
+    @Test
+    void bindsNonObjectBody() throws IOException {
+        List<?> body = decode("[1,2,3]", List.class);
+        assertEquals(3, body.size());
+    }
+
+    @Test
+    void emptyBodyIsNull() throws IOException {
+        assertNull(decode("", Map.class));
+    }
+
+    @Test
+    void nullDataIsNull() throws IOException {
+        assertNull(decode("{\"message\":\"ok\",\"data\":null}", Map.class));
+    }
+
+    @Test
+    void bindsEventPage() throws IOException {
+        String json = "{\"message\":\"ok\",\"data\":{\"events\":{\"data\":[{\"event_id\":\"e1\",\"type\":\"delivery\"}],"
+                + "\"total_count\":1,\"from\":\"a\",\"to\":\"b\",\"pagination\":{\"next_cursor\":\"c2\",\"per_page\":25}}}}";
+        ListEmailEventsResponse page = decode(json, ListEmailEventsResponse.class);
+        assertEquals(1, page.getEvents().getData().size());
+        assertEquals("e1", page.getEvents().getData().get(0).getEventId());
+        assertEquals("c2", page.getEvents().getPagination().getNextCursor());
+    }
+
+    @Test
+    void drainsBodyAfterData() throws IOException {
+        InputStream in = stream("{\"data\":{\"id\":\"abc\"},\"message\":\"ok\"}");
+        EnvelopeDecoder.decode(gson, in, Map.class);
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    void malformedBodyThrows() {
+        assertThrows(MalformedJsonException.class, () -> decode("{\"data\": {id: }", Map.class));
+    }
+
+    private <T> T decode(String json, Class<T> type) throws IOException {
+        return EnvelopeDecoder.decode(gson, stream(json), type);
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,103 @@
+package com.lettr.core.net;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileIdempotencyStoreTest {
+
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+    private Path dir;
+
+    @BeforeEach
+    void createDir() throws IOException {
+        dir = Files.createTempDirectory("lettr-idempotency");
+    }
+
+    @AfterEach
+    void deleteDir() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private long fileCount() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void entriesOutliveTheStore() throws IOException {
+        FileIdempotencyStore.withClock(dir, Duration.ofHours(1), now::get).put("send-1", bytes("{\"id\":\"e-1\"}"));
+
+        FileIdempotencyStore reopened = FileIdempotencyStore.withClock(dir, Duration.ofHours(1), now::get);
+        assertArrayEquals(bytes("{\"id\":\"e-1\"}"), reopened.get("send-1"));
+        assertNull(reopened.get("send-2"));
+        assertEquals(1, fileCount());
+    }
+
+    @Test
+    void replacingAnEntryOverwritesIt() throws IOException {
+        FileIdempotencyStore store = FileIdempotencyStore.withClock(dir, Duration.ofHours(1), now::get);
+        store.put("send-1", bytes("old"));
+        store.put("send-1", bytes("new"));
+
+        assertArrayEquals(bytes("new"), store.get("send-1"));
+        assertEquals(1, fileCount());
+    }
+
+    @Test
+    void expiredEntriesAreDeletedWhenLookedUp() throws IOException {
+        FileIdempotencyStore store = FileIdempotencyStore.withClock(dir, Duration.ofMinutes(1), now::get);
+        store.put("send-1", bytes("{}"));
+
+        now.addAndGet(59_000);
+        assertNotNull(store.get("send-1"));
+        now.addAndGet(1_000);
+        assertNull(store.get("send-1"));
+        assertEquals(0, fileCount());
+    }
+
+    @Test
+    void removeExpiredSweepsTheDirectory() throws IOException {
+        FileIdempotencyStore store = FileIdempotencyStore.withClock(dir, Duration.ofMinutes(1), now::get);
+        store.put("send-1", bytes("{}"));
+        now.addAndGet(30_000);
+        store.put("send-2", bytes("{}"));
+        now.addAndGet(30_000);
+
+        assertEquals(1, store.removeExpired());
+        assertNotNull(store.get("send-2"));
+    }
+
+    @Test
+    void createsTheDirectory() throws IOException {
+        Path nested = dir.resolve("a/b");
+        FileIdempotencyStore store = FileIdempotencyStore.of(nested, Duration.ofHours(1));
+
+        assertTrue(Files.isDirectory(nested));
+        assertEquals(nested, store.getDirectory());
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> FileIdempotencyStore.of(null, Duration.ofHours(1)));
+        assertThrows(IllegalArgumentException.class, () -> FileIdempotencyStore.of(dir, Duration.ZERO));
+    }
+}
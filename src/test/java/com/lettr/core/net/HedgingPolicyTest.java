@@ -0,0 +1,222 @@
+package com.lettr.core.net;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgingPolicyTest {
+
+    private static final HttpHeaders NO_HEADERS = HttpHeaders.of(Collections.emptyMap(), (name, value) -> true);
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final TransportRequest request = TransportRequest.builder()
+            .method("GET").uri(URI.create("http://localhost/api/emails/r-1")).build();
+
+    /** Hands out futures the test completes itself, one per exchange. */
+    private static final class ScriptedTransport implements Transport {
+        final List<CompletableFuture<TransportResponse>> exchanges = new CopyOnWriteArrayList<>();
+        // When false, exchanges ignore cancellation, like an engine that cannot abort one.
+        volatile boolean cancellable = true;
+
+        @Override
+        public TransportResponse send(TransportRequest request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<TransportResponse> sendAsync(TransportRequest request) {
+            CompletableFuture<TransportResponse> exchange = cancellable ? new CompletableFuture<>()
+                    : new CompletableFuture<>() {
+                        @Override
+                        public boolean cancel(boolean mayInterruptIfRunning) {
+                            return false;
+                        }
+                    };
+            exchanges.add(exchange);
+            return exchange;
+        }
+
+        CompletableFuture<TransportResponse> awaitExchange(int index) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (exchanges.size() <= index) {
+                assertTrue(System.nanoTime() < deadline, "exchange " + index + " was never sent");
+                Thread.sleep(1);
+            }
+            return exchanges.get(index);
+        }
+    }
+
+    private static TransportResponse response(String body) {
+        return TransportResponse.of(200, NO_HEADERS, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String body(TransportResponse response) throws IOException {
+        return new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    private static HedgingPolicy fixed(long delayMillis) {
+        return HedgingPolicy.builder().delay(Duration.ofMillis(delayMillis)).build();
+    }
+
+    @Test
+    void slowRequestIsHedgedAndFirstResponseWins() throws Exception {
+        HedgingPolicy policy = fixed(20);
+        ScriptedTransport transport = new ScriptedTransport();
+
+        CompletableFuture<TransportResponse> result = policy.send(transport, request);
+        transport.awaitExchange(1).complete(response("hedge"));
+
+        assertEquals("hedge", body(result.get(5, TimeUnit.SECONDS)));
+        assertTrue(transport.exchanges.get(0).isCancelled());
+        assertEquals(1, policy.getRequests());
+        assertEquals(1, policy.getHedges());
+        assertEquals(1, policy.getHedgeWins());
+    }
+
+    @Test
+    void fastResponseIsNotHedged() throws Exception {
+        HedgingPolicy policy = fixed(20);
+        ScriptedTransport transport = new ScriptedTransport();
+
+        CompletableFuture<TransportResponse> result = policy.send(transport, request);
+        transport.exchanges.get(0).complete(response("original"));
+
+        assertEquals("original", body(result.get(5, TimeUnit.SECONDS)));
+        Thread.sleep(60);
+        assertEquals(1, transport.exchanges.size());
+        assertEquals(0, policy.getHedges());
+    }
+
+    @Test
+    void failureWaitsForTheOtherCopy() throws Exception {
+        HedgingPolicy policy = fixed(20);
+        ScriptedTransport transport = new ScriptedTransport();
+
+        CompletableFuture<TransportResponse> result = policy.send(transport, request);
+        CompletableFuture<TransportResponse> hedge = transport.awaitExchange(1);
+        transport.exchanges.get(0).completeExceptionally(new IOException("connection reset"));
+        assertFalse(result.isDone());
+
+        hedge.complete(response("hedge"));
+        assertEquals("hedge", body(result.get(5, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    void firstFailureIsReportedWhenBothCopiesFail() throws Exception {
+        HedgingPolicy policy = fixed(20);
+        ScriptedTransport transport = new ScriptedTransport();
+
+        CompletableFuture<TransportResponse> result = policy.send(transport, request);
+        CompletableFuture<TransportResponse> hedge = transport.awaitExchange(1);
+        transport.exchanges.get(0).completeExceptionally(new IOException("first"));
+        hedge.completeExceptionally(new IOException("second"));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertEquals("first", e.getCause().getMessage());
+        assertEquals(0, policy.getHedgeWins());
+    }
+
+    @Test
+    void failureBeforeTheHedgeIsDueIsReportedAtOnce() {
+        HedgingPolicy policy = fixed(10_000);
+        ScriptedTransport transport = new ScriptedTransport();
+
+        CompletableFuture<TransportResponse> result = policy.send(transport, request);
+        transport.exchanges.get(0).completeExceptionally(new IOException("refused"));
+
+        assertTrue(result.isCompletedExceptionally());
+    }
+
+    @Test
+    void losingResponseIsClosed() throws Exception {
+        HedgingPolicy policy = fixed(20);
+        ScriptedTransport transport = new ScriptedTransport();
+        transport.cancellable = false;
+        AtomicBoolean closed = new AtomicBoolean();
+        TransportResponse late = TransportResponse.of(200, NO_HEADERS, new ByteArrayInputStream(new byte[0]) {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        });
+
+        CompletableFuture<TransportResponse> result = policy.send(transport, request);
+        transport.awaitExchange(1).complete(response("hedge"));
+        assertEquals("hedge", body(result.get(5, TimeUnit.SECONDS)));
+
+        transport.exchanges.get(0).complete(late);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void budgetCapsHedges() throws Exception {
+        HedgingPolicy policy = HedgingPolicy.builder()
+                .delay(Duration.ofMillis(10))
+                .budget(RetryBudget.of(0, 1))
+                .build();
+        ScriptedTransport transport = new ScriptedTransport();
+
+        CompletableFuture<TransportResponse> first = policy.send(transport, request);
+        transport.awaitExchange(1).complete(response("hedge"));
+        first.get(5, TimeUnit.SECONDS);
+
+        CompletableFuture<TransportResponse> second = policy.send(transport, request);
+        Thread.sleep(60);
+        assertEquals(3, transport.exchanges.size());
+        transport.exchanges.get(2).complete(response("original"));
+        assertEquals("original", body(second.get(5, TimeUnit.SECONDS)));
+        assertEquals(1, policy.getHedges());
+    }
+
+    @Test
+    void adaptiveDelayFollowsThePercentileOfRecentLatencies() {
+        HedgingPolicy policy = HedgingPolicy.builder().minDelay(Duration.ofMillis(5)).build();
+        for (int i = 1; i < HedgingPolicy.MIN_SAMPLES; i++) {
+            policy.recordLatency(i * MILLI);
+        }
+        assertNull(policy.getCurrentDelay());
+
+        // The percentile is refreshed every 16 samples.
+        for (int i = HedgingPolicy.MIN_SAMPLES; i <= 80; i++) {
+            policy.recordLatency(i * MILLI);
+        }
+        assertEquals(Duration.ofMillis(76), policy.getCurrentDelay());
+
+        // Only the most recent window counts.
+        for (int i = 0; i < HedgingPolicy.LATENCY_WINDOW; i++) {
+            policy.recordLatency(MILLI);
+        }
+        assertEquals(Duration.ofMillis(5), policy.getCurrentDelay());
+    }
+
+    @Test
+    void fixedDelayIgnoresLatencies() {
+        HedgingPolicy policy = fixed(30);
+        for (int i = 0; i < 100; i++) {
+            policy.recordLatency(MILLI);
+        }
+        assertEquals(Duration.ofMillis(30), policy.getCurrentDelay());
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> HedgingPolicy.builder().delay(Duration.ofMillis(-1)).build());
+        assertThrows(IllegalArgumentException.class, () -> HedgingPolicy.builder().percentile(1).build());
+        assertThrows(IllegalArgumentException.class, () -> HedgingPolicy.builder().percentile(0).build());
+        assertThrows(IllegalArgumentException.class, () -> HedgingPolicy.builder().minDelay(null).build());
+    }
+}
@@ -1,11 +1,28 @@
 package com.lettr.core.net;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.lettr.core.exception.CircuitOpenException;
+import com.lettr.core.exception.DeadlineExceededException;
+import com.lettr.core.exception.LettrApiException;
+import com.lettr.core.exception.LettrException;
+import com.lettr.core.exception.LettrValidationException;
+import com.lettr.core.util.Threads;
+import com.lettr.testing.StubServer;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -17,6 +34,857 @@ class HttpClientTest {
         assertNotNull(client);
     }
 
+    @Test
+    void constructorAcceptsOptions() {
+        HttpClient client = new HttpClient("test-key", ClientOptions.builder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .requestTimeout(Duration.ofSeconds(10))
+                .build());
+        assertNotNull(client);
+        client.close();
+    }
+
+    @Test
+    void closeIsIdempotentAndRejectsNewRequests() {
+        HttpClient client = new HttpClient("test-key");
+        assertFalse(client.isClosed());
+        client.close();
+        client.close();
+        assertTrue(client.isClosed());
+        assertThrows(IllegalStateException.class, () -> client.get("/health", null, Object.class));
+    }
+
+    @Test
+    void closeLeavesCallerExecutorRunning() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder().executor(executor).build());
+            client.close();
+            assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void virtualThreadsRequireJava21() throws Exception {
+        if (!Threads.virtualThreadsSupported()) {
+            assertThrows(IllegalArgumentException.class, () -> ClientOptions.builder().virtualThreads(true).build());
+            return;
+        }
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(200, "{\"data\":{\"id\":\"d-1\"}}");
+            try (HttpClient client = new HttpClient("test-key", ClientOptions.builder()
+                    .baseUrl(server.baseUrl())
+                    .virtualThreads(true)
+                    .build())) {
+                assertTrue(client.isVirtualThreads());
+                JsonObject data = client.<JsonObject>getAsync("/domains/d-1", null, JsonObject.class).get(5, TimeUnit.SECONDS);
+                assertEquals("d-1", data.get("id").getAsString());
+            }
+        }
+    }
+
+    @Test
+    void optionsRejectInvalidValues() {
+        assertThrows(IllegalArgumentException.class, () -> ClientOptions.builder().baseUrl("").build());
+        assertThrows(IllegalArgumentException.class, () -> ClientOptions.builder().connectTimeout(Duration.ZERO).build());
+        assertThrows(IllegalArgumentException.class, () -> ClientOptions.builder().requestTimeout(Duration.ofSeconds(-1)).build());
+    }
+
+    @Test
+    void buildUrlUsesConfiguredBaseUrl() throws Exception {
+        HttpClient client = new HttpClient("test-key", ClientOptions.builder().baseUrl("http://localhost:8080/api/").build());
+        Method buildUrl = HttpClient.class.getDeclaredMethod("buildUrl", String.class, Map.class);
+        buildUrl.setAccessible(true);
+
+        assertEquals("http://localhost:8080/api/emails", buildUrl.invoke(client, "/emails", null));
+    }
+
+    @Test
+    void getAsyncUnwrapsDataEnvelope() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(200, "{\"message\":\"ok\",\"data\":{\"status\":\"healthy\"}}");
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder().baseUrl(server.baseUrl()).build());
+
+            Map<?, ?> data = client.<Map<?, ?>>getAsync("/health", null, Map.class).get(5, TimeUnit.SECONDS);
+
+            assertEquals("healthy", data.get("status"));
+            assertEquals("Bearer test-key", server.requests().get(0).headers.get("authorization"));
+            client.close();
+        }
+    }
+
+    @Test
+    void postAsyncSendsJsonBody() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(200, "{\"data\":{}}");
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder().baseUrl(server.baseUrl()).build());
+
+            client.postAsync("/emails", Map.of("from", "a@example.com"), Map.class).get(5, TimeUnit.SECONDS);
+
+            StubServer.RecordedRequest request = server.requests().get(0);
+            assertEquals("POST", request.method);
+            assertEquals("/api/emails", request.uri);
+            assertEquals("{\"from\":\"a@example.com\"}", request.bodyAsString());
+            client.close();
+        }
+    }
+
+    @Test
+    void asyncValidationErrorCompletesExceptionally() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(422, "{\"message\":\"Invalid\",\"errors\":{\"from\":[\"required\"]}}");
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder().baseUrl(server.baseUrl()).build());
+
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> client.postAsync("/emails", Map.of(), Map.class).get(5, TimeUnit.SECONDS));
+
+            LettrValidationException cause = assertInstanceOf(LettrValidationException.class, e.getCause());
+            assertEquals(List.of("required"), cause.getErrors().get("from"));
+            client.close();
+        }
+    }
+
+    @Test
+    void asyncApiErrorCompletesExceptionally() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(404, "{\"message\":\"Not found\",\"error_code\":\"not_found\"}");
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder().baseUrl(server.baseUrl()).build());
+
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> client.deleteAsync("/webhooks/abc").get(5, TimeUnit.SECONDS));
+
+            LettrApiException cause = assertInstanceOf(LettrApiException.class, e.getCause());
+            assertEquals(404, cause.getStatusCode());
+            assertEquals("not_found", cause.getErrorCode());
+            client.close();
+        }
+    }
+
+    @Test
+    void asyncNetworkErrorCompletesWithLettrException() throws Exception {
+        String baseUrl;
+        try (StubServer server = StubServer.start()) {
+            baseUrl = server.baseUrl();
+        }
+        HttpClient client = new HttpClient("test-key", ClientOptions.builder().baseUrl(baseUrl).build());
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> client.getAsync("/health", null, Map.class).get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(LettrException.class, e.getCause());
+        client.close();
+    }
+
+    private static ClientOptions retrying(StubServer server, int maxAttempts) {
+        return ClientOptions.builder()
+                .baseUrl(server.baseUrl())
+                .retryPolicy(RetryPolicy.builder()
+                        .maxAttempts(maxAttempts)
+                        .initialBackoff(Duration.ofMillis(1))
+                        .budget(RetryBudget.unlimited())
+                        .build())
+                .build();
+    }
+
+    @Test
+    void retriesRetryableStatusUntilSuccess() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(503, "{\"message\":\"Unavailable\"}")
+                  .enqueue(new StubServer.Response(429, "{\"message\":\"Slow down\"}").header("Retry-After", "0"))
+                  .enqueue(200, "{\"message\":\"OK\",\"data\":{\"status\":\"ok\"}}");
+            HttpClient client = new HttpClient("test-key", retrying(server, 3));
+
+            Map<?, ?> data = client.get("/health", null, Map.class);
+
+            assertEquals("ok", data.get("status"));
+            assertEquals(3, server.requestCount());
+            client.close();
+        }
+    }
+
+    @Test
+    void reportsLastFailureOnceAttemptsRunOut() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(502, "{\"message\":\"Bad gateway\"}")
+                  .enqueue(503, "{\"message\":\"Unavailable\"}");
+            HttpClient client = new HttpClient("test-key", retrying(server, 2));
+
+            LettrApiException e = assertThrows(LettrApiException.class, () -> client.get("/health", null, Map.class));
+
+            assertEquals(503, e.getStatusCode());
+            assertEquals(2, server.requestCount());
+            client.close();
+        }
+    }
+
+    @Test
+    void doesNotRetryPostWithoutIdempotencyKey() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(503, "{\"message\":\"Unavailable\"}");
+            HttpClient client = new HttpClient("test-key", retrying(server, 3));
+
+            LettrApiException e = assertThrows(LettrApiException.class,
+                    () -> client.post("/emails", Map.of("subject", "Hi"), Map.class));
+
+            assertEquals(503, e.getStatusCode());
+            assertEquals(1, server.requestCount());
+            client.close();
+        }
+    }
+
+    @Test
+    void asyncRetriesRetryableStatus() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(500, "{\"message\":\"Oops\"}")
+                  .enqueue(200, "{\"message\":\"OK\",\"data\":{\"status\":\"ok\"}}");
+            HttpClient client = new HttpClient("test-key", retrying(server, 3));
+
+            Map<?, ?> data = client.<Map<?, ?>>getAsync("/health", null, Map.class).get(5, TimeUnit.SECONDS);
+
+            assertEquals("ok", data.get("status"));
+            assertEquals(2, server.requestCount());
+            client.close();
+        }
+    }
+
+    @Test
+    void retriesNetworkErrorsOfIdempotentRequests() throws Exception {
+        String baseUrl;
+        try (StubServer server = StubServer.start()) {
+            baseUrl = server.baseUrl();
+        }
+        RetryBudget budget = RetryBudget.of(0, 5);
+        HttpClient client = new HttpClient("test-key", ClientOptions.builder()
+                .baseUrl(baseUrl)
+                .retryPolicy(RetryPolicy.builder().initialBackoff(Duration.ofMillis(1)).budget(budget).build())
+                .build());
+
+        assertThrows(LettrException.class, () -> client.get("/health", null, Map.class));
+
+        // Three attempts: two retries paid from the budget.
+        assertEquals(3, budget.available());
+        client.close();
+    }
+
+    @Test
+    void rateLimiterIsChosenByLongestPathPrefix() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(429, "{\"message\":\"Slow down\"}")
+                  .enqueue(429, "{\"message\":\"Slow down\"}");
+            RateLimiter all = RateLimiter.builder().permitsPerSecond(100).build();
+            RateLimiter contacts = RateLimiter.builder().permitsPerSecond(100).build();
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder()
+                    .baseUrl(server.baseUrl())
+                    .retryPolicy(RetryPolicy.none())
+                    .rateLimiter("/", all)
+                    .rateLimiter("/audience/contacts/*", contacts)
+                    .build());
+
+            assertThrows(LettrApiException.class, () -> client.get("/audience/contacts", null, Map.class));
+            assertEquals(50, contacts.getCurrentPermitsPerSecond(), 1e-9);
+            assertEquals(100, all.getCurrentPermitsPerSecond(), 1e-9);
+
+            assertThrows(ExecutionException.class, () -> client.getAsync("/audience/contactsx", null, Map.class)
+                    .get(5, TimeUnit.SECONDS));
+            assertEquals(50, all.getCurrentPermitsPerSecond(), 1e-9);
+            client.close();
+        }
+    }
+
+    @Test
+    void concurrencyLimiterCapsRequestsInFlight() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            for (int i = 0; i < 6; i++) {
+                server.enqueue(new StubServer.Response(200, "{\"data\":{}}").delay(Duration.ofMillis(300)));
+            }
+            ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().initialLimit(2).adaptive(false).build();
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder()
+                    .baseUrl(server.baseUrl())
+                    .concurrencyLimiter(limiter)
+                    .build());
+
+            List<java.util.concurrent.CompletableFuture<Map<?, ?>>> calls = new java.util.ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                calls.add(client.<Map<?, ?>>getAsync("/domains", null, Map.class));
+            }
+            assertEquals(2, limiter.getInFlight());
+            assertEquals(4, limiter.getQueueDepth());
+            Thread.sleep(150);
+            assertEquals(2, server.requestCount());
+
+            for (java.util.concurrent.CompletableFuture<Map<?, ?>> call : calls) {
+                call.get(10, TimeUnit.SECONDS);
+            }
+            assertEquals(6, server.requestCount());
+            assertEquals(0, limiter.getInFlight());
+            assertEquals(0, limiter.getQueueDepth());
+            client.close();
+        }
+    }
+
+    @Test
+    void concurrencyLimiterBacksOffOnTooManyRequests() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(429, "{\"message\":\"Slow down\"}");
+            ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().initialLimit(40).build();
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder()
+                    .baseUrl(server.baseUrl())
+                    .retryPolicy(RetryPolicy.none())
+                    .concurrencyLimiter(limiter)
+                    .build());
+
+            assertThrows(LettrApiException.class, () -> client.get("/domains", null, Map.class));
+            assertEquals(20, limiter.getLimit());
+            assertEquals(0, limiter.getInFlight());
+            client.close();
+        }
+    }
+
+    @Test
+    void transactionalSendsOvertakeQueuedBulkRequests() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            for (int i = 0; i < 4; i++) {
+                server.enqueue(new StubServer.Response(200, "{\"data\":{}}").delay(Duration.ofMillis(100)));
+            }
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder()
+                    .baseUrl(server.baseUrl())
+                    .retryPolicy(RetryPolicy.none())
+                    .concurrencyLimiter(ConcurrencyLimiter.builder().initialLimit(1).adaptive(false).build())
+                    .build());
+
+            List<java.util.concurrent.CompletableFuture<?>> calls = new java.util.ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                calls.add(client.getAsync("/emails/events", null, Map.class));
+            }
+            calls.add(client.postAsync("/emails", Map.of("subject", "Reset your password"), Map.class));
+            for (java.util.concurrent.CompletableFuture<?> call : calls) {
+                call.get(10, TimeUnit.SECONDS);
+            }
+
+            List<StubServer.RecordedRequest> requests = server.requests();
+            assertEquals("GET", requests.get(0).method);
+            assertEquals("POST", requests.get(1).method);
+            client.close();
+        }
+    }
+
+    @Test
+    void priorityOverridesMatchByPathPrefix() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(200, "{\"data\":{}}");
+            ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().initialLimit(1).adaptive(false).build();
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder()
+                    .baseUrl(server.baseUrl())
+                    .concurrencyLimiter(limiter)
+                    .priority("/templates/*", Priority.BULK)
+                    .build());
+
+            java.util.concurrent.CompletableFuture<?> call = client.getAsync("/templates", null, Map.class);
+            assertEquals(1, limiter.getInFlight(Priority.BULK));
+            call.get(10, TimeUnit.SECONDS);
+            client.close();
+        }
+    }
+
+    @Test
+    void slowGetIsHedged() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(new StubServer.Response(200, "{\"data\":{\"copy\":\"original\"}}").delay(Duration.ofSeconds(2)))
+                  .enqueue(200, "{\"data\":{\"copy\":\"hedge\"}}")
+                  .enqueue(new StubServer.Response(200, "{\"data\":{\"copy\":\"original\"}}").delay(Duration.ofSeconds(2)))
+                  .enqueue(200, "{\"data\":{\"copy\":\"hedge\"}}");
+            HedgingPolicy hedging = HedgingPolicy.builder().delay(Duration.ofMillis(50)).build();
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder()
+                    .baseUrl(server.baseUrl())
+                    .hedgingPolicy("/emails", hedging)
+                    .build());
+
+            long start = java.lang.System.nanoTime();
+            Map<?, ?> blocking = client.get("/emails/r-1", null, Map.class);
+            Map<?, ?> async = client.<Map<?, ?>>getAsync("/emails/r-1", null, Map.class).get(5, TimeUnit.SECONDS);
+
+            assertEquals("hedge", blocking.get("copy"));
+            assertEquals("hedge", async.get("copy"));
+            assertTrue(java.lang.System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+            assertEquals(2, hedging.getHedges());
+            assertEquals(2, hedging.getHedgeWins());
+            client.close();
+        }
+    }
+
+    @Test
+    void disabledPolicyOptsALongerPrefixOutOfHedging() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(new StubServer.Response(200, "{\"data\":{\"copy\":\"original\"}}").delay(Duration.ofSeconds(2)))
+                  .enqueue(200, "{\"data\":{\"copy\":\"hedge\"}}")
+                  .enqueue(new StubServer.Response(200, "{\"data\":{\"copy\":\"events\"}}").delay(Duration.ofMillis(200)));
+            HedgingPolicy hedging = HedgingPolicy.builder().delay(Duration.ofMillis(20)).build();
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder()
+                    .baseUrl(server.baseUrl())
+                    .hedgingPolicy("/emails", hedging)
+                    .hedgingPolicy("/emails/events", HedgingPolicy.disabled())
+                    .build());
+
+            Map<?, ?> email = client.get("/emails/r-1", null, Map.class);
+            Map<?, ?> events = client.get("/emails/events", null, Map.class);
+
+            assertEquals("hedge", email.get("copy"));
+            assertEquals("events", events.get("copy"));
+
+            assertEquals(3, server.requestCount());
+            assertEquals(1, hedging.getRequests());
+            assertEquals(1, hedging.getHedges());
+            assertTrue(HedgingPolicy.disabled().isDisabled());
+            assertFalse(hedging.isDisabled());
+            client.close();
+        }
+    }
+
+    @Test
+    void onlyGetsAreHedged() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(new StubServer.Response(200, "{\"data\":{}}").delay(Duration.ofMillis(200)));
+            HedgingPolicy hedging = HedgingPolicy.builder().delay(Duration.ofMillis(20)).build();
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder()
+                    .baseUrl(server.baseUrl())
+                    .hedgingPolicy("/", hedging)
+                    .build());
+
+            client.post("/emails", Map.of("subject", "Hi"), Map.class);
+            assertEquals(1, server.requestCount());
+            assertEquals(0, hedging.getRequests());
+            client.close();
+        }
+    }
+
+    @Test
+    void openCircuitFailsFastWithoutSending() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(503, "{\"message\":\"Unavailable\"}")
+                  .enqueue(503, "{\"message\":\"Unavailable\"}")
+                  .enqueue(200, "{\"data\":{}}");
+            CircuitBreaker breaker = CircuitBreaker.builder().windowSize(2).minimumCalls(2).build();
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder()
+                    .baseUrl(server.baseUrl())
+                    .retryPolicy(RetryPolicy.none())
+                    .circuitBreaker("/audience/*", breaker)
+                    .build());
+
+            assertThrows(LettrApiException.class, () -> client.get("/audience/contacts", null, Map.class));
+            assertThrows(LettrApiException.class, () -> client.get("/audience/lists", null, Map.class));
+            assertEquals(CircuitBreaker.State.OPEN, breaker.getState("/audience"));
+
+            CircuitOpenException e = assertThrows(CircuitOpenException.class,
+                    () -> client.get("/audience/contacts", null, Map.class));
+            assertEquals("/audience", e.getEndpoint());
+            ExecutionException async = assertThrows(ExecutionException.class,
+                    () -> client.getAsync("/audience/contacts", null, Map.class).get(5, TimeUnit.SECONDS));
+            assertInstanceOf(CircuitOpenException.class, async.getCause());
+            assertEquals(2, server.requestCount());
+            assertEquals(2, breaker.getRejectedCalls());
+
+            // Other endpoints are not affected.
+            client.get("/emails", null, Map.class);
+            assertEquals(3, server.requestCount());
+            client.close();
+        }
+    }
+
+    @Test
+    void totalTimeoutStopsRetriesThatCannotFinishInTime() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(503, "{\"message\":\"Unavailable\"}")
+                  .enqueue(503, "{\"message\":\"Unavailable\"}")
+                  .enqueue(200, "{\"data\":{}}");
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder()
+                    .baseUrl(server.baseUrl())
+                    .retryPolicy(RetryPolicy.builder()
+                            .maxAttempts(5)
+                            .initialBackoff(Duration.ofMillis(300))
+                            .multiplier(2)
+                            .jitter(false)
+                            .budget(RetryBudget.unlimited())
+                            .build())
+                    .build());
+            HttpClient bounded = client.withOptions(RequestOptions.builder().totalTimeout(Duration.ofMillis(700)).build());
+
+            // The second backoff, 600 ms, would end past the 700 ms budget: the 503 is returned instead.
+            LettrApiException e = assertThrows(LettrApiException.class, () -> bounded.get("/domains", null, Map.class));
+            assertEquals(503, e.getStatusCode());
+            assertEquals(2, server.requestCount());
+            client.close();
+        }
+    }
+
+    @Test
+    void deadlineCutsTheLastAttemptShort() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(new StubServer.Response(200, "{\"data\":{}}").delay(Duration.ofSeconds(2)))
+                  .enqueue(new StubServer.Response(200, "{\"data\":{}}").delay(Duration.ofSeconds(2)));
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder().baseUrl(server.baseUrl()).build());
+            HttpClient bounded = client.withOptions(RequestOptions.builder()
+                    .deadline(java.time.Instant.now().plusMillis(200))
+                    .build());
+
+            long start = java.lang.System.nanoTime();
+            DeadlineExceededException e = assertThrows(DeadlineExceededException.class,
+                    () -> bounded.get("/domains", null, Map.class));
+            assertInstanceOf(java.net.http.HttpTimeoutException.class, e.getCause());
+            assertTrue(java.lang.System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+
+            // Past the deadline, nothing is sent.
+            ExecutionException late = assertThrows(ExecutionException.class,
+                    () -> bounded.getAsync("/domains", null, Map.class).get(5, TimeUnit.SECONDS));
+            assertInstanceOf(DeadlineExceededException.class, late.getCause());
+            assertEquals(1, server.requestCount());
+
+            ExecutionException async = assertThrows(ExecutionException.class, () -> client
+                    .withOptions(RequestOptions.builder().totalTimeout(Duration.ofMillis(200)).build())
+                    .getAsync("/domains", null, Map.class).get(5, TimeUnit.SECONDS));
+            assertInstanceOf(DeadlineExceededException.class, async.getCause());
+            client.close();
+        }
+    }
+
+    @Test
+    void deadlineCoversTheWaitForASlot() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(new StubServer.Response(200, "{\"data\":{}}").delay(Duration.ofMillis(500)));
+            ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().initialLimit(1).adaptive(false).build();
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder()
+                    .baseUrl(server.baseUrl())
+                    .concurrencyLimiter(limiter)
+                    .build());
+            java.util.concurrent.CompletableFuture<?> holder = client.getAsync("/domains", null, Map.class);
+            HttpClient bounded = client.withOptions(RequestOptions.builder().totalTimeout(Duration.ofMillis(100)).build());
+
+            assertThrows(DeadlineExceededException.class, () -> bounded.get("/domains", null, Map.class));
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> bounded.getAsync("/domains", null, Map.class).get(5, TimeUnit.SECONDS));
+            assertInstanceOf(DeadlineExceededException.class, e.getCause());
+            // The place in line is given up just after the caller is told.
+            long deadline = java.lang.System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (limiter.getQueueDepth() > 0 && java.lang.System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(0, limiter.getQueueDepth());
+
+            holder.get(5, TimeUnit.SECONDS);
+            assertEquals(1, server.requestCount());
+            assertEquals(0, limiter.getInFlight());
+            client.close();
+        }
+    }
+
+    @Test
+    void requestOptionsOverrideRetriesAndSetHeaders() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(503, "{\"message\":\"Unavailable\"}")
+                  .enqueue(200, "{\"data\":{}}");
+            HttpClient client = new HttpClient("test-key", retrying(server, 3));
+            HttpClient view = client.withOptions(RequestOptions.builder()
+                    .retryPolicy(RetryPolicy.none())
+                    .idempotencyKey("send-42")
+                    .header("X-Request-Source", "checkout")
+                    .build())
+                    .withOptions(RequestOptions.builder().header("User-Agent", "checkout/1.0").build());
+
+            assertThrows(LettrApiException.class, () -> view.post("/emails", Map.of("subject", "Hi"), Map.class));
+            assertEquals(1, server.requestCount());
+            StubServer.RecordedRequest sent = server.requests().get(0);
+            assertEquals("send-42", sent.headers.get("idempotency-key"));
+            assertEquals("checkout", sent.headers.get("x-request-source"));
+            assertEquals("checkout/1.0", sent.headers.get("user-agent"));
+            assertEquals("Bearer test-key", sent.headers.get("authorization"));
+
+            // The client itself is unchanged.
+            client.get("/domains", null, Map.class);
+            assertNull(server.requests().get(1).headers.get("idempotency-key"));
+            client.close();
+        }
+    }
+
+    @Test
+    void requestOptionsPriorityOverridesTheEndpointClass() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(200, "{\"data\":{}}");
+            ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().initialLimit(1).adaptive(false).build();
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder()
+                    .baseUrl(server.baseUrl())
+                    .concurrencyLimiter(limiter)
+                    .build());
+
+            java.util.concurrent.CompletableFuture<?> call = client
+                    .withOptions(RequestOptions.builder().priority(Priority.BULK).build())
+                    .postAsync("/emails", Map.of("subject", "Hi"), Map.class);
+            assertEquals(1, limiter.getInFlight(Priority.BULK));
+            call.get(10, TimeUnit.SECONDS);
+            client.close();
+        }
+    }
+
+    @Test
+    void cancellingAnAsyncCallAbortsTheExchangeAndFreesItsSlot() throws Exception {
+        java.util.concurrent.CompletableFuture<TransportResponse> exchange = new java.util.concurrent.CompletableFuture<>();
+        Transport transport = new Transport() {
+            @Override
+            public TransportResponse send(TransportRequest request) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public java.util.concurrent.CompletableFuture<TransportResponse> sendAsync(TransportRequest request) {
+                return exchange;
+            }
+        };
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().initialLimit(1).adaptive(false).build();
+        HttpClient client = new HttpClient("test-key", ClientOptions.builder()
+                .transport(transport)
+                .concurrencyLimiter(limiter)
+                .build());
+        HttpClient view = client.withOptions(RequestOptions.builder().totalTimeout(Duration.ofMinutes(1)).build());
+
+        java.util.concurrent.CompletableFuture<Map<?, ?>> call = view.getAsync("/domains", null, Map.class);
+        assertEquals(1, limiter.getInFlight());
+        call.cancel(true);
+
+        assertTrue(exchange.isCancelled());
+        assertEquals(0, limiter.getInFlight());
+        client.close();
+    }
+
+    @Test
+    void transportThrowingOnAsyncSendGivesUpTheCircuitTrial() throws Exception {
+        java.util.concurrent.atomic.AtomicLong now = new java.util.concurrent.atomic.AtomicLong();
+        java.util.concurrent.atomic.AtomicInteger sends = new java.util.concurrent.atomic.AtomicInteger();
+        Transport transport = new Transport() {
+            @Override
+            public TransportResponse send(TransportRequest request) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public java.util.concurrent.CompletableFuture<TransportResponse> sendAsync(TransportRequest request) {
+                switch (sends.getAndIncrement()) {
+                    case 0:
+                    case 1:
+                        return java.util.concurrent.CompletableFuture.failedFuture(new java.io.IOException("down"));
+                    case 2:
+                        throw new IllegalStateException("transport closed");
+                    default:
+                        return java.util.concurrent.CompletableFuture.completedFuture(TransportResponse.of(200,
+                                java.net.http.HttpHeaders.of(Map.of(), (name, value) -> true),
+                                new ByteArrayInputStream("{\"data\":{}}".getBytes(StandardCharsets.UTF_8))));
+                }
+            }
+        };
+        CircuitBreaker breaker = CircuitBreaker.withClock(CircuitBreaker.builder()
+                .windowSize(2).minimumCalls(2).halfOpenCalls(1), now::get);
+        HttpClient client = new HttpClient("test-key", ClientOptions.builder()
+                .transport(transport)
+                .retryPolicy(RetryPolicy.none())
+                .circuitBreaker("/domains", breaker)
+                .build());
+        for (int i = 0; i < 2; i++) {
+            assertThrows(ExecutionException.class, () -> client.getAsync("/domains", null, Map.class).get(5, TimeUnit.SECONDS));
+        }
+        now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState("/domains"));
+
+        java.util.concurrent.CompletableFuture<Map<?, ?>> thrown = client.getAsync("/domains", null, Map.class);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> thrown.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause().getCause() instanceof IllegalStateException);
+
+        client.<Map<?, ?>>getAsync("/domains", null, Map.class).get(5, TimeUnit.SECONDS);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState("/domains"));
+        client.close();
+    }
+
+    @Test
+    void closingAViewLeavesTheClientOpen() {
+        HttpClient client = new HttpClient("test-key");
+        HttpClient view = client.withOptions(RequestOptions.builder().timeout(Duration.ofSeconds(1)).build());
+
+        view.close();
+        assertFalse(client.isClosed());
+        client.close();
+        assertTrue(view.isClosed());
+        assertThrows(IllegalStateException.class, () -> view.get("/domains", null, Map.class));
+    }
+
+    @Test
+    void emailSendsGetAKeyDerivedFromTheirContent() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            for (int i = 0; i < 5; i++) {
+                server.enqueue(200, "{\"data\":{}}");
+            }
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder()
+                    .baseUrl(server.baseUrl())
+                    .emailIdempotencyKeys(true)
+                    .requestCompression(0)
+                    .build());
+
+            client.post("/emails", Map.of("subject", "Hi"), Map.class);
+            client.post("/emails", Map.of("subject", "Hi"), Map.class);
+            client.post("/emails", Map.of("subject", "Hello"), Map.class);
+            client.post("/templates", Map.of("subject", "Hi"), Map.class);
+            client.withOptions(RequestOptions.builder().idempotencyKey("send-42").build())
+                    .post("/emails", Map.of("subject", "Hi"), Map.class);
+
+            List<StubServer.RecordedRequest> sent = server.requests();
+            String key = sent.get(0).headers.get("idempotency-key");
+            assertTrue(key.startsWith("lettr-"), key);
+            // Derived from the body as written, before it was gzipped.
+            assertEquals("gzip", sent.get(0).headers.get("content-encoding"));
+            assertEquals(key, sent.get(1).headers.get("idempotency-key"));
+            assertFalse(key.equals(sent.get(2).headers.get("idempotency-key")));
+            assertNull(sent.get(3).headers.get("idempotency-key"));
+            assertEquals("send-42", sent.get(4).headers.get("idempotency-key"));
+            client.close();
+        }
+    }
+
+    @Test
+    void emailSendsGetNoDerivedKeyByDefault() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(200, "{\"data\":{}}");
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder().baseUrl(server.baseUrl()).build());
+
+            client.post("/emails", Map.of("subject", "Hi"), Map.class);
+
+            assertNull(server.requests().get(0).headers.get("idempotency-key"));
+            client.close();
+        }
+    }
+
+    @Test
+    void derivedKeyMakesEmailSendsRetryable() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(503, "{\"message\":\"Unavailable\"}")
+                  .enqueue(200, "{\"data\":{\"id\":\"e-1\"}}");
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder()
+                    .baseUrl(server.baseUrl())
+                    .emailIdempotencyKeys(true)
+                    .retryPolicy(RetryPolicy.builder()
+                            .maxAttempts(3)
+                            .initialBackoff(Duration.ofMillis(1))
+                            .budget(RetryBudget.unlimited())
+                            .build())
+                    .build());
+
+            Map<?, ?> data = client.post("/emails", Map.of("subject", "Hi"), Map.class);
+
+            assertEquals("e-1", data.get("id"));
+            assertEquals(2, server.requestCount());
+            client.close();
+        }
+    }
+
+    @Test
+    void idempotencyStoreAnswersRepeatedKeysLocally() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(503, "{\"message\":\"Unavailable\"}")
+                  .enqueue(200, "{\"data\":{\"id\":\"e-1\"}}");
+            MemoryIdempotencyStore store = MemoryIdempotencyStore.of(Duration.ofHours(1), 100);
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder()
+                    .baseUrl(server.baseUrl())
+                    .retryPolicy(RetryPolicy.none())
+                    .emailIdempotencyKeys(true)
+                    .idempotencyStore(store)
+                    .build());
+
+            // Failures are not stored, so the send can be made again.
+            assertThrows(LettrApiException.class, () -> client.post("/emails", Map.of("subject", "Hi"), Map.class));
+            assertEquals(0, store.size());
+            Map<?, ?> first = client.post("/emails", Map.of("subject", "Hi"), Map.class);
+            Map<?, ?> again = client.post("/emails", Map.of("subject", "Hi"), Map.class);
+            Map<?, ?> async = client.<Map<?, ?>>postAsync("/emails", Map.of("subject", "Hi"), Map.class)
+                    .get(5, TimeUnit.SECONDS);
+
+            assertEquals("e-1", first.get("id"));
+            assertEquals(first, again);
+            assertEquals(first, async);
+            assertEquals(2, server.requestCount());
+            assertEquals(1, store.size());
+            client.close();
+        }
+    }
+
+    @Test
+    void idempotencyStoreOnlyAnswersEmailSends() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(200, "{\"data\":{\"id\":\"e-1\"}}")
+                  .enqueue(200, "{\"data\":{\"id\":\"e-1\",\"state\":\"delivered\"}}")
+                  .enqueue(200, "{\"data\":{}}");
+            MemoryIdempotencyStore store = MemoryIdempotencyStore.of(Duration.ofHours(1), 100);
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder()
+                    .baseUrl(server.baseUrl())
+                    .idempotencyStore(store)
+                    .build());
+            HttpClient view = client.withOptions(RequestOptions.builder().idempotencyKey("send-42").build());
+
+            view.post("/emails", Map.of("subject", "Hi"), Map.class);
+            Map<?, ?> email = view.get("/emails/e-1", null, Map.class);
+            view.delete("/emails/scheduled/e-1");
+
+            assertEquals("delivered", email.get("state"));
+            assertEquals(3, server.requestCount());
+            assertEquals(1, store.size());
+            client.close();
+        }
+    }
+
+    @Test
+    void failingIdempotencyStoreDoesNotFailTheCall() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(200, "{\"data\":{\"id\":\"e-1\"}}");
+            IdempotencyStore broken = new IdempotencyStore() {
+                @Override
+                public byte[] get(String key) {
+                    throw new IllegalStateException("disk gone");
+                }
+
+                @Override
+                public void put(String key, byte[] body) {
+                    throw new IllegalStateException("disk gone");
+                }
+            };
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder()
+                    .baseUrl(server.baseUrl())
+                    .idempotencyStore(broken)
+                    .build());
+
+            Map<?, ?> data = client.withOptions(RequestOptions.builder().idempotencyKey("send-1").build())
+                    .post("/emails", Map.of("subject", "Hi"), Map.class);
+
+            assertEquals("e-1", data.get("id"));
+            assertEquals(1, server.requestCount());
+            client.close();
+        }
+    }
+
+    @Test
+    void rateLimiterPrefixesAreNormalized() {
+        assertEquals("", ClientOptions.normalizePrefix("/"));
+        assertEquals("/emails", ClientOptions.normalizePrefix("emails/"));
+        assertEquals("/audience", ClientOptions.normalizePrefix("/audience/*"));
+    }
+
+    @Test
+    void blockingApiErrorMatchesAsync() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(404, "{\"message\":\"Not found\",\"error_code\":\"not_found\"}");
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder().baseUrl(server.baseUrl()).build());
+
+            LettrApiException e = assertThrows(LettrApiException.class, () -> client.get("/webhooks/abc", null, Map.class));
+
+            assertEquals(404, e.getStatusCode());
+            client.close();
+        }
+    }
+
     @Test
     void encodePathSegmentEscapesReservedCharacters() {
         // Reserved path characters must be percent-encoded so callers can safely
@@ -118,4 +986,91 @@ class HttpClientTest {
     void hasDeleteWithParamsMethod() throws Exception {
         assertNotNull(HttpClient.class.getMethod("delete", String.class, Map.class));
     }
+
+    @Test
+    void gzipsRequestBodiesFromTheConfiguredSize() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(200, "{\"data\":{}}").enqueue(200, "{\"data\":{}}");
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder()
+                    .baseUrl(server.baseUrl())
+                    .requestCompression(1024)
+                    .build());
+            StringBuilder html = new StringBuilder();
+            for (int i = 0; i < 500; i++) {
+                html.append("<tr><td>Row ").append(i).append("</td><td>Grüße</td></tr>");
+            }
+            Map<String, String> large = Map.of("html", html.toString());
+
+            client.post("/templates", large, Map.class);
+            client.post("/templates", Map.of("name", "small"), Map.class);
+
+            StubServer.RecordedRequest compressed = server.requests().get(0);
+            assertEquals("gzip", compressed.headers.get("content-encoding"));
+            assertEquals(String.valueOf(compressed.body.length), compressed.headers.get("content-length"));
+            assertTrue(compressed.body.length < client.getGson().toJson(large).length() / 5);
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.body))) {
+                assertEquals(client.getGson().toJson(large), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            StubServer.RecordedRequest plain = server.requests().get(1);
+            assertNull(plain.headers.get("content-encoding"));
+            assertEquals("{\"name\":\"small\"}", plain.bodyAsString());
+            client.close();
+        }
+    }
+
+    @Test
+    void requestBodiesAreNotGzippedByDefault() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(200, "{\"data\":{}}");
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder().baseUrl(server.baseUrl()).build());
+
+            client.post("/templates", Map.of("html", "x".repeat(100_000)), Map.class);
+
+            assertNull(server.requests().get(0).headers.get("content-encoding"));
+            client.close();
+        }
+    }
+
+    @Test
+    void decodesGzippedResponses() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(new StubServer.Response(200, "{\"message\":\"ok\",\"data\":{\"status\":\"healthy\"}}").gzip())
+                  .enqueue(new StubServer.Response(200, "{\"message\":\"ok\",\"data\":{\"status\":\"async\"}}").gzip())
+                  .enqueue(new StubServer.Response(404, "{\"message\":\"Template not found\"}").gzip())
+                  .enqueue(new StubServer.Response(204, "").gzip());
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder().baseUrl(server.baseUrl()).build());
+
+            Map<?, ?> data = client.get("/health", null, Map.class);
+            Map<?, ?> async = client.<Map<?, ?>>getAsync("/health", null, Map.class).get(5, TimeUnit.SECONDS);
+            LettrApiException error = assertThrows(LettrApiException.class, () -> client.get("/templates/x", null, Map.class));
+            client.delete("/templates/y");
+
+            assertEquals("healthy", data.get("status"));
+            assertEquals("async", async.get("status"));
+            assertEquals("Template not found", error.getMessage());
+            assertEquals("gzip", server.requests().get(0).headers.get("accept-encoding"));
+            client.close();
+        }
+    }
+
+    @Test
+    void responseCompressionCanBeTurnedOff() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(200, "{\"data\":{}}");
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder()
+                    .baseUrl(server.baseUrl())
+                    .responseCompression(false)
+                    .build());
+
+            client.get("/health", null, Map.class);
+
+            assertNull(server.requests().get(0).headers.get("accept-encoding"));
+            client.close();
+        }
+    }
+
+    @Test
+    void rejectsNegativeCompressionThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> ClientOptions.builder().requestCompression(-1).build());
+    }
 }
@@ -0,0 +1,11 @@
+package com.lettr.core.net;
+
+import com.lettr.testing.TransportConformanceSuite;
+
+class JdkTransportTest extends TransportConformanceSuite {
+
+    @Override
+    protected Transport createTransport() {
+        return new JdkTransport(java.net.http.HttpClient.newHttpClient(), true);
+    }
+}
@@ -0,0 +1,222 @@
+package com.lettr.core.net;
+
+import com.google.gson.Gson;
+import com.lettr.testing.StubServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonBodyTest {
+
+    private final Gson gson = new HttpClient("test-key").getGson();
+
+    @Test
+    void matchesGsonOutputForEveryKindOfCharacter() throws Exception {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("ascii", "Hello <b>world</b> & \"friends\"");
+        body.put("latin1", "Grüße, café");
+        body.put("cjk", "請求書を添付します");
+        body.put("emoji", "Thanks 🎉👍");
+        body.put("loneSurrogates", "a\uD800b\uDC00c\uD83D");
+        body.put("controls", "tab\tnewline\n\u0001");
+        body.put("number", 42);
+        body.put("nested", Collections.singletonMap("list", new int[] {1, 2, 3}));
+
+        assertBodyEquals(gson.toJson(body), body);
+    }
+
+    @Test
+    void multiByteCharactersStraddleChunkBoundaries() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < JsonBody.CHUNK_SIZE; i++) {
+            text.append(i % 3 == 0 ? "é" : i % 3 == 1 ? "€" : "😀");
+        }
+        Map<String, String> body = Collections.singletonMap("html", text.toString());
+
+        assertBodyEquals(gson.toJson(body), body);
+    }
+
+    @Test
+    void nullBodyIsJsonNull() throws Exception {
+        assertBodyEquals("null", null);
+    }
+
+    @Test
+    void publisherCanBeSubscribedAgain() throws Exception {
+        HttpRequest.BodyPublisher publisher = JsonBody.publisher(gson, Collections.singletonMap("a", "b"));
+        assertArrayEquals(collect(publisher), collect(publisher));
+    }
+
+    @Test
+    void largeBodyReachesTheServerIntact() throws Exception {
+        StringBuilder html = new StringBuilder();
+        while (html.length() < 300_000) {
+            html.append("<p>Příliš žluťoučký kůň 🐴</p>");
+        }
+        Map<String, String> body = Collections.singletonMap("html", html.toString());
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(200, "{\"data\":{}}");
+            HttpClient client = new HttpClient("test-key", ClientOptions.builder().baseUrl(server.baseUrl()).build());
+
+            client.post("/emails", body, Object.class);
+
+            StubServer.RecordedRequest request = server.requests().get(0);
+            assertEquals(gson.toJson(body), request.bodyAsString());
+            assertEquals("application/json", request.headers.get("content-type"));
+            client.close();
+        }
+    }
+
+    @Test
+    void deferredContentIsEncodedWhilePublishing() throws Exception {
+        for (int size : new int[] {0, 1, 2, 3, BinaryContent.Base64Stream.BLOCK - 1,
+                BinaryContent.Base64Stream.BLOCK, BinaryContent.Base64Stream.BLOCK + 1, 100_000}) {
+            byte[] bytes = new byte[size];
+            new Random(size).nextBytes(bytes);
+            Map<String, Object> expected = new LinkedHashMap<>();
+            expected.put("name", "ünïcode.bin");
+            expected.put("data", Base64.getEncoder().encodeToString(bytes));
+            expected.put("after", "✓");
+            Map<String, Object> body = new LinkedHashMap<>(expected);
+
+            body.put("data", BinaryContent.ofBuffer(ByteBuffer.wrap(bytes)));
+            assertBodyEquals(unescaped(expected), body);
+
+            body.put("data", BinaryContent.ofStream(new ByteArrayInputStream(bytes)));
+            HttpRequest.BodyPublisher publisher = JsonBody.publisher(gson, body);
+            assertEquals(-1, publisher.contentLength());
+            assertArrayEquals(unescaped(expected).getBytes(StandardCharsets.UTF_8), collect(publisher));
+        }
+    }
+
+    @Test
+    void fileContentIsReadAgainOnEachSubscription() throws Exception {
+        byte[] bytes = new byte[50_000];
+        new Random(7).nextBytes(bytes);
+        Path file = Files.createTempFile("lettr-body", ".bin");
+        try {
+            Files.write(file, bytes);
+            List<Object> body = Arrays.asList(BinaryContent.ofFile(file), BinaryContent.ofBase64("AAEC"));
+            String expected = unescaped(Arrays.asList(Base64.getEncoder().encodeToString(bytes), "AAEC"));
+
+            HttpRequest.BodyPublisher publisher = JsonBody.publisher(gson, body);
+            assertEquals(expected.length(), publisher.contentLength());
+            assertEquals(expected, new String(collect(publisher), StandardCharsets.UTF_8));
+            assertEquals(expected, new String(collect(publisher), StandardCharsets.UTF_8));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void streamContentCannotBePublishedTwice() throws Exception {
+        HttpRequest.BodyPublisher publisher = JsonBody.publisher(gson,
+                Collections.singletonList(BinaryContent.ofStream(new ByteArrayInputStream(new byte[] {1, 2, 3}))));
+        assertEquals("[\"AQID\"]", new String(collect(publisher), StandardCharsets.UTF_8));
+        assertThrows(ExecutionException.class, () -> collect(publisher));
+    }
+
+    @Test
+    void digestCoversTheBodyAsPublished() throws Exception {
+        byte[] bytes = new byte[50_000];
+        new Random(11).nextBytes(bytes);
+        Path file = Files.createTempFile("lettr-body", ".bin");
+        try {
+            Files.write(file, bytes);
+            JsonBody body = JsonBody.of(gson, Map.of("subject", "Grüße", "attachment", BinaryContent.ofFile(file)));
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            assertTrue(body.digestInto(digest));
+            assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(collect(body.publisher())), digest.digest());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void streamContentIsNotDigested() throws Exception {
+        JsonBody body = JsonBody.of(gson,
+                Collections.singletonList(BinaryContent.ofStream(new ByteArrayInputStream(new byte[] {1, 2, 3}))));
+
+        assertFalse(body.digestInto(MessageDigest.getInstance("SHA-256")));
+        // Nothing was read, so the body can still be sent.
+        assertEquals("[\"AQID\"]", collectString(body.publisher()));
+        assertThrows(IllegalStateException.class,
+                () -> JsonBody.of(gson, Map.of("a", "b")).gzip().digestInto(MessageDigest.getInstance("SHA-256")));
+    }
+
+    @Test
+    void contentOutsideABodyIsWrittenInline() {
+        byte[] bytes = {(byte) 0xFF, 0, 1};
+        assertEquals("\"/wAB\"", gson.toJson(BinaryContent.ofBuffer(ByteBuffer.wrap(bytes))));
+        assertEquals("/wAB", gson.fromJson("\"/wAB\"", BinaryContent.class).toBase64());
+    }
+
+    /**
+     * Deferred content is written verbatim, while Gson's HTML-safe escaping
+     * writes base64 padding as a unicode escape; both are the same JSON string.
+     */
+    private String unescaped(Object value) {
+        return gson.toJson(value).replace("\\u003d", "=");
+    }
+
+    private void assertBodyEquals(String expected, Object body) throws Exception {
+        HttpRequest.BodyPublisher publisher = JsonBody.publisher(gson, body);
+        byte[] bytes = expected.getBytes(StandardCharsets.UTF_8);
+        assertEquals(bytes.length, publisher.contentLength());
+        assertArrayEquals(bytes, collect(publisher));
+    }
+
+    static String collectString(HttpRequest.BodyPublisher publisher) throws Exception {
+        return new String(collect(publisher), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] collect(HttpRequest.BodyPublisher publisher) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CompletableFuture<byte[]> done = new CompletableFuture<>();
+        publisher.subscribe(new Flow.Subscriber<ByteBuffer>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                byte[] chunk = new byte[item.remaining()];
+                item.get(chunk);
+                out.write(chunk, 0, chunk.length);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(out.toByteArray());
+            }
+        });
+        return done.get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,71 @@
+package com.lettr.core.net;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryIdempotencyStoreTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong now = new AtomicLong();
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void entriesExpireAfterTheTtl() {
+        MemoryIdempotencyStore store = MemoryIdempotencyStore.withClock(Duration.ofSeconds(10), 100, now::get);
+        store.put("a", bytes("first"));
+        now.addAndGet(5 * SECOND);
+        store.put("b", bytes("second"));
+
+        now.addAndGet(4 * SECOND);
+        assertArrayEquals(bytes("first"), store.get("a"));
+        now.addAndGet(SECOND);
+        assertNull(store.get("a"));
+        assertArrayEquals(bytes("second"), store.get("b"));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void oldestEntriesAreEvictedBeyondMaxEntries() {
+        MemoryIdempotencyStore store = MemoryIdempotencyStore.withClock(Duration.ofHours(1), 2, now::get);
+        store.put("a", bytes("1"));
+        store.put("b", bytes("2"));
+        store.put("c", bytes("3"));
+
+        assertNull(store.get("a"));
+        assertNotNull(store.get("b"));
+        assertNotNull(store.get("c"));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void replacingAnEntryRenewsIt() {
+        MemoryIdempotencyStore store = MemoryIdempotencyStore.withClock(Duration.ofSeconds(10), 2, now::get);
+        store.put("a", bytes("old"));
+        store.put("b", bytes("2"));
+        now.addAndGet(5 * SECOND);
+        store.put("a", bytes("new"));
+        store.put("c", bytes("3"));
+
+        // "a" moved behind "b", so "b" was the one evicted.
+        assertNull(store.get("b"));
+        now.addAndGet(9 * SECOND);
+        assertArrayEquals(bytes("new"), store.get("a"));
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> MemoryIdempotencyStore.of(null, 10));
+        assertThrows(IllegalArgumentException.class, () -> MemoryIdempotencyStore.of(Duration.ZERO, 10));
+        assertThrows(IllegalArgumentException.class, () -> MemoryIdempotencyStore.of(Duration.ofMinutes(1), 0));
+    }
+}
@@ -0,0 +1,24 @@
+package com.lettr.core.net;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriorityTest {
+
+    @Test
+    void emailSendsAreTransactional() {
+        assertEquals(Priority.TRANSACTIONAL, Priority.classify("POST", "/emails"));
+        assertEquals(Priority.TRANSACTIONAL, Priority.classify("POST", "/emails/scheduled"));
+        assertEquals(Priority.INTERACTIVE, Priority.classify("GET", "/emails"));
+        assertEquals(Priority.INTERACTIVE, Priority.classify("DELETE", "/emails/scheduled/t-1"));
+    }
+
+    @Test
+    void bulkEndpointsAndEventBackfillsAreBulk() {
+        assertEquals(Priority.BULK, Priority.classify("POST", "/audience/contacts/bulk"));
+        assertEquals(Priority.BULK, Priority.classify("DELETE", "/audience/contacts/topics/bulk"));
+        assertEquals(Priority.BULK, Priority.classify("GET", "/emails/events"));
+        assertEquals(Priority.INTERACTIVE, Priority.classify("GET", "/audience/contacts"));
+    }
+}
@@ -0,0 +1,148 @@
+package com.lettr.core.net;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private static final HttpHeaders NO_HEADERS = HttpHeaders.of(Collections.emptyMap(), (name, value) -> true);
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(1_000 * SECOND);
+
+    private RateLimiter limiter(double rate, int burst) {
+        return RateLimiter.withClock(RateLimiter.builder().permitsPerSecond(rate).burst(burst), clock::get);
+    }
+
+    private static HttpHeaders headers(String... nameValues) {
+        Map<String, List<String>> map = new java.util.HashMap<>();
+        for (int i = 0; i < nameValues.length; i += 2) {
+            map.put(nameValues[i], List.of(nameValues[i + 1]));
+        }
+        return HttpHeaders.of(map, (name, value) -> true);
+    }
+
+    @Test
+    void burstIsFreeThenRequestsAreSpaced() {
+        RateLimiter limiter = limiter(10, 3);
+        assertEquals(Duration.ZERO, limiter.reserve());
+        assertEquals(Duration.ZERO, limiter.reserve());
+        assertEquals(Duration.ZERO, limiter.reserve());
+        assertEquals(Duration.ofMillis(100), limiter.reserve());
+        assertEquals(Duration.ofMillis(200), limiter.reserve());
+    }
+
+    @Test
+    void bucketRefillsOverTime() {
+        RateLimiter limiter = limiter(10, 2);
+        limiter.reserve();
+        limiter.reserve();
+        assertEquals(Duration.ofMillis(100), limiter.reserve());
+
+        clock.addAndGet(SECOND);
+
+        assertEquals(Duration.ZERO, limiter.reserve());
+        assertEquals(Duration.ZERO, limiter.reserve());
+        assertEquals(Duration.ofMillis(100), limiter.reserve());
+    }
+
+    @Test
+    void tooManyRequestsHalvesRateOncePerCooldown() {
+        RateLimiter limiter = limiter(100, 1);
+        limiter.onResponse(429, NO_HEADERS);
+        limiter.onResponse(429, NO_HEADERS);
+        assertEquals(50, limiter.getCurrentPermitsPerSecond(), 1e-9);
+
+        clock.addAndGet(SECOND);
+        limiter.onResponse(429, NO_HEADERS);
+        assertEquals(25, limiter.getCurrentPermitsPerSecond(), 1e-9);
+    }
+
+    @Test
+    void rateNeverDropsBelowFloorAndRecoversOnSuccess() {
+        RateLimiter limiter = RateLimiter.withClock(RateLimiter.builder()
+                .permitsPerSecond(100).minPermitsPerSecond(40), clock::get);
+        for (int i = 0; i < 5; i++) {
+            limiter.onResponse(429, NO_HEADERS);
+            clock.addAndGet(SECOND);
+        }
+        assertEquals(40, limiter.getCurrentPermitsPerSecond(), 1e-9);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.onResponse(200, NO_HEADERS);
+        }
+        assertEquals(100, limiter.getCurrentPermitsPerSecond(), 1e-9);
+    }
+
+    @Test
+    void retryAfterHoldsEveryPermitBack() {
+        RateLimiter limiter = limiter(10, 5);
+        limiter.onResponse(429, headers("Retry-After", "2"));
+
+        // The rate halved to 5/s: the first permit waits out the pause, the next one interval more.
+        assertEquals(Duration.ofSeconds(2), limiter.reserve());
+        assertEquals(Duration.ofMillis(2200), limiter.reserve());
+    }
+
+    @Test
+    void exhaustedRemainingPausesUntilReset() {
+        RateLimiter limiter = limiter(10, 1);
+        limiter.onResponse(200, headers("X-RateLimit-Remaining", "0", "X-RateLimit-Reset", "3"));
+        assertEquals(Duration.ofSeconds(3), limiter.reserve());
+
+        RateLimiter standard = limiter(10, 1);
+        standard.onResponse(200, headers("RateLimit-Remaining", "5", "RateLimit-Reset", "3"));
+        assertEquals(Duration.ZERO, standard.reserve());
+    }
+
+    @Test
+    void nonAdaptiveLimiterIgnoresResponses() {
+        RateLimiter limiter = RateLimiter.withClock(RateLimiter.builder()
+                .permitsPerSecond(10).adaptive(false), clock::get);
+        limiter.onResponse(429, headers("Retry-After", "30"));
+
+        assertEquals(10, limiter.getCurrentPermitsPerSecond(), 1e-9);
+        assertEquals(Duration.ZERO, limiter.reserve());
+    }
+
+    @Test
+    void concurrentReservationsAreNeverLostOrDoubled() throws Exception {
+        RateLimiter limiter = limiter(1000, 1);
+        int threads = 16;
+        int perThread = 1000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    limiter.reserve();
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // With the clock frozen, permit n waits exactly (n - 1) intervals.
+        assertEquals(Duration.ofMillis(threads * perThread), limiter.reserve());
+    }
+
+    @Test
+    void builderRejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.builder().build());
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.builder().permitsPerSecond(5).burst(0).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> RateLimiter.builder().permitsPerSecond(5).minPermitsPerSecond(0).build());
+    }
+}
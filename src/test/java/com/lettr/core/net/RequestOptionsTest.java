@@ -0,0 +1,63 @@
+package com.lettr.core.net;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestOptionsTest {
+
+    @Test
+    void defaultsLeaveTheClientSettingsAlone() {
+        RequestOptions options = RequestOptions.builder().build();
+        assertNull(options.getDeadline());
+        assertNull(options.getTotalTimeout());
+        assertNull(options.getTimeout());
+        assertNull(options.getRetryPolicy());
+        assertNull(options.getPriority());
+        assertNull(options.getIdempotencyKey());
+        assertTrue(options.getHeaders().isEmpty());
+    }
+
+    @Test
+    void keepsWhatWasSet() {
+        Instant deadline = Instant.parse("2030-01-01T00:00:00Z");
+        RequestOptions options = RequestOptions.builder()
+                .deadline(deadline)
+                .totalTimeout(Duration.ofSeconds(2))
+                .timeout(Duration.ofMillis(500))
+                .retryPolicy(RetryPolicy.none())
+                .priority(Priority.BULK)
+                .idempotencyKey("order-1")
+                .header("X-Trace", "abc")
+                .build();
+        assertEquals(deadline, options.getDeadline());
+        assertEquals(Duration.ofSeconds(2), options.getTotalTimeout());
+        assertEquals(Duration.ofMillis(500), options.getTimeout());
+        assertEquals(Priority.BULK, options.getPriority());
+        assertEquals("order-1", options.getIdempotencyKey());
+        assertEquals("abc", options.getHeaders().get("x-trace"));
+    }
+
+    @Test
+    void headerNamesIgnoreCase() {
+        RequestOptions options = RequestOptions.builder()
+                .header("idempotency-key", "first")
+                .idempotencyKey("second")
+                .build();
+        assertEquals("second", options.getIdempotencyKey());
+        assertEquals(1, options.getHeaders().size());
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> RequestOptions.builder().timeout(Duration.ZERO).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> RequestOptions.builder().totalTimeout(Duration.ofMillis(-1)).build());
+        assertThrows(IllegalArgumentException.class, () -> RequestOptions.builder().idempotencyKey("").build());
+        assertThrows(IllegalArgumentException.class,
+                () -> RequestOptions.builder().header("authorization", "Bearer other").build());
+    }
+}
@@ -0,0 +1,163 @@
+package com.lettr.core.net;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryPolicyTest {
+
+    private static final HttpHeaders NO_HEADERS = HttpHeaders.of(Collections.emptyMap(), (name, value) -> true);
+
+    private static RetryPolicy fixed() {
+        return RetryPolicy.builder()
+                .initialBackoff(Duration.ofMillis(100))
+                .maxBackoff(Duration.ofMillis(300))
+                .jitter(false)
+                .budget(RetryBudget.unlimited())
+                .maxAttempts(5)
+                .build();
+    }
+
+    private static TransportRequest request(String method, String... headers) {
+        TransportRequest.Builder builder = TransportRequest.builder()
+                .method(method)
+                .uri(URI.create("https://app.lettr.com/api/emails"));
+        for (int i = 0; i < headers.length; i += 2) {
+            builder.header(headers[i], headers[i + 1]);
+        }
+        return builder.build();
+    }
+
+    private static HttpHeaders headers(String name, String value) {
+        return HttpHeaders.of(Map.of(name, List.of(value)), (n, v) -> true);
+    }
+
+    @Test
+    void backoffGrowsExponentiallyUpToCap() {
+        RetryPolicy policy = fixed();
+        assertEquals(Duration.ofMillis(100), policy.backoff(1));
+        assertEquals(Duration.ofMillis(200), policy.backoff(2));
+        assertEquals(Duration.ofMillis(300), policy.backoff(3));
+        assertEquals(Duration.ofMillis(300), policy.backoff(10));
+    }
+
+    @Test
+    void jitterStaysWithinCeiling() {
+        RetryPolicy policy = RetryPolicy.builder().initialBackoff(Duration.ofMillis(100)).build();
+        for (int i = 0; i < 100; i++) {
+            long millis = policy.backoff(2).toMillis();
+            assertTrue(millis >= 0 && millis <= 200, "got " + millis);
+        }
+    }
+
+    @Test
+    void idempotentMethodsRetryOnRetryableStatus() {
+        RetryPolicy policy = fixed();
+        assertEquals(Duration.ofMillis(100), policy.retryDelay(request("GET"), 1, 503, NO_HEADERS));
+        assertEquals(Duration.ofMillis(200), policy.retryDelay(request("DELETE"), 2, 429, NO_HEADERS));
+        assertNull(policy.retryDelay(request("GET"), 1, 404, NO_HEADERS));
+        assertNull(policy.retryDelay(request("GET"), 1, 200, NO_HEADERS));
+    }
+
+    @Test
+    void retryThatCannotFinishInTimeIsNotMade() {
+        RetryPolicy policy = RetryPolicy.builder()
+                .initialBackoff(Duration.ofMillis(100))
+                .jitter(false)
+                .budget(RetryBudget.of(0, 1))
+                .build();
+        assertNull(policy.retryDelay(request("GET"), 1, 503, NO_HEADERS, Duration.ofMillis(100)));
+        assertNull(policy.retryDelay(request("GET"), 1, new IOException("reset"), Duration.ofMillis(50)));
+        // Neither spent the budget's only token.
+        assertEquals(Duration.ofMillis(100), policy.retryDelay(request("GET"), 1, 503, NO_HEADERS, Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void postIsRetriedOnlyWithIdempotencyKey() {
+        RetryPolicy policy = fixed();
+        assertNull(policy.retryDelay(request("POST"), 1, 503, NO_HEADERS));
+        assertNull(policy.retryDelay(request("POST"), 1, new IOException("reset")));
+
+        TransportRequest keyed = request("POST", RetryPolicy.IDEMPOTENCY_KEY_HEADER, "k-1");
+        assertNotNull(policy.retryDelay(keyed, 1, 503, NO_HEADERS));
+        assertNotNull(policy.retryDelay(keyed, 1, new IOException("reset")));
+    }
+
+    @Test
+    void stopsAtMaxAttempts() {
+        RetryPolicy policy = RetryPolicy.builder().maxAttempts(2).budget(RetryBudget.unlimited()).build();
+        assertNotNull(policy.retryDelay(request("GET"), 1, 500, NO_HEADERS));
+        assertNull(policy.retryDelay(request("GET"), 2, 500, NO_HEADERS));
+        assertNull(RetryPolicy.none().retryDelay(request("GET"), 1, 500, NO_HEADERS));
+    }
+
+    @Test
+    void retryAfterReplacesBackoff() {
+        RetryPolicy policy = fixed();
+        assertEquals(Duration.ofSeconds(2), policy.retryDelay(request("GET"), 1, 429, headers("Retry-After", "2")));
+        // Unparseable values fall back to the computed backoff.
+        assertEquals(Duration.ofMillis(100), policy.retryDelay(request("GET"), 1, 429, headers("Retry-After", "soon")));
+    }
+
+    @Test
+    void retryAfterBeyondLimitIsNotWaitedOut() {
+        RetryPolicy policy = RetryPolicy.builder().maxRetryAfter(Duration.ofSeconds(5)).build();
+        assertNull(policy.retryDelay(request("GET"), 1, 503, headers("Retry-After", "120")));
+    }
+
+    @Test
+    void parsesRetryAfterSecondsAndDates() {
+        assertEquals(Duration.ofSeconds(30), RetryPolicy.parseRetryAfter(" 30 "));
+        assertNull(RetryPolicy.parseRetryAfter("-1"));
+        assertNull(RetryPolicy.parseRetryAfter("later"));
+
+        String future = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(90));
+        Duration delay = RetryPolicy.parseRetryAfter(future);
+        assertTrue(delay.getSeconds() > 80 && delay.getSeconds() <= 90, "got " + delay);
+
+        String past = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).minusSeconds(90));
+        assertEquals(Duration.ZERO, RetryPolicy.parseRetryAfter(past));
+    }
+
+    @Test
+    void budgetLimitsRetries() {
+        RetryPolicy policy = RetryPolicy.builder().budget(RetryBudget.of(0.5, 1)).build();
+        assertNotNull(policy.retryDelay(request("GET"), 1, 503, NO_HEADERS));
+        // The reserve is spent; the first attempt of this request deposits half a token.
+        assertNull(policy.retryDelay(request("GET"), 1, 503, NO_HEADERS));
+        // A second request tops the balance back up to a whole retry.
+        assertNotNull(policy.retryDelay(request("GET"), 1, 503, NO_HEADERS));
+    }
+
+    @Test
+    void budgetBalanceIsCappedAtReserve() {
+        RetryBudget budget = RetryBudget.of(1, 2);
+        for (int i = 0; i < 10; i++) {
+            budget.onRequest();
+        }
+        assertEquals(2, budget.available());
+        assertTrue(budget.tryAcquire());
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+    }
+
+    @Test
+    void builderRejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> RetryPolicy.builder().maxAttempts(0).build());
+        assertThrows(IllegalArgumentException.class, () -> RetryPolicy.builder().multiplier(0.5).build());
+        assertThrows(IllegalArgumentException.class, () -> RetryPolicy.builder().initialBackoff(Duration.ofMillis(-1)).build());
+        assertThrows(IllegalArgumentException.class, () -> RetryBudget.of(1.5, 10));
+        assertThrows(IllegalArgumentException.class, () -> RetryBudget.of(0.1, -1));
+    }
+}
@@ -0,0 +1,111 @@
+package com.lettr.core.net;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransportRequestTest {
+
+    private static TransportRequest.Builder post() {
+        return TransportRequest.builder().method("POST").uri(URI.create("https://app.lettr.com/api/emails"));
+    }
+
+    @Test
+    void headersAreMatchedIgnoringCase() {
+        TransportRequest request = post()
+                .header("Idempotency-Key", "k-1")
+                .header("accept", "application/json")
+                .header("ACCEPT", "text/plain")
+                .build();
+
+        assertEquals("k-1", request.getHeaders().firstValue("idempotency-key").orElse(null));
+        assertEquals(List.of("application/json", "text/plain"), request.getHeaders().allValues("Accept"));
+    }
+
+    @Test
+    void rejectsMissingMethodOrUriAndNonPositiveTimeout() {
+        assertThrows(IllegalArgumentException.class, () -> TransportRequest.builder().uri(URI.create("https://x")).build());
+        assertThrows(IllegalArgumentException.class, () -> TransportRequest.builder().method("GET").build());
+        assertThrows(IllegalArgumentException.class, () -> post().timeout(java.time.Duration.ZERO).build());
+    }
+
+    @Test
+    void writesBodyOnEveryCall() throws IOException {
+        List<byte[]> chunks = Arrays.asList("{\"a\":".getBytes(StandardCharsets.UTF_8), "1}".getBytes(StandardCharsets.UTF_8));
+        TransportRequest request = post().body(HttpRequest.BodyPublishers.ofByteArrays(chunks)).build();
+
+        for (int i = 0; i < 2; i++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            request.writeBodyTo(out);
+            assertEquals("{\"a\":1}", out.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void writesDirectBuffersFromAnotherThread() throws IOException {
+        byte[] payload = new byte[100_000];
+        Arrays.fill(payload, (byte) 'x');
+        Flow.Publisher<ByteBuffer> publisher = subscriber -> {
+            SubmissionPublisher<ByteBuffer> async = new SubmissionPublisher<>();
+            async.subscribe(subscriber);
+            for (int offset = 0; offset < payload.length; offset += 30_000) {
+                ByteBuffer direct = ByteBuffer.allocateDirect(Math.min(30_000, payload.length - offset));
+                direct.put(payload, offset, direct.capacity()).flip();
+                async.submit(direct);
+            }
+            async.close();
+        };
+        TransportRequest request = post().body(HttpRequest.BodyPublishers.fromPublisher(publisher)).build();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        request.writeBodyTo(out);
+
+        assertArrayEquals(payload, out.toByteArray());
+    }
+
+    @Test
+    void cancelsTheBodyWhenWritingFails() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Flow.Publisher<ByteBuffer> endless = subscriber -> subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                subscriber.onNext(ByteBuffer.wrap(new byte[16]));
+            }
+
+            @Override
+            public void cancel() {
+                cancelled.set(true);
+            }
+        });
+        TransportRequest request = post().body(HttpRequest.BodyPublishers.fromPublisher(endless)).build();
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("connection reset");
+            }
+        };
+
+        assertThrows(IOException.class, () -> request.writeBodyTo(broken));
+        assertTrue(cancelled.get());
+    }
+
+    @Test
+    void writesNothingWithoutBody() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TransportRequest.builder().method("GET").uri(URI.create("https://app.lettr.com/api/emails")).build().writeBodyTo(out);
+        assertEquals(0, out.size());
+    }
+}
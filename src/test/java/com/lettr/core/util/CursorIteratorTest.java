@@ -0,0 +1,128 @@
+package com.lettr.core.util;
+
+import com.lettr.core.exception.LettrApiException;
+import com.lettr.core.exception.UncheckedLettrException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorIteratorTest {
+
+    // cursor -> page; null is the first page
+    private static final Map<String, CursorIterator.Page<String>> PAGES = Map.of(
+            "", new CursorIterator.Page<>(Arrays.asList("a", "b"), "p2"),
+            "p2", new CursorIterator.Page<>(Collections.emptyList(), "p3"),
+            "p3", new CursorIterator.Page<>(Arrays.asList("c"), null));
+
+    @Test
+    void walksEveryPageSkippingEmptyOnes() {
+        List<String> requested = new ArrayList<>();
+        CursorIterator<String> it = CursorIterator.of(null, cursor -> {
+            requested.add(cursor);
+            return PAGES.get(cursor == null ? "" : cursor);
+        });
+
+        assertEquals(Arrays.asList("a", "b", "c"), it.stream().collect(Collectors.toList()));
+        assertEquals(Arrays.asList(null, "p2", "p3"), requested);
+        assertFalse(it.hasNext());
+        assertThrows(NoSuchElementException.class, it::next);
+    }
+
+    @Test
+    void fetchesNextPageOnlyWhenCurrentIsDrained() {
+        List<String> requested = new ArrayList<>();
+        CursorIterator<String> it = CursorIterator.of(null, cursor -> {
+            requested.add(cursor);
+            return PAGES.get(cursor == null ? "" : cursor);
+        });
+
+        assertEquals(0, requested.size());
+        assertEquals("a", it.next());
+        assertEquals("b", it.next());
+        assertEquals(1, requested.size());
+        assertEquals("c", it.next());
+        assertEquals(3, requested.size());
+    }
+
+    @Test
+    void startsAtGivenCursor() {
+        CursorIterator<String> it = CursorIterator.of("p3", cursor -> PAGES.get(cursor));
+        assertEquals(Collections.singletonList("c"), it.stream().collect(Collectors.toList()));
+    }
+
+    @Test
+    void prefetchingRequestsNextPageAsSoonAsOneArrives() {
+        List<String> requested = new ArrayList<>();
+        CursorIterator<String> it = CursorIterator.prefetching(null, cursor -> {
+            requested.add(cursor);
+            return CompletableFuture.completedFuture(PAGES.get(cursor == null ? "" : cursor));
+        });
+
+        assertEquals("a", it.next());
+        assertEquals(Arrays.asList(null, "p2"), requested);
+        assertEquals(Arrays.asList("b", "c"), it.stream().collect(Collectors.toList()));
+    }
+
+    @Test
+    void closeCancelsPrefetch() {
+        CompletableFuture<CursorIterator.Page<String>> pending = new CompletableFuture<>();
+        CursorIterator<String> it = CursorIterator.prefetching(null, cursor -> cursor == null
+                ? CompletableFuture.completedFuture(PAGES.get(""))
+                : pending);
+
+        assertEquals("a", it.next());
+        it.close();
+
+        assertTrue(pending.isCancelled());
+        assertFalse(it.hasNext());
+    }
+
+    @Test
+    void stopsWhenAPagePointsBackToItself() {
+        List<String> requested = new ArrayList<>();
+        CursorIterator<String> it = CursorIterator.of("p2", cursor -> {
+            requested.add(cursor);
+            return new CursorIterator.Page<>(Collections.singletonList("x"), "p2");
+        });
+
+        assertEquals("x", it.next());
+        assertThrows(UncheckedLettrException.class, it::hasNext);
+        assertFalse(it.hasNext());
+        assertEquals(Collections.singletonList("p2"), requested);
+
+        CursorIterator<String> empty = CursorIterator.prefetching("p2",
+                cursor -> CompletableFuture.completedFuture(new CursorIterator.Page<>(null, "p2")));
+        assertThrows(UncheckedLettrException.class, empty::hasNext);
+    }
+
+    @Test
+    void fetchFailureIsUnchecked() {
+        CursorIterator<String> it = CursorIterator.of(null, cursor -> {
+            throw new LettrApiException("boom", 500, null);
+        });
+
+        UncheckedLettrException e = assertThrows(UncheckedLettrException.class, it::hasNext);
+        assertEquals(500, ((LettrApiException) e.getCause()).getStatusCode());
+    }
+
+    @Test
+    void asyncFetchFailureIsUnchecked() {
+        CursorIterator<String> it = CursorIterator.prefetching(null, cursor -> {
+            CompletableFuture<CursorIterator.Page<String>> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new LettrApiException("boom", 503, null));
+            return failed;
+        });
+
+        UncheckedLettrException e = assertThrows(UncheckedLettrException.class, it::next);
+        assertInstanceOf(LettrApiException.class, e.getCause());
+    }
+}
@@ -0,0 +1,76 @@
+package com.lettr.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs against whichever Threads the JVM loads: the Java 11 version from the
+// classes directory, or the Java 21 one from the multi-release JAR.
+class ThreadsTest {
+
+    @Test
+    void platformThreadsAreNumberedDaemons() {
+        ThreadFactory factory = Threads.factory("lettr-test-", false);
+
+        Thread first = factory.newThread(() -> {});
+        Thread second = factory.newThread(() -> {});
+
+        assertEquals("lettr-test-1", first.getName());
+        assertEquals("lettr-test-2", second.getName());
+        assertTrue(first.isDaemon());
+        assertFalse(isVirtual(first));
+    }
+
+    @Test
+    void virtualThreadsMatchTheRuntime() {
+        if (Threads.virtualThreadsSupported()) {
+            Thread thread = Threads.factory("lettr-test-", true).newThread(() -> {});
+            assertTrue(isVirtual(thread));
+            assertEquals("lettr-test-1", thread.getName());
+        } else {
+            assertThrows(UnsupportedOperationException.class, () -> Threads.factory("lettr-test-", true));
+        }
+    }
+
+    @Test
+    void multiReleaseJarLoadsTheLayerForTheRuntime() {
+        // A classes directory only ever has the Java 11 version.
+        if (!Threads.class.getProtectionDomain().getCodeSource().getLocation().getPath().endsWith(".jar")) {
+            return;
+        }
+        assertEquals(Runtime.version().feature() >= 21, Threads.virtualThreadsSupported());
+    }
+
+    @Test
+    void executorRunsTasksOnItsThreads() throws Exception {
+        for (boolean virtual : new boolean[]{false, true}) {
+            if (virtual && !Threads.virtualThreadsSupported()) {
+                continue;
+            }
+            ExecutorService executor = Threads.newExecutor("lettr-exec-", virtual);
+            try {
+                Future<Thread> ran = executor.submit(Thread::currentThread);
+                Thread thread = ran.get(5, TimeUnit.SECONDS);
+                assertTrue(thread.getName().startsWith("lettr-exec-"));
+                assertEquals(virtual, isVirtual(thread));
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+
+    static boolean isVirtual(Thread thread) {
+        try {
+            return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        } catch (NoSuchMethodException e) {
+            return false;
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
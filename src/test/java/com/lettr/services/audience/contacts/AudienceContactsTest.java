@@ -5,13 +5,18 @@ import com.google.gson.GsonBuilder;
 import com.lettr.core.exception.ContactAlreadyExistsException;
 import com.lettr.core.exception.LettrApiException;
 import com.lettr.core.exception.LettrException;
+import com.lettr.core.net.ClientOptions;
+import com.lettr.core.net.HttpClient;
 import com.lettr.services.audience.contacts.model.*;
+import com.lettr.testing.StubServer;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -377,4 +382,29 @@ class AudienceContactsTest {
         assertThrows(IllegalArgumentException.class, () -> svc.bulkSubscribeToTopics(null));
         assertThrows(IllegalArgumentException.class, () -> svc.bulkUnsubscribeFromTopics(null));
     }
+
+    @Test
+    void asyncServiceArgumentValidation() {
+        AudienceContactsAsync svc = new AudienceContactsAsync(new HttpClient("test-key"));
+        assertThrows(IllegalArgumentException.class, () -> svc.get(""));
+        assertThrows(IllegalArgumentException.class, () -> svc.create(null));
+        assertThrows(IllegalArgumentException.class, () -> svc.bulkCreate(null));
+        assertThrows(IllegalArgumentException.class, () -> svc.attachToList("c1", ""));
+    }
+
+    @Test
+    void asyncCreateMapsDuplicateToContactAlreadyExists() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(409, "{\"message\":\"Contact already exists\",\"error_code\":\"resource_already_exists\"}");
+            HttpClient httpClient = new HttpClient("test-key", ClientOptions.builder().baseUrl(server.baseUrl()).build());
+            AudienceContactsAsync svc = new AudienceContactsAsync(httpClient);
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> svc.create(
+                    CreateAudienceContactOptions.builder().email("dup@example.com").build()).get(5, TimeUnit.SECONDS));
+
+            ContactAlreadyExistsException cause = assertInstanceOf(ContactAlreadyExistsException.class, e.getCause());
+            assertEquals("dup@example.com", cause.getEmail());
+            httpClient.close();
+        }
+    }
 }
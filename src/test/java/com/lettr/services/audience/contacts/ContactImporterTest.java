@@ -0,0 +1,174 @@
+package com.lettr.services.audience.contacts;
+
+import com.google.gson.Gson;
+import com.lettr.core.exception.LettrApiException;
+import com.lettr.core.exception.LettrException;
+import com.lettr.services.audience.contacts.model.BulkAudienceContactRow;
+import com.lettr.services.audience.contacts.model.BulkCreateAudienceContactsOptions;
+import com.lettr.services.audience.contacts.model.BulkCreateAudienceContactsResponse;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactImporterTest {
+
+    /**
+     * Records each bulk create. Every chunk reports one created contact per row
+     * except row 0 of the chunk, which is skipped as invalid; chunks starting
+     * with {@code failOn} fail outright.
+     */
+    private static final class FakeContacts extends AudienceContacts {
+        final List<BulkCreateAudienceContactsOptions> calls = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        volatile String failOn;
+        volatile long delayMillis;
+
+        FakeContacts() {
+            super("test-key");
+        }
+
+        @Override
+        public BulkCreateAudienceContactsResponse bulkCreate(BulkCreateAudienceContactsOptions options) throws LettrException {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                if (delayMillis > 0) {
+                    Thread.sleep(delayMillis);
+                }
+                String first = options.getContacts().get(0).getEmail();
+                if (first.equals(failOn)) {
+                    throw new LettrApiException("Server error", 500, null);
+                }
+                calls.add(options);
+                int size = options.getContacts().size();
+                return new Gson().fromJson("{\"created\":" + (size - 1) + ",\"already_existed\":0,\"updated\":0,"
+                        + "\"error_count\":1,\"errors\":[{\"index\":0,\"email\":\"" + first + "\","
+                        + "\"error_code\":\"invalid_email\",\"error\":\"bad\"}]}",
+                        BulkCreateAudienceContactsResponse.class);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private static Stream<BulkAudienceContactRow> rows(int count) {
+        return IntStream.range(0, count).mapToObj(i -> BulkAudienceContactRow.of("user" + i + "@example.com"));
+    }
+
+    @Test
+    void splitsIntoChunksAndMergesReports() throws Exception {
+        FakeContacts contacts = new FakeContacts();
+        ContactImporter importer = ContactImporter.builder(contacts).chunkSize(1000).parallelism(3).build();
+
+        ContactImportReport report = importer.importRows(rows(2500));
+
+        assertEquals(3, contacts.calls.size());
+        assertEquals(2500, contacts.calls.stream().mapToInt(c -> c.getContacts().size()).sum());
+        assertEquals(2500, report.getRows());
+        assertEquals(3, report.getChunks());
+        assertEquals(2497, report.getCreated());
+        assertEquals(3, report.getErrorCount());
+        assertTrue(report.hasErrors());
+        assertEquals(List.of(0L, 1000L, 2000L),
+                report.getErrors().stream().map(ContactImportReport.RowError::getRow).collect(Collectors.toList()));
+        assertEquals("user1000@example.com", report.getErrors().get(1).getError().getEmail());
+    }
+
+    @Test
+    void uploadsChunksConcurrentlyUpToParallelism() throws Exception {
+        FakeContacts contacts = new FakeContacts();
+        contacts.delayMillis = 30;
+        ContactImporter importer = ContactImporter.builder(contacts).chunkSize(10).parallelism(4).build();
+
+        ContactImportReport report = importer.importRows(rows(200).iterator());
+
+        assertEquals(20, report.getChunks());
+        assertEquals(4, contacts.maxInFlight.get());
+    }
+
+    @Test
+    void sendsBatchWideSettingsWithEveryChunk() throws Exception {
+        FakeContacts contacts = new FakeContacts();
+        ContactImporter importer = ContactImporter.builder(contacts)
+                .chunkSize(2)
+                .listIds(List.of("01h-everyone"))
+                .updateExisting(true)
+                .build();
+
+        importer.importRows(rows(3));
+
+        assertEquals(2, contacts.calls.size());
+        for (BulkCreateAudienceContactsOptions call : contacts.calls) {
+            assertEquals(List.of("01h-everyone"), call.getListIds());
+            assertTrue(call.isUpdateExisting());
+        }
+    }
+
+    @Test
+    void failedChunkStopsImportAndResumesFromCheckpoint() throws Exception {
+        Path dir = Files.createTempDirectory("lettr-import");
+        Path checkpoint = dir.resolve("import.checkpoint");
+        FakeContacts contacts = new FakeContacts();
+        contacts.failOn = "user20@example.com";
+        ContactImporter importer = ContactImporter.builder(contacts)
+                .chunkSize(10).parallelism(1).checkpoint(checkpoint).build();
+
+        ContactImportException e = assertThrows(ContactImportException.class, () -> importer.importRows(rows(50)));
+
+        assertEquals(20, e.getFailedRow());
+        assertEquals(500, assertInstanceOf(LettrApiException.class, e.getCause()).getStatusCode());
+        assertEquals(20, e.getReport().getRows());
+        assertTrue(Files.exists(checkpoint));
+        // The checkpoint keeps the counters; skipped rows are appended next to it.
+        assertFalse(Files.readString(checkpoint).contains("\"errors\""));
+        Path errorLog = dir.resolve("import.checkpoint.errors");
+        assertEquals(e.getReport().getErrors().size(), Files.readAllLines(errorLog).size());
+
+        contacts.failOn = null;
+        contacts.calls.clear();
+        ContactImportReport report = importer.importRows(rows(50));
+
+        assertEquals(20, report.getResumedFrom());
+        assertEquals(3, contacts.calls.size());
+        assertEquals("user20@example.com", contacts.calls.get(0).getContacts().get(0).getEmail());
+        assertEquals(50, report.getRows());
+        assertEquals(5, report.getChunks());
+        assertEquals(45, report.getCreated());
+        assertEquals(5, report.getErrors().size());
+        assertEquals(40, report.getErrors().get(4).getRow());
+        assertFalse(Files.exists(checkpoint));
+        assertFalse(Files.exists(errorLog));
+        Files.delete(dir);
+    }
+
+    @Test
+    void emptyInputMakesNoRequests() throws Exception {
+        FakeContacts contacts = new FakeContacts();
+        ContactImportReport report = ContactImporter.builder(contacts).build().importRows(rows(0));
+
+        assertEquals(0, report.getRows());
+        assertFalse(report.hasErrors());
+        assertTrue(contacts.calls.isEmpty());
+    }
+
+    @Test
+    void builderRejectsInvalidSettings() {
+        AudienceContacts contacts = new AudienceContacts("test-key");
+        assertThrows(IllegalArgumentException.class, () -> ContactImporter.builder(null));
+        assertThrows(IllegalArgumentException.class, () -> ContactImporter.builder(contacts).chunkSize(0).build());
+        assertThrows(IllegalArgumentException.class, () -> ContactImporter.builder(contacts).chunkSize(1001).build());
+        assertThrows(IllegalArgumentException.class, () -> ContactImporter.builder(contacts).parallelism(0).build());
+    }
+}
@@ -0,0 +1,201 @@
+package com.lettr.services.audience.contacts;
+
+import com.google.gson.Gson;
+import com.lettr.services.audience.contacts.model.AudienceTopicSubscriptionState;
+import com.lettr.services.audience.contacts.model.BulkAudienceContactRow;
+import com.lettr.services.audience.contacts.model.BulkCreateAudienceContactsOptions;
+import com.lettr.services.audience.contacts.model.BulkCreateAudienceContactsResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactRowReaderTest {
+
+    private static List<BulkAudienceContactRow> readAll(ContactRowReader reader) throws IOException {
+        List<BulkAudienceContactRow> rows = new ArrayList<>();
+        try (reader) {
+            reader.forEachRemaining(rows::add);
+        }
+        return rows;
+    }
+
+    private static ContactRowReader csv(String text) throws IOException {
+        return ContactRowReader.csv(new StringReader(text), CsvOptions.defaults());
+    }
+
+    @Test
+    void csvMapsHeaderToEmailPropertiesAndListIds() throws Exception {
+        List<BulkAudienceContactRow> rows = readAll(csv(
+                "Email,first_name,plan,list_ids\n"
+                        + "ada@example.com,Ada,pro,01h-a;01h-b\n"
+                        + "bob@example.com,Bob,,\n"));
+
+        assertEquals(2, rows.size());
+        assertEquals("ada@example.com", rows.get(0).getEmail());
+        assertEquals(Map.of("first_name", "Ada", "plan", "pro"), rows.get(0).getProperties());
+        assertEquals(List.of("01h-a", "01h-b"), rows.get(0).getListIds());
+        // Empty cells are left out rather than sent as blanks.
+        assertEquals(Map.of("first_name", "Bob"), rows.get(1).getProperties());
+        assertNull(rows.get(1).getListIds());
+    }
+
+    @Test
+    void csvHandlesQuotingAndLineEndings() throws Exception {
+        List<BulkAudienceContactRow> rows = readAll(csv(
+                "\uFEFFemail,company,note\r\n"
+                        + "\"ada@example.com\",\"Acme, Inc.\",\"said \"\"hi\"\"\r\non two lines\"\r\n"
+                        + "\n"
+                        + "bob@example.com,Initech,last"));
+
+        assertEquals(2, rows.size());
+        assertEquals("Acme, Inc.", rows.get(0).getProperties().get("company"));
+        assertEquals("said \"hi\"\r\non two lines", rows.get(0).getProperties().get("note"));
+        assertEquals("last", rows.get(1).getProperties().get("note"));
+    }
+
+    @Test
+    void csvSkipsRowsWithoutEmail() throws Exception {
+        ContactRowReader reader = csv("email,name\n,Nobody\n  ,Blank\nada@example.com,Ada\n");
+
+        List<BulkAudienceContactRow> rows = readAll(reader);
+
+        assertEquals(1, rows.size());
+        assertEquals(2, reader.getSkippedRows());
+    }
+
+    @Test
+    void csvHonoursCustomOptions() throws Exception {
+        CsvOptions options = CsvOptions.builder()
+                .delimiter('\t')
+                .emailColumn("E-Mail")
+                .listIdsColumn("lists")
+                .listIdSeparator('|')
+                .propertyColumns(List.of("Plan"))
+                .build();
+
+        List<BulkAudienceContactRow> rows = readAll(ContactRowReader.csv(new StringReader(
+                "e-mail\tplan\tignored\tlists\nada@example.com\tpro\tx\tl1|l2\n"), options));
+
+        assertEquals(Map.of("plan", "pro"), rows.get(0).getProperties());
+        assertEquals(List.of("l1", "l2"), rows.get(0).getListIds());
+    }
+
+    @Test
+    void csvReportsMissingEmailColumnAndUnterminatedQuote() {
+        IOException header = assertThrows(IOException.class, () -> csv("name,plan\nAda,pro\n"));
+        assertTrue(header.getMessage().contains("'email'"));
+        assertThrows(IOException.class, () -> csv(""));
+
+        boolean[] closed = {false};
+        StringReader source = new StringReader("name,plan\n") {
+            @Override
+            public void close() {
+                closed[0] = true;
+                super.close();
+            }
+        };
+        assertThrows(IOException.class, () -> ContactRowReader.csv(source, CsvOptions.defaults()));
+        assertTrue(closed[0], "source left open after a bad header");
+
+        UncheckedIOException e = assertThrows(UncheckedIOException.class,
+                () -> readAll(csv("email,name\nada@example.com,\"Ada\n")));
+        assertTrue(e.getMessage().contains("line 2"), e.getMessage());
+    }
+
+    @Test
+    void ndjsonReadsWireShapeAndFlattensExtraMembers() throws Exception {
+        ContactRowReader reader = ContactRowReader.ndjson(new StringReader(
+                "{\"email\":\"ada@example.com\",\"properties\":{\"plan\":\"pro\"},\"list_ids\":[\"01h-a\"],"
+                        + "\"topics\":[{\"id\":\"01h-t\",\"subscription\":\"opt_out\"}],\"age\":36,\"vip\":true}\n"
+                        + "\n"
+                        + "{\"name\":\"no email\"}\n"
+                        + "{\"email\":\"bob@example.com\",\"nested\":{\"ignored\":1}}\n"));
+
+        List<BulkAudienceContactRow> rows = readAll(reader);
+
+        assertEquals(2, rows.size());
+        assertEquals(1, reader.getSkippedRows());
+        BulkAudienceContactRow ada = rows.get(0);
+        assertEquals(Map.of("plan", "pro", "age", "36", "vip", "true"), ada.getProperties());
+        assertEquals(List.of("01h-a"), ada.getListIds());
+        assertEquals(AudienceTopicSubscriptionState.OPT_OUT, ada.getTopics().get(0).getSubscription());
+        assertNull(rows.get(1).getProperties());
+    }
+
+    @Test
+    void ndjsonReportsMalformedInput() {
+        assertThrows(UncheckedIOException.class, () -> readAll(ContactRowReader.ndjson(new StringReader(
+                "{\"email\":\"ada@example.com\",\"topics\":[{\"id\":\"t\",\"subscription\":\"maybe\"}]}"))));
+        assertThrows(UncheckedIOException.class, () -> readAll(ContactRowReader.ndjson(new StringReader(
+                "{\"email\":\"ada@example.com\"\n"))));
+    }
+
+    @Test
+    void ndjsonRejectsValuesThatAreNotObjects() {
+        for (String line : List.of("[1]", "\"x\"", "42",
+                "{\"email\":\"ada@example.com\",\"topics\":[\"t\"]}")) {
+            UncheckedIOException e = assertThrows(UncheckedIOException.class,
+                    () -> readAll(ContactRowReader.ndjson(new StringReader("{\"email\":\"a@example.com\"}\n" + line))));
+            assertTrue(e.getMessage().contains("line 2"), e.getMessage());
+        }
+    }
+
+    @Test
+    void readsFilesLazily() throws Exception {
+        Path file = Files.createTempFile("contacts", ".csv");
+        try {
+            StringBuilder csv = new StringBuilder("email,n\n");
+            for (int i = 0; i < 5000; i++) {
+                csv.append("user").append(i).append("@example.com,").append(i).append('\n');
+            }
+            Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+
+            try (ContactRowReader reader = ContactRowReader.csv(file)) {
+                assertEquals("user0@example.com", reader.next().getEmail());
+                List<String> rest = reader.stream().map(BulkAudienceContactRow::getEmail).collect(Collectors.toList());
+                assertEquals(4999, rest.size());
+                assertEquals("user4999@example.com", rest.get(4998));
+                assertFalse(reader.hasNext());
+                assertThrows(NoSuchElementException.class, reader::next);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void feedsContactImporter() throws Exception {
+        List<Integer> chunkSizes = new ArrayList<>();
+        AudienceContacts contacts = new AudienceContacts("test-key") {
+            @Override
+            public BulkCreateAudienceContactsResponse bulkCreate(BulkCreateAudienceContactsOptions options) {
+                chunkSizes.add(options.getContacts().size());
+                return new Gson().fromJson("{\"created\":" + options.getContacts().size() + "}",
+                        BulkCreateAudienceContactsResponse.class);
+            }
+        };
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 25; i++) {
+            ndjson.append("{\"email\":\"user").append(i).append("@example.com\"}\n");
+        }
+
+        try (ContactRowReader rows = ContactRowReader.ndjson(new StringReader(ndjson.toString()))) {
+            ContactImportReport report = ContactImporter.builder(contacts).chunkSize(10).parallelism(1).build()
+                    .importRows(rows);
+            assertEquals(25, report.getCreated());
+        }
+        assertEquals(List.of(10, 10, 5), chunkSizes);
+    }
+}
@@ -0,0 +1,243 @@
+package com.lettr.services.emails;
+
+import com.google.gson.Gson;
+import com.lettr.core.exception.LettrApiException;
+import com.lettr.core.exception.LettrException;
+import com.lettr.core.net.ClientOptions;
+import com.lettr.core.net.HttpClient;
+import com.lettr.core.util.Threads;
+import com.lettr.services.emails.BatchingEmailSender.OverflowPolicy;
+import com.lettr.services.emails.model.CreateEmailOptions;
+import com.lettr.services.emails.model.CreateEmailResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchingEmailSenderTest {
+
+    /** Emails whose sends wait for a permit, so tests control when they finish. */
+    private static final class GatedEmails extends Emails {
+        final Semaphore gate = new Semaphore(0);
+        final AtomicInteger started = new AtomicInteger();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+
+        GatedEmails() {
+            super("test-key");
+        }
+
+        @Override
+        public CreateEmailResponse send(CreateEmailOptions options) throws LettrException {
+            started.incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                gate.acquireUninterruptibly();
+                if ("fail".equals(options.getSubject())) {
+                    throw new LettrApiException("Unavailable", 503, null);
+                }
+                return new Gson().fromJson("{\"request_id\":\"" + options.getSubject() + "\"}", CreateEmailResponse.class);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private static CreateEmailOptions email(String subject) {
+        return CreateEmailOptions.builder()
+                .from("sender@example.com")
+                .to("to@example.com")
+                .subject(subject)
+                .html("<p>Hi</p>")
+                .build();
+    }
+
+    private static void awaitStarted(GatedEmails emails, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (emails.started.get() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, emails.started.get());
+    }
+
+    @Test
+    void completesEachFutureWithItsResponse() throws Exception {
+        GatedEmails emails = new GatedEmails();
+        emails.gate.release(Integer.MAX_VALUE / 2);
+        try (BatchingEmailSender sender = BatchingEmailSender.builder(emails).maxInFlight(4).build()) {
+            List<CompletableFuture<CreateEmailResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                futures.add(sender.submit(email("m" + i)));
+            }
+            for (int i = 0; i < 50; i++) {
+                assertEquals("m" + i, futures.get(i).get(5, TimeUnit.SECONDS).getRequestId());
+            }
+        }
+    }
+
+    @Test
+    void failedSendCompletesFutureExceptionally() throws Exception {
+        GatedEmails emails = new GatedEmails();
+        emails.gate.release(10);
+        try (BatchingEmailSender sender = BatchingEmailSender.builder(emails).build()) {
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> sender.submit(email("fail")).get(5, TimeUnit.SECONDS));
+            assertEquals(503, assertInstanceOf(LettrApiException.class, e.getCause()).getStatusCode());
+        }
+    }
+
+    @Test
+    void neverExceedsMaxInFlight() throws Exception {
+        GatedEmails emails = new GatedEmails();
+        BatchingEmailSender sender = BatchingEmailSender.builder(emails).maxInFlight(3).build();
+        for (int i = 0; i < 10; i++) {
+            sender.submit(email("m" + i));
+        }
+        awaitStarted(emails, 3);
+        Thread.sleep(50);
+        assertEquals(3, emails.started.get());
+
+        emails.gate.release(10);
+        sender.close();
+        assertEquals(3, emails.maxInFlight.get());
+        assertEquals(10, emails.started.get());
+    }
+
+    @Test
+    void failFastRejectsWhenQueueIsFull() throws Exception {
+        GatedEmails emails = new GatedEmails();
+        BatchingEmailSender sender = BatchingEmailSender.builder(emails)
+                .maxInFlight(1).queueCapacity(2).overflowPolicy(OverflowPolicy.FAIL_FAST).build();
+        sender.submit(email("in-flight"));
+        awaitStarted(emails, 1);
+        sender.submit(email("q1"));
+        sender.submit(email("q2"));
+
+        assertThrows(RejectedExecutionException.class, () -> sender.submit(email("overflow")));
+
+        emails.gate.release(3);
+        sender.close();
+    }
+
+    @Test
+    void dropFailsTheFutureAndCountsIt() throws Exception {
+        GatedEmails emails = new GatedEmails();
+        BatchingEmailSender sender = BatchingEmailSender.builder(emails)
+                .maxInFlight(1).queueCapacity(1).overflowPolicy(OverflowPolicy.DROP).build();
+        sender.submit(email("in-flight"));
+        awaitStarted(emails, 1);
+        sender.submit(email("queued"));
+
+        CompletableFuture<CreateEmailResponse> dropped = sender.submit(email("dropped"));
+
+        ExecutionException e = assertThrows(ExecutionException.class, dropped::get);
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        assertEquals(1, sender.getDroppedCount());
+        emails.gate.release(2);
+        sender.close();
+    }
+
+    @Test
+    void blockWaitsForQueueSpace() throws Exception {
+        GatedEmails emails = new GatedEmails();
+        BatchingEmailSender sender = BatchingEmailSender.builder(emails).maxInFlight(1).queueCapacity(1).build();
+        sender.submit(email("in-flight"));
+        awaitStarted(emails, 1);
+        sender.submit(email("queued"));
+
+        CountDownLatch submitted = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            sender.submit(email("blocked"));
+            submitted.countDown();
+        });
+        producer.start();
+        assertFalse(submitted.await(100, TimeUnit.MILLISECONDS));
+
+        emails.gate.release();
+        assertTrue(submitted.await(5, TimeUnit.SECONDS));
+        emails.gate.release(2);
+        sender.close();
+        assertEquals(3, emails.started.get());
+    }
+
+    @Test
+    void closeDrainsQueueAndRejectsNewMessages() throws Exception {
+        GatedEmails emails = new GatedEmails();
+        BatchingEmailSender sender = BatchingEmailSender.builder(emails).maxInFlight(2).build();
+        List<CompletableFuture<CreateEmailResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(sender.submit(email("m" + i)));
+        }
+        sender.shutdown();
+        assertThrows(RejectedExecutionException.class, () -> sender.submit(email("late")));
+        assertFalse(sender.awaitTermination(Duration.ofMillis(50)));
+
+        emails.gate.release(20);
+        assertTrue(sender.awaitTermination(Duration.ofSeconds(5)));
+        for (CompletableFuture<CreateEmailResponse> future : futures) {
+            assertTrue(future.isDone() && !future.isCompletedExceptionally());
+        }
+    }
+
+    @Test
+    void shutdownNowCancelsQueuedMessages() throws Exception {
+        GatedEmails emails = new GatedEmails();
+        BatchingEmailSender sender = BatchingEmailSender.builder(emails).maxInFlight(1).build();
+        CompletableFuture<CreateEmailResponse> inFlight = sender.submit(email("in-flight"));
+        awaitStarted(emails, 1);
+        CompletableFuture<CreateEmailResponse> queued = sender.submit(email("queued"));
+
+        assertEquals(1, sender.shutdownNow());
+        emails.gate.release();
+
+        assertEquals("in-flight", inFlight.get(5, TimeUnit.SECONDS).getRequestId());
+        assertThrows(CancellationException.class, queued::join);
+        assertTrue(sender.awaitTermination(Duration.ofSeconds(5)));
+        assertEquals(1, emails.started.get());
+    }
+
+    @Test
+    void builderRejectsInvalidSettings() {
+        Emails emails = new Emails("test-key");
+        assertThrows(IllegalArgumentException.class, () -> BatchingEmailSender.builder(null));
+        assertThrows(IllegalArgumentException.class, () -> BatchingEmailSender.builder(emails).maxInFlight(0).build());
+        assertThrows(IllegalArgumentException.class, () -> BatchingEmailSender.builder(emails).queueCapacity(0).build());
+        try (BatchingEmailSender sender = BatchingEmailSender.builder(emails).build()) {
+            assertThrows(IllegalArgumentException.class, () -> sender.submit(null));
+        }
+    }
+
+    @Test
+    void workersAreVirtualThreadsWhenTheClientUsesThem() throws Exception {
+        if (!Threads.virtualThreadsSupported()) {
+            return;
+        }
+        List<Thread> senders = new CopyOnWriteArrayList<>();
+        Emails emails = new Emails(new HttpClient("test-key", ClientOptions.builder().virtualThreads(true).build())) {
+            @Override
+            public CreateEmailResponse send(CreateEmailOptions options) {
+                senders.add(Thread.currentThread());
+                return new CreateEmailResponse();
+            }
+        };
+
+        try (BatchingEmailSender sender = BatchingEmailSender.builder(emails).maxInFlight(2_000).build()) {
+            sender.submit(email("virtual")).get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(1, senders.size());
+        assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(senders.get(0)));
+    }
+}
@@ -0,0 +1,145 @@
+package com.lettr.services.emails;
+
+import com.lettr.core.exception.LettrException;
+import com.lettr.core.net.ClientOptions;
+import com.lettr.core.net.HttpClient;
+import com.lettr.services.emails.EmailEventBatch.Dimension;
+import com.lettr.services.emails.EmailEventBatch.Metric;
+import com.lettr.services.emails.model.ListEmailEventsParams;
+import com.lettr.testing.StubServer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailEventBatchTest {
+
+    private static final String BOUNCE = "{\"event_id\":\"e1\",\"type\":\"bounce\",\"timestamp\":\"2024-01-15T10:31:00.000Z\","
+            + "\"request_id\":\"r1\",\"message_id\":\"m1\",\"rcpt_to\":\"a@gmail.com\",\"recipient_domain\":\"gmail.com\","
+            + "\"mailbox_provider\":\"Gmail\",\"sending_domain\":\"shop.example.com\",\"bounce_class\":10,"
+            + "\"num_retries\":2,\"subject\":\"Hi\",\"geo_ip\":{\"country\":\"CZ\"},\"rcpt_tags\":[\"a\"]}";
+    private static final String DELIVERY = "{\"event_id\":\"e2\",\"type\":\"delivery\",\"timestamp\":\"2024-01-15T11:31:00+01:00\","
+            + "\"rcpt_to\":\"b@yahoo.com\",\"recipient_domain\":\"yahoo.com\",\"mailbox_provider\":\"Yahoo\","
+            + "\"sending_domain\":\"shop.example.com\",\"msg_size\":\"1200\",\"queue_time\":35,\"bounce_class\":null}";
+    private static final String OPEN = "{\"event_id\":\"e3\",\"type\":\"open\",\"rcpt_to\":\"c@gmail.com\","
+            + "\"mailbox_provider\":\"Gmail\",\"ip_pool\":null}";
+
+    @Test
+    void readEventBatchFillsColumnsAcrossPages() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(200, page("[" + BOUNCE + "," + DELIVERY + "]", "\"c2\""))
+                  .enqueue(200, page("[" + OPEN + "]", "null"));
+            HttpClient httpClient = new HttpClient("test-key", ClientOptions.builder().baseUrl(server.baseUrl()).build());
+
+            EmailEventBatch batch = new Emails(httpClient).readEventBatch(
+                    ListEmailEventsParams.builder().events(Arrays.asList("bounce", "delivery", "open")).build());
+
+            assertEquals(3, batch.size());
+            assertEquals("/api/emails/events?events=bounce%2Cdelivery%2Copen", server.requests().get(0).uri);
+            assertEquals("/api/emails/events?events=bounce%2Cdelivery%2Copen&cursor=c2", server.requests().get(1).uri);
+
+            assertEquals(Arrays.asList("Gmail", "Yahoo"), batch.dictionary(Dimension.MAILBOX_PROVIDER));
+            assertEquals(0, batch.code(Dimension.MAILBOX_PROVIDER, 0));
+            assertEquals(1, batch.code(Dimension.MAILBOX_PROVIDER, 1));
+            assertEquals(0, batch.code(Dimension.MAILBOX_PROVIDER, 2));
+            assertEquals(1, batch.dictionary(Dimension.SENDING_DOMAIN).size());
+            assertEquals(-1, batch.code(Dimension.IP_POOL, 2));
+            assertNull(batch.value(Dimension.CAMPAIGN_ID, 0));
+
+            assertTrue(batch.has(Metric.BOUNCE_CLASS, 0));
+            assertEquals(10, batch.get(Metric.BOUNCE_CLASS, 0));
+            assertFalse(batch.has(Metric.BOUNCE_CLASS, 1));
+            assertEquals(0, batch.get(Metric.BOUNCE_CLASS, 1));
+            assertEquals(1200, batch.get(Metric.MSG_SIZE, 1));
+
+            assertEquals(1705314660000L, batch.timestampMillis(0));
+            assertEquals(1705314660000L, batch.timestampMillis(1));
+            assertFalse(batch.hasTimestamp(2));
+            httpClient.close();
+        }
+    }
+
+    @Test
+    void readEventBatchStopsWhenAPagePointsBackToItself() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(200, page("[" + BOUNCE + "]", "\"c2\""))
+                  .enqueue(200, page("[" + OPEN + "]", "\"c2\""));
+            HttpClient httpClient = new HttpClient("test-key", ClientOptions.builder().baseUrl(server.baseUrl()).build());
+
+            LettrException e = assertThrows(LettrException.class, () -> new Emails(httpClient).readEventBatch(null));
+
+            assertTrue(e.getMessage().contains("c2"));
+            assertEquals(2, server.requests().size());
+            httpClient.close();
+        }
+    }
+
+    @Test
+    void rowsReadLikeEmailEvents() throws Exception {
+        EmailEventBatch batch = batchOf("[" + BOUNCE + "," + OPEN + "]");
+
+        EmailEventBatch.Row bounce = batch.row(0);
+        assertEquals("e1", bounce.getEventId());
+        assertEquals("bounce", bounce.getType());
+        assertEquals("r1", bounce.getRequestId());
+        assertEquals("m1", bounce.getMessageId());
+        assertEquals("a@gmail.com", bounce.getRcptTo());
+        assertEquals("gmail.com", bounce.getRecipientDomain());
+        assertEquals(Integer.valueOf(10), bounce.getBounceClass());
+        assertEquals(Integer.valueOf(2), bounce.getNumRetries());
+        assertNull(bounce.getMsgSize());
+        assertEquals("2024-01-15T10:31:00Z", bounce.getTimestamp());
+
+        Iterator<EmailEventBatch.Row> rows = batch.iterator();
+        assertEquals(0, rows.next().index());
+        EmailEventBatch.Row open = rows.next();
+        assertEquals("open", open.getType());
+        assertNull(open.getTimestamp());
+        assertFalse(rows.hasNext());
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.row(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.code(Dimension.TYPE, -1));
+    }
+
+    @Test
+    void batchGrowsPastItsInitialCapacity() throws Exception {
+        StringBuilder events = new StringBuilder("[");
+        for (int i = 0; i < 2500; i++) {
+            events.append(i > 0 ? "," : "").append("{\"event_id\":\"e").append(i)
+                  .append("\",\"type\":\"").append(i % 2 == 0 ? "delivery" : "open")
+                  .append("\",\"msg_size\":").append(i).append('}');
+        }
+        EmailEventBatch batch = batchOf(events.append(']').toString());
+
+        assertEquals(2500, batch.size());
+        assertEquals("e2499", batch.row(2499).getEventId());
+        assertEquals(2499, batch.get(Metric.MSG_SIZE, 2499));
+        List<String> types = batch.dictionary(Dimension.TYPE);
+        assertEquals(Arrays.asList("delivery", "open"), types);
+    }
+
+    @Test
+    void malformedTimestampFailsTheRead() throws Exception {
+        assertThrows(LettrException.class, () -> batchOf("[{\"event_id\":\"e1\",\"timestamp\":\"yesterday\"}]"));
+    }
+
+    private static EmailEventBatch batchOf(String events) throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(200, page(events, "null"));
+            HttpClient httpClient = new HttpClient("test-key", ClientOptions.builder().baseUrl(server.baseUrl()).build());
+            try {
+                return new Emails(httpClient).readEventBatch(null);
+            } finally {
+                httpClient.close();
+            }
+        }
+    }
+
+    private static String page(String events, String nextCursor) {
+        return "{\"message\":\"ok\",\"data\":{\"events\":{\"data\":" + events
+                + ",\"total_count\":3,\"from\":\"a\",\"to\":\"b\","
+                + "\"pagination\":{\"next_cursor\":" + nextCursor + ",\"per_page\":2}}}}";
+    }
+}
@@ -2,13 +2,35 @@ package com.lettr.services.emails;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.annotations.SerializedName;
+import com.lettr.core.net.BinaryContentCache;
+import com.lettr.core.net.ClientOptions;
+import com.lettr.core.net.HttpClient;
+import com.lettr.core.net.RequestOptions;
 import com.lettr.services.emails.model.*;
+import com.lettr.testing.StubServer;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -333,6 +355,111 @@ class EmailsTest {
         assertNull(event.getMsgSize());
     }
 
+    // --- EmailEvent projection tests ---
+
+    @Test
+    void emailEventProjectionOfAllFieldsMatchesReflectiveDecoding() throws Exception {
+        StringBuilder json = new StringBuilder("{");
+        for (Field field : EmailEvent.class.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            SerializedName name = field.getAnnotation(SerializedName.class);
+            json.append(json.length() > 1 ? "," : "")
+                .append('"').append(name != null ? name.value() : field.getName()).append("\":")
+                .append(sampleJson(field.getType(), field.getName()));
+        }
+        json.append('}');
+
+        Gson projecting = gson.newBuilder()
+                .registerTypeAdapterFactory(EmailEvent.projection(EmailEvent.fieldNames()))
+                .create();
+        EmailEvent reflective = gson.fromJson(json.toString(), EmailEvent.class);
+        EmailEvent projected = projecting.fromJson(json.toString(), EmailEvent.class);
+
+        for (Field field : EmailEvent.class.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            field.setAccessible(true);
+            Object expected = field.get(reflective);
+            Object actual = field.get(projected);
+            assertNotNull(actual, field.getName() + " was not decoded");
+            assertEquals(gson.toJson(expected), gson.toJson(actual), field.getName());
+        }
+    }
+
+    @Test
+    void emailEventProjectionSkipsOtherFields() {
+        String json = "{\"event_id\":\"evt1\",\"type\":\"bounce\",\"subject\":\"Hello\",\"bounce_class\":10," +
+                "\"rcpt_meta\":{\"a\":[1,2]},\"geo_ip\":{\"country\":\"CZ\"},\"rcpt_tags\":[\"x\"],\"unknown\":{}}";
+        Gson projecting = gson.newBuilder()
+                .registerTypeAdapterFactory(EmailEvent.projection(Arrays.asList("event_id", "bounce_class")))
+                .create();
+
+        EmailEvent event = projecting.fromJson(json, EmailEvent.class);
+        assertEquals("evt1", event.getEventId());
+        assertEquals(Integer.valueOf(10), event.getBounceClass());
+        assertNull(event.getType());
+        assertNull(event.getSubject());
+        assertNull(event.getRcptMeta());
+        assertNull(event.getGeoIp());
+        assertNull(event.getRcptTags());
+    }
+
+    @Test
+    void emailEventProjectionCoercesLikeGson() {
+        String json = "{\"event_id\":7,\"click_tracking\":\"true\",\"msg_size\":\"42\",\"subject\":false}";
+        Gson projecting = gson.newBuilder()
+                .registerTypeAdapterFactory(EmailEvent.projection(EmailEvent.fieldNames()))
+                .create();
+
+        EmailEvent event = projecting.fromJson(json, EmailEvent.class);
+        assertEquals("7", event.getEventId());
+        assertEquals(true, event.getClickTracking());
+        assertEquals(Integer.valueOf(42), event.getMsgSize());
+        assertEquals("false", event.getSubject());
+    }
+
+    @Test
+    void listEmailEventsParamsRejectsUnknownFields() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> ListEmailEventsParams.builder().fields("event_id", "eventId"));
+        assertTrue(e.getMessage().contains("eventId"));
+        assertThrows(IllegalArgumentException.class, () -> EmailEvent.projection(null));
+    }
+
+    @Test
+    void listEmailEventsParamsFieldsAreNotSentAsQuery() {
+        ListEmailEventsParams params = ListEmailEventsParams.builder().perPage(10).fields("event_id").build();
+        assertEquals(Collections.singleton("event_id"), params.getFields());
+        assertEquals(Collections.singletonMap("per_page", "10"), params.toQueryParams());
+        assertNull(ListEmailEventsParams.builder().build().getFields());
+    }
+
+    @Test
+    void projectedEventsAdapterIsBuiltOncePerFieldSet() {
+        HttpClient client = new HttpClient("test-key");
+        ListEmailEventsParams first = ListEmailEventsParams.builder().fields("event_id", "rcpt_to").build();
+        ListEmailEventsParams same = ListEmailEventsParams.builder().fields("rcpt_to", "event_id").perPage(5).build();
+        ListEmailEventsParams other = ListEmailEventsParams.builder().fields("event_id").build();
+
+        assertSame(Emails.eventsAdapter(client, first), Emails.eventsAdapter(client, same));
+        assertNotSame(Emails.eventsAdapter(client, first), Emails.eventsAdapter(client, other));
+        client.close();
+    }
+
+    private static String sampleJson(Class<?> type, String name) {
+        if (type == String.class) return "\"" + name + "-value\"";
+        if (type == Boolean.class) return "true";
+        if (type == Integer.class) return "7";
+        if (type == List.class) return "[\"" + name + "\"]";
+        if (type == GeoIp.class) return "{\"country\":\"CZ\",\"latitude\":50.08}";
+        if (type == UserAgentParsed.class) return "{\"agent_family\":\"Chrome\",\"is_mobile\":false}";
+        if (type == Object.class) return "{\"customer\":\"c1\",\"n\":[1,2]}";
+        throw new AssertionError("no sample for " + type);
+    }
+
     // --- Response deserialization tests ---
 
     @Test
@@ -413,6 +540,91 @@ class EmailsTest {
         assertEquals("JVBERi0xLjQ=", attachment.getData());
     }
 
+    @Test
+    void attachmentFromPathRequiresRegularFile() throws Exception {
+        Path dir = Files.createTempDirectory("lettr-attachment");
+        try {
+            assertThrows(IllegalArgumentException.class, () ->
+                    Attachment.builder().name("a.pdf").type("application/pdf").data(dir.resolve("missing.pdf")).build());
+            assertThrows(IllegalArgumentException.class, () ->
+                    Attachment.builder().name("a.pdf").type("application/pdf").data(dir).build());
+        } finally {
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    void attachmentSourcesAreEncodedWhileSending() throws Exception {
+        byte[] bytes = new byte[100_001];
+        new Random(42).nextBytes(bytes);
+        String expected = Base64.getEncoder().encodeToString(bytes);
+        Path file = Files.createTempFile("lettr-attachment", ".bin");
+        Files.write(file, bytes);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(200, "{\"message\":\"ok\",\"data\":{\"request_id\":\"r1\",\"accepted\":1,\"rejected\":0}}");
+            HttpClient httpClient = new HttpClient("test-key", ClientOptions.builder().baseUrl(server.baseUrl()).build());
+            CreateEmailOptions options = CreateEmailOptions.builder()
+                    .from("sender@example.com")
+                    .to("test@example.com")
+                    .subject("Files")
+                    .html("<p>Files</p>")
+                    .attachments(
+                            Attachment.builder().name("a.bin").type("application/octet-stream").data(file).build(),
+                            Attachment.builder().name("b.bin").type("application/octet-stream").data(buffer).build(),
+                            Attachment.builder().name("c.bin").type("application/octet-stream")
+                                    .data(new ByteArrayInputStream(bytes)).build(),
+                            Attachment.builder().name("d.bin").type("application/octet-stream").data(expected).build(),
+                            Attachment.builder().name("e.bin").type("application/octet-stream")
+                                    .data(BinaryContentCache.of(1024 * 1024).get(file)).build())
+                    .build();
+
+            assertEquals("r1", new Emails(httpClient).send(options).getRequestId());
+
+            JsonObject body = JsonParser.parseString(server.requests().get(0).bodyAsString()).getAsJsonObject();
+            JsonArray attachments = body.getAsJsonArray("attachments");
+            assertEquals(5, attachments.size());
+            for (int i = 0; i < attachments.size(); i++) {
+                assertEquals(expected, attachments.get(i).getAsJsonObject().get("data").getAsString());
+            }
+            assertEquals("a.bin", attachments.get(0).getAsJsonObject().get("name").getAsString());
+            assertEquals(0, buffer.position());
+            assertEquals(expected, options.getAttachments().get(0).getData());
+            assertEquals(expected, options.getAttachments().get(1).getData());
+            assertThrows(IllegalStateException.class, () -> options.getAttachments().get(2).getData());
+            httpClient.close();
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void sendWithOptionsAppliesThemToTheCall() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(200, "{\"message\":\"ok\",\"data\":{\"request_id\":\"r1\",\"accepted\":1,\"rejected\":0}}")
+                  .enqueue(200, "{\"message\":\"ok\",\"data\":{\"request_id\":\"r2\",\"accepted\":1,\"rejected\":0}}");
+            HttpClient httpClient = new HttpClient("test-key", ClientOptions.builder().baseUrl(server.baseUrl()).build());
+            Emails emails = new Emails(httpClient);
+            CreateEmailOptions options = CreateEmailOptions.builder()
+                    .from("sender@example.com")
+                    .to("test@example.com")
+                    .subject("Hello")
+                    .html("<p>Hello</p>")
+                    .build();
+
+            Emails once = emails.withOptions(RequestOptions.builder()
+                    .totalTimeout(Duration.ofSeconds(2))
+                    .idempotencyKey("welcome-42")
+                    .build());
+            assertEquals("r1", once.send(options).getRequestId());
+            assertEquals("r2", emails.send(options).getRequestId());
+
+            assertEquals("welcome-42", server.requests().get(0).headers.get("idempotency-key"));
+            assertNull(server.requests().get(1).headers.get("idempotency-key"));
+            httpClient.close();
+        }
+    }
+
     // --- Service argument validation tests ---
 
     @Test
@@ -435,4 +647,72 @@ class EmailsTest {
         assertThrows(IllegalArgumentException.class, () -> emails.cancelScheduled(null));
         assertThrows(IllegalArgumentException.class, () -> emails.cancelScheduled(""));
     }
+
+    @Test
+    void streamEventsFollowsCursorsLazily() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(200, eventPage("[{\"event_id\":\"e1\"},{\"event_id\":\"e2\"}]", "\"c2\""))
+                  .enqueue(200, eventPage("[{\"event_id\":\"e3\"}]", "null"));
+            HttpClient httpClient = new HttpClient("test-key", ClientOptions.builder().baseUrl(server.baseUrl()).build());
+            Emails emails = new Emails(httpClient);
+
+            try (Stream<EmailEvent> events = emails.streamEvents(
+                    ListEmailEventsParams.builder().events(Arrays.asList("bounce")).perPage(2).build())) {
+                Iterator<EmailEvent> it = events.iterator();
+                assertEquals("e1", it.next().getEventId());
+                assertEquals(1, server.requestCount());
+                assertEquals("e2", it.next().getEventId());
+                assertEquals("e3", it.next().getEventId());
+                assertFalse(it.hasNext());
+            }
+
+            List<StubServer.RecordedRequest> requests = server.requests();
+            assertEquals(2, requests.size());
+            assertEquals("/api/emails/events?events=bounce&per_page=2", requests.get(0).uri);
+            assertEquals("/api/emails/events?events=bounce&per_page=2&cursor=c2", requests.get(1).uri);
+            httpClient.close();
+        }
+    }
+
+    @Test
+    void streamEventsWithPrefetchReturnsEveryEvent() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(200, eventPage("[{\"event_id\":\"e1\"}]", "\"c2\""))
+                  .enqueue(200, eventPage("[]", "\"c3\""))
+                  .enqueue(200, eventPage("[{\"event_id\":\"e3\"}]", "null"));
+            HttpClient httpClient = new HttpClient("test-key", ClientOptions.builder().baseUrl(server.baseUrl()).build());
+
+            try (Stream<EmailEvent> events = new Emails(httpClient).streamEvents(null, true)) {
+                assertEquals(Arrays.asList("e1", "e3"),
+                        events.map(EmailEvent::getEventId).collect(Collectors.toList()));
+            }
+            assertEquals(3, server.requestCount());
+            httpClient.close();
+        }
+    }
+
+    @Test
+    void streamEventsDecodesOnlyRequestedFields() throws Exception {
+        try (StubServer server = StubServer.start()) {
+            server.enqueue(200, eventPage("[{\"event_id\":\"e1\",\"type\":\"bounce\",\"rcpt_to\":\"a@example.com\"}]", "\"c2\""))
+                  .enqueue(200, eventPage("[{\"event_id\":\"e2\",\"type\":\"bounce\",\"rcpt_to\":\"b@example.com\"}]", "null"));
+            HttpClient httpClient = new HttpClient("test-key", ClientOptions.builder().baseUrl(server.baseUrl()).build());
+            ListEmailEventsParams params = ListEmailEventsParams.builder().fields("event_id", "rcpt_to").build();
+
+            try (Stream<EmailEvent> events = new Emails(httpClient).streamEvents(params, true)) {
+                List<EmailEvent> all = events.collect(Collectors.toList());
+                assertEquals(Arrays.asList("a@example.com", "b@example.com"),
+                        all.stream().map(EmailEvent::getRcptTo).collect(Collectors.toList()));
+                assertNull(all.get(0).getType());
+            }
+            assertEquals("/api/emails/events?cursor=c2", server.requests().get(1).uri);
+            httpClient.close();
+        }
+    }
+
+    private static String eventPage(String events, String nextCursor) {
+        return "{\"message\":\"ok\",\"data\":{\"events\":{\"data\":" + events
+                + ",\"total_count\":3,\"from\":\"a\",\"to\":\"b\","
+                + "\"pagination\":{\"next_cursor\":" + nextCursor + ",\"per_page\":2}}}}";
+    }
 }
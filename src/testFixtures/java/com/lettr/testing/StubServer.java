@@ -0,0 +1,164 @@
+package com.lettr.testing;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Minimal in-process HTTP server for exercising the transport end to end.
+ * Responses are served in the order they were enqueued; once the queue is
+ * empty every request gets a 500. Every request is recorded.
+ */
+public final class StubServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final ConcurrentLinkedQueue<Response> responses = new ConcurrentLinkedQueue<>();
+    private final List<RecordedRequest> requests = Collections.synchronizedList(new ArrayList<>());
+
+    private StubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public static StubServer start() throws IOException {
+        return new StubServer();
+    }
+
+    /** Base URL to hand to {@code ClientOptions.builder().baseUrl(...)}. */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/api";
+    }
+
+    public StubServer enqueue(int status, String body) {
+        return enqueue(new Response(status, body));
+    }
+
+    public StubServer enqueue(Response response) {
+        responses.add(response);
+        return this;
+    }
+
+    public List<RecordedRequest> requests() {
+        synchronized (requests) {
+            return new ArrayList<>(requests);
+        }
+    }
+
+    public int requestCount() {
+        return requests.size();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        byte[] requestBody;
+        try (InputStream in = exchange.getRequestBody()) {
+            requestBody = in.readAllBytes();
+        }
+        Map<String, String> headers = new LinkedHashMap<>();
+        exchange.getRequestHeaders().forEach((name, values) -> headers.put(name.toLowerCase(), values.get(0)));
+        requests.add(new RecordedRequest(exchange.getRequestMethod(),
+                exchange.getRequestURI().toString(), headers, requestBody));
+
+        Response response = responses.poll();
+        if (response == null) {
+            response = new Response(500, "{\"message\":\"no stubbed response\"}");
+        }
+        if (!response.delay.isZero()) {
+            try {
+                Thread.sleep(response.delay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                exchange.close();
+                return;
+            }
+        }
+        byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+        if (response.gzip && body.length > 0) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(body);
+            }
+            body = compressed.toByteArray();
+        }
+        response.headers.forEach((name, value) -> exchange.getResponseHeaders().add(name, value));
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(response.status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /** A canned response. */
+    public static final class Response {
+        final int status;
+        final String body;
+        final Map<String, String> headers = new LinkedHashMap<>();
+        Duration delay = Duration.ZERO;
+        boolean gzip;
+
+        public Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        public Response header(String name, String value) {
+            headers.put(name, value);
+            return this;
+        }
+
+        public Response delay(Duration delay) {
+            this.delay = delay;
+            return this;
+        }
+
+        /** Sends the body gzipped, with {@code Content-Encoding: gzip}. */
+        public Response gzip() {
+            this.gzip = true;
+            return header("Content-Encoding", "gzip");
+        }
+    }
+
+    /** A request the server received. Header names are lower-cased. */
+    public static final class RecordedRequest {
+        public final String method;
+        public final String uri;
+        public final Map<String, String> headers;
+        public final byte[] body;
+
+        RecordedRequest(String method, String uri, Map<String, String> headers, byte[] body) {
+            this.method = method;
+            this.uri = uri;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        public String bodyAsString() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+}
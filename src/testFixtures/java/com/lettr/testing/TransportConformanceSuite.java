@@ -0,0 +1,394 @@
+package com.lettr.testing;
+
+import com.lettr.core.net.ClientOptions;
+import com.lettr.core.net.HttpClient;
+import com.lettr.core.net.RetryPolicy;
+import com.lettr.core.net.Transport;
+import com.lettr.core.net.TransportRequest;
+import com.lettr.core.net.TransportResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks a {@link Transport} against the contract the SDK relies on, over
+ * real connections to a local {@link StubServer}. Every implementation is
+ * expected to pass it:
+ *
+ * <pre>{@code
+ * class NettyTransportTest extends TransportConformanceSuite {
+ *     @Override
+ *     protected Transport createTransport() {
+ *         return new NettyTransport(new NioEventLoopGroup(2));
+ *     }
+ * }
+ * }</pre>
+ *
+ * <p>Published with the SDK's test fixtures: with Gradle,
+ * {@code testImplementation(testFixtures("com.lettr:lettr-java:<version>"))};
+ * with Maven, the SDK artifact with the {@code test-fixtures} classifier.</p>
+ */
+public abstract class TransportConformanceSuite {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private StubServer server;
+    private Transport transport;
+
+    /** Creates the transport under test. Called before each test, and closed after it. */
+    protected abstract Transport createTransport() throws Exception;
+
+    @BeforeEach
+    public void startTransport() throws Exception {
+        server = StubServer.start();
+        transport = createTransport();
+    }
+
+    @AfterEach
+    public void stopTransport() {
+        transport.close();
+        server.close();
+    }
+
+    // --- Requests ---
+
+    @Test
+    public void sendsEveryMethodWithItsUri() throws Exception {
+        for (String method : Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE")) {
+            server.enqueue(200, "{}");
+            HttpRequest.BodyPublisher body = method.equals("GET") ? null : bytes("{\"a\":1}");
+            try (TransportResponse response = transport.send(request(method, "/emails/e%2F1?status=sent&q=a%20b", body))) {
+                assertEquals(200, response.getStatusCode(), method);
+            }
+        }
+        List<StubServer.RecordedRequest> requests = server.requests();
+        assertEquals(5, requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            assertEquals(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE").get(i), requests.get(i).method);
+            assertEquals("/api/emails/e%2F1?status=sent&q=a%20b", requests.get(i).uri);
+        }
+        assertEquals("{\"a\":1}", requests.get(3).bodyAsString());
+    }
+
+    @Test
+    public void sendsHeadersAsGiven() throws Exception {
+        server.enqueue(200, "{}");
+        TransportRequest request = TransportRequest.builder()
+                .method("GET")
+                .uri(uri("/domains"))
+                .timeout(TIMEOUT)
+                .header("Authorization", "Bearer test-key")
+                .header("Accept", "application/json")
+                .header("X-Lettr-Trace", "t-1")
+                .build();
+
+        transport.send(request).close();
+
+        Map<String, String> headers = server.requests().get(0).headers;
+        assertEquals("Bearer test-key", headers.get("authorization"));
+        assertEquals("application/json", headers.get("accept"));
+        assertEquals("t-1", headers.get("x-lettr-trace"));
+    }
+
+    @Test
+    public void sendsBodyOfKnownLengthWithContentLength() throws Exception {
+        server.enqueue(200, "{}");
+        String json = "{\"subject\":\"Grüße\"}";
+
+        transport.send(request("POST", "/emails", bytes(json))).close();
+
+        StubServer.RecordedRequest recorded = server.requests().get(0);
+        assertEquals(json, recorded.bodyAsString());
+        assertEquals(String.valueOf(json.getBytes(StandardCharsets.UTF_8).length), recorded.headers.get("content-length"));
+    }
+
+    @Test
+    public void streamsBodyOfUnknownLength() throws Exception {
+        server.enqueue(200, "{}");
+        byte[] payload = payload(3 * 1024 * 1024 + 17);
+        HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.fromPublisher(chunked(payload, 16 * 1024));
+
+        transport.send(request("POST", "/emails", body)).close();
+
+        assertArrayEquals(payload, server.requests().get(0).body);
+    }
+
+    @Test
+    public void streamsLargeBody() throws Exception {
+        server.enqueue(200, "{}");
+        byte[] payload = payload(16 * 1024 * 1024);
+        HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.fromPublisher(chunked(payload, 64 * 1024), payload.length);
+
+        transport.send(request("POST", "/emails", body)).close();
+
+        assertArrayEquals(payload, server.requests().get(0).body);
+    }
+
+    @Test
+    public void subscribesToTheBodyAgainForEachSend() throws Exception {
+        server.enqueue(503, "").enqueue(200, "{}");
+        TransportRequest request = request("POST", "/emails", bytes("{\"retry\":true}"));
+
+        transport.send(request).close();
+        transport.send(request).close();
+
+        assertEquals("{\"retry\":true}", server.requests().get(0).bodyAsString());
+        assertEquals("{\"retry\":true}", server.requests().get(1).bodyAsString());
+    }
+
+    // --- Responses ---
+
+    @Test
+    public void returnsStatusHeadersAndBody() throws Exception {
+        server.enqueue(new StubServer.Response(201, "{\"data\":{\"id\":\"e-1\"}}").header("X-Request-Id", "r-1"));
+
+        try (TransportResponse response = transport.send(request("GET", "/emails/e-1", null))) {
+            assertEquals(201, response.getStatusCode());
+            assertEquals("r-1", response.getHeaders().firstValue("x-request-id").orElse(null));
+            assertEquals("r-1", response.getHeaders().firstValue("X-REQUEST-ID").orElse(null));
+            assertEquals("{\"data\":{\"id\":\"e-1\"}}", read(response.getBody()));
+        }
+    }
+
+    @Test
+    public void returnsErrorStatusesAsResponses() throws Exception {
+        for (int status : new int[]{400, 404, 422, 429, 500, 503}) {
+            server.enqueue(status, "{\"message\":\"status " + status + "\"}");
+            try (TransportResponse response = transport.send(request("GET", "/emails", null))) {
+                assertEquals(status, response.getStatusCode());
+                assertEquals("{\"message\":\"status " + status + "\"}", read(response.getBody()));
+            }
+        }
+    }
+
+    @Test
+    public void returnsEmptyBody() throws Exception {
+        server.enqueue(204, "");
+
+        try (TransportResponse response = transport.send(request("DELETE", "/domains/example.com", null))) {
+            assertEquals(204, response.getStatusCode());
+            assertEquals(-1, response.getBody().read());
+        }
+    }
+
+    @Test
+    public void passesCompressedBodyThroughUndecoded() throws Exception {
+        String json = "{\"data\":[" + String.join(",", Collections.nCopies(500, "{\"event\":\"delivered\"}")) + "]}";
+        server.enqueue(new StubServer.Response(200, json).gzip());
+        TransportRequest request = TransportRequest.builder()
+                .method("GET")
+                .uri(uri("/emails/events"))
+                .timeout(TIMEOUT)
+                .header("Accept-Encoding", "gzip")
+                .build();
+
+        try (TransportResponse response = transport.send(request)) {
+            assertEquals("gzip", response.getHeaders().firstValue("Content-Encoding").orElse(null));
+            byte[] raw = response.getBody().readAllBytes();
+            assertTrue(raw.length < json.length());
+            assertEquals(json, read(new GZIPInputStream(new ByteArrayInputStream(raw))));
+        }
+    }
+
+    @Test
+    public void streamsLargeResponse() throws Exception {
+        String json = "\"" + "x".repeat(8 * 1024 * 1024) + "\"";
+        server.enqueue(200, json);
+
+        try (TransportResponse response = transport.send(request("GET", "/emails", null))) {
+            InputStream body = response.getBody();
+            byte[] buffer = new byte[8192];
+            long total = 0;
+            for (int n; (n = body.read(buffer)) >= 0; ) {
+                total += n;
+            }
+            assertEquals(json.length(), total);
+        }
+    }
+
+    // --- Failures ---
+
+    @Test
+    public void reportsTimeoutAsIOException() {
+        server.enqueue(new StubServer.Response(200, "{}").delay(Duration.ofSeconds(3)));
+        TransportRequest request = TransportRequest.builder()
+                .method("GET")
+                .uri(uri("/emails"))
+                .timeout(Duration.ofMillis(200))
+                .build();
+
+        assertThrows(IOException.class, () -> transport.send(request).close());
+    }
+
+    @Test
+    public void reportsConnectionFailureAsIOException() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        TransportRequest request = TransportRequest.builder()
+                .method("GET")
+                .uri(URI.create("http://127.0.0.1:" + port + "/api/emails"))
+                .timeout(TIMEOUT)
+                .build();
+
+        assertThrows(IOException.class, () -> transport.send(request).close());
+        ExecutionException async = assertThrows(ExecutionException.class,
+                () -> transport.sendAsync(request).get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, async.getCause());
+    }
+
+    // --- Asynchronous sends ---
+
+    @Test
+    public void sendsAsynchronously() throws Exception {
+        server.enqueue(new StubServer.Response(202, "{\"data\":{\"id\":\"e-2\"}}").header("X-Request-Id", "r-2"));
+
+        TransportResponse response = transport.sendAsync(request("POST", "/emails", bytes("{\"to\":[\"a@example.com\"]}")))
+                .get(10, TimeUnit.SECONDS);
+
+        assertEquals(202, response.getStatusCode());
+        assertEquals("r-2", response.getHeaders().firstValue("x-request-id").orElse(null));
+        assertEquals("{\"data\":{\"id\":\"e-2\"}}", read(response.getBody()));
+        assertEquals("{\"to\":[\"a@example.com\"]}", server.requests().get(0).bodyAsString());
+    }
+
+    @Test
+    public void completesAsynchronousSendWithTheWholeBody() throws Exception {
+        String json = "\"" + "y".repeat(2 * 1024 * 1024) + "\"";
+        server.enqueue(200, json);
+
+        TransportResponse response = transport.sendAsync(request("GET", "/emails", null)).get(10, TimeUnit.SECONDS);
+        server.close();
+
+        // Nothing is left to arrive once the future has completed.
+        assertEquals(json, read(response.getBody()));
+    }
+
+    @Test
+    public void reportsAsynchronousTimeoutAsIOException() {
+        server.enqueue(new StubServer.Response(200, "{}").delay(Duration.ofSeconds(3)));
+        TransportRequest request = TransportRequest.builder()
+                .method("GET")
+                .uri(uri("/emails"))
+                .timeout(Duration.ofMillis(200))
+                .build();
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> transport.sendAsync(request).get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, error.getCause());
+    }
+
+    @Test
+    public void handlesConcurrentSends() throws Exception {
+        int count = 32;
+        for (int i = 0; i < count; i++) {
+            server.enqueue(200, "{\"n\":" + i + "}");
+        }
+        List<CompletableFuture<TransportResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            futures.add(transport.sendAsync(request("POST", "/emails", bytes("{\"i\":" + i + "}"))));
+        }
+
+        for (CompletableFuture<TransportResponse> future : futures) {
+            TransportResponse response = future.get(10, TimeUnit.SECONDS);
+            assertEquals(200, response.getStatusCode());
+            assertTrue(read(response.getBody()).startsWith("{\"n\":"));
+        }
+        assertEquals(count, server.requestCount());
+    }
+
+    // --- As the SDK's transport ---
+
+    @Test
+    public void carriesTheSdkEndToEnd() throws Exception {
+        server.enqueue(503, "{\"message\":\"busy\"}")
+                .enqueue(new StubServer.Response(200, "{\"data\":{\"id\":\"e-1\"}}").gzip())
+                .enqueue(200, "{\"data\":{\"id\":\"e-2\"}}");
+        ClientOptions options = ClientOptions.builder()
+                .baseUrl(server.baseUrl())
+                .transport(transport)
+                .retryPolicy(RetryPolicy.builder().initialBackoff(Duration.ofMillis(10)).jitter(false).build())
+                .requestCompression(0)
+                .build();
+
+        try (HttpClient client = new HttpClient("test-key", options)) {
+            Map<?, ?> fetched = client.<Map<?, ?>>get("/emails/e-1", null, Map.class);
+            Map<?, ?> created = client.<Map<?, ?>>postAsync("/emails", Collections.singletonMap("subject", "Hi"), Map.class)
+                    .get(10, TimeUnit.SECONDS);
+
+            assertEquals("e-1", fetched.get("id"));
+            assertEquals("e-2", created.get("id"));
+        }
+        List<StubServer.RecordedRequest> requests = server.requests();
+        assertEquals(3, requests.size());
+        assertEquals("Bearer test-key", requests.get(1).headers.get("authorization"));
+        assertEquals("gzip", requests.get(2).headers.get("content-encoding"));
+        assertEquals("{\"subject\":\"Hi\"}", read(new GZIPInputStream(new ByteArrayInputStream(requests.get(2).body))));
+    }
+
+    // --- Helpers ---
+
+    private URI uri(String path) {
+        return URI.create(server.baseUrl() + path);
+    }
+
+    private TransportRequest request(String method, String path, HttpRequest.BodyPublisher body) {
+        TransportRequest.Builder builder = TransportRequest.builder()
+                .method(method)
+                .uri(uri(path))
+                .timeout(TIMEOUT)
+                .body(body);
+        if (body != null) {
+            builder.header("Content-Type", "application/json");
+        }
+        return builder.build();
+    }
+
+    private static HttpRequest.BodyPublisher bytes(String body) {
+        return HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8);
+    }
+
+    /** Publishes {@code payload} as separate {@code chunkSize}-byte buffers, re-subscribable. */
+    private static HttpRequest.BodyPublisher chunked(byte[] payload, int chunkSize) {
+        List<byte[]> chunks = new ArrayList<>();
+        for (int offset = 0; offset < payload.length; offset += chunkSize) {
+            chunks.add(Arrays.copyOfRange(payload, offset, Math.min(payload.length, offset + chunkSize)));
+        }
+        return HttpRequest.BodyPublishers.ofByteArrays(chunks);
+    }
+
+    private static byte[] payload(int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) ('a' + i % 26);
+        }
+        return bytes;
+    }
+
+    private static String read(InputStream body) throws IOException {
+        try (InputStream in = body) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}